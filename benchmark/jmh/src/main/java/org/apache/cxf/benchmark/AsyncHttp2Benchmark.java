@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.benchmark;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduit;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.ConnectionStatistics;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the async HTTP conduit over its HTTP/1.1 connection pool with the HTTP/2 mode,
+ * where the exchanges are multiplexed over a few connections. A local Jetty server accepts
+ * both HTTP/1.1 and h2c on the same port and echoes the request body.
+ *
+ * Throughput mode gives the requests per second and sample time mode the latency
+ * percentiles. The number of sockets opened by the client is printed when a trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class AsyncHttp2Benchmark {
+
+    @Param({"1.1", "2"})
+    private String version;
+
+    @Param({"1024"})
+    private int size;
+
+    private Bus bus;
+    private Server server;
+    private ConnectionStatistics statistics;
+    private String address;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new Server();
+        HttpConfiguration config = new HttpConfiguration();
+        ServerConnector connector = new ServerConnector(server,
+                                                        new HttpConnectionFactory(config),
+                                                        new HTTP2CServerConnectionFactory(config));
+        statistics = new ConnectionStatistics();
+        connector.addBean(statistics);
+        server.addConnector(connector);
+        server.setHandler(new EchoHandler());
+        server.start();
+        address = "http://localhost:" + connector.getLocalPort() + "/echo";
+
+        bus = BusFactory.newInstance().createBus();
+        payload = new byte[size];
+        Arrays.fill(payload, (byte)'a');
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.out.println();
+        System.out.println("HTTP/" + version + ": " + statistics.getConnectionsTotal()
+                           + " connections opened, at most " + statistics.getConnectionsMax() + " at a time");
+        bus.shutdown(true);
+        server.stop();
+    }
+
+    @Benchmark
+    public byte[] echo(ClientState state) {
+        return state.client.post(payload, byte[].class);
+    }
+
+    /**
+     * Each thread has its own client, as a WebClient is not thread safe, but all of
+     * them share the connections of the bus.
+     */
+    @State(Scope.Thread)
+    public static class ClientState {
+        WebClient client;
+
+        @Setup
+        public void setUp(AsyncHttp2Benchmark benchmark) {
+            JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
+            bean.setBus(benchmark.bus);
+            bean.setAddress(benchmark.address);
+            client = bean.createWebClient()
+                .type(MediaType.APPLICATION_OCTET_STREAM)
+                .accept(MediaType.APPLICATION_OCTET_STREAM);
+            WebClient.getConfig(client).getRequestContext().put(AsyncHTTPConduit.USE_ASYNC, Boolean.TRUE);
+            HTTPConduit conduit = WebClient.getConfig(client).getHttpConduit();
+            conduit.getClient().setVersion(benchmark.version);
+        }
+
+        @TearDown
+        public void tearDown() {
+            client.close();
+        }
+    }
+
+    static class EchoHandler extends AbstractHandler {
+        @Override
+        public void handle(String target, Request baseRequest, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+            byte[] body = IOUtils.readBytesFromStream(request.getInputStream());
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            baseRequest.setHandled(true);
+        }
+    }
+}
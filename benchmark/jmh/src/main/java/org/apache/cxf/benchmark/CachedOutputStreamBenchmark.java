@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.benchmark;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.io.CachedOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes a payload into a {@link CachedOutputStream} in 8K chunks and reads it
+ * back. Payloads above the 128K default threshold exercise the temp file spill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedOutputStreamBenchmark {
+
+    @Param({"4096", "65536", "1048576"})
+    private int payloadSize;
+
+    private byte[] chunk;
+    private byte[] readBuffer;
+
+    @Setup
+    public void setUp() {
+        chunk = new byte[8192];
+        Arrays.fill(chunk, (byte)'x');
+        readBuffer = new byte[8192];
+    }
+
+    @Benchmark
+    public long writeAndRead() throws Exception {
+        long total = 0;
+        try (CachedOutputStream cos = new CachedOutputStream()) {
+            write(cos);
+            try (InputStream in = cos.getInputStream()) {
+                int n = in.read(readBuffer);
+                while (n != -1) {
+                    total += n;
+                    n = in.read(readBuffer);
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int writeAndGetBytes() throws Exception {
+        try (CachedOutputStream cos = new CachedOutputStream()) {
+            write(cos);
+            return cos.getBytes().length;
+        }
+    }
+
+    private void write(CachedOutputStream cos) throws Exception {
+        int remaining = payloadSize;
+        while (remaining > 0) {
+            int len = Math.min(remaining, chunk.length);
+            cos.write(chunk, 0, len);
+            remaining -= len;
+        }
+        cos.flush();
+    }
+}
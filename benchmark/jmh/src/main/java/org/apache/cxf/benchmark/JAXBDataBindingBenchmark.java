@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.cxf.benchmark.JAXBEncoderDecoderBenchmark.Item;
+import org.apache.cxf.benchmark.JAXBEncoderDecoderBenchmark.Order;
+import org.apache.cxf.databinding.DataReader;
+import org.apache.cxf.databinding.DataWriter;
+import org.apache.cxf.jaxb.JAXBDataBinding;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes and reads a small order document through the JAXB DataWriter/DataReader, a new
+ * one per operation as for every message part. A pool size of 0 disables the pooling of
+ * the configured marshallers/unmarshallers by the databinding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JAXBDataBindingBenchmark {
+
+    @Param({"0", "16"})
+    private int poolSize;
+
+    private JAXBDataBinding databinding;
+    private Order order;
+    private byte[] document;
+
+    @Setup
+    public void setUp() throws Exception {
+        databinding = new JAXBDataBinding(Order.class);
+        databinding.setMarshallerPoolSize(poolSize);
+        order = new Order();
+        order.id = "o-1";
+        Item item = new Item();
+        item.name = "item";
+        item.quantity = 1;
+        item.price = 3.99d;
+        order.items.add(item);
+        document = write();
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(out);
+        try {
+            DataWriter<XMLStreamWriter> dataWriter = databinding.createWriter(XMLStreamWriter.class);
+            dataWriter.write(order, writer);
+            writer.flush();
+        } finally {
+            StaxUtils.close(writer);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Object read() throws Exception {
+        XMLStreamReader reader = StaxUtils.createXMLStreamReader(new ByteArrayInputStream(document));
+        try {
+            reader.nextTag();
+            DataReader<XMLStreamReader> dataReader = databinding.createReader(XMLStreamReader.class);
+            return dataReader.read(JAXBEncoderDecoderBenchmark.ORDER, reader, Order.class);
+        } finally {
+            StaxUtils.close(reader);
+        }
+    }
+}
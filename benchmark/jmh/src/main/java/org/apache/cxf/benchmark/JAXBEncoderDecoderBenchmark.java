@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.cxf.jaxb.JAXBEncoderDecoder;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Marshals and unmarshals a small order document through {@link JAXBEncoderDecoder}
+ * the same way the JAXB DataWriter/DataReader do. The "fresh" variants create a
+ * marshaller/unmarshaller per operation, as the databinding does per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JAXBEncoderDecoderBenchmark {
+    static final String NS = "http://cxf.apache.org/benchmark";
+    static final QName ORDER = new QName(NS, "order");
+
+    @Param({"1", "100"})
+    private int itemCount;
+
+    private JAXBContext context;
+    private Marshaller marshaller;
+    private Unmarshaller unmarshaller;
+    private Order order;
+    private byte[] document;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = JAXBContext.newInstance(Order.class);
+        marshaller = context.createMarshaller();
+        unmarshaller = context.createUnmarshaller();
+        order = new Order();
+        order.id = "o-1";
+        for (int i = 0; i < itemCount; i++) {
+            Item item = new Item();
+            item.name = "item " + i;
+            item.quantity = i;
+            item.price = i * 3.99d;
+            order.items.add(item);
+        }
+        document = marshal(marshaller);
+    }
+
+    @Benchmark
+    public byte[] marshalReused() throws Exception {
+        return marshal(marshaller);
+    }
+
+    @Benchmark
+    public byte[] marshalFresh() throws Exception {
+        return marshal(context.createMarshaller());
+    }
+
+    @Benchmark
+    public Object unmarshalReused() throws Exception {
+        return unmarshal(unmarshaller);
+    }
+
+    @Benchmark
+    public Object unmarshalFresh() throws Exception {
+        return unmarshal(context.createUnmarshaller());
+    }
+
+    private byte[] marshal(Marshaller m) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(out);
+        try {
+            JAXBEncoderDecoder.marshall(m, order, null, writer);
+            writer.flush();
+        } finally {
+            StaxUtils.close(writer);
+        }
+        return out.toByteArray();
+    }
+
+    private Object unmarshal(Unmarshaller u) throws Exception {
+        XMLStreamReader reader = StaxUtils.createXMLStreamReader(new ByteArrayInputStream(document));
+        try {
+            reader.nextTag();
+            return JAXBEncoderDecoder.unmarshall(u, reader, ORDER, Order.class, true);
+        } finally {
+            StaxUtils.close(reader);
+        }
+    }
+
+    @XmlRootElement(name = "order", namespace = NS)
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Order {
+        @XmlAttribute
+        String id;
+        @XmlElement(name = "item", namespace = NS)
+        List<Item> items = new ArrayList<>();
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Item {
+        @XmlElement(namespace = NS)
+        String name;
+        @XmlElement(namespace = NS)
+        int quantity;
+        @XmlElement(namespace = NS)
+        double price;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.MethodDispatcher;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Routes a request through {@link JAXRSUtils#selectResourceClass} and
+ * {@link JAXRSUtils#findTargetMethod} over a synthetic application with
+ * {@code resourceCount} root resources, each exposing a typical set of CRUD
+ * operations ({@code resourceCount * 8} resource methods in total).
+ * {@code routingIndex} compares the path index with the linear scan of every
+ * URI template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JAXRSSelectionBenchmark {
+    static final List<MediaType> ACCEPT = Collections.singletonList(MediaType.APPLICATION_JSON_TYPE);
+
+    @Param({"10", "200"})
+    private int resourceCount;
+
+    @Param({"true", "false"})
+    private boolean routingIndex;
+
+    private List<ClassResourceInfo> resources;
+    private Service service;
+    private String path;
+
+    @Setup
+    public void setUp() throws Exception {
+        resources = createResources(resourceCount);
+        service = new JAXRSServiceImpl(resources);
+        // a path served by the last registered resource is the worst case for a linear scan
+        path = "/api/v1/resource" + (resourceCount - 1) + "/12345/items/678";
+    }
+
+    @Benchmark
+    public Map<ClassResourceInfo, MultivaluedMap<String, String>> selectResourceClass() {
+        return JAXRSUtils.selectResourceClass(resources, path, newMessage());
+    }
+
+    @Benchmark
+    public OperationResourceInfo selectResourceClassAndMethod() {
+        Message message = newMessage();
+        Map<ClassResourceInfo, MultivaluedMap<String, String>> matched =
+            JAXRSUtils.selectResourceClass(resources, path, message);
+        return JAXRSUtils.findTargetMethod(matched, message, HttpMethod.GET,
+                                           new MetadataMap<String, String>(), "*/*", ACCEPT);
+    }
+
+    private Message newMessage() {
+        Message message = createMessage();
+        message.getExchange().put(Service.class, service);
+        message.put(JAXRSUtils.USE_ROUTING_INDEX, routingIndex);
+        return message;
+    }
+
+    static Message createMessage() {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        message.setExchange(exchange);
+        exchange.setInMessage(message);
+        return message;
+    }
+
+    static List<ClassResourceInfo> createResources(int count) throws Exception {
+        Method get = Resource.class.getMethod("get", String.class);
+        Method put = Resource.class.getMethod("put", String.class, String.class);
+        List<ClassResourceInfo> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ClassResourceInfo cri = new ClassResourceInfo(Resource.class, Resource.class, true);
+            cri.setURITemplate(new URITemplate("/api/v1/resource" + i));
+            MethodDispatcher md = new MethodDispatcher();
+            bind(md, cri, get, "/", HttpMethod.GET);
+            bind(md, cri, put, "/", HttpMethod.POST);
+            bind(md, cri, get, "/{id}", HttpMethod.GET);
+            bind(md, cri, put, "/{id}", HttpMethod.PUT);
+            bind(md, cri, get, "/{id}", HttpMethod.DELETE);
+            bind(md, cri, get, "/{id}/items", HttpMethod.GET);
+            bind(md, cri, get, "/{id}/items/{itemId}", HttpMethod.GET);
+            bind(md, cri, put, "/{id}/items/{itemId}", HttpMethod.PUT);
+            cri.setMethodDispatcher(md);
+            list.add(cri);
+        }
+        return list;
+    }
+
+    private static void bind(MethodDispatcher md, ClassResourceInfo cri, Method m,
+                             String template, String httpMethod) {
+        OperationResourceInfo ori = new OperationResourceInfo(m, cri, new URITemplate(template),
+            httpMethod, MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON,
+            Collections.emptyList(), false);
+        md.bind(ori, m);
+    }
+
+    public static class Resource {
+        public String get(String id) {
+            return id;
+        }
+
+        public String put(String id, String body) {
+            return body;
+        }
+    }
+}
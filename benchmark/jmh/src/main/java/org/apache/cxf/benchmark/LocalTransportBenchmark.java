@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.jws.WebService;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.jaxws.JaxWsServerFactoryBean;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full client and server round trips over the local transport with direct
+ * dispatch, so that the numbers cover the interceptor chains, databindings and
+ * frontends on both sides without any socket I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalTransportBenchmark {
+    static final String SOAP_ADDRESS = "local://jmh/soap";
+    static final String REST_ADDRESS = "local://jmh/rest";
+
+    private Bus bus;
+    private Server soapServer;
+    private Server restServer;
+    private Echo soapClient;
+    private WebClient restClient;
+
+    @Setup
+    public void setUp() {
+        bus = BusFactory.newInstance().createBus();
+
+        JaxWsServerFactoryBean jaxws = new JaxWsServerFactoryBean();
+        jaxws.setBus(bus);
+        jaxws.setServiceClass(Echo.class);
+        jaxws.setServiceBean(new EchoImpl());
+        jaxws.setAddress(SOAP_ADDRESS);
+        soapServer = jaxws.create();
+
+        JaxWsProxyFactoryBean proxyFactory = new JaxWsProxyFactoryBean();
+        proxyFactory.setBus(bus);
+        proxyFactory.setServiceClass(Echo.class);
+        proxyFactory.setAddress(SOAP_ADDRESS);
+        soapClient = proxyFactory.create(Echo.class);
+        ClientProxy.getClient(soapClient).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+
+        JAXRSServerFactoryBean jaxrs = new JAXRSServerFactoryBean();
+        jaxrs.setBus(bus);
+        jaxrs.setResourceClasses(EchoResource.class);
+        jaxrs.setResourceProvider(EchoResource.class, new SingletonResourceProvider(new EchoResource()));
+        jaxrs.setAddress(REST_ADDRESS);
+        restServer = jaxrs.create();
+
+        restClient = WebClient.create(REST_ADDRESS);
+        WebClient.getConfig(restClient).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        restClient.close();
+        ClientProxy.getClient(soapClient).destroy();
+        restServer.destroy();
+        soapServer.destroy();
+        bus.shutdown(true);
+    }
+
+    @Benchmark
+    public String jaxwsEcho() {
+        return soapClient.echo("hello");
+    }
+
+    @Benchmark
+    public String jaxrsEcho() {
+        return restClient.replacePath("/echo/hello").accept(MediaType.TEXT_PLAIN).get(String.class);
+    }
+
+    @WebService(targetNamespace = "http://cxf.apache.org/benchmark")
+    public interface Echo {
+        String echo(String text);
+    }
+
+    public static class EchoImpl implements Echo {
+        public String echo(String text) {
+            return text;
+        }
+    }
+
+    @Path("/echo")
+    public static class EchoResource {
+        @GET
+        @Path("/{text}")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String echo(@PathParam("text") String text) {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.w3c.dom.Document;
+
+import org.apache.cxf.staxutils.StaxUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Covers the {@link StaxUtils} paths used on every SOAP message: reader to writer
+ * copies, DOM building and DOM serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaxUtilsBenchmark {
+
+    @Param({"10", "1000"})
+    private int elementCount;
+
+    private byte[] document;
+    private Document dom;
+
+    @Setup
+    public void setUp() throws Exception {
+        document = createDocument(elementCount).getBytes(StandardCharsets.UTF_8);
+        dom = StaxUtils.read(new ByteArrayInputStream(document));
+    }
+
+    @Benchmark
+    public int copyReaderToWriter() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.length);
+        XMLStreamReader reader = StaxUtils.createXMLStreamReader(new ByteArrayInputStream(document));
+        XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(out);
+        try {
+            StaxUtils.copy(reader, writer);
+            writer.flush();
+        } finally {
+            StaxUtils.close(reader);
+            StaxUtils.close(writer);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public Document readDocument() throws Exception {
+        return StaxUtils.read(new ByteArrayInputStream(document));
+    }
+
+    @Benchmark
+    public int writeDocument() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.length);
+        XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(out);
+        try {
+            StaxUtils.writeDocument(dom, writer, false);
+            writer.flush();
+        } finally {
+            StaxUtils.close(writer);
+        }
+        return out.size();
+    }
+
+    static String createDocument(int count) {
+        StringBuilder sb = new StringBuilder(64 * count + 256);
+        sb.append("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">")
+            .append("<soap:Body><ns:order xmlns:ns=\"http://cxf.apache.org/benchmark\">");
+        for (int i = 0; i < count; i++) {
+            sb.append("<ns:item id=\"").append(i).append("\"><ns:name>item ").append(i)
+                .append("</ns:name><ns:price>").append(i * 3).append(".99</ns:price></ns:item>");
+        }
+        return sb.append("</ns:order></soap:Body></soap:Envelope>").toString();
+    }
+}
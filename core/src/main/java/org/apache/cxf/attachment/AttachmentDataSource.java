@@ -21,7 +21,13 @@ package org.apache.cxf.attachment;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.activation.DataSource;
 
@@ -37,19 +43,115 @@ public class AttachmentDataSource implements DataSource {
     private InputStream ins;
     private DelegatingInputStream delegate;
     private String name;
+    private long contentLength = -1;
+    private InputStream encodedIns;
+    private String encoding;
+    private Future<?> decoding;
 
     public AttachmentDataSource(String ctParam, InputStream inParam) throws IOException {
         this.ct = ctParam;
         ins = inParam;
     }
 
+    /**
+     * Keeps the encoded stream the input stream decodes, so that the attachment can be
+     * decoded on an executor once it has been read.
+     */
+    void setEncodedInputStream(InputStream encoded, String transferEncoding) {
+        this.encodedIns = encoded;
+        this.encoding = transferEncoding;
+    }
+
     public boolean isCached() {
         return cache != null;
     }
+
+    /**
+     * Caches the attachment like {@link #cache(Message)}, but if it has a transfer encoding
+     * only the encoded data is read on the calling thread; it is decoded on the executor and
+     * {@link #getInputStream()} waits for the decoding to complete. If the decoding has not
+     * started yet when it is needed, the waiting thread decodes the attachment itself, so
+     * that a busy executor, or one whose threads are waiting for their own attachments,
+     * does not block it.
+     */
+    public void cache(Message message, Executor executor) throws IOException {
+        if (executor == null || encodedIns == null || delegate != null || cache != null) {
+            cache(message);
+            return;
+        }
+        final CachedOutputStream encoded = new CachedOutputStream();
+        AttachmentUtil.setStreamedAttachmentProperties(message, encoded);
+        if (encoded.getMaxSize() > 0) {
+            // the maximum size applies to the decoded data, quoted-printable can be 3 times larger
+            encoded.setMaxSize(encoded.getMaxSize() * 3);
+        }
+        final CachedOutputStream decoded = new CachedOutputStream();
+        AttachmentUtil.setStreamedAttachmentProperties(message, decoded);
+        try {
+            IOUtils.copyAndCloseInput(encodedIns, encoded);
+            encoded.lockOutputStream();
+        } catch (CacheSizeExceededException | IOException cee) {
+            encoded.close();
+            decoded.close();
+            throw cee;
+        } finally {
+            ins = null;
+            encodedIns = null;
+        }
+        final String transferEncoding = encoding;
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try (InputStream in = AttachmentUtil.decode(encoded.getInputStream(), transferEncoding)) {
+                IOUtils.copy(in, decoded);
+                decoded.lockOutputStream();
+            } catch (IOException | RuntimeException ex) {
+                decoded.close();
+                throw ex;
+            } finally {
+                encoded.close();
+            }
+            return null;
+        });
+        cache = decoded;
+        decoding = task;
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            task.run();
+        }
+    }
+
+    private void awaitDecoding() throws IOException {
+        if (decoding != null) {
+            // does nothing if the executor has started or completed the decoding already
+            decoding.run();
+            try {
+                decoding.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while decoding the attachment");
+            } catch (ExecutionException ex) {
+                // rethrown unchanged, like CacheSizeExceededException by the synchronous path
+                Throwable cause = ex.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException)cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                } else if (cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
     public void cache(Message message) throws IOException {
         if (cache == null) {
             cache = new CachedOutputStream();
             AttachmentUtil.setStreamedAttachmentProperties(message, cache);
+            if (contentLength > cache.getThreshold()) {
+                // will not fit into memory, write straight to the temp file rather than
+                // buffering up to the threshold first and copying the buffer to the file
+                cache.setThreshold(0);
+            }
             try {
                 IOUtils.copyAndCloseInput(ins, cache);
                 cache.lockOutputStream();
@@ -67,10 +169,16 @@ public class AttachmentDataSource implements DataSource {
     }
     public void hold(Message message) throws IOException {
         cache(message);
+        awaitDecoding();
         cache.holdTempFile();
     }
     public void release() {
         if (cache != null) {
+            try {
+                awaitDecoding();
+            } catch (IOException | RuntimeException ex) {
+                // the decoded data has been discarded
+            }
             cache.releaseTempFileHold();
         }
     }
@@ -82,6 +190,7 @@ public class AttachmentDataSource implements DataSource {
     public InputStream getInputStream() {
         try {
             if (cache != null) {
+                awaitDecoding();
                 return cache.getInputStream();
             }
             if (delegate == null) {
@@ -101,6 +210,17 @@ public class AttachmentDataSource implements DataSource {
         this.name = name;
     }
 
+    /**
+     * Sets the length of the attachment when the part declares it, -1 if unknown.
+     */
+    public void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
     public OutputStream getOutputStream() throws IOException {
         throw new UnsupportedOperationException();
     }
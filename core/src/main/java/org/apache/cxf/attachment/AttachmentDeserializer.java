@@ -29,12 +29,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.activation.DataSource;
 
+import org.apache.cxf.Bus;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.common.util.SystemPropertyAction;
@@ -44,6 +46,7 @@ import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.message.Attachment;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.workqueue.WorkQueueManager;
 
 public class AttachmentDeserializer {
     public static final String ATTACHMENT_PART_HEADERS = AttachmentDeserializer.class.getName() + ".headers";
@@ -65,6 +68,15 @@ public class AttachmentDeserializer {
     public static final int DEFAULT_MAX_HEADER_SIZE =
         SystemPropertyAction.getInteger("org.apache.cxf.attachment-max-header-size", 300);
 
+    /**
+     * The name of a Bus work queue, or an Executor, on which the base64 and quoted-printable
+     * attachments are decoded once the request thread has split them from the MIME stream.
+     * By default they are decoded on the thread reading them. A queue dedicated to the decoding
+     * should be used, since a shared one delays the decoding behind the requests; a thread
+     * which needs an attachment that is still waiting in the queue decodes it itself.
+     */
+    public static final String ATTACHMENT_DECODE_WORK_QUEUE = "attachment-decode-workqueue";
+
     public static final int THRESHOLD = 1024 * 100; //100K (byte unit)
 
     private static final Pattern CONTENT_TYPE_BOUNDARY_PATTERN = Pattern.compile("boundary=\"?([^\";]*)");
@@ -98,6 +110,8 @@ public class AttachmentDeserializer {
 
     private int maxHeaderLength = DEFAULT_MAX_HEADER_SIZE;
 
+    private Executor decodeExecutor;
+
     public AttachmentDeserializer(Message message) {
         this(message, Collections.singletonList("multipart/related"));
     }
@@ -109,6 +123,17 @@ public class AttachmentDeserializer {
         // Get the maximum Header length from configuration
         maxHeaderLength = MessageUtils.getContextualInteger(message, ATTACHMENT_MAX_HEADER_SIZE,
                                                             DEFAULT_MAX_HEADER_SIZE);
+        decodeExecutor = getDecodeExecutor(message);
+    }
+
+    private static Executor getDecodeExecutor(Message message) {
+        Object queue = message.getContextualProperty(ATTACHMENT_DECODE_WORK_QUEUE);
+        if (queue == null || queue instanceof Executor) {
+            return (Executor)queue;
+        }
+        Bus bus = message.getExchange() == null ? null : message.getExchange().getBus();
+        WorkQueueManager manager = bus == null ? null : bus.getExtension(WorkQueueManager.class);
+        return manager == null ? null : manager.getNamedWorkQueue(queue.toString());
     }
 
     public void initializeAttachments() throws IOException {
@@ -237,7 +262,7 @@ public class AttachmentDeserializer {
             if (s instanceof AttachmentDataSource) {
                 AttachmentDataSource ads = (AttachmentDataSource)s;
                 if (!ads.isCached()) {
-                    ads.cache(message);
+                    ads.cache(message, decodeExecutor);
                 }
             } else if (s.getInputStream() instanceof DelegatingInputStream) {
                 cache((DelegatingInputStream) s.getInputStream());
@@ -19,13 +19,17 @@
 
 package org.apache.cxf.attachment;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URLDecoder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -33,6 +37,8 @@ import java.util.List;
 import java.util.Map;
 
 import javax.activation.DataHandler;
+import javax.activation.DataSource;
+import javax.activation.FileDataSource;
 
 import org.apache.cxf.common.util.Base64Utility;
 import org.apache.cxf.helpers.IOUtils;
@@ -281,7 +287,7 @@ public class AttachmentSerializer {
                     try (InputStream inputStream = handler.getInputStream()) {
                         encodeBase64(inputStream, out, IOUtils.DEFAULT_BUFFER_SIZE);
                     }
-                } else {
+                } else if (!transferFile(handler.getDataSource(), out)) {
                     handler.writeTo(out);
                 }
             }
@@ -294,6 +300,37 @@ public class AttachmentSerializer {
         out.flush();
     }
 
+    /**
+     * Writes a file backed attachment with FileChannel.transferTo when the output stream
+     * exposes a channel, a FileOutputStream or a transport stream which implements
+     * WritableByteChannel such as the request stream of the asynchronous HTTP conduit,
+     * so that the file content is not copied through the heap.
+     * @return false if the attachment has to be written by the DataHandler
+     */
+    private static boolean transferFile(DataSource ds, OutputStream os) throws IOException {
+        if (!(ds instanceof FileDataSource)) {
+            return false;
+        }
+        final WritableByteChannel target;
+        if (os instanceof FileOutputStream) {
+            target = ((FileOutputStream)os).getChannel();
+        } else if (os instanceof WritableByteChannel) {
+            target = (WritableByteChannel)os;
+        } else {
+            return false;
+        }
+        // the headers may still be buffered by the stream
+        os.flush();
+        try (FileChannel channel = FileChannel.open(((FileDataSource)ds).getFile().toPath(),
+                                                    StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size;) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        return true;
+    }
+
     private int encodeBase64(InputStream input, OutputStream output, int bufferSize) throws IOException {
         int avail = input.available();
         if (avail > 262143) {
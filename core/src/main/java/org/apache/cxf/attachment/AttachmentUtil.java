@@ -19,6 +19,7 @@
 
 package org.apache.cxf.attachment;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -381,9 +382,20 @@ public final class AttachmentUtil {
         if (ins != stream) {
             headers.remove("Content-Transfer-Encoding");
         }
-        DataSource source = new AttachmentDataSource(ct, ins);
+        AttachmentDataSource source = new AttachmentDataSource(ct, ins);
+        if (ins != stream) {
+            source.setEncodedInputStream(stream, encoding);
+        }
         if (!StringUtils.isEmpty(fileName)) {
-            ((AttachmentDataSource)source).setName(FileUtils.stripPath(fileName));
+            source.setName(FileUtils.stripPath(fileName));
+        }
+        String length = getHeader(headers, "Content-Length");
+        if (ins == stream && !StringUtils.isEmpty(length)) {
+            try {
+                source.setContentLength(Long.parseLong(length.trim()));
+            } catch (NumberFormatException ex) {
+                // ignore, the length is only a hint for caching the attachment
+            }
         }
         att.setDataHandler(new DataHandler(source));
         return att;
@@ -415,7 +427,8 @@ public final class AttachmentUtil {
         } else if ("base64".equals(encoding)) {
             return new Base64DecoderStream(in);
         } else if ("quoted-printable".equals(encoding)) {
-            return new QuotedPrintableDecoderStream(in);
+            // the decoder reads a byte at a time, do not scan the MIME boundary for each of them
+            return new QuotedPrintableDecoderStream(new BufferedInputStream(in));
         } else {
             throw new IOException("Unknown encoding " + encoding);
         }
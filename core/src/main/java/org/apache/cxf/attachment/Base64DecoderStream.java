@@ -22,6 +22,9 @@ package org.apache.cxf.attachment;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 
 import org.apache.cxf.common.util.Base64Exception;
 import org.apache.cxf.common.util.Base64Utility;
@@ -32,6 +35,9 @@ import org.apache.cxf.common.util.Base64Utility;
  * decoding "on the fly" rather than decoding a single block of
  * data.  Since this version is intended for use by the MimeUtilty class,
  * it also handles line breaks in the encoded data.
+ *
+ * The encoded data is read from the underlying stream in bulk and the blocks
+ * are decoded with the JDK Base64 decoder, which the JVM may intrinsify.
  */
 public class Base64DecoderStream extends FilterInputStream {
 
@@ -44,15 +50,22 @@ public class Base64DecoderStream extends FilterInputStream {
     // can be overridden by a system property.
     protected boolean ignoreErrors;
 
-    // buffer for reading in chars for decoding (which can support larger bulk reads)
-    protected char[] encodedChars = new char[BUFFERED_UNITS * 4];
-    // a buffer for one decoding unit's worth of data (3 bytes).
-    protected byte[] decodedChars;
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    // buffer for the Base64 characters of a block, line breaks and other characters removed
+    protected byte[] encodedBytes = new byte[BUFFERED_UNITS * 4];
+    // the decoded data of the current block
+    protected byte[] decodedChars = new byte[BUFFERED_UNITS * 3];
     // count of characters in the buffer
     protected int decodedCount;
     // index of the next decoded character
     protected int decodedIndex;
 
+    // raw data read from the underlying stream, not yet copied to the encoded buffer
+    private final byte[] readBuffer = new byte[BUFFERED_UNITS * 4];
+    private int readCount;
+    private int readIndex;
+
 
     public Base64DecoderStream(InputStream in) {
         super(in);
@@ -80,17 +93,31 @@ public class Base64DecoderStream extends FilterInputStream {
         int readCharacters = fillEncodedBuffer();
 
         if (readCharacters > 0) {
+            byte[] block = readCharacters == encodedBytes.length
+                ? encodedBytes : Arrays.copyOf(encodedBytes, readCharacters);
             try {
-                decodedChars = Base64Utility.decodeChunk(encodedChars, 0, readCharacters);
-            } catch (Base64Exception e) {
-                throw new IOException(e);
+                decodedCount = DECODER.decode(block, decodedChars);
+            } catch (IllegalArgumentException ex) {
+                // padding within the block, as in concatenated encodings, let the
+                // lenient decoder handle it
+                decodeChunk(block);
             }
-            decodedCount = decodedChars.length;
             return true;
         }
         return false;
     }
 
+    private void decodeChunk(byte[] block) throws IOException {
+        try {
+            char[] chars = new String(block, StandardCharsets.ISO_8859_1).toCharArray();
+            byte[] decoded = Base64Utility.decodeChunk(chars, 0, chars.length);
+            decodedCount = decoded.length;
+            System.arraycopy(decoded, 0, decodedChars, 0, decodedCount);
+        } catch (Base64Exception e) {
+            throw new IOException(e);
+        }
+    }
+
 
     /**
      * Retrieve a single byte from the decoded characters buffer.
@@ -142,28 +169,34 @@ public class Base64DecoderStream extends FilterInputStream {
         int readCharacters = 0;
 
         while (true) {
-            // get the next character from the stream
-            int ch = in.read();
-            // did we hit an EOF condition?
-            if (ch == -1) {
-                // now check to see if this is normal, or potentially an error
-                // if we didn't get characters as a multiple of 4, we may need to complain about this.
-                if ((readCharacters % 4) != 0) {
-                    throw new IOException("Base64 encoding error, data truncated: " + readCharacters + " "
-                                          + new String(encodedChars, 0, readCharacters));
+            if (readIndex == readCount) {
+                readIndex = 0;
+                readCount = in.read(readBuffer, 0, readBuffer.length);
+                // did we hit an EOF condition?
+                if (readCount == -1) {
+                    readCount = 0;
+                    // now check to see if this is normal, or potentially an error
+                    // if we didn't get characters as a multiple of 4, we may need to complain about this.
+                    if ((readCharacters % 4) != 0) {
+                        throw new IOException("Base64 encoding error, data truncated: " + readCharacters + " "
+                            + new String(encodedBytes, 0, readCharacters, StandardCharsets.ISO_8859_1));
+                    }
+                    // return the count.
+                    return readCharacters;
                 }
-                // return the count.
-                return readCharacters;
-            } else if (Base64Utility.isValidBase64(ch)) {
+            }
+            while (readIndex < readCount) {
+                int ch = readBuffer[readIndex++] & 0xff;
                 // if this character is valid in a Base64 stream, copy it to the buffer.
-                encodedChars[readCharacters++] = (char)ch;
-                // if we've filled up the buffer, time to quit.
-                if (readCharacters >= encodedChars.length) {
-                    return readCharacters;
+                // we're filtering out whitespace and CRLF characters, so just ignore these
+                if (ch < 128 && Base64Utility.isValidBase64(ch)) {
+                    encodedBytes[readCharacters++] = (byte)ch;
+                    // if we've filled up the buffer, time to quit.
+                    if (readCharacters >= encodedBytes.length) {
+                        return readCharacters;
+                    }
                 }
             }
-
-            // we're filtering out whitespace and CRLF characters, so just ignore these
         }
     }
 
@@ -187,6 +220,6 @@ public class Base64DecoderStream extends FilterInputStream {
 
 
     public int available() throws IOException {
-        return ((in.available() / 4) * 3) + decodedCount;
+        return (((in.available() + readCount - readIndex) / 4) * 3) + decodedCount;
     }
 }
@@ -22,6 +22,7 @@ package org.apache.cxf.attachment;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.util.Arrays;
 
 public class MimeBodyPartInputStream extends InputStream {
 
@@ -33,6 +34,8 @@ public class MimeBodyPartInputStream extends InputStream {
     byte[] boundaryBuffer;
 
     private boolean closed;
+    // Boyer-Moore-Horspool shifts for the last byte of the window compared to the boundary
+    private final int[] boundaryShifts = new int[256];
 
     public MimeBodyPartInputStream(PushbackInputStream inStreamParam,
                                    byte[] boundaryParam,
@@ -41,6 +44,10 @@ public class MimeBodyPartInputStream extends InputStream {
         this.inStream = inStreamParam;
         this.boundary = boundaryParam;
         this.pbAmount = pbsize;
+        Arrays.fill(boundaryShifts, boundary.length);
+        for (int i = 0; i < boundary.length - 1; i++) {
+            boundaryShifts[boundary[i] & 0xFF] = boundary.length - 1 - i;
+        }
     }
 
     public int read(byte[] buf, int origOff, int origLen) throws IOException {
@@ -122,8 +129,32 @@ public class MimeBodyPartInputStream extends InputStream {
         }
     }
 
+    /**
+     * Returns the first position of the buffer where a boundary, possibly preceded by CRLF,
+     * may start. The positions before it can neither start a boundary nor a partial boundary
+     * reaching the end of the buffer, so they do not need to be checked byte by byte.
+     */
+    private int skipToBoundaryCandidate(byte[] buffer, int off, int len) {
+        int limit = off + len - boundary.length - 3;
+        if (limit <= off) {
+            return off;
+        }
+        int last = boundary.length - 1;
+        int end = off + len;
+        for (int i = off; i + last < end && i - 2 < limit; i += boundaryShifts[buffer[i + last] & 0xFF]) {
+            int j = last;
+            while (buffer[i + j] == boundary[j]) {
+                if (j == 0) {
+                    return Math.max(off, Math.min(i - 2, limit));
+                }
+                j--;
+            }
+        }
+        return limit;
+    }
+
     protected int processBuffer(byte[] buffer, int off, int len) throws IOException {
-        for (int i = off; i < (off + len); i++) {
+        for (int i = skipToBoundaryCandidate(buffer, off, len); i < (off + len); i++) {
             boolean needUnread0d0a = false;
             int value = buffer[i];
             int initialI = i;
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.bus.managers;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedResource;
+import org.apache.cxf.workqueue.VirtualThreadWorkQueueImpl;
+import org.apache.cxf.workqueue.WorkQueueManager;
+
+@ManagedResource(componentName = "WorkQueue",
+                 description = "The CXF virtual thread work queue",
+                 currencyTimeLimit = 15, persistPolicy = "OnUpdate", persistPeriod = 200)
+
+public class VirtualThreadWorkQueueImplMBeanWrapper implements ManagedComponent {
+    private static final String TYPE_VALUE = "WorkQueues";
+
+    private final VirtualThreadWorkQueueImpl aWorkQueue;
+    private final String objectName;
+
+    public VirtualThreadWorkQueueImplMBeanWrapper(VirtualThreadWorkQueueImpl wq,
+                                                  WorkQueueManager mgr) {
+        aWorkQueue = wq;
+
+        String busId = Bus.DEFAULT_BUS_ID;
+        if (mgr instanceof WorkQueueManagerImpl) {
+            busId = ((WorkQueueManagerImpl) mgr).getBus().getId();
+        }
+        //Use default domain name of server
+        objectName = new StringBuilder(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':')
+            .append(ManagementConstants.BUS_ID_PROP).append('=').append(busId).append(',')
+            .append(WorkQueueManagerImplMBeanWrapper.TYPE_VALUE).append('=')
+            .append(WorkQueueManagerImplMBeanWrapper.NAME_VALUE).append(',')
+            .append(ManagementConstants.TYPE_PROP).append('=').append(TYPE_VALUE).append(',')
+            .append(ManagementConstants.NAME_PROP).append('=').append(aWorkQueue.getName()).append(',')
+            // Added the instance id to make the ObjectName unique
+            .append(ManagementConstants.INSTANCE_ID_PROP).append('=').append(aWorkQueue.hashCode())
+            .toString();
+    }
+
+    @ManagedAttribute(description = "The number of tasks currently running")
+    public int getInFlightCount() {
+        return aWorkQueue.getInFlightCount();
+    }
+
+    @ManagedAttribute(description = "The number of rejected tasks")
+    public long getRejectedCount() {
+        return aWorkQueue.getRejectedCount();
+    }
+
+    @ManagedAttribute(description = "The number of completed tasks")
+    public long getCompletedCount() {
+        return aWorkQueue.getCompletedCount();
+    }
+
+    @ManagedAttribute(description = "Whether tasks run on virtual threads")
+    public boolean isVirtualThreads() {
+        return aWorkQueue.isVirtualThreads();
+    }
+
+    @ManagedAttribute(description = "The maximum number of concurrently running tasks",
+                      persistPolicy = "OnUpdate")
+    public int getMaxConcurrency() {
+        return aWorkQueue.getMaxConcurrency();
+    }
+    public void setMaxConcurrency(int max) {
+        aWorkQueue.setMaxConcurrency(max);
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        return new ObjectName(objectName);
+    }
+
+}
@@ -33,10 +33,12 @@ import org.apache.cxf.buslifecycle.BusLifeCycleListener;
 import org.apache.cxf.buslifecycle.BusLifeCycleManager;
 import org.apache.cxf.common.injection.NoJSR250Annotations;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.configuration.ConfiguredBeanLocator;
 import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.workqueue.AutomaticWorkQueue;
 import org.apache.cxf.workqueue.AutomaticWorkQueueImpl;
+import org.apache.cxf.workqueue.VirtualThreadWorkQueueImpl;
 import org.apache.cxf.workqueue.WorkQueueManager;
 
 @NoJSR250Annotations(unlessNull = "bus")
@@ -45,6 +47,15 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
     public static final String DEFAULT_QUEUE_NAME = "default";
     public static final String DEFAULT_WORKQUEUE_BEAN_NAME = "cxf.default.workqueue";
 
+    /**
+     * Bus property prefix used to select the virtual thread work queue for a named queue:
+     * "org.apache.cxf.workqueue.&lt;name&gt;.virtualThreads" enables it and
+     * "org.apache.cxf.workqueue.&lt;name&gt;.maxConcurrency" limits the number of running tasks.
+     */
+    public static final String WORKQUEUE_PROPERTY_PREFIX = "org.apache.cxf.workqueue.";
+    public static final String VIRTUAL_THREADS_PROPERTY_SUFFIX = ".virtualThreads";
+    public static final String MAX_CONCURRENCY_PROPERTY_SUFFIX = ".maxConcurrency";
+
     private static final Logger LOG =
         LogUtils.getL7dLogger(WorkQueueManagerImpl.class);
 
@@ -167,7 +178,11 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
     }
 
     public AutomaticWorkQueue getNamedWorkQueue(String name) {
-        return namedQueues.get(name);
+        AutomaticWorkQueue q = namedQueues.get(name);
+        if (q == null && isVirtualThreadWorkQueue(name)) {
+            q = createVirtualThreadWorkQueue(name);
+        }
+        return q;
     }
     public final void addNamedWorkQueue(String name, AutomaticWorkQueue q) {
         namedQueues.put(name, q);
@@ -193,6 +208,13 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
                     LOG.log(Level.WARNING, jmex.getMessage(), jmex);
                 }
             }
+        } else if (q instanceof VirtualThreadWorkQueueImpl && imanager != null) {
+            try {
+                imanager.register(
+                    new VirtualThreadWorkQueueImplMBeanWrapper((VirtualThreadWorkQueueImpl)q, this));
+            } catch (JMException jmex) {
+                LOG.log(Level.WARNING, jmex.getMessage(), jmex);
+            }
         }
     }
 
@@ -202,6 +224,37 @@ public class WorkQueueManagerImpl implements WorkQueueManager {
         return q;
     }
 
+    private boolean isVirtualThreadWorkQueue(String name) {
+        return bus != null
+            && PropertyUtils.isTrue(bus.getProperty(WORKQUEUE_PROPERTY_PREFIX + name
+                                                    + VIRTUAL_THREADS_PROPERTY_SUFFIX));
+    }
+
+    private synchronized AutomaticWorkQueue createVirtualThreadWorkQueue(String name) {
+        AutomaticWorkQueue q = namedQueues.get(name);
+        if (q == null) {
+            q = new VirtualThreadWorkQueueImpl(name, getMaxConcurrency(name));
+            addNamedWorkQueue(name, q);
+        }
+        return q;
+    }
+
+    private int getMaxConcurrency(String name) {
+        String property = WORKQUEUE_PROPERTY_PREFIX + name + MAX_CONCURRENCY_PROPERTY_SUFFIX;
+        Object max = bus.getProperty(property);
+        if (max instanceof Number) {
+            return ((Number)max).intValue();
+        } else if (max != null) {
+            try {
+                return Integer.parseInt(max.toString().trim());
+            } catch (NumberFormatException ex) {
+                LOG.log(Level.WARNING, "Invalid value of " + property + ": " + max
+                        + ", the concurrency is not limited");
+            }
+        }
+        return VirtualThreadWorkQueueImpl.UNLIMITED_CONCURRENCY;
+    }
+
 
     class WQLifecycleListener implements BusLifeCycleListener {
         public void initComplete() {
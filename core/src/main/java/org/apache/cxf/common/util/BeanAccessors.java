@@ -0,0 +1,350 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.common.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * Creates and caches per class the accessors used to instantiate beans and to read and
+ * write their properties without going through reflection on every call. The accessors
+ * are only softly referenced by the declaring classes: a member may be declared by a class
+ * of the JDK or of a shared library, which must not keep the accessors, and through them
+ * the class loaders of CXF and of the application, reachable.
+ *
+ * Methods and constructors are bound with LambdaMetafactory, which generates a class (a
+ * hidden class on JDK 15+) implementing the functional interface with a direct call to
+ * the target, so the call sites stay monomorphic and can be inlined by the JIT. On JDK 9+
+ * the lambdas are defined in the target class with MethodHandles.privateLookupIn, on
+ * JDK 8 only public members of classes visible from this class loader can be bound.
+ * Fields, and members the lambdas cannot be bound to, are accessed through MethodHandles.
+ *
+ * Unlike with reflection, the exceptions thrown by the targets are not wrapped into an
+ * InvocationTargetException.
+ */
+public final class BeanAccessors {
+    private static final Logger LOG = LogUtils.getL7dLogger(BeanAccessors.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Method PRIVATE_LOOKUP_IN;
+    private static final ClassValue<SoftReference<Accessors>> ACCESSORS =
+        new ClassValue<SoftReference<Accessors>>() {
+            @Override
+            protected SoftReference<Accessors> computeValue(Class<?> cls) {
+                return new SoftReference<>(new Accessors());
+            }
+        };
+
+    static {
+        Method m = null;
+        try {
+            m = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException ex) {
+            // JDK 8
+        }
+        PRIVATE_LOOKUP_IN = m;
+    }
+
+    private BeanAccessors() {
+    }
+
+    /**
+     * Returns a Supplier calling the default constructor of the class.
+     */
+    public static Supplier<Object> constructor(Class<?> cls)
+        throws InstantiationException, NoSuchMethodException {
+        if (cls.isInterface() || Modifier.isAbstract(cls.getModifiers())) {
+            throw new InstantiationException(cls.getName());
+        }
+        Accessors accessors = accessors(cls);
+        Supplier<Object> supplier = accessors.constructor;
+        if (supplier == null) {
+            supplier = createConstructor(cls.getDeclaredConstructor());
+            accessors.constructor = supplier;
+        }
+        return supplier;
+    }
+
+    /**
+     * Returns a Function calling the method without parameters on the bean it is applied to.
+     */
+    public static Function<Object, Object> getter(Method m) {
+        return accessors(m.getDeclaringClass()).getters.computeIfAbsent(m, k -> createGetter(m));
+    }
+
+    /**
+     * Returns a BiConsumer calling the method with one parameter on the bean, the value
+     * returned by the method, if any, is ignored.
+     */
+    public static BiConsumer<Object, Object> setter(Method m) {
+        return accessors(m.getDeclaringClass()).setters.computeIfAbsent(m, k -> createSetter(m));
+    }
+
+    /**
+     * Returns a BiFunction calling the method with one parameter on the object it is applied
+     * to and returning the result, for example a factory method.
+     */
+    public static BiFunction<Object, Object, Object> function(Method m) {
+        return accessors(m.getDeclaringClass()).functions.computeIfAbsent(m, k -> createFunction(m));
+    }
+
+    public static Function<Object, Object> getter(Field f) {
+        return accessors(f.getDeclaringClass()).getters.computeIfAbsent(f, k -> {
+            MethodHandle mh = unreflect(f, true).asType(MethodType.genericMethodType(1));
+            return bean -> {
+                try {
+                    return mh.invokeExact(bean);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        });
+    }
+
+    public static BiConsumer<Object, Object> setter(Field f) {
+        return accessors(f.getDeclaringClass()).setters.computeIfAbsent(f, k -> {
+            MethodHandle mh = unreflect(f, false)
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    mh.invokeExact(bean, value);
+                } catch (Throwable t) {
+                    throw rethrow(t);
+                }
+            };
+        });
+    }
+
+    private static Accessors accessors(Class<?> cls) {
+        Accessors accessors = ACCESSORS.get(cls).get();
+        while (accessors == null) {
+            // cleared by the garbage collector
+            ACCESSORS.remove(cls);
+            accessors = ACCESSORS.get(cls).get();
+        }
+        return accessors;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> createConstructor(Constructor<?> c) {
+        MethodHandles.Lookup lookup = getLookup(c.getDeclaringClass(), c.getModifiers(),
+                                                c.getParameterTypes());
+        if (lookup != null) {
+            try {
+                MethodHandle mh = lookup.unreflectConstructor(c);
+                return (Supplier<Object>)metafactory(lookup, Supplier.class, "get",
+                    MethodType.methodType(Object.class), mh, mh.type());
+            } catch (Throwable t) {
+                logFallback(c, t);
+            }
+        }
+        MethodHandle mh = unreflect(c).asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return mh.invokeExact();
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Method m) {
+        MethodHandles.Lookup lookup = getLookup(m);
+        if (lookup != null) {
+            try {
+                MethodHandle mh = lookup.unreflect(m);
+                return (Function<Object, Object>)metafactory(lookup, Function.class, "apply",
+                    MethodType.genericMethodType(1), mh, mh.type().wrap());
+            } catch (Throwable t) {
+                logFallback(m, t);
+            }
+        }
+        MethodHandle mh = unreflect(m).asType(MethodType.genericMethodType(1));
+        return bean -> {
+            try {
+                return mh.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(Method m) {
+        MethodHandles.Lookup lookup = getLookup(m);
+        if (lookup != null) {
+            try {
+                MethodHandle mh = lookup.unreflect(m);
+                return (BiConsumer<Object, Object>)metafactory(lookup, BiConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, Object.class), mh,
+                    mh.type().wrap().changeReturnType(void.class));
+            } catch (Throwable t) {
+                logFallback(m, t);
+            }
+        }
+        MethodHandle mh = unreflect(m).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try {
+                mh.invokeExact(bean, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiFunction<Object, Object, Object> createFunction(Method m) {
+        MethodHandles.Lookup lookup = getLookup(m);
+        if (lookup != null) {
+            try {
+                MethodHandle mh = lookup.unreflect(m);
+                return (BiFunction<Object, Object, Object>)metafactory(lookup, BiFunction.class, "apply",
+                    MethodType.genericMethodType(2), mh, mh.type().wrap());
+            } catch (Throwable t) {
+                logFallback(m, t);
+            }
+        }
+        MethodHandle mh = unreflect(m).asType(MethodType.genericMethodType(2));
+        return (o, arg) -> {
+            try {
+                return mh.invokeExact(o, arg);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        };
+    }
+
+    private static Object metafactory(MethodHandles.Lookup lookup, Class<?> iface, String name,
+                                      MethodType samType, MethodHandle target,
+                                      MethodType instantiatedType) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, name, MethodType.methodType(iface),
+                                                      samType, target, instantiatedType);
+        return site.getTarget().invoke();
+    }
+
+    private static MethodHandles.Lookup getLookup(Method m) {
+        if (Modifier.isStatic(m.getModifiers())) {
+            return null;
+        }
+        Class<?>[] types = new Class<?>[m.getParameterTypes().length + 1];
+        System.arraycopy(m.getParameterTypes(), 0, types, 0, types.length - 1);
+        types[types.length - 1] = m.getReturnType();
+        return getLookup(m.getDeclaringClass(), m.getModifiers(), types);
+    }
+
+    /**
+     * Returns the lookup the lambdas for a member of the class can be defined with, or null
+     * if only a MethodHandle can be used.
+     */
+    private static MethodHandles.Lookup getLookup(Class<?> cls, int modifiers, Class<?>[] types) {
+        if (PRIVATE_LOOKUP_IN != null) {
+            try {
+                return (MethodHandles.Lookup)PRIVATE_LOOKUP_IN.invoke(null, cls, LOOKUP);
+            } catch (Exception ex) {
+                // the package is not open to CXF
+            }
+        }
+        if (!Modifier.isPublic(modifiers) || !Modifier.isPublic(cls.getModifiers()) || !isVisible(cls)) {
+            return null;
+        }
+        for (Class<?> type : types) {
+            if (!isVisible(type)) {
+                return null;
+            }
+        }
+        return LOOKUP;
+    }
+
+    private static boolean isVisible(Class<?> cls) {
+        if (cls.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(cls.getName(), false, BeanAccessors.class.getClassLoader()) == cls;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private static MethodHandle unreflect(Method m) {
+        try {
+            return LOOKUP.unreflect(ReflectionUtil.setAccessible(m));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static MethodHandle unreflect(Constructor<?> c) {
+        try {
+            return LOOKUP.unreflectConstructor(ReflectionUtil.setAccessible(c));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static MethodHandle unreflect(Field f, boolean getter) {
+        try {
+            ReflectionUtil.setAccessible(f);
+            return getter ? LOOKUP.unreflectGetter(f) : LOOKUP.unreflectSetter(f);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void logFallback(Object member, Throwable t) {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "Using a MethodHandle to access " + member, t);
+        }
+    }
+
+    /**
+     * Throws the exception of the target as it is, as the lambdas generated for the other
+     * members do.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException rethrow(Throwable t) throws E {
+        throw (E)t;
+    }
+
+    private static final class Accessors {
+        final Map<Object, Function<Object, Object>> getters = new ConcurrentHashMap<>();
+        final Map<Object, BiConsumer<Object, Object>> setters = new ConcurrentHashMap<>();
+        final Map<Method, BiFunction<Object, Object, Object>> functions = new ConcurrentHashMap<>();
+        volatile Supplier<Object> constructor;
+    }
+}
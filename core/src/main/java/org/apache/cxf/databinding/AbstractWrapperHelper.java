@@ -23,12 +23,16 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
+import org.apache.cxf.common.util.BeanAccessors;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.interceptor.Fault;
 
 /**
- *  This wrapper helper will use reflection to handle the wrapped message
+ *  This wrapper helper will use reflection to handle the wrapped message, the methods and
+ *  fields are accessed through the accessors created by {@link BeanAccessors}.
  */
 public abstract class AbstractWrapperHelper implements WrapperHelper {
 
@@ -41,7 +45,12 @@ public abstract class AbstractWrapperHelper implements WrapperHelper {
     protected final Field[] fields;
     protected boolean validate;
 
+    private final Function<Object, Object>[] getters;
+    private final BiConsumer<Object, Object>[] setters;
+    private final BiConsumer<Object, Object>[] fieldSetters;
+    private final Function<Object, Object>[] fieldGetters;
 
+    @SuppressWarnings("unchecked")
     protected AbstractWrapperHelper(Class<?> wt,
                   Method[] sets,
                   Method[] gets,
@@ -50,6 +59,27 @@ public abstract class AbstractWrapperHelper implements WrapperHelper {
         getMethods = gets;
         fields = f;
         wrapperType = wt;
+
+        getters = new Function[gets.length];
+        setters = new BiConsumer[sets.length];
+        fieldGetters = new Function[f.length];
+        fieldSetters = new BiConsumer[f.length];
+        for (int x = 0; x < gets.length; x++) {
+            if (gets[x] != null) {
+                getters[x] = BeanAccessors.getter(gets[x]);
+            }
+        }
+        for (int x = 0; x < sets.length; x++) {
+            if (sets[x] != null) {
+                setters[x] = BeanAccessors.setter(sets[x]);
+            }
+        }
+        for (int x = 0; x < f.length; x++) {
+            if (f[x] != null) {
+                fieldGetters[x] = BeanAccessors.getter(f[x]);
+                fieldSetters[x] = BeanAccessors.setter(f[x]);
+            }
+        }
     }
 
     /**
@@ -77,11 +107,22 @@ public abstract class AbstractWrapperHelper implements WrapperHelper {
         return object;
     }
 
+    /**
+     * @deprecated no longer called, the parts are read with {@link #getValue(int, Object)}
+     */
+    @Deprecated
     protected Object getValue(Method method, Object in) throws IllegalAccessException,
         InvocationTargetException {
         return method.invoke(in);
     }
 
+    /**
+     * Returns the value of the part read with the getter method at the index.
+     */
+    protected Object getValue(int index, Object in) throws Exception {
+        return getters[index].apply(in);
+    }
+
     public Object createWrapperObject(List<?> lst)
         throws Fault {
         try {
@@ -98,28 +139,28 @@ public abstract class AbstractWrapperHelper implements WrapperHelper {
                 Object o = lst.get(x);
                 o = getPartObject(x, o);
                 if (o instanceof List && getMethods[x] != null) {
-                    List<Object> col = CastUtils.cast((List<?>)getMethods[x].invoke(wrapperObject));
+                    List<Object> col = CastUtils.cast((List<?>)getters[x].apply(wrapperObject));
                     if (col == null) {
                         //broken generated java wrappers
                         if (setMethods[x] != null) {
-                            setMethods[x].invoke(wrapperObject, o);
+                            setters[x].accept(wrapperObject, o);
                         } else {
-                            fields[x].set(wrapperObject, lst.get(x));
+                            fieldSetters[x].accept(wrapperObject, lst.get(x));
                         }
                     } else {
                         List<Object> olst = CastUtils.cast((List<?>)o);
                         col.addAll(olst);
                     }
                 } else if (setMethods[x] != null) {
-                    setMethods[x].invoke(wrapperObject, o);
+                    setters[x].accept(wrapperObject, o);
                 } else if (fields[x] != null) {
-                    fields[x].set(wrapperObject, lst.get(x));
+                    fieldSetters[x].accept(wrapperObject, lst.get(x));
                 }
             }
             return wrapperObject;
         } catch (Exception ex) {
             ex.printStackTrace();
-            throw new Fault(ex.getCause());
+            throw new Fault(ex);
         }
     }
 
@@ -129,9 +170,9 @@ public abstract class AbstractWrapperHelper implements WrapperHelper {
             List<Object> ret = new ArrayList<>(getMethods.length);
             for (int x = 0; x < getMethods.length; x++) {
                 if (getMethods[x] != null) {
-                    ret.add(getValue(getMethods[x], wrapperObject));
+                    ret.add(getValue(x, wrapperObject));
                 } else if (fields[x] != null) {
-                    ret.add(fields[x].get(wrapperObject));
+                    ret.add(fieldGetters[x].apply(wrapperObject));
                 } else {
                     //placeholder
                     ret.add(null);
@@ -140,10 +181,7 @@ public abstract class AbstractWrapperHelper implements WrapperHelper {
 
             return ret;
         } catch (Exception ex) {
-            if (ex.getCause() == null) {
-                throw new Fault(ex);
-            }
-            throw new Fault(ex.getCause());
+            throw new Fault(ex);
         }
     }
 
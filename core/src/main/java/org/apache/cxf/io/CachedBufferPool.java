@@ -0,0 +1,300 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.SystemPropertyAction;
+import org.apache.cxf.helpers.FileUtils;
+
+/**
+ * A global pool of fixed size direct {@link ByteBuffer} chunks used by {@link CachedOutputStream}
+ * and {@link CachedWriter} when pooled buffers are enabled. The total amount of direct memory
+ * handed out is bounded by a budget. Optionally, a single memory-mapped spill segment is created
+ * and sliced into chunks of the same size; it is used once a message has grown past its threshold
+ * or the direct memory budget is exhausted, instead of creating a temporary file per message.
+ */
+public final class CachedBufferPool {
+    public static final int DEFAULT_CHUNK_SIZE = 32 * 1024;
+    public static final long DEFAULT_MAX_MEMORY = 32L * 1024 * 1024;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(CachedBufferPool.class);
+    private static volatile CachedBufferPool defaultPool;
+
+    private final int chunkSize;
+    private final long maxMemory;
+    private final long spillSegmentSize;
+    private final File spillDirectory;
+
+    private final Queue<ByteBuffer> freeDirect = new ConcurrentLinkedQueue<>();
+    private final AtomicLong allocatedMemory = new AtomicLong();
+    private final AtomicLong exhaustedCount = new AtomicLong();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final Set<Holder> holders = ConcurrentHashMap.newKeySet();
+    private volatile Queue<ByteBuffer> freeMapped;
+    private boolean spillSegmentFailed;
+
+    public CachedBufferPool(int chunkSize, long maxMemory) {
+        this(chunkSize, maxMemory, 0, null);
+    }
+
+    public CachedBufferPool(int chunkSize, long maxMemory, long spillSegmentSize, File spillDirectory) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.maxMemory = maxMemory;
+        this.spillSegmentSize = spillSegmentSize;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Returns the pool shared by all cached streams, configured through the
+     * CachedConstants.POOL_*_SYS_PROP system properties.
+     */
+    public static CachedBufferPool getDefault() {
+        CachedBufferPool pool = defaultPool;
+        if (pool == null) {
+            synchronized (CachedBufferPool.class) {
+                pool = defaultPool;
+                if (pool == null) {
+                    int chunk = SystemPropertyAction.getInteger(CachedConstants.POOL_CHUNK_SIZE_SYS_PROP,
+                                                                DEFAULT_CHUNK_SIZE);
+                    long max = Long.parseLong(SystemPropertyAction.getProperty(
+                        CachedConstants.POOL_MAX_MEMORY_SYS_PROP, Long.toString(DEFAULT_MAX_MEMORY)));
+                    long spill = Long.parseLong(SystemPropertyAction.getProperty(
+                        CachedConstants.POOL_SPILL_SEGMENT_SIZE_SYS_PROP, "0"));
+                    String dir =
+                        SystemPropertyAction.getPropertyOrNull(CachedConstants.OUTPUT_DIRECTORY_SYS_PROP);
+                    pool = new CachedBufferPool(chunk, max, spill, dir == null ? null : new File(dir));
+                    defaultPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public static void setDefault(CachedBufferPool pool) {
+        defaultPool = pool;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Gets the amount of direct memory currently allocated by the pool, in use or free.
+     */
+    public long getAllocatedMemory() {
+        return allocatedMemory.get();
+    }
+
+    /**
+     * Gets the number of times a chunk was requested but neither direct memory nor
+     * the spill segment had one available.
+     */
+    public long getExhaustedCount() {
+        return exhaustedCount.get();
+    }
+
+    public int getFreeChunkCount() {
+        Queue<ByteBuffer> mapped = freeMapped;
+        return freeDirect.size() + (mapped == null ? 0 : mapped.size());
+    }
+
+    /**
+     * Gets a cleared chunk, from direct memory when <code>direct</code> is true and
+     * otherwise, or if the budget is exhausted, from the spill segment when <code>spill</code>
+     * is true. Returns null if no chunk is available.
+     */
+    Chunk acquire(boolean direct, boolean spill) {
+        reclaimCollected();
+        if (direct) {
+            ByteBuffer buf = acquireDirect();
+            if (buf != null) {
+                return new Chunk(buf, false);
+            }
+        }
+        ByteBuffer buf = spill ? acquireMapped() : null;
+        if (buf != null) {
+            return new Chunk(buf, true);
+        }
+        exhaustedCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Creates a heap chunk that is not accounted by the pool, used when the pool is exhausted
+     * and the content cannot be spilled to a file either.
+     */
+    Chunk allocateUnpooled() {
+        return new Chunk(ByteBuffer.allocate(chunkSize), false);
+    }
+
+    void release(Chunk chunk) {
+        if (!chunk.buffer.isDirect()) {
+            return;
+        }
+        ((Buffer)chunk.buffer).clear();
+        if (chunk.mapped) {
+            freeMapped.offer(chunk.buffer);
+        } else {
+            freeDirect.offer(chunk.buffer);
+        }
+    }
+
+    /**
+     * Tracks the chunks of <code>owner</code> so that they are returned to the pool if the owner
+     * is garbage collected without being released.
+     */
+    Holder track(Object owner, List<Chunk> chunks) {
+        Holder holder = new Holder(owner, collected, chunks);
+        holders.add(holder);
+        return holder;
+    }
+
+    void untrack(Holder holder) {
+        holders.remove(holder);
+        holder.clear();
+    }
+
+    private void reclaimCollected() {
+        Reference<?> ref = collected.poll();
+        while (ref != null) {
+            Holder holder = (Holder)ref;
+            if (holders.remove(holder)) {
+                for (Chunk chunk : holder.chunks) {
+                    release(chunk);
+                }
+            }
+            ref = collected.poll();
+        }
+    }
+
+    private ByteBuffer acquireDirect() {
+        ByteBuffer buf = freeDirect.poll();
+        if (buf != null) {
+            return buf;
+        }
+        long current = allocatedMemory.get();
+        while (current + chunkSize <= maxMemory) {
+            if (allocatedMemory.compareAndSet(current, current + chunkSize)) {
+                return ByteBuffer.allocateDirect(chunkSize);
+            }
+            current = allocatedMemory.get();
+        }
+        return null;
+    }
+
+    private ByteBuffer acquireMapped() {
+        if (spillSegmentSize < chunkSize) {
+            return null;
+        }
+        Queue<ByteBuffer> mapped = freeMapped;
+        if (mapped == null) {
+            mapped = createSpillSegment();
+            if (mapped == null) {
+                return null;
+            }
+        }
+        return mapped.poll();
+    }
+
+    private synchronized Queue<ByteBuffer> createSpillSegment() {
+        if (freeMapped != null || spillSegmentFailed) {
+            return freeMapped;
+        }
+        File file = null;
+        try {
+            if (spillDirectory == null) {
+                file = FileUtils.createTempFile("cos", "spill");
+            } else {
+                file = FileUtils.createTempFile("cos", "spill", spillDirectory, false);
+            }
+            int chunks = (int)Math.min(spillSegmentSize / chunkSize, Integer.MAX_VALUE / chunkSize);
+            MappedByteBuffer segment;
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                FileChannel channel = raf.getChannel()) {
+                raf.setLength((long)chunks * chunkSize);
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long)chunks * chunkSize);
+            }
+            Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+            for (int i = 0; i < chunks; i++) {
+                ((Buffer)segment).limit((i + 1) * chunkSize).position(i * chunkSize);
+                queue.add(segment.slice());
+            }
+            freeMapped = queue;
+        } catch (IOException | RuntimeException ex) {
+            //Could be IOException or SecurityException or other issues.
+            //Just keep going without the segment.
+            spillSegmentFailed = true;
+            LOG.log(Level.WARNING, "Could not create the spill segment, temporary files will be used", ex);
+        } finally {
+            if (file != null) {
+                //the mapping stays valid, the file is removed once it is unmapped
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+        return freeMapped;
+    }
+
+    static final class Holder extends PhantomReference<Object> {
+        final List<Chunk> chunks;
+
+        Holder(Object owner, ReferenceQueue<Object> queue, List<Chunk> chunks) {
+            super(owner, queue);
+            this.chunks = chunks;
+        }
+    }
+
+    static final class Chunk {
+        final ByteBuffer buffer;
+        final boolean mapped;
+
+        Chunk(ByteBuffer buffer, boolean mapped) {
+            this.buffer = buffer;
+            this.mapped = mapped;
+        }
+    }
+}
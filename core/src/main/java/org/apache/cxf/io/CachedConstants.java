@@ -71,6 +71,41 @@ public final class CachedConstants {
     public static final String CIPHER_TRANSFORMATION_BUS_PROP =
         "bus.io.CachedOutputStream.CipherTransformation";
 
+    /**
+     * Whether cached streams keep their in-memory content in pooled direct buffer chunks
+     * instead of a growing byte[]. False by default.
+     */
+    public static final String POOLED_BUFFERS_SYS_PROP =
+        "org.apache.cxf.io.CachedOutputStream.PooledBuffers";
+
+    /**
+     * Whether cached streams keep their in-memory content in pooled direct buffer chunks
+     * instead of a growing byte[]. False by default.
+     */
+    public static final String POOLED_BUFFERS_BUS_PROP =
+        "bus.io.CachedOutputStream.PooledBuffers";
+
+    /**
+     * The size in bytes of the chunks handed out by the buffer pool. The default value is 32K.
+     */
+    public static final String POOL_CHUNK_SIZE_SYS_PROP =
+        "org.apache.cxf.io.CachedOutputStream.PoolChunkSize";
+
+    /**
+     * The maximum amount of direct memory in bytes the buffer pool allocates for all cached
+     * streams together. The default value is 32M.
+     */
+    public static final String POOL_MAX_MEMORY_SYS_PROP =
+        "org.apache.cxf.io.CachedOutputStream.PoolMaxMemory";
+
+    /**
+     * The size in bytes of the memory-mapped spill segment shared by all pooled cached streams.
+     * Content beyond the threshold goes to the segment before falling back to a temporary file.
+     * No segment is created by default.
+     */
+    public static final String POOL_SPILL_SEGMENT_SIZE_SYS_PROP =
+        "org.apache.cxf.io.CachedOutputStream.PoolSpillSegmentSize";
+
     private CachedConstants() {
         // complete
     }
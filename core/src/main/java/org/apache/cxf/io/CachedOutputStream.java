@@ -54,6 +54,7 @@ public class CachedOutputStream extends OutputStream {
     private static long defaultMaxSize;
     private static String defaultCipherTransformation;
     private static boolean thresholdSysPropSet;
+    private static boolean defaultPooledBuffers;
 
     static {
         String s = SystemPropertyAction.getPropertyOrNull(CachedConstants.OUTPUT_DIRECTORY_SYS_PROP);
@@ -71,6 +72,8 @@ public class CachedOutputStream extends OutputStream {
         setDefaultThreshold(-1);
         setDefaultMaxSize(-1);
         setDefaultCipherTransformation(null);
+        setDefaultPooledBuffers(
+            Boolean.parseBoolean(SystemPropertyAction.getProperty(CachedConstants.POOLED_BUFFERS_SYS_PROP)));
     }
 
     protected boolean outputLocked;
@@ -80,6 +83,8 @@ public class CachedOutputStream extends OutputStream {
     private long maxSize = defaultMaxSize;
     private File outputDir = DEFAULT_TEMP_DIR;
     private String cipherTransformation = defaultCipherTransformation;
+    private boolean pooledBuffers = defaultPooledBuffers;
+    private boolean pooledReleasePending;
 
     private long totalLength;
 
@@ -100,9 +105,13 @@ public class CachedOutputStream extends OutputStream {
 
     public CachedOutputStream(long threshold) {
         this.threshold = threshold;
-        currentStream = new LoadingByteArrayOutputStream(2048);
-        inmem = true;
         readBusProperties();
+        if (pooledBuffers) {
+            currentStream = new PooledBufferOutputStream(CachedBufferPool.getDefault());
+        } else {
+            currentStream = new LoadingByteArrayOutputStream(2048);
+        }
+        inmem = true;
     }
 
     private void readBusProperties() {
@@ -127,6 +136,10 @@ public class CachedOutputStream extends OutputStream {
                     outputDir = f;
                 }
             }
+            v = getBusProperty(b, CachedConstants.POOLED_BUFFERS_BUS_PROP, null);
+            if (v != null) {
+                pooledBuffers = Boolean.parseBoolean(v);
+            }
         }
     }
 
@@ -140,6 +153,10 @@ public class CachedOutputStream extends OutputStream {
     }
     public void releaseTempFileHold() {
         allowDeleteOfFile = true;
+        if (pooledReleasePending) {
+            pooledReleasePending = false;
+            ((PooledBufferOutputStream)currentStream).releaseWithLastInputStream();
+        }
     }
 
     public void registerCallback(CachedOutputStreamCallback cb) {
@@ -221,6 +238,16 @@ public class CachedOutputStream extends OutputStream {
         }
         doClose();
         currentStream.close();
+        if (currentStream instanceof PooledBufferOutputStream) {
+            // the content stays readable after close, the pooled chunks are released now if no
+            // input stream is open, else with the last input stream, by resetOut or, failing
+            // that, once this stream is collected
+            if (allowDeleteOfFile) {
+                ((PooledBufferOutputStream)currentStream).releaseWithLastInputStream();
+            } else {
+                pooledReleasePending = true;
+            }
+        }
         if (ciphers != null) {
             ciphers.clean();
         }
@@ -266,6 +293,9 @@ public class CachedOutputStream extends OutputStream {
                     if (copyOldContent && byteOut.size() > 0) {
                         byteOut.writeTo(out);
                     }
+                    if (byteOut instanceof PooledBufferOutputStream) {
+                        ((PooledBufferOutputStream)byteOut).release();
+                    }
                 } else {
                     throw new IOException("Unknown format of currentStream");
                 }
@@ -429,11 +459,19 @@ public class CachedOutputStream extends OutputStream {
 
     }
 
-    private void enforceLimits() throws IOException {
+    private void enforceLimits(int len) throws IOException {
         if (maxSize > 0 && totalLength > maxSize) {
             throw new CacheSizeExceededException();
         }
-        if (inmem && totalLength > threshold && currentStream instanceof ByteArrayOutputStream) {
+        if (inmem && currentStream instanceof PooledBufferOutputStream) {
+            // pooled chunks, direct memory up to the threshold and then the spill segment,
+            // a temp file is only used once the pool is exhausted. The segment is not
+            // encrypted so it is skipped if a cipher is configured.
+            PooledBufferOutputStream pout = (PooledBufferOutputStream)currentStream;
+            if (!pout.reserve(len, threshold, cipherTransformation == null)) {
+                createFileOutputStream();
+            }
+        } else if (inmem && totalLength > threshold && currentStream instanceof ByteArrayOutputStream) {
             createFileOutputStream();
         }
     }
@@ -442,7 +480,7 @@ public class CachedOutputStream extends OutputStream {
         if (!outputLocked) {
             onWrite();
             this.totalLength += len;
-            enforceLimits();
+            enforceLimits(len);
             currentStream.write(b, off, len);
         }
     }
@@ -451,7 +489,7 @@ public class CachedOutputStream extends OutputStream {
         if (!outputLocked) {
             onWrite();
             this.totalLength += b.length;
-            enforceLimits();
+            enforceLimits(b.length);
             currentStream.write(b);
         }
     }
@@ -460,7 +498,7 @@ public class CachedOutputStream extends OutputStream {
         if (!outputLocked) {
             onWrite();
             this.totalLength++;
-            enforceLimits();
+            enforceLimits(1);
             currentStream.write(b);
         }
     }
@@ -481,6 +519,9 @@ public class CachedOutputStream extends OutputStream {
             bout.writeTo(currentStream);
             inmem = false;
             streamList.add(currentStream);
+            if (bout instanceof PooledBufferOutputStream) {
+                ((PooledBufferOutputStream)bout).release();
+            }
         } catch (Exception ex) {
             //Could be IOException or SecurityException or other issues.
             //Don't care what, just keep it in memory.
@@ -501,7 +542,9 @@ public class CachedOutputStream extends OutputStream {
     public InputStream getInputStream() throws IOException {
         flush();
         if (inmem) {
-            if (currentStream instanceof LoadingByteArrayOutputStream) {
+            if (currentStream instanceof PooledBufferOutputStream) {
+                return ((PooledBufferOutputStream) currentStream).newInputStream();
+            } else if (currentStream instanceof LoadingByteArrayOutputStream) {
                 return ((LoadingByteArrayOutputStream) currentStream).createInputStream();
             } else if (currentStream instanceof ByteArrayOutputStream) {
                 return new ByteArrayInputStream(((ByteArrayOutputStream) currentStream).toByteArray());
@@ -572,10 +615,18 @@ public class CachedOutputStream extends OutputStream {
         this.maxSize = maxSize;
     }
 
+    public long getMaxSize() {
+        return maxSize;
+    }
+
     public void setCipherTransformation(String cipherTransformation) {
         this.cipherTransformation = cipherTransformation;
     }
 
+    public boolean isPooledBuffers() {
+        return pooledBuffers;
+    }
+
     public static void setDefaultMaxSize(long l) {
         if (l == -1) {
             String s = SystemPropertyAction.getProperty(CachedConstants.MAX_SIZE_SYS_PROP, "-1");
@@ -603,6 +654,14 @@ public class CachedOutputStream extends OutputStream {
         return thresholdSysPropSet;
     }
 
+    /**
+     * Sets whether new streams keep their in-memory content in chunks from the shared
+     * {@link CachedBufferPool}.
+     */
+    public static void setDefaultPooledBuffers(boolean b) {
+        defaultPooledBuffers = b;
+    }
+
     public static void setDefaultCipherTransformation(String n) {
         if (n == null) {
             n = SystemPropertyAction.getPropertyOrNull(CachedConstants.CIPHER_TRANSFORMATION_SYS_PROP);
@@ -25,6 +25,7 @@ import java.io.CharArrayWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -55,6 +56,7 @@ public class CachedWriter extends Writer {
     private static int defaultThreshold;
     private static long defaultMaxSize;
     private static String defaultCipherTransformation;
+    private static boolean defaultPooledBuffers;
 
     static {
 
@@ -77,6 +79,8 @@ public class CachedWriter extends Writer {
         setDefaultThreshold(-1);
         setDefaultMaxSize(-1);
         setDefaultCipherTransformation(null);
+        defaultPooledBuffers =
+            Boolean.parseBoolean(SystemPropertyAction.getProperty(CachedConstants.POOLED_BUFFERS_SYS_PROP));
     }
 
     protected boolean outputLocked;
@@ -87,6 +91,8 @@ public class CachedWriter extends Writer {
     private long maxSize = defaultMaxSize;
     private File outputDir = DEFAULT_TEMP_DIR;
     private String cipherTransformation = defaultCipherTransformation;
+    private boolean pooledBuffers = defaultPooledBuffers;
+    private PooledBufferOutputStream spillBuffer;
 
     private long totalLength;
 
@@ -147,6 +153,10 @@ public class CachedWriter extends Writer {
                     outputDir = f;
                 }
             }
+            v = getBusProperty(b, CachedConstants.POOLED_BUFFERS_BUS_PROP, null);
+            if (v != null) {
+                pooledBuffers = Boolean.parseBoolean(v);
+            }
         }
     }
 
@@ -297,7 +307,7 @@ public class CachedWriter extends Writer {
                 // read the file
                 currentStream.close();
                 if (copyOldContent) {
-                    InputStreamReader fin = createInputStreamReader(tempFile);
+                    InputStreamReader fin = createSpillReader();
                     IOUtils.copyAndCloseInput(fin, out);
                 }
                 streamList.remove(currentStream);
@@ -323,8 +333,9 @@ public class CachedWriter extends Writer {
             throw new IOException("Unknown format of currentStream");
         }
         // read the file
-        try (Reader fin = createInputStreamReader(tempFile)) {
-            CharArrayWriter out = new CharArrayWriter((int)tempFile.length());
+        try (Reader fin = createSpillReader()) {
+            CharArrayWriter out = new CharArrayWriter(spillBuffer != null ? spillBuffer.size()
+                                                          : (int)tempFile.length());
             char[] bytes = new char[1024];
             int x = fin.read(bytes);
             while (x != -1) {
@@ -345,7 +356,7 @@ public class CachedWriter extends Writer {
             }
         } else {
             // read the file
-            try (Reader fin = createInputStreamReader(tempFile)) {
+            try (Reader fin = createSpillReader()) {
                 char[] bytes = new char[1024];
                 int x = fin.read(bytes);
                 while (x != -1) {
@@ -374,7 +385,7 @@ public class CachedWriter extends Writer {
             }
         } else {
             // read the file
-            try (Reader fin = createInputStreamReader(tempFile)) {
+            try (Reader fin = createSpillReader()) {
                 char[] bytes = new char[1024];
                 long x = fin.read(bytes);
                 while (x != -1) {
@@ -405,7 +416,7 @@ public class CachedWriter extends Writer {
             }
         } else {
             // read the file
-            try (Reader r = createInputStreamReader(tempFile)) {
+            try (Reader r = createSpillReader()) {
                 char[] chars = new char[1024];
                 int x = r.read(chars);
                 while (x != -1) {
@@ -459,6 +470,10 @@ public class CachedWriter extends Writer {
             onWrite();
             this.totalLength += len;
             enforceLimits();
+            if (spillBuffer != null && !inmem && !tempFileFailed
+                && !spillBuffer.reserve(len * 3, Long.MAX_VALUE, true)) {
+                spillToFile();
+            }
             currentStream.write(cbuf, off, len);
         }
     }
@@ -468,6 +483,26 @@ public class CachedWriter extends Writer {
             return;
         }
         LoadingCharArrayWriter bout = (LoadingCharArrayWriter)currentStream;
+        if (pooledBuffers && cipherTransformation == null) {
+            // UTF-8 encoded into pooled chunks instead of a temp file while the pool has room
+            PooledBufferOutputStream spill = new PooledBufferOutputStream(CachedBufferPool.getDefault());
+            if (spill.reserve(bout.size() * 3, Long.MAX_VALUE, true)) {
+                spillBuffer = spill;
+                currentStream = new OutputStreamWriter(spill, UTF_8) {
+                    public void close() throws IOException {
+                        if (!cosClosed) {
+                            super.close();
+                            cosClosed = true;
+                        }
+                    }
+                };
+                bout.writeTo(currentStream);
+                inmem = false;
+                streamList.add(currentStream);
+                return;
+            }
+            spill.release();
+        }
         try {
             if (outputDir == null) {
                 tempFile = FileUtils.createTempFile("cos", "tmp");
@@ -491,6 +526,43 @@ public class CachedWriter extends Writer {
         }
     }
 
+    /**
+     * Moves content spilled into pooled chunks to a temp file once the pool is exhausted.
+     */
+    private void spillToFile() throws IOException {
+        currentStream.flush();
+        streamList.remove(currentStream);
+        PooledBufferOutputStream spill = spillBuffer;
+        Writer out = null;
+        try {
+            if (outputDir == null) {
+                tempFile = FileUtils.createTempFile("cos", "tmp");
+            } else {
+                tempFile = FileUtils.createTempFile("cos", "tmp", outputDir, false);
+            }
+            out = createOutputStreamWriter(tempFile);
+            IOUtils.copyAndCloseInput(new InputStreamReader(spill.newInputStream(), UTF_8), out);
+            currentStream.close();
+            cosClosed = false;
+            spillBuffer = null;
+            spill.release();
+            currentStream = out;
+        } catch (Exception ex) {
+            //Could be IOException or SecurityException or other issues.
+            //Don't care what, just keep the rest in unpooled memory.
+            tempFileFailed = true;
+            if (out != null) {
+                out.close();
+            }
+            if (tempFile != null) {
+                FileUtils.delete(tempFile);
+                tempFile = null;
+            }
+            cosClosed = false;
+        }
+        streamList.add(currentStream);
+    }
+
     public File getTempFile() {
         return tempFile != null && tempFile.exists() ? tempFile : null;
     }
@@ -504,6 +576,20 @@ public class CachedWriter extends Writer {
             }
             return null;
         }
+        if (spillBuffer != null) {
+            InputStream spillInputStream = new FilterInputStream(spillBuffer.newInputStream()) {
+                boolean closed;
+                public void close() throws IOException {
+                    if (!closed) {
+                        super.close();
+                        maybeDeleteTempFile(this);
+                    }
+                    closed = true;
+                }
+            };
+            streamList.add(spillInputStream);
+            return new InputStreamReader(spillInputStream, UTF_8);
+        }
         try {
             InputStream fileInputStream = new FileInputStream(tempFile) {
                 boolean closed;
@@ -534,6 +620,10 @@ public class CachedWriter extends Writer {
     }
 
     private synchronized void deleteTempFile() {
+        if (spillBuffer != null) {
+            spillBuffer.release();
+            spillBuffer = null;
+        }
         if (tempFile != null) {
             File file = tempFile;
             tempFile = null;
@@ -542,7 +632,8 @@ public class CachedWriter extends Writer {
     }
     private void maybeDeleteTempFile(Object stream) {
         streamList.remove(stream);
-        if (!inmem && tempFile != null && streamList.isEmpty() && allowDeleteOfFile) {
+        if (!inmem && (tempFile != null || spillBuffer != null)
+            && streamList.isEmpty() && allowDeleteOfFile) {
             if (currentStream != null) {
                 try {
                     currentStream.close();
@@ -636,6 +727,13 @@ public class CachedWriter extends Writer {
         };
     }
 
+    private InputStreamReader createSpillReader() throws IOException {
+        if (spillBuffer != null) {
+            return new InputStreamReader(spillBuffer.newInputStream(), UTF_8);
+        }
+        return createInputStreamReader(tempFile);
+    }
+
     private InputStreamReader createInputStreamReader(File file) throws IOException {
         InputStream in = Files.newInputStream(file.toPath());
         if (cipherTransformation != null) {
@@ -0,0 +1,361 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
+
+/**
+ * In-memory storage of a cached stream backed by chunks from a {@link CachedBufferPool}
+ * rather than a growing byte[]. It extends {@link LoadingByteArrayOutputStream} so the
+ * existing in-memory code paths of {@link CachedOutputStream} keep working; the methods
+ * that expose the raw array materialize a copy, while {@link #newInputStream()} and
+ * {@link #writeTo(OutputStream)} read the chunks directly.
+ *
+ * The chunks are returned to the pool once the owner has called {@link #release()} and
+ * all the input streams created by {@link #newInputStream()} have been closed, or when the
+ * owner is closed while no input stream is open, in which case the content is copied to the
+ * heap first. Chunks of a stream that is garbage collected without being released are
+ * reclaimed by the pool.
+ */
+class PooledBufferOutputStream extends LoadingByteArrayOutputStream {
+    private final CachedBufferPool pool;
+    private final int chunkSize;
+    private final List<CachedBufferPool.Chunk> chunks = new ArrayList<>();
+    private long capacity;
+    private final CachedBufferPool.Holder holder;
+    private int references = 1;
+    private boolean released;
+    private boolean releaseWithLastStream;
+
+    PooledBufferOutputStream(CachedBufferPool pool) {
+        super(0);
+        this.pool = pool;
+        this.chunkSize = pool.getChunkSize();
+        this.holder = pool.track(this, chunks);
+    }
+
+    /**
+     * Makes sure <code>len</code> more bytes can be written without leaving the pool. Chunks
+     * are taken from direct memory while the capacity is below <code>directLimit</code>, then
+     * from the spill segment if <code>spill</code> is allowed.
+     * @return false if the pool could not provide enough chunks
+     */
+    synchronized boolean reserve(int len, long directLimit, boolean spill) {
+        while (capacity - count < len) {
+            CachedBufferPool.Chunk chunk = pool.acquire(capacity < directLimit, spill);
+            if (chunk == null) {
+                return false;
+            }
+            chunks.add(chunk);
+            capacity += chunkSize;
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int len) {
+        while (capacity - count < len) {
+            chunks.add(pool.allocateUnpooled());
+            capacity += chunkSize;
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        ensureCapacity(1);
+        chunks.get(count / chunkSize).buffer.put((byte)b);
+        count++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(len);
+        while (len > 0) {
+            ByteBuffer buf = chunks.get(count / chunkSize).buffer;
+            int n = Math.min(len, buf.remaining());
+            buf.put(b, off, n);
+            off += n;
+            len -= n;
+            count += n;
+        }
+    }
+
+    @Override
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        if (out instanceof FileOutputStream) {
+            FileChannel channel = ((FileOutputStream)out).getChannel();
+            for (ByteBuffer buf : views()) {
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+            return;
+        }
+        byte[] tmp = null;
+        for (ByteBuffer buf : views()) {
+            if (buf.hasArray()) {
+                out.write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+                continue;
+            }
+            if (tmp == null) {
+                tmp = new byte[Math.min(count, IOUtils.DEFAULT_BUFFER_SIZE)];
+            }
+            while (buf.hasRemaining()) {
+                int n = Math.min(tmp.length, buf.remaining());
+                buf.get(tmp, 0, n);
+                out.write(tmp, 0, n);
+            }
+        }
+    }
+
+    @Override
+    public synchronized byte[] toByteArray() {
+        byte[] bytes = new byte[count];
+        int pos = 0;
+        for (ByteBuffer buf : views()) {
+            int n = buf.remaining();
+            buf.get(bytes, pos, n);
+            pos += n;
+        }
+        return bytes;
+    }
+
+    @Override
+    public byte[] getRawBytes() {
+        return toByteArray();
+    }
+
+    @Override
+    public ByteArrayInputStream createInputStream() {
+        return new ByteArrayInputStream(toByteArray());
+    }
+
+    @Override
+    public synchronized void setSize(int i) {
+        if (i < 0 || i > count) {
+            throw new IllegalArgumentException("Invalid size " + i);
+        }
+        count = i;
+        for (int x = 0; x < chunks.size(); x++) {
+            int fill = Math.max(0, Math.min(chunkSize, i - x * chunkSize));
+            ((Buffer)chunks.get(x).buffer).position(fill);
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        setSize(0);
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return IOUtils.newStringFromBytes(toByteArray());
+    }
+
+    @Override
+    public synchronized String toString(String charsetName) throws UnsupportedEncodingException {
+        return IOUtils.newStringFromBytes(toByteArray(), charsetName);
+    }
+
+    /**
+     * Creates an input stream reading the chunks in place. The stream keeps the chunks
+     * from being returned to the pool until it is closed.
+     */
+    synchronized InputStream newInputStream() {
+        references++;
+        return new ChunkInputStream(views());
+    }
+
+    /**
+     * Called by the owner once it no longer needs the content.
+     */
+    synchronized void release() {
+        if (!released) {
+            released = true;
+            dereference();
+        }
+    }
+
+    /**
+     * Called by the owner once it has been closed: the chunks are released when the last
+     * input stream created by {@link #newInputStream()} is closed. Until then the content
+     * stays readable. If no input stream is open, the content is copied to the heap, where
+     * it stays readable, and the chunks are returned to the pool right away. No more content
+     * may be written afterwards.
+     */
+    synchronized void releaseWithLastInputStream() {
+        if (references > 1) {
+            releaseWithLastStream = true;
+            return;
+        }
+        for (int x = 0; x < chunks.size(); x++) {
+            CachedBufferPool.Chunk chunk = chunks.get(x);
+            if (chunk.buffer.isDirect()) {
+                ByteBuffer view = chunk.buffer.duplicate();
+                ((Buffer)view).flip();
+                ByteBuffer copy = ByteBuffer.allocate(view.remaining());
+                copy.put(view);
+                chunks.set(x, new CachedBufferPool.Chunk(copy, false));
+                pool.release(chunk);
+            }
+        }
+    }
+
+    synchronized boolean isReleased() {
+        return released;
+    }
+
+    private synchronized void dereference() {
+        if (--references == 0) {
+            pool.untrack(holder);
+            for (CachedBufferPool.Chunk chunk : chunks) {
+                pool.release(chunk);
+            }
+            chunks.clear();
+            capacity = 0;
+            count = 0;
+        }
+    }
+
+    private synchronized void inputStreamClosed() {
+        dereference();
+        if (releaseWithLastStream && references == 1) {
+            release();
+        }
+    }
+
+    private ByteBuffer[] views() {
+        ByteBuffer[] views = new ByteBuffer[chunks.size()];
+        for (int x = 0; x < views.length; x++) {
+            ByteBuffer view = chunks.get(x).buffer.duplicate();
+            ((Buffer)view).flip();
+            views[x] = view;
+        }
+        return views;
+    }
+
+    private class ChunkInputStream extends InputStream implements Transferable {
+        private final ByteBuffer[] buffers;
+        private int index;
+        private boolean closed;
+
+        ChunkInputStream(ByteBuffer[] buffers) {
+            this.buffers = buffers;
+        }
+
+        private ByteBuffer current() {
+            while (index < buffers.length && !buffers[index].hasRemaining()) {
+                index++;
+            }
+            return index < buffers.length ? buffers[index] : null;
+        }
+
+        @Override
+        public int read() throws IOException {
+            ByteBuffer buf = current();
+            return buf == null ? -1 : buf.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int total = 0;
+            ByteBuffer buf = current();
+            while (buf != null && total < len) {
+                int n = Math.min(len - total, buf.remaining());
+                buf.get(b, off + total, n);
+                total += n;
+                buf = current();
+            }
+            return total == 0 ? -1 : total;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            ByteBuffer buf = current();
+            while (buf != null && skipped < n) {
+                int s = (int)Math.min(n - skipped, buf.remaining());
+                ((Buffer)buf).position(buf.position() + s);
+                skipped += s;
+                buf = current();
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            long available = 0;
+            for (int x = index; x < buffers.length; x++) {
+                available += buffers[x].remaining();
+            }
+            return (int)Math.min(available, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inputStreamClosed();
+            }
+        }
+
+        @Override
+        public void transferTo(File destinationFile) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            try (FileChannel channel = FileChannel.open(destinationFile.toPath(),
+                                                        StandardOpenOption.CREATE,
+                                                        StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (int x = index; x < buffers.length; x++) {
+                    while (buffers[x].hasRemaining()) {
+                        channel.write(buffers[x]);
+                    }
+                }
+            }
+        }
+    }
+}
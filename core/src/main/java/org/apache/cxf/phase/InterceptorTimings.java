@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.phase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records how long each interceptor of the chains of an exchange takes. Once set on a
+ * {@link PhaseInterceptorChain} (usually by an interceptor early in the chain, see
+ * {@link PhaseInterceptorChain#setTimings(InterceptorTimings)}), every following interceptor
+ * is timed and its phase and elapsed nanoseconds are appended to preallocated arrays.
+ *
+ * The times are exclusive: when an interceptor runs another chain of the same exchange,
+ * like the OutgoingChainInterceptor does on the server side, the time spent in the nested
+ * chain is recorded against the interceptors of that chain only. The nesting is tracked per
+ * thread, so chains of the exchange running concurrently on other threads, like the response
+ * of a one-way or asynchronous invocation, do not affect each other's times.
+ *
+ * {@link #chainCompleted()} is called whenever the outermost chain has returned, subclasses
+ * override it to aggregate and {@link #clear()} the records.
+ */
+public class InterceptorTimings {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private PhaseInterceptor<?>[] interceptors;
+    private long[] nanos;
+    private int count;
+
+    // the interceptors running on each thread, usually just one
+    private final Map<Thread, Nesting> running = new HashMap<>(4);
+    private Nesting spare;
+
+    public InterceptorTimings() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InterceptorTimings(int capacity) {
+        interceptors = new PhaseInterceptor<?>[capacity];
+        nanos = new long[capacity];
+    }
+
+    /**
+     * Called before an interceptor is invoked.
+     * @return the start time to pass to {@link #end(PhaseInterceptor, long)}
+     */
+    public synchronized long start() {
+        Thread thread = Thread.currentThread();
+        Nesting nesting = running.get(thread);
+        if (nesting == null) {
+            nesting = spare == null ? new Nesting() : spare;
+            spare = null;
+            running.put(thread, nesting);
+        }
+        nesting.push();
+        return System.nanoTime();
+    }
+
+    /**
+     * Called once the interceptor has returned, or has thrown an exception.
+     */
+    public synchronized void end(PhaseInterceptor<?> interceptor, long startTime) {
+        long elapsed = System.nanoTime() - startTime;
+        if (count == nanos.length) {
+            interceptors = Arrays.copyOf(interceptors, count * 2);
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        interceptors[count] = interceptor;
+        Thread thread = Thread.currentThread();
+        Nesting nesting = running.get(thread);
+        if (nesting == null) {
+            // not started on this thread, the nested time is unknown
+            nanos[count++] = elapsed;
+            return;
+        }
+        nanos[count++] = Math.max(0, elapsed - nesting.pop(elapsed));
+        if (nesting.depth == 0) {
+            running.remove(thread);
+            spare = nesting;
+        }
+    }
+
+    /**
+     * Called by the chain when {@link PhaseInterceptorChain#doIntercept(org.apache.cxf.message.Message)}
+     * returns, completion is signalled only if no other interceptor of the exchange is running.
+     */
+    final void chainExited() {
+        boolean completed;
+        synchronized (this) {
+            completed = running.isEmpty() && count > 0;
+        }
+        if (completed) {
+            chainCompleted();
+        }
+    }
+
+    /**
+     * Called once the outermost chain has returned. The chain may only be paused, more
+     * records can be added when it resumes or when other chains of the exchange run.
+     */
+    protected void chainCompleted() {
+        // complete
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized PhaseInterceptor<?> getInterceptor(int index) {
+        return interceptors[index];
+    }
+
+    public synchronized long getNanos(int index) {
+        return nanos[index];
+    }
+
+    /**
+     * Removes the records, the arrays are kept for the next ones.
+     */
+    public synchronized void clear() {
+        Arrays.fill(interceptors, 0, count, null);
+        count = 0;
+    }
+
+    private static final class Nesting {
+        // time spent in the interceptors nested in the interceptor running at each depth
+        private long[] nested = new long[4];
+        private int depth;
+
+        void push() {
+            if (++depth == nested.length) {
+                nested = Arrays.copyOf(nested, depth * 2);
+            }
+            nested[depth] = 0;
+        }
+
+        /**
+         * Removes the innermost interceptor and adds its time to the enclosing one.
+         * @return the time spent in the interceptors nested in the removed one
+         */
+        long pop(long elapsed) {
+            long inner = nested[depth];
+            if (--depth > 0) {
+                nested[depth] += elapsed;
+            }
+            return inner;
+        }
+    }
+}
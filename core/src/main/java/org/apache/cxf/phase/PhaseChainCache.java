@@ -35,6 +35,11 @@ import org.apache.cxf.message.Message;
  * phases supplied in the get() methods of this class are defined by default
  * within org.apache.cxf.phase.PhaseManagerImpl.  For an example of this class
  * in use, check the sourcecode of org.apache.cxf.endpoint.ClientImpl.
+ * <p>
+ * The cached chain is kept as an immutable, array backed template that is rebuilt
+ * only when one of the interceptor providers changes (detected through the
+ * modification count of ModCountCopyOnWriteArrayList providers). The chains
+ * returned share the template and only copy it if they are modified.
  */
 public final class PhaseChainCache {
     AtomicReference<ChainHolder> lastData = new AtomicReference<>();
@@ -88,6 +93,8 @@ public final class PhaseChainCache {
                 copy.add(new ModCountCopyOnWriteArrayList<Interceptor<? extends Message>>(p));
                 chain.add(p);
             }
+            // build the template before publishing so concurrent requests share it
+            chain.getTemplate();
             last = new ChainHolder(chain, copy);
             lastData.set(last);
         }
@@ -97,8 +104,8 @@ public final class PhaseChainCache {
     }
 
     private static class ChainHolder {
-        List<ModCountCopyOnWriteArrayList<Interceptor<? extends Message>>> lists;
-        PhaseInterceptorChain chain;
+        final List<ModCountCopyOnWriteArrayList<Interceptor<? extends Message>>> lists;
+        final PhaseInterceptorChain chain;
 
         ChainHolder(PhaseInterceptorChain c,
                     List<ModCountCopyOnWriteArrayList<Interceptor<? extends Message>>> l) {
@@ -85,6 +85,10 @@ public class PhaseInterceptorChain implements InterceptorChain {
     // interceptors to the end of the list by default.
     private boolean[] hasAfters;
 
+    // immutable array snapshot of the interceptors. A clone refers to the snapshot
+    // of its source and only creates the holders above once it is modified, until
+    // then heads, tails and hasAfters are null.
+    private volatile ChainTemplate template;
 
     private State state;
     private Message pausedMessage;
@@ -97,6 +101,8 @@ public class PhaseInterceptorChain implements InterceptorChain {
     // doIntercept(), which will throw same fault multi-times
     private boolean faultOccurred;
     private boolean chainReleased;
+    // only set when the interceptors are being timed
+    private InterceptorTimings timings;
 
 
     private PhaseInterceptorChain(PhaseInterceptorChain src) {
@@ -108,32 +114,7 @@ public class PhaseInterceptorChain implements InterceptorChain {
         //immutable, just repoint
         nameMap = src.nameMap;
         phases = src.phases;
-
-        int length = phases.length;
-        hasAfters = new boolean[length];
-        System.arraycopy(src.hasAfters, 0, hasAfters, 0, length);
-
-        heads = new InterceptorHolder[length];
-        tails = new InterceptorHolder[length];
-
-        InterceptorHolder last = null;
-        for (int x = 0; x < length; x++) {
-            InterceptorHolder ih = src.heads[x];
-            while (ih != null
-                && ih.phaseIdx == x) {
-                InterceptorHolder ih2 = new InterceptorHolder(ih);
-                ih2.prev = last;
-                if (last != null) {
-                    last.next = ih2;
-                }
-                if (heads[x] == null) {
-                    heads[x] = ih2;
-                }
-                tails[x] = ih2;
-                last = ih2;
-                ih = ih.next;
-            }
-        }
+        template = src.getTemplate();
     }
 
     public PhaseInterceptorChain(SortedSet<Phase> ps) {
@@ -198,13 +179,61 @@ public class PhaseInterceptorChain implements InterceptorChain {
         this.notifyAll();
     }
 
+    /**
+     * Times the interceptors which are invoked from now on, including the interceptors
+     * of the current phase which have not run yet.
+     */
+    public void setTimings(InterceptorTimings timings) {
+        this.timings = timings;
+    }
+
+    public InterceptorTimings getTimings() {
+        return timings;
+    }
+
     public PhaseInterceptorChain cloneChain() {
         return new PhaseInterceptorChain(this);
     }
 
+    /**
+     * Gets the immutable snapshot of the current interceptors, building it if the
+     * chain has been modified since it was last taken.
+     */
+    ChainTemplate getTemplate() {
+        ChainTemplate t = template;
+        if (t == null) {
+            t = new ChainTemplate(heads, hasAfters);
+            template = t;
+        }
+        return t;
+    }
+
+    /**
+     * Copies the snapshot into holders before the chain is modified (copy on write).
+     */
+    private void materialize() {
+        if (heads == null) {
+            ChainTemplate t = template;
+            int length = phases.length;
+            InterceptorHolder[] h = new InterceptorHolder[length];
+            InterceptorHolder[] tl = new InterceptorHolder[length];
+            InterceptorHolder[] holders = t.createHolders(h, tl);
+            hasAfters = t.hasAfters.clone();
+            tails = tl;
+            heads = h;
+            if (iterator != null) {
+                iterator.switchTo(heads, holders);
+            }
+        }
+    }
+
+    private PhaseInterceptorIterator newIterator() {
+        return heads == null ? new PhaseInterceptorIterator(template) : new PhaseInterceptorIterator(heads);
+    }
+
     private void updateIterator() {
         if (iterator == null) {
-            iterator = new PhaseInterceptorIterator(heads);
+            iterator = newIterator();
             outputChainToLog(false);
             //System.out.println(toString());
         }
@@ -305,7 +334,17 @@ public class PhaseInterceptorChain implements InterceptorChain {
                         LOG.fine("Invoking handleMessage on interceptor " + currentInterceptor);
                     }
                     //System.out.println("-----------" + currentInterceptor);
-                    currentInterceptor.handleMessage(message);
+                    InterceptorTimings t = timings;
+                    if (t == null) {
+                        currentInterceptor.handleMessage(message);
+                    } else {
+                        long start = t.start();
+                        try {
+                            currentInterceptor.handleMessage(message);
+                        } finally {
+                            t.end((PhaseInterceptor<?>)currentInterceptor, start);
+                        }
+                    }
                     if (state == State.SUSPENDED) {
                          // throw the exception to make sure thread exit without interrupt
                         throw new SuspendedInvocationException();
@@ -340,6 +379,9 @@ public class PhaseInterceptorChain implements InterceptorChain {
             return state == State.COMPLETE;
         } finally {
             CURRENT_MESSAGE.set(oldMessage);
+            if (timings != null) {
+                timings.chainExited();
+            }
         }
     }
 
@@ -508,6 +550,12 @@ public class PhaseInterceptorChain implements InterceptorChain {
     }
 
     public void remove(Interceptor<? extends Message> i) {
+        if (heads == null) {
+            if (!template.contains(i)) {
+                return;
+            }
+            materialize();
+        }
         PhaseInterceptorIterator it = new PhaseInterceptorIterator(heads);
         while (it.hasNext()) {
             InterceptorHolder holder = it.nextInterceptorHolder();
@@ -526,10 +574,11 @@ public class PhaseInterceptorChain implements InterceptorChain {
         return getIterator();
     }
     public ListIterator<Interceptor<? extends Message>> getIterator() {
-        return new PhaseInterceptorIterator(heads);
+        return newIterator();
     }
 
     private void remove(InterceptorHolder i) {
+        template = null;
         if (i.prev != null) {
             i.prev.next = i.next;
         }
@@ -558,6 +607,16 @@ public class PhaseInterceptorChain implements InterceptorChain {
     }
 
     private void insertInterceptor(int phase, PhaseInterceptor<? extends Message> interc, boolean force) {
+        if (heads == null) {
+            String id = interc.getId();
+            if (!force && id != null && template.contains(phase, id)) {
+                // interceptor is already in chain, no need to copy the template
+                return;
+            }
+            materialize();
+        }
+        template = null;
+
         InterceptorHolder ih = new InterceptorHolder(interc, phase);
         if (heads[phase] == null) {
             // no interceptors yet in this phase
@@ -703,21 +762,28 @@ public class PhaseInterceptorChain implements InterceptorChain {
             .append(message)
             .append(". Current flow:\n");
 
+        InterceptorHolder[] h = heads;
+        InterceptorHolder[] t = tails;
+        if (h == null) {
+            h = new InterceptorHolder[phases.length];
+            t = new InterceptorHolder[phases.length];
+            template.createHolders(h, t);
+        }
         for (int x = 0; x < phases.length; x++) {
-            if (heads[x] != null) {
+            if (h[x] != null) {
                 chain.append("  ");
-                printPhase(x, chain);
+                printPhase(x, chain, h[x], t[x]);
             }
         }
         return chain.toString();
     }
-    private void printPhase(int ph, StringBuilder chain) {
+    private void printPhase(int ph, StringBuilder chain, InterceptorHolder head, InterceptorHolder tail) {
 
         chain.append(phases[ph].getName())
             .append(" [");
-        InterceptorHolder i = heads[ph];
+        InterceptorHolder i = head;
         boolean first = true;
-        while (i != tails[ph].next) {
+        while (i != tail.next) {
             if (first) {
                 first = false;
             } else {
@@ -755,18 +821,41 @@ public class PhaseInterceptorChain implements InterceptorChain {
         InterceptorHolder[] heads;
         InterceptorHolder prev;
         InterceptorHolder first;
+        // set while walking an unmodified template, pos is the index of the next interceptor
+        ChainTemplate template;
+        int pos;
 
         PhaseInterceptorIterator(InterceptorHolder[] h) {
             heads = h;
-            first = findFirst();
+            first = findFirst(heads);
+        }
+
+        PhaseInterceptorIterator(ChainTemplate t) {
+            template = t;
+        }
+
+        /**
+         * Continues on the holders created from the template, at the same position.
+         */
+        void switchTo(InterceptorHolder[] h, InterceptorHolder[] holders) {
+            if (template != null) {
+                heads = h;
+                prev = pos == 0 ? null : holders[pos - 1];
+                first = findFirst(heads);
+                template = null;
+            }
         }
 
         public void reset() {
+            if (template != null) {
+                pos = 0;
+                return;
+            }
             prev = null;
-            first = findFirst();
+            first = findFirst(heads);
         }
 
-        private InterceptorHolder findFirst() {
+        private static InterceptorHolder findFirst(InterceptorHolder[] heads) {
             for (int x = 0; x < heads.length; x++) {
                 if (heads[x] != null) {
                     return heads[x];
@@ -777,6 +866,9 @@ public class PhaseInterceptorChain implements InterceptorChain {
 
 
         public boolean hasNext() {
+            if (template != null) {
+                return pos < template.interceptors.length;
+            }
             if (prev == null) {
                 return first != null;
             }
@@ -784,6 +876,12 @@ public class PhaseInterceptorChain implements InterceptorChain {
         }
 
         public Interceptor<? extends Message> next() {
+            if (template != null) {
+                if (pos == template.interceptors.length) {
+                    throw new NoSuchElementException();
+                }
+                return template.interceptors[pos++];
+            }
             if (prev == null) {
                 if (first == null) {
                     throw new NoSuchElementException();
@@ -813,9 +911,18 @@ public class PhaseInterceptorChain implements InterceptorChain {
         }
 
         public boolean hasPrevious() {
+            if (template != null) {
+                return pos > 0;
+            }
             return prev != null;
         }
         public Interceptor<? extends Message> previous() {
+            if (template != null) {
+                if (pos == 0) {
+                    throw new NoSuchElementException();
+                }
+                return template.interceptors[--pos];
+            }
             if (prev == null) {
                 throw new NoSuchElementException();
             }
@@ -852,9 +959,73 @@ public class PhaseInterceptorChain implements InterceptorChain {
             interceptor = i;
             phaseIdx = p;
         }
-        InterceptorHolder(InterceptorHolder p) {
-            interceptor = p.interceptor;
-            phaseIdx = p.phaseIdx;
+    }
+
+    /**
+     * Immutable, array backed copy of the interceptors of a chain in execution order.
+     */
+    static final class ChainTemplate {
+        final PhaseInterceptor<? extends Message>[] interceptors;
+        final int[] phaseIdx;
+        final boolean[] hasAfters;
+
+        @SuppressWarnings("unchecked")
+        ChainTemplate(InterceptorHolder[] heads, boolean[] afters) {
+            InterceptorHolder first = PhaseInterceptorIterator.findFirst(heads);
+            int count = 0;
+            for (InterceptorHolder ih = first; ih != null; ih = ih.next) {
+                count++;
+            }
+            interceptors = new PhaseInterceptor[count];
+            phaseIdx = new int[count];
+            int x = 0;
+            for (InterceptorHolder ih = first; ih != null; ih = ih.next) {
+                interceptors[x] = ih.interceptor;
+                phaseIdx[x] = ih.phaseIdx;
+                x++;
+            }
+            hasAfters = afters.clone();
+        }
+
+        /**
+         * Creates linked holders for the interceptors and fills in the heads and
+         * tails of each phase.
+         */
+        InterceptorHolder[] createHolders(InterceptorHolder[] heads, InterceptorHolder[] tails) {
+            InterceptorHolder[] holders = new InterceptorHolder[interceptors.length];
+            InterceptorHolder last = null;
+            for (int x = 0; x < interceptors.length; x++) {
+                InterceptorHolder ih = new InterceptorHolder(interceptors[x], phaseIdx[x]);
+                ih.prev = last;
+                if (last != null) {
+                    last.next = ih;
+                }
+                if (heads[ih.phaseIdx] == null) {
+                    heads[ih.phaseIdx] = ih;
+                }
+                tails[ih.phaseIdx] = ih;
+                holders[x] = ih;
+                last = ih;
+            }
+            return holders;
+        }
+
+        boolean contains(Interceptor<? extends Message> i) {
+            for (PhaseInterceptor<? extends Message> pi : interceptors) {
+                if (pi == i) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean contains(int phase, String id) {
+            for (int x = 0; x < interceptors.length; x++) {
+                if (phaseIdx[x] == phase && id.equals(interceptors[x].getId())) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 
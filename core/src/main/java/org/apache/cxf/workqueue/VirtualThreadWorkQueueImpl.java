@@ -0,0 +1,343 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.workqueue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.classloader.ClassLoaderUtils;
+import org.apache.cxf.common.classloader.ClassLoaderUtils.ClassLoaderHolder;
+import org.apache.cxf.common.injection.NoJSR250Annotations;
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * An {@link AutomaticWorkQueue} that runs every task on its own virtual thread
+ * instead of a bounded pool. There is no backing queue; the number of tasks running
+ * at the same time is limited by a semaphore and work that cannot get a permit is
+ * rejected (or waits up to the given timeout for {@link #execute(Runnable, long)}).
+ *
+ * Virtual threads are looked up reflectively so that this class can be used on any
+ * supported JDK. On a JDK without virtual threads each task gets a new daemon
+ * platform thread, with the same concurrency limit applied.
+ */
+@NoJSR250Annotations
+public class VirtualThreadWorkQueueImpl implements AutomaticWorkQueue {
+    public static final int UNLIMITED_CONCURRENCY = -1;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(VirtualThreadWorkQueueImpl.class);
+
+    String name = "default";
+    volatile int maxConcurrency;
+
+    // the permits of the current limit, null if the concurrency is unlimited
+    private volatile AdjustableSemaphore permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final Object shutdownLock = new Object();
+    private volatile boolean shutdown;
+    private volatile ThreadFactory threadFactory;
+    private boolean virtualThreads;
+    private ScheduledThreadPoolExecutor scheduler;
+
+    public VirtualThreadWorkQueueImpl() {
+        this("default");
+    }
+    public VirtualThreadWorkQueueImpl(String name) {
+        this(name, UNLIMITED_CONCURRENCY);
+    }
+    public VirtualThreadWorkQueueImpl(String name, int maxConcurrency) {
+        this.name = name;
+        setMaxConcurrency(maxConcurrency);
+    }
+
+    protected ThreadFactory getThreadFactory() {
+        ThreadFactory factory = threadFactory;
+        if (factory == null) {
+            synchronized (this) {
+                factory = threadFactory;
+                if (factory == null) {
+                    factory = createVirtualThreadFactory(name);
+                    virtualThreads = factory != null;
+                    if (factory == null) {
+                        LOG.log(Level.WARNING, "VIRTUAL_THREADS_UNAVAILABLE_MSG", name);
+                        factory = new PlatformThreadFactory(name);
+                    }
+                    threadFactory = factory;
+                }
+            }
+        }
+        return factory;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String nm) {
+        try {
+            //java 21: Thread.ofVirtual().name(prefix, 0).factory()
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            Method nameMethod = builderClass.getMethod("name", String.class, Long.TYPE);
+            builder = nameMethod.invoke(builder, nm + "-workqueue-vt-", 0L);
+            return (ThreadFactory)builderClass.getMethod("factory").invoke(builder);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    public synchronized void setName(String s) {
+        name = s;
+        // the threads are named after the queue
+        threadFactory = null;
+    }
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the maximum number of tasks that may run at the same time.
+     * A value less than one means no limit. The tasks started while the concurrency
+     * was unlimited do not count against a new limit.
+     */
+    public synchronized void setMaxConcurrency(int max) {
+        int newMax = max < 1 ? UNLIMITED_CONCURRENCY : max;
+        int oldMax = maxConcurrency;
+        AdjustableSemaphore current = permits;
+        if (newMax == UNLIMITED_CONCURRENCY) {
+            permits = null;
+        } else if (current == null) {
+            permits = new AdjustableSemaphore(newMax);
+        } else if (newMax > oldMax) {
+            current.release(newMax - oldMax);
+        } else if (newMax < oldMax) {
+            current.reduce(oldMax - newMax);
+        }
+        maxConcurrency = newMax;
+    }
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public String toString() {
+        return new StringBuilder(super.toString())
+                .append(" [in flight: ").append(getInFlightCount())
+                .append(", max concurrency: ").append(getMaxConcurrency())
+                .append(", rejected: ").append(getRejectedCount())
+                .append(", virtual threads: ").append(isVirtualThreads())
+                .append(']').toString();
+    }
+
+    public void execute(Runnable work) {
+        if (work == null) {
+            throw new NullPointerException();
+        }
+        checkShutdown();
+        AdjustableSemaphore p = permits;
+        if (p != null && !p.tryAcquire()) {
+            throw reject("Concurrency limit of " + maxConcurrency + " reached for work queue " + name);
+        }
+        start(work, p);
+    }
+
+    // WorkQueue interface
+    public void execute(Runnable work, long timeout) {
+        if (work == null) {
+            throw new NullPointerException();
+        }
+        checkShutdown();
+        AdjustableSemaphore p = permits;
+        if (p != null) {
+            try {
+                if (!p.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                    throw reject("Concurrency limit of " + maxConcurrency
+                                 + " reached for work queue " + name);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw reject("Interrupted while waiting for work queue " + name);
+            }
+        }
+        start(work, p);
+    }
+
+    public void schedule(final Runnable work, final long delay) {
+        if (work == null) {
+            throw new NullPointerException();
+        }
+        checkShutdown();
+        getScheduler().schedule(new Runnable() {
+            public void run() {
+                try {
+                    execute(work);
+                } catch (RejectedExecutionException ex) {
+                    LOG.warning("Executing the scheduled task with exception: " + ex);
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized ScheduledThreadPoolExecutor getScheduler() {
+        if (scheduler == null) {
+            scheduler = new ScheduledThreadPoolExecutor(1, new PlatformThreadFactory(name + "-scheduler"));
+            scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        return scheduler;
+    }
+
+    /**
+     * Starts the task, the permit it holds, if any, is returned to <code>taskPermits</code>.
+     */
+    private void start(final Runnable command, final AdjustableSemaphore taskPermits) {
+        //Grab the context classloader of this thread.   We'll make sure we use that
+        //on the thread the runnable actually runs on.
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Runnable r = new Runnable() {
+            public void run() {
+                ClassLoaderHolder orig = ClassLoaderUtils.setThreadContextClassloader(loader);
+                try {
+                    command.run();
+                } finally {
+                    if (orig != null) {
+                        orig.reset();
+                    }
+                    completed.incrementAndGet();
+                    finished(taskPermits);
+                }
+            }
+        };
+        inFlight.incrementAndGet();
+        try {
+            getThreadFactory().newThread(r).start();
+        } catch (Throwable t) {
+            finished(taskPermits);
+            RejectedExecutionException ree = reject("Could not start a thread for work queue " + name);
+            ree.initCause(t);
+            throw ree;
+        }
+    }
+
+    private void finished(AdjustableSemaphore taskPermits) {
+        if (taskPermits != null) {
+            taskPermits.release();
+        }
+        if (inFlight.decrementAndGet() == 0 && shutdown) {
+            synchronized (shutdownLock) {
+                shutdownLock.notifyAll();
+            }
+        }
+    }
+
+    private RejectedExecutionException reject(String msg) {
+        rejected.incrementAndGet();
+        return new RejectedExecutionException(msg);
+    }
+
+    private void checkShutdown() {
+        if (shutdown) {
+            throw reject("Work queue " + name + " has been shut down");
+        }
+    }
+
+    // AutomaticWorkQueue interface
+
+    public void shutdown(boolean processRemainingWorkItems) {
+        shutdown = true;
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        if (processRemainingWorkItems) {
+            synchronized (shutdownLock) {
+                while (inFlight.get() > 0) {
+                    try {
+                        shutdownLock.wait(100L);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Gets the number of tasks that have been accepted but not finished yet.
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the number of tasks that were rejected since the queue was created.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public boolean isVirtualThreads() {
+        getThreadFactory();
+        return virtualThreads;
+    }
+
+    static class AdjustableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        AdjustableSemaphore(int permits) {
+            super(permits);
+        }
+
+        void reduce(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+
+    static class PlatformThreadFactory implements ThreadFactory {
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+        final String name;
+
+        PlatformThreadFactory(String nm) {
+            name = nm;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, name + "-workqueue-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            if (t.getPriority() != Thread.NORM_PRIORITY) {
+                t.setPriority(Thread.NORM_PRIORITY);
+            }
+            return t;
+        }
+    }
+}
@@ -20,14 +20,20 @@ package org.apache.cxf.attachment;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
@@ -39,6 +45,7 @@ import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.helpers.DefaultHandler;
 
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CacheSizeExceededException;
 import org.apache.cxf.message.Attachment;
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.ExchangeImpl;
@@ -49,6 +56,7 @@ import org.apache.cxf.message.XMLMessage;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -783,4 +791,137 @@ public class AttachmentDeserializerTest {
         assertEquals("passwd", dataSource.getName());
     }
 
+    @Test
+    public void testAttachmentWithContentLengthIsCachedToFile() throws Exception {
+        char[] content = new char[4000];
+        Arrays.fill(content, 'x');
+        StringBuilder sb = new StringBuilder(5000);
+        sb.append("SomeHeader: foo\n")
+            .append("------=_Part_34950_1098328613.1263781527359\n")
+            .append("Content-Type: text/xml; charset=UTF-8\n")
+            .append("Content-Id: <318731183421.1263781527359.IBM.WEBSERVICES@auhpap02>\n")
+            .append('\n')
+            .append("<envelope/>\n");
+
+        sb.append("------=_Part_34950_1098328613.1263781527359\n")
+            .append("Content-Type: text/plain\n")
+            .append("Content-Id: <b86a5f2d-e7af-4e5e-b71a-9f6f2307cab0>\n")
+            .append("Content-Length: 4000\n")
+            .append('\n')
+            .append(content)
+            .append("\r\n------=_Part_34950_1098328613.1263781527359--\n");
+
+        msg = new MessageImpl();
+        msg.put(AttachmentDeserializer.ATTACHMENT_MEMORY_THRESHOLD, "1000");
+        msg.setContent(InputStream.class,
+                       new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        msg.put(Message.CONTENT_TYPE, "multipart/related");
+        AttachmentDeserializer ad = new AttachmentDeserializer(msg);
+        ad.initializeAttachments();
+
+        Attachment attachment = msg.getAttachments().iterator().next();
+        AttachmentDataSource dataSource = (AttachmentDataSource)attachment.getDataHandler().getDataSource();
+        assertEquals(4000, dataSource.getContentLength());
+        dataSource.cache(msg);
+        try (InputStream is = dataSource.getInputStream()) {
+            assertTrue(is instanceof FileInputStream);
+            assertEquals(new String(content), IOUtils.toString(is));
+        }
+    }
+
+    @Test
+    public void testEncodedAttachmentsDecodedOnExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            msg = createEncodedAttachmentsMessage(10, executor);
+            AttachmentDeserializer ad = new AttachmentDeserializer(msg);
+            ad.initializeAttachments();
+
+            for (int x = 9; x >= 0; x--) {
+                DataSource ds = AttachmentUtil.getAttachmentDataSource("cid:att" + x, msg.getAttachments());
+                byte[] expected = new byte[10000 + x];
+                Arrays.fill(expected, (byte)x);
+                try (InputStream is = ds.getInputStream()) {
+                    assertArrayEquals(expected, IOUtils.readBytesFromStream(is));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncodedAttachmentDecodedByWaitingThread() throws Exception {
+        // the executor never gets to the decoding, as if its threads were all busy
+        List<Runnable> tasks = new ArrayList<>();
+        msg = createEncodedAttachmentsMessage(2, (Executor)tasks::add);
+        AttachmentDeserializer ad = new AttachmentDeserializer(msg);
+        ad.initializeAttachments();
+
+        for (int x = 1; x >= 0; x--) {
+            DataSource ds = AttachmentUtil.getAttachmentDataSource("cid:att" + x, msg.getAttachments());
+            byte[] expected = new byte[10000 + x];
+            Arrays.fill(expected, (byte)x);
+            try (InputStream is = ds.getInputStream()) {
+                assertArrayEquals(expected, IOUtils.readBytesFromStream(is));
+            }
+        }
+        assertFalse(tasks.isEmpty());
+        // the queued decoding has been done already
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        DataSource ds = AttachmentUtil.getAttachmentDataSource("cid:att0", msg.getAttachments());
+        try (InputStream is = ds.getInputStream()) {
+            assertEquals(10000, IOUtils.readBytesFromStream(is).length);
+        }
+    }
+
+    @Test(expected = CacheSizeExceededException.class)
+    public void testDecodedAttachmentTooLarge() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        msg = createEncodedAttachmentsMessage(2, (Executor)tasks::add);
+        msg.put(AttachmentDeserializer.ATTACHMENT_MAX_SIZE, 5000L);
+        AttachmentDeserializer ad = new AttachmentDeserializer(msg);
+        ad.initializeAttachments();
+
+        AttachmentUtil.getAttachmentDataSource("cid:att1", msg.getAttachments()).getInputStream();
+        // the first attachment is only decoded now
+        AttachmentUtil.getAttachmentDataSource("cid:att0", msg.getAttachments()).getInputStream();
+    }
+
+    private static MessageImpl createEncodedAttachmentsMessage(int count, Executor executor) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("------=_Part_34950_1098328613.1263781527359\n")
+            .append("Content-Type: text/xml; charset=UTF-8\n")
+            .append("Content-Id: <root>\n")
+            .append('\n')
+            .append("<envelope/>\n");
+        for (int x = 0; x < count; x++) {
+            byte[] content = new byte[10000 + x];
+            Arrays.fill(content, (byte)x);
+            sb.append("------=_Part_34950_1098328613.1263781527359\n")
+                .append("Content-Type: application/octet-stream\n")
+                .append("Content-Transfer-Encoding: ").append(x % 2 == 0 ? "base64" : "quoted-printable")
+                .append('\n')
+                .append("Content-Id: <att").append(x).append(">\n")
+                .append('\n');
+            if (x % 2 == 0) {
+                sb.append(Base64.getMimeEncoder().encodeToString(content));
+            } else {
+                for (int i = 0; i < content.length; i++) {
+                    sb.append(i % 70 == 69 ? "=\r\n" : "").append("=0").append(x);
+                }
+            }
+            sb.append("\r\n");
+        }
+        sb.append("------=_Part_34950_1098328613.1263781527359--\n");
+
+        MessageImpl message = new MessageImpl();
+        message.put(AttachmentDeserializer.ATTACHMENT_DECODE_WORK_QUEUE, executor);
+        message.setContent(InputStream.class,
+                           new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        message.put(Message.CONTENT_TYPE, "multipart/related");
+        return message;
+    }
 }
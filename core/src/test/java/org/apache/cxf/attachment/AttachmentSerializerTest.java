@@ -20,14 +20,21 @@ package org.apache.cxf.attachment;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Properties;
 
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
+import javax.activation.FileDataSource;
 import javax.mail.Session;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
@@ -41,6 +48,7 @@ import org.apache.cxf.message.MessageImpl;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -173,6 +181,83 @@ public class AttachmentSerializerTest {
 
     }
 
+    @Test
+    public void testFileAttachment() throws Exception {
+        File attachment = File.createTempFile("attachment", ".wav");
+        File output = File.createTempFile("message", ".mime");
+        try {
+            try (InputStream is = getClass().getResourceAsStream("my.wav")) {
+                Files.copy(is, attachment.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            MessageImpl msg = new MessageImpl();
+            Collection<Attachment> atts = new ArrayList<>();
+            AttachmentImpl a = new AttachmentImpl("test.wav");
+            a.setDataHandler(new DataHandler(new FileDataSource(attachment)));
+            atts.add(a);
+            msg.setAttachments(atts);
+            msg.put(Message.CONTENT_TYPE, "application/soap+xml");
+
+            String ct;
+            try (OutputStream out = new FileOutputStream(output)) {
+                msg.setContent(OutputStream.class, out);
+                AttachmentSerializer serializer = new AttachmentSerializer(msg);
+                serializer.writeProlog();
+                ct = (String) msg.get(Message.CONTENT_TYPE);
+                out.write("<soap:Body/>".getBytes());
+                serializer.writeAttachments();
+            }
+
+            DataSource source = new ByteArrayDataSource(Files.readAllBytes(output.toPath()), ct);
+            MimeMultipart multipart = new MimeMultipart(source);
+            MimeBodyPart part = (MimeBodyPart) multipart.getBodyPart(1);
+            assertEquals("<test.wav>", part.getHeader("Content-ID")[0]);
+            ByteArrayOutputStream bodyOut = new ByteArrayOutputStream();
+            try (InputStream in = part.getDataHandler().getInputStream()) {
+                IOUtils.copy(in, bodyOut);
+            }
+            assertArrayEquals(Files.readAllBytes(attachment.toPath()), bodyOut.toByteArray());
+        } finally {
+            attachment.delete();
+            output.delete();
+        }
+    }
+
+    @Test
+    public void testFileAttachmentTransferredToChannel() throws Exception {
+        File attachment = File.createTempFile("attachment", ".wav");
+        try {
+            try (InputStream is = getClass().getResourceAsStream("my.wav")) {
+                Files.copy(is, attachment.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            MessageImpl msg = new MessageImpl();
+            Collection<Attachment> atts = new ArrayList<>();
+            AttachmentImpl a = new AttachmentImpl("test.wav");
+            a.setDataHandler(new DataHandler(new FileDataSource(attachment)));
+            atts.add(a);
+            msg.setAttachments(atts);
+            msg.put(Message.CONTENT_TYPE, "application/soap+xml");
+
+            ChannelOutputStream out = new ChannelOutputStream();
+            msg.setContent(OutputStream.class, out);
+            AttachmentSerializer serializer = new AttachmentSerializer(msg);
+            serializer.writeProlog();
+            String ct = (String) msg.get(Message.CONTENT_TYPE);
+            out.write("<soap:Body/>".getBytes());
+            serializer.writeAttachments();
+            assertEquals(attachment.length(), out.channelBytes);
+
+            DataSource source = new ByteArrayDataSource(out.toByteArray(), ct);
+            MimeBodyPart part = (MimeBodyPart) new MimeMultipart(source).getBodyPart(1);
+            ByteArrayOutputStream bodyOut = new ByteArrayOutputStream();
+            try (InputStream in = part.getDataHandler().getInputStream()) {
+                IOUtils.copy(in, bodyOut);
+            }
+            assertArrayEquals(Files.readAllBytes(attachment.toPath()), bodyOut.toByteArray());
+        } finally {
+            attachment.delete();
+        }
+    }
+
     @Test
     public void testMessageMTOM() throws Exception {
         MessageImpl msg = new MessageImpl();
@@ -242,4 +327,24 @@ public class AttachmentSerializerTest {
     private static String escapeQuotes(String s) {
         return s.indexOf('"') != 0 ? s.replace("\"", "\\\"") : s;
     }
-}
\ No newline at end of file
+
+    private static final class ChannelOutputStream extends ByteArrayOutputStream
+        implements WritableByteChannel {
+        long channelBytes;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            byte[] bytes = new byte[n];
+            src.get(bytes);
+            write(bytes, 0, n);
+            channelBytes += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.common.util;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class BeanAccessorsTest {
+
+    @Test
+    public void testMethods() throws Exception {
+        Bean bean = (Bean)BeanAccessors.constructor(Bean.class).get();
+        BeanAccessors.setter(Bean.class.getMethod("setNumber", int.class)).accept(bean, 5);
+        assertEquals(5, BeanAccessors.getter(Bean.class.getMethod("getNumber")).apply(bean));
+
+        // the value returned by a fluent setter is ignored
+        BeanAccessors.setter(Bean.class.getMethod("setName", String.class)).accept(bean, "a");
+        assertEquals("a", bean.getName());
+
+        assertEquals("[b]",
+                     BeanAccessors.function(Bean.class.getMethod("wrap", String.class)).apply(bean, "b"));
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        Bean bean = new Bean();
+        BeanAccessors.setter(Bean.class.getDeclaredField("value")).accept(bean, 3L);
+        assertEquals(3L, BeanAccessors.getter(Bean.class.getDeclaredField("value")).apply(bean));
+    }
+
+    @Test
+    public void testNonPublicClass() throws Exception {
+        Object hidden = BeanAccessors.constructor(Hidden.class).get();
+        assertEquals(7, BeanAccessors.getter(Hidden.class.getDeclaredMethod("getValue")).apply(hidden));
+    }
+
+    @Test
+    public void testAccessorsAreCached() throws Exception {
+        Function<Object, Object> getter = BeanAccessors.getter(Bean.class.getMethod("getNumber"));
+        assertSame(getter, BeanAccessors.getter(Bean.class.getMethod("getNumber")));
+        assertSame(BeanAccessors.constructor(Bean.class), BeanAccessors.constructor(Bean.class));
+    }
+
+    @Test
+    public void testExceptionsAreNotWrapped() throws Exception {
+        try {
+            BeanAccessors.getter(Bean.class.getMethod("fail")).apply(new Bean());
+            fail("IOException expected");
+        } catch (Exception ex) {
+            assertEquals(IOException.class, ex.getClass());
+        }
+        try {
+            BeanAccessors.constructor(AbstractBean.class);
+            fail("InstantiationException expected");
+        } catch (InstantiationException ex) {
+            // expected
+        }
+    }
+
+    public static class Bean {
+        private int number;
+        private String name;
+        long value;
+
+        public int getNumber() {
+            return number;
+        }
+
+        public void setNumber(int number) {
+            this.number = number;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Bean setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public String wrap(String s) {
+            return "[" + s + "]";
+        }
+
+        public String fail() throws IOException {
+            throw new IOException();
+        }
+    }
+
+    public abstract static class AbstractBean {
+    }
+
+    static class Hidden {
+        int getValue() {
+            return 7;
+        }
+    }
+}
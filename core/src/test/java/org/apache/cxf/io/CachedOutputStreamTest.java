@@ -30,6 +30,7 @@ import org.apache.cxf.message.MessageImpl;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -42,6 +43,7 @@ public class CachedOutputStreamTest extends CachedStreamTestBase {
         CachedOutputStream.setDefaultThreshold(-1);
         CachedOutputStream.setDefaultMaxSize(-1);
         CachedOutputStream.setDefaultCipherTransformation(null);
+        CachedOutputStream.setDefaultPooledBuffers(false);
     }
 
     @Override
@@ -127,5 +129,93 @@ public class CachedOutputStreamTest extends CachedStreamTestBase {
             }
         }
     }
-}
 
+    @Test
+    public void testPooledBuffers() throws Exception {
+        CachedBufferPool old = CachedBufferPool.getDefault();
+        CachedBufferPool pool = new CachedBufferPool(16, 64);
+        CachedBufferPool.setDefault(pool);
+        try {
+            CachedOutputStream.setDefaultPooledBuffers(true);
+            CachedOutputStream cos = new CachedOutputStream();
+            cos.setThreshold(1024);
+            assertTrue(cos.isPooledBuffers());
+            cos.write("Hello pooled World!".getBytes(StandardCharsets.UTF_8));
+            assertNull(cos.getTempFile());
+            assertEquals(32, pool.getAllocatedMemory());
+
+            InputStream in = cos.getInputStream();
+            cos.close();
+            assertEquals("chunks are kept while a stream is open", 0, pool.getFreeChunkCount());
+            assertEquals("Hello pooled World!", readFromStream(in));
+            in.close();
+            assertEquals(2, pool.getFreeChunkCount());
+
+            // the budget is exhausted, the content goes to a temp file
+            cos = new CachedOutputStream();
+            cos.setThreshold(1024);
+            cos.write(new byte[100]);
+            assertNotNull(cos.getTempFile());
+            assertTrue(pool.getExhaustedCount() > 0);
+            cos.close();
+            assertEquals(4, pool.getFreeChunkCount());
+        } finally {
+            CachedOutputStream.setDefaultPooledBuffers(false);
+            CachedBufferPool.setDefault(old);
+        }
+    }
+
+    @Test
+    public void testPooledBuffersReadAfterClose() throws Exception {
+        CachedBufferPool old = CachedBufferPool.getDefault();
+        CachedBufferPool pool = new CachedBufferPool(16, 64);
+        CachedBufferPool.setDefault(pool);
+        try {
+            CachedOutputStream.setDefaultPooledBuffers(true);
+            CachedOutputStream cos = new CachedOutputStream();
+            cos.setThreshold(1024);
+            cos.write("Hello pooled World!".getBytes(StandardCharsets.UTF_8));
+            cos.close();
+            assertEquals("released when closed without a stream open", 2, pool.getFreeChunkCount());
+
+            assertEquals("Hello pooled World!", new String(cos.getBytes(), StandardCharsets.UTF_8));
+            assertEquals("Hello pooled World!", cos.toString());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            cos.writeCacheTo(out);
+            assertEquals("Hello pooled World!", out.toString("UTF-8"));
+            StringBuilder sb = new StringBuilder();
+            cos.writeCacheTo(sb);
+            assertEquals("Hello pooled World!", sb.toString());
+
+            InputStream in = cos.getInputStream();
+            assertEquals("Hello pooled World!", readFromStream(in));
+            assertEquals(2, pool.getFreeChunkCount());
+        } finally {
+            CachedOutputStream.setDefaultPooledBuffers(false);
+            CachedBufferPool.setDefault(old);
+        }
+    }
+
+    @Test
+    public void testPooledBuffersReleasedOnClose() throws Exception {
+        CachedBufferPool old = CachedBufferPool.getDefault();
+        CachedBufferPool pool = new CachedBufferPool(16, 64);
+        CachedBufferPool.setDefault(pool);
+        try {
+            CachedOutputStream.setDefaultPooledBuffers(true);
+            CachedOutputStream cos = new CachedOutputStream();
+            cos.setThreshold(1024);
+            cos.write("Hello pooled World!".getBytes(StandardCharsets.UTF_8));
+            InputStream in = cos.getInputStream();
+            assertEquals("Hello pooled World!", readFromStream(in));
+            in.close();
+            assertEquals("chunks are kept until the cache is closed", 0, pool.getFreeChunkCount());
+            cos.close();
+            assertEquals(2, pool.getFreeChunkCount());
+            assertEquals("Hello pooled World!", cos.toString());
+        } finally {
+            CachedOutputStream.setDefaultPooledBuffers(false);
+            CachedBufferPool.setDefault(old);
+        }
+    }
+}
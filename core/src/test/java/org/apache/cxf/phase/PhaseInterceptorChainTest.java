@@ -20,11 +20,14 @@
 package org.apache.cxf.phase;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.cxf.common.util.ReflectionUtil;
 import org.apache.cxf.common.util.SortedArraySet;
@@ -44,6 +47,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class PhaseInterceptorChainTest {
@@ -352,6 +356,59 @@ public class PhaseInterceptorChainTest {
         assertEquals(0, p1.faultInvoked);
     }
 
+    @Test
+    public void testClonedChainCopyOnWrite() throws Exception {
+        CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1", "p1");
+        CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        CountingPhaseInterceptor p3 = new CountingPhaseInterceptor("phase3", "p3");
+        control.replay();
+        chain.add(p1);
+        chain.add(p3);
+
+        PhaseInterceptorChain clone = chain.cloneChain();
+        clone.add(p1);
+        assertEquals(2, getInterceptorCount(clone));
+        clone.add(p2);
+        Iterator<Interceptor<? extends Message>> it = clone.iterator();
+        assertSame(p1, it.next());
+        assertSame(p2, it.next());
+        assertSame(p3, it.next());
+        assertFalse(it.hasNext());
+        assertEquals(2, getInterceptorCount(chain));
+
+        clone.remove(p1);
+        assertEquals(2, getInterceptorCount(clone));
+        assertEquals(2, getInterceptorCount(chain));
+    }
+
+    @Test
+    public void testInsertionInClonedChainPass() throws Exception {
+        CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1", "p1");
+        final CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        CountingPhaseInterceptor p3 = new CountingPhaseInterceptor("phase3", "p3");
+        CountingPhaseInterceptor inserting = new CountingPhaseInterceptor("phase1", "inserting") {
+            public void handleMessage(Message m) {
+                super.handleMessage(m);
+                m.getInterceptorChain().add(p2);
+            }
+        };
+        chain.add(p1);
+        chain.add(inserting);
+        chain.add(p3);
+        PhaseInterceptorChain clone = chain.cloneChain();
+
+        message.getInterceptorChain();
+        EasyMock.expectLastCall().andReturn(clone).anyTimes();
+        control.replay();
+
+        assertTrue(clone.doIntercept(message));
+        assertEquals(1, p1.invoked);
+        assertEquals(1, inserting.invoked);
+        assertEquals(1, p2.invoked);
+        assertEquals(1, p3.invoked);
+        assertEquals(3, getInterceptorCount(chain));
+    }
+
     @Test
     public void testWrappedInvocation() throws Exception {
         CountingPhaseInterceptor p1 = new CountingPhaseInterceptor("phase1",
@@ -396,6 +453,99 @@ public class PhaseInterceptorChainTest {
         assertEquals(1, p3.invoked);
     }
 
+    @Test
+    public void testTimings() throws Exception {
+        final List<Long> completed = new ArrayList<>();
+        final InterceptorTimings timings = new InterceptorTimings(1) {
+            @Override
+            protected void chainCompleted() {
+                completed.add(getNanos(size() - 1));
+            }
+        };
+        SortedSet<Phase> phases = new TreeSet<>();
+        phases.add(new Phase("phase1", 1));
+        final PhaseInterceptorChain nestedChain = new PhaseInterceptorChain(phases);
+        nestedChain.setTimings(timings);
+        final AbstractPhaseInterceptor<Message> sleeping = new AbstractPhaseInterceptor<Message>("phase1") {
+            public void handleMessage(Message m) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException ex) {
+                    // ignore
+                }
+            }
+        };
+        nestedChain.add(sleeping);
+
+        AbstractPhaseInterceptor<Message> p1 = new AbstractPhaseInterceptor<Message>("p1", "phase1") {
+            public void handleMessage(Message m) {
+                chain.setTimings(timings);
+            }
+        };
+        CountingPhaseInterceptor p2 = new CountingPhaseInterceptor("phase2", "p2");
+        AbstractPhaseInterceptor<Message> p3 = new AbstractPhaseInterceptor<Message>("p3", "phase3") {
+            public void handleMessage(Message m) {
+                nestedChain.doIntercept(m);
+            }
+        };
+
+        control.replay();
+        chain.add(p1);
+        chain.add(p2);
+        chain.add(p3);
+        assertTrue(chain.doIntercept(message));
+
+        // p1 is not timed, the nested chain completes inside p3
+        assertEquals(3, timings.size());
+        assertSame(p2, timings.getInterceptor(0));
+        assertSame(sleeping, timings.getInterceptor(1));
+        assertSame(p3, timings.getInterceptor(2));
+        assertTrue(timings.getNanos(1) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(timings.getNanos(2) < timings.getNanos(1));
+        assertEquals(1, completed.size());
+
+        timings.clear();
+        assertEquals(0, timings.size());
+    }
+
+    @Test
+    public void testTimingsOnConcurrentThreads() throws Exception {
+        final List<Integer> completed = new ArrayList<>();
+        final InterceptorTimings timings = new InterceptorTimings() {
+            @Override
+            protected void chainCompleted() {
+                completed.add(size());
+            }
+        };
+        final PhaseInterceptor<?> inner = new CountingPhaseInterceptor("phase1", "inner");
+        PhaseInterceptor<?> outer = new CountingPhaseInterceptor("phase1", "outer");
+
+        long start = timings.start();
+        Thread thread = new Thread(() -> {
+            long innerStart = timings.start();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                // ignore
+            }
+            timings.end(inner, innerStart);
+            timings.chainExited();
+        });
+        thread.start();
+        thread.join();
+        // the outer interceptor is still running
+        assertEquals(0, completed.size());
+        timings.end(outer, start);
+        timings.chainExited();
+
+        assertEquals(1, completed.size());
+        assertSame(inner, timings.getInterceptor(0));
+        assertSame(outer, timings.getInterceptor(1));
+        // the time of the other thread is not subtracted from the outer interceptor
+        assertTrue(timings.getNanos(0) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(timings.getNanos(1) >= timings.getNanos(0));
+    }
+
     AbstractPhaseInterceptor<Message> setUpPhaseInterceptor(String phase, String id) throws Exception {
         return setUpPhaseInterceptor(phase, id, null, null);
     }
@@ -473,6 +623,14 @@ public class PhaseInterceptorChainTest {
     }
 
 
+    private static int getInterceptorCount(PhaseInterceptorChain c) {
+        int count = 0;
+        for (Iterator<Interceptor<? extends Message>> it = c.iterator(); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+
     public class InsertingPhaseInterceptor extends
             AbstractPhaseInterceptor<Message> {
         int invoked;
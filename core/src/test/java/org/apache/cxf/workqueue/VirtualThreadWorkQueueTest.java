@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.workqueue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class VirtualThreadWorkQueueTest {
+
+    VirtualThreadWorkQueueImpl workqueue;
+
+    @After
+    public void tearDown() throws Exception {
+        if (workqueue != null) {
+            workqueue.shutdown(true);
+            workqueue = null;
+        }
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl("test");
+        final CountDownLatch latch = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            workqueue.execute(new Runnable() {
+                public void run() {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        workqueue.shutdown(true);
+        assertEquals(0, workqueue.getInFlightCount());
+        assertEquals(100, workqueue.getCompletedCount());
+        assertEquals(0, workqueue.getRejectedCount());
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl("test", 2);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+        workqueue.execute(blocking);
+        workqueue.execute(blocking);
+        assertEquals(2, workqueue.getInFlightCount());
+        try {
+            workqueue.execute(blocking);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        try {
+            workqueue.execute(blocking, 50L);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        assertEquals(2, workqueue.getRejectedCount());
+
+        workqueue.setMaxConcurrency(3);
+        workqueue.execute(blocking);
+        assertEquals(3, workqueue.getInFlightCount());
+
+        release.countDown();
+        workqueue.shutdown(true);
+        assertEquals(0, workqueue.getInFlightCount());
+        assertTrue(workqueue.isShutdown());
+    }
+
+    @Test
+    public void testChangeConcurrencyLimit() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl("test");
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+        workqueue.execute(blocking);
+        // the task started without a limit does not count against the new one
+        workqueue.setMaxConcurrency(1);
+        workqueue.execute(blocking);
+        try {
+            workqueue.execute(blocking);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+
+        release.countDown();
+        for (int i = 0; i < 100 && workqueue.getInFlightCount() > 0; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, workqueue.getInFlightCount());
+        // only the permit of the limited task has been returned
+        final CountDownLatch release2 = new CountDownLatch(1);
+        workqueue.execute(() -> {
+            try {
+                release2.await();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        });
+        try {
+            workqueue.execute(blocking);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        } finally {
+            release2.countDown();
+        }
+    }
+
+    @Test
+    public void testSchedule() throws Exception {
+        workqueue = new VirtualThreadWorkQueueImpl("test", 1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.currentTimeMillis();
+        workqueue.schedule(new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        }, 200L);
+        assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 200L);
+    }
+
+    @Test
+    public void testRejectAfterShutdown() {
+        workqueue = new VirtualThreadWorkQueueImpl("test");
+        workqueue.shutdown(false);
+        try {
+            workqueue.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        assertEquals(1, workqueue.getRejectedCount());
+    }
+}
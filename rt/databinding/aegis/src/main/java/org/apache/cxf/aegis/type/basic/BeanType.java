@@ -44,6 +44,7 @@ import org.apache.cxf.aegis.type.mtom.AbstractXOPType;
 import org.apache.cxf.aegis.xml.MessageReader;
 import org.apache.cxf.aegis.xml.MessageWriter;
 import org.apache.cxf.common.classloader.ClassLoaderUtils;
+import org.apache.cxf.common.util.BeanAccessors;
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.common.xmlschema.XmlSchemaUtils;
 import org.apache.cxf.helpers.CastUtils;
@@ -135,7 +136,7 @@ public class BeanType extends AegisType {
                 object = createFromFault(context);
                 target = object;
             } else {
-                object = clazz.newInstance();
+                object = BeanAccessors.constructor(clazz).get();
                 target = object;
             }
 
@@ -192,7 +193,7 @@ public class BeanType extends AegisType {
             return object;
         } catch (IllegalAccessException e) {
             throw new DatabindingException("Illegal access. " + e.getMessage(), e);
-        } catch (InstantiationException e) {
+        } catch (InstantiationException | NoSuchMethodException e) {
             throw new DatabindingException("Couldn't instantiate class. " + e.getMessage(), e);
         } catch (SecurityException e) {
             throw new DatabindingException("Illegal access. " + e.getMessage(), e);
@@ -285,7 +286,7 @@ public class BeanType extends AegisType {
                 }
                 if (m == null && property instanceof List) {
                     m = desc.getReadMethod();
-                    List<Object> l = CastUtils.cast((List<?>)m.invoke(object));
+                    List<Object> l = CastUtils.cast((List<?>)BeanAccessors.getter(m).apply(object));
                     List<Object> p = CastUtils.cast((List<?>)property);
                     l.addAll(p);
                     return;
@@ -298,9 +299,7 @@ public class BeanType extends AegisType {
 
             Class<?> propertyType = desc.getPropertyType();
             if ((property == null && !propertyType.isPrimitive()) || (property != null)) {
-                m.invoke(object, new Object[] {
-                    property
-                });
+                BeanAccessors.setter(m).accept(object, property);
             }
         } catch (DatabindingException e) {
             throw e;
@@ -456,7 +455,7 @@ public class BeanType extends AegisType {
                                                + object.getClass().getName());
             }
 
-            return m.invoke(object, new Object[0]);
+            return BeanAccessors.getter(m).apply(object);
         } catch (Exception e) {
             throw new DatabindingException("Couldn't get property " + name + " from bean " + object, e);
         }
@@ -36,6 +36,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -111,6 +113,22 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
 
     public static final String JAXB_SCAN_PACKAGES = "jaxb.scanPackages";
 
+    /**
+     * Message property holding a Map of marshaller properties which are applied on top of
+     * the ones configured on the databinding for this message only. Marshallers created
+     * with such overrides are not pooled.
+     */
+    public static final String MARSHALLER_PROPERTIES = "jaxb.marshaller.properties";
+
+    /**
+     * Message property holding a Map of unmarshaller properties which are applied on top of
+     * the ones configured on the databinding for this message only. Unmarshallers created
+     * with such overrides are not pooled.
+     */
+    public static final String UNMARSHALLER_PROPERTIES = "jaxb.unmarshaller.properties";
+
+    public static final int DEFAULT_MARSHALLER_POOL_SIZE = 16;
+
     private static final Logger LOG = LogUtils.getLogger(JAXBDataBinding.class);
 
     private static final Class<?>[] SUPPORTED_READER_FORMATS = new Class<?>[] {Node.class,
@@ -212,6 +230,11 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
     private boolean scanPackages = true;
     private boolean qualifiedSchemas;
 
+    private int marshallerPoolSize = DEFAULT_MARSHALLER_POOL_SIZE;
+    private final Pool<Marshaller> escapeMarshallers = new Pool<>();
+    private final Pool<Marshaller> noEscapeMarshallers = new Pool<>();
+    private final Pool<Unmarshaller> unmarshallers = new Pool<>();
+
     public JAXBDataBinding() {
     }
 
@@ -254,6 +277,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
         //create default MininumEscapeHandler
         escapeHandler = JAXBUtils.createMininumEscapeHandler(ctx.getClass());
         noEscapeHandler = JAXBUtils.createNoEscapeHandler(ctx.getClass());
+        clearMarshallerPools();
     }
 
     public Object getEscapeHandler() {
@@ -262,6 +286,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
     
     public void setEscapeHandler(Object handler) {
         escapeHandler = handler;
+        clearMarshallerPools();
     }
     
     public void applyEscapeHandler(boolean escape, Consumer<Object> consumer) {
@@ -542,6 +567,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
 
     public void setConfiguredXmlAdapters(List<XmlAdapter<?, ?>> adpters) {
         this.adapters = adpters;
+        clearMarshallerPools();
     }
 
     /**
@@ -564,6 +590,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
      */
     public void setMarshallerProperties(Map<String, Object> marshallerProperties) {
         this.marshallerProperties = marshallerProperties;
+        clearMarshallerPools();
     }
 
 
@@ -587,6 +614,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
      */
     public void setUnmarshallerProperties(Map<String, Object> unmarshallerProperties) {
         this.unmarshallerProperties = unmarshallerProperties;
+        clearMarshallerPools();
     }
 
     /**
@@ -603,6 +631,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
      */
     public void setUnmarshallerListener(Unmarshaller.Listener unmarshallerListener) {
         this.unmarshallerListener = unmarshallerListener;
+        clearMarshallerPools();
     }
     /**
      * Returns the Marshaller.Listener that will be registered on the Marshallers
@@ -618,6 +647,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
      */
     public void setMarshallerListener(Marshaller.Listener marshallerListener) {
         this.marshallerListener = marshallerListener;
+        clearMarshallerPools();
     }
 
 
@@ -630,6 +660,65 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
     }
 
 
+    @Override
+    public void setNamespaceMap(Map<String, String> namespaceMap) {
+        super.setNamespaceMap(namespaceMap);
+        clearMarshallerPools();
+    }
+
+    @Override
+    public void setContextualNamespaceMap(Map<String, String> contextualNamespaceMap) {
+        super.setContextualNamespaceMap(contextualNamespaceMap);
+        clearMarshallerPools();
+    }
+
+    public int getMarshallerPoolSize() {
+        return marshallerPoolSize;
+    }
+
+    /**
+     * Sets how many idle Marshallers (per escape mode) and Unmarshallers configured from this
+     * databinding are kept for reuse, 0 disables the pooling. The pooled instances only carry
+     * the databinding level configuration, the per message state (event handler, schema,
+     * attachment (un)marshaller) is set when they are taken and reset when they are returned.
+     * Changes made to the maps returned by {@link #getMarshallerProperties()} and
+     * {@link #getUnmarshallerProperties()} after the first message are not seen by the
+     * pooled instances unless {@link #clearMarshallerPools()} is called.
+     */
+    public void setMarshallerPoolSize(int marshallerPoolSize) {
+        this.marshallerPoolSize = marshallerPoolSize;
+        clearMarshallerPools();
+    }
+
+    /**
+     * Returns an idle pooled Marshaller for the given escape mode, or null.
+     */
+    public Marshaller pollMarshaller(boolean escape) {
+        return (escape ? escapeMarshallers : noEscapeMarshallers).poll();
+    }
+
+    /**
+     * Returns a Marshaller obtained with {@link #pollMarshaller(boolean)} or created with the
+     * databinding configuration to the pool. The per message state must have been reset.
+     */
+    public void releaseMarshaller(boolean escape, Marshaller marshaller) {
+        (escape ? escapeMarshallers : noEscapeMarshallers).offer(marshaller, marshallerPoolSize);
+    }
+
+    public Unmarshaller pollUnmarshaller() {
+        return unmarshallers.poll();
+    }
+
+    public void releaseUnmarshaller(Unmarshaller unmarshaller) {
+        unmarshallers.offer(unmarshaller, marshallerPoolSize);
+    }
+
+    public void clearMarshallerPools() {
+        escapeMarshallers.clear();
+        noEscapeMarshallers.clear();
+        unmarshallers.clear();
+    }
+
     public boolean isUnwrapJAXBElement() {
         return unwrapJAXBElement;
     }
@@ -853,4 +942,30 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
                                                           jaxbMethods, fields, objectFactory);
     }
 
+    private static final class Pool<T> {
+        private final ConcurrentLinkedDeque<T> idle = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+
+        T poll() {
+            T t = idle.pollFirst();
+            if (t != null) {
+                idleCount.decrementAndGet();
+            }
+            return t;
+        }
+
+        void offer(T t, int maxIdle) {
+            if (idleCount.incrementAndGet() > maxIdle) {
+                idleCount.decrementAndGet();
+                return;
+            }
+            idle.offerFirst(t);
+        }
+
+        void clear() {
+            while (poll() != null) {
+                // drop the idle instances
+            }
+        }
+    }
 }
@@ -22,9 +22,12 @@ package org.apache.cxf.jaxb;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import javax.xml.bind.JAXBElement;
 
+import org.apache.cxf.common.util.BeanAccessors;
 import org.apache.cxf.databinding.AbstractWrapperHelper;
 
 /**
@@ -34,16 +37,39 @@ public class JAXBWrapperHelper extends AbstractWrapperHelper {
     protected final Method[] jaxbObjectMethods;
     protected final Object objectFactory;
 
+    private final BiFunction<Object, Object, Object>[] jaxbObjectFunctions;
+    private final boolean[] jaxbElementGetters;
+    private Supplier<Object> constructor;
+
+    @SuppressWarnings("unchecked")
     protected JAXBWrapperHelper(Class<?> wt, Method[] sets, Method[] gets,
                                 Method[] jaxbs, Field[] f, Object of) {
         super(wt, sets, gets, f);
         jaxbObjectMethods = jaxbs;
         objectFactory = of;
+
+        jaxbObjectFunctions = new BiFunction[jaxbs.length];
+        for (int x = 0; x < jaxbs.length; x++) {
+            if (jaxbs[x] != null) {
+                jaxbObjectFunctions[x] = BeanAccessors.function(jaxbs[x]);
+            }
+        }
+        jaxbElementGetters = new boolean[gets.length];
+        for (int x = 0; x < gets.length; x++) {
+            jaxbElementGetters[x] = gets[x] != null
+                && JAXBElement.class.getName().equals(gets[x].getReturnType().getName());
+        }
     }
 
     @Override
     protected Object createWrapperObject(Class<?> typeClass) throws Exception {
-        return typeClass.newInstance();
+        if (typeClass != wrapperType) {
+            return typeClass.newInstance();
+        }
+        if (constructor == null) {
+            constructor = BeanAccessors.constructor(typeClass);
+        }
+        return constructor.get();
     }
 
     @Override
@@ -51,7 +77,11 @@ public class JAXBWrapperHelper extends AbstractWrapperHelper {
         return object;
     }
 
+    /**
+     * @deprecated no longer called, the parts are read with {@link #getValue(int, Object)}
+     */
     @Override
+    @Deprecated
     protected Object getValue(Method method, Object in) throws IllegalAccessException,
         InvocationTargetException {
         if ("javax.xml.bind.JAXBElement".equals(method.getReturnType().getCanonicalName())) {
@@ -61,11 +91,20 @@ public class JAXBWrapperHelper extends AbstractWrapperHelper {
         return method.invoke(in);
     }
 
+    @Override
+    protected Object getValue(int index, Object in) throws Exception {
+        Object value = super.getValue(index, in);
+        if (jaxbElementGetters[index]) {
+            return value == null ? null : ((JAXBElement<?>)value).getValue();
+        }
+        return value;
+    }
+
     @Override
     protected Object getPartObject(int index, Object object) throws Exception {
         Object result = object;
-        if (jaxbObjectMethods[index] != null) {
-            result = jaxbObjectMethods[index].invoke(objectFactory, object);
+        if (jaxbObjectFunctions[index] != null) {
+            result = jaxbObjectFunctions[index].apply(objectFactory, object);
         }
         return result;
     }
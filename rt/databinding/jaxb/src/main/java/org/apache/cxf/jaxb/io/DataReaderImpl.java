@@ -37,6 +37,7 @@ import org.apache.cxf.common.i18n.Message;
 import org.apache.cxf.common.jaxb.JAXBUtils;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.databinding.DataReader;
+import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.jaxb.JAXBDataBase;
 import org.apache.cxf.jaxb.JAXBDataBinding;
@@ -51,6 +52,7 @@ public class DataReaderImpl<T> extends JAXBDataBase implements DataReader<T> {
     boolean unwrapJAXBElement = true;
     ValidationEventHandler veventHandler;
     boolean setEventHandler = true;
+    Map<String, Object> unmarshallerProperties;
 
     public DataReaderImpl(JAXBDataBinding binding, boolean unwrap) {
         super(binding.getContext());
@@ -104,34 +106,24 @@ public class DataReaderImpl<T> extends JAXBDataBase implements DataReader<T> {
             if (unwrapProperty != null) {
                 unwrapJAXBElement = Boolean.TRUE.equals(unwrapProperty);
             }
+            Object props = m.getContextualProperty(JAXBDataBinding.UNMARSHALLER_PROPERTIES);
+            if (props instanceof Map) {
+                unmarshallerProperties = CastUtils.cast((Map<?, ?>)props);
+            }
         }
     }
 
     private Unmarshaller createUnmarshaller() {
         try {
-            Unmarshaller um = null;
-            um = context.createUnmarshaller();
-            if (databinding.getUnmarshallerListener() != null) {
-                um.setListener(databinding.getUnmarshallerListener());
+            Unmarshaller um = isPooled() ? databinding.pollUnmarshaller() : null;
+            if (um == null) {
+                um = createConfiguredUnmarshaller();
             }
             if (setEventHandler) {
                 um.setEventHandler(new WSUIDValidationHandler(veventHandler));
             }
-            if (databinding.getUnmarshallerProperties() != null) {
-                for (Map.Entry<String, Object> propEntry
-                    : databinding.getUnmarshallerProperties().entrySet()) {
-                    try {
-                        um.setProperty(propEntry.getKey(), propEntry.getValue());
-                    } catch (PropertyException pe) {
-                        LOG.log(Level.INFO, "PropertyException setting Marshaller properties", pe);
-                    }
-                }
-            }
             um.setSchema(schema);
             um.setAttachmentUnmarshaller(getAttachmentUnmarshaller());
-            for (XmlAdapter<?, ?> adapter : databinding.getConfiguredXmlAdapters()) {
-                um.setAdapter(adapter);
-            }
             return um;
         } catch (javax.xml.bind.UnmarshalException ex) {
             throw new Fault(new Message("UNMARSHAL_ERROR", LOG, ex.getLinkedException()
@@ -141,6 +133,57 @@ public class DataReaderImpl<T> extends JAXBDataBase implements DataReader<T> {
         }
     }
 
+    /**
+     * Creates an Unmarshaller with the databinding configuration only, it can be pooled
+     * unless there are unmarshaller properties set for this message.
+     */
+    private Unmarshaller createConfiguredUnmarshaller() throws JAXBException {
+        Unmarshaller um = context.createUnmarshaller();
+        if (databinding.getUnmarshallerListener() != null) {
+            um.setListener(databinding.getUnmarshallerListener());
+        }
+        setProperties(um, databinding.getUnmarshallerProperties());
+        setProperties(um, unmarshallerProperties);
+        for (XmlAdapter<?, ?> adapter : databinding.getConfiguredXmlAdapters()) {
+            um.setAdapter(adapter);
+        }
+        return um;
+    }
+
+    private static void setProperties(Unmarshaller um, Map<String, Object> props) {
+        if (props != null) {
+            for (Map.Entry<String, Object> propEntry : props.entrySet()) {
+                try {
+                    um.setProperty(propEntry.getKey(), propEntry.getValue());
+                } catch (PropertyException pe) {
+                    LOG.log(Level.INFO, "PropertyException setting Marshaller properties", pe);
+                }
+            }
+        }
+    }
+
+    private boolean isPooled() {
+        return unmarshallerProperties == null && databinding.getMarshallerPoolSize() > 0;
+    }
+
+    /**
+     * Closes the unmarshaller and, if it has unmarshalled successfully, resets the state set
+     * for this message and returns it to the pool.
+     */
+    private void releaseUnmarshaller(Unmarshaller um, boolean reuse) {
+        JAXBUtils.closeUnmarshaller(um);
+        if (reuse && isPooled()) {
+            try {
+                um.setEventHandler(null);
+                um.setSchema(null);
+                um.setAttachmentUnmarshaller(null);
+            } catch (JAXBException ex) {
+                return;
+            }
+            databinding.releaseUnmarshaller(um);
+        }
+    }
+
     public Object read(MessagePartInfo part, T reader) {
         boolean honorJaxbAnnotation = honorJAXBAnnotations(part);
         Annotation[] anns = null;
@@ -166,29 +209,32 @@ public class DataReaderImpl<T> extends JAXBDataBase implements DataReader<T> {
         }
 
         Unmarshaller um = createUnmarshaller();
+        boolean reuse = false;
         try {
             Object obj = JAXBEncoderDecoder.unmarshall(um, reader, part,
                                                  unwrapJAXBElement);
+            reuse = true;
             onCompleteUnmarshalling();
 
             return obj;
         } finally {
-            JAXBUtils.closeUnmarshaller(um);
+            releaseUnmarshaller(um, reuse);
         }
     }
 
     public Object read(QName name, T input, Class<?> type) {
         Unmarshaller um = createUnmarshaller();
-
+        boolean reuse = false;
         try {
             Object obj = JAXBEncoderDecoder.unmarshall(um, input,
                                              name, type,
                                              unwrapJAXBElement);
+            reuse = true;
             onCompleteUnmarshalling();
 
             return obj;
         } finally {
-            JAXBUtils.closeUnmarshaller(um);
+            releaseUnmarshaller(um, reuse);
         }
 
     }
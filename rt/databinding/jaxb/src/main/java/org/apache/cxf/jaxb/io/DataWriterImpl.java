@@ -44,6 +44,7 @@ import org.apache.cxf.common.jaxb.JAXBUtils;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.ReflectionUtil;
 import org.apache.cxf.databinding.DataWriter;
+import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.jaxb.JAXBDataBase;
 import org.apache.cxf.jaxb.JAXBDataBinding;
@@ -60,6 +61,7 @@ public class DataWriterImpl<T> extends JAXBDataBase implements DataWriter<T> {
     ValidationEventHandler veventHandler;
     boolean setEventHandler = true;
     boolean noEscape;
+    Map<String, Object> marshallerProperties;
     private JAXBDataBinding databinding;
 
     public DataWriterImpl(JAXBDataBinding binding) {
@@ -84,6 +86,10 @@ public class DataWriterImpl<T> extends JAXBDataBase implements DataWriter<T> {
             }
             setEventHandler = MessageUtils.getContextualBoolean(m,
                     JAXBDataBinding.SET_VALIDATION_EVENT_HANDLER, true);
+            Object props = m.getContextualProperty(JAXBDataBinding.MARSHALLER_PROPERTIES);
+            if (props instanceof Map) {
+                marshallerProperties = CastUtils.cast((Map<?, ?>)props);
+            }
         }
     }
 
@@ -127,15 +133,11 @@ public class DataWriterImpl<T> extends JAXBDataBase implements DataWriter<T> {
             Collection<?> col = (Collection<?>)elValue;
             elValue = col.toArray((Object[])Array.newInstance(cls.getComponentType(), col.size()));
         }
-        Marshaller marshaller;
+        Marshaller marshaller = isPooled() ? databinding.pollMarshaller(!noEscape) : null;
         try {
-
-            marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name());
-            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
-            marshaller.setListener(databinding.getMarshallerListener());
-            databinding.applyEscapeHandler(!noEscape, eh -> JAXBUtils.setEscapeHandler(marshaller, eh));
+            if (marshaller == null) {
+                marshaller = createConfiguredMarshaller();
+            }
 
             if (setEventHandler) {
                 ValidationEventHandler h = veventHandler;
@@ -150,26 +152,6 @@ public class DataWriterImpl<T> extends JAXBDataBase implements DataWriter<T> {
                 marshaller.setEventHandler(h);
             }
 
-            final Map<String, String> nspref = databinding.getDeclaredNamespaceMappings();
-            final Map<String, String> nsctxt = databinding.getContextualNamespaceMap();
-            // set the prefix mapper if either of the prefix map is configured
-            if (nspref != null || nsctxt != null) {
-                Object mapper = JAXBUtils.setNamespaceMapper(nspref != null ? nspref : nsctxt, marshaller);
-                if (nsctxt != null) {
-                    setContextualNamespaceDecls(mapper, nsctxt);
-                }
-            }
-            if (databinding.getMarshallerProperties() != null) {
-                for (Map.Entry<String, Object> propEntry
-                    : databinding.getMarshallerProperties().entrySet()) {
-                    try {
-                        marshaller.setProperty(propEntry.getKey(), propEntry.getValue());
-                    } catch (PropertyException pe) {
-                        LOG.log(Level.INFO, "PropertyException setting Marshaller properties", pe);
-                    }
-                }
-            }
-
             marshaller.setSchema(schema);
             AttachmentMarshaller atmarsh = getAttachmentMarshaller();
             marshaller.setAttachmentMarshaller(atmarsh);
@@ -187,12 +169,71 @@ public class DataWriterImpl<T> extends JAXBDataBase implements DataWriter<T> {
         } catch (JAXBException ex) {
             throw new Fault(new Message("MARSHAL_ERROR", LOG, ex.getMessage()), ex);
         }
+        return marshaller;
+    }
+
+    /**
+     * Creates a Marshaller with the databinding configuration only, it can be pooled
+     * unless there are marshaller properties set for this message.
+     */
+    private Marshaller createConfiguredMarshaller() throws JAXBException {
+        final Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name());
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+        marshaller.setListener(databinding.getMarshallerListener());
+        databinding.applyEscapeHandler(!noEscape, eh -> JAXBUtils.setEscapeHandler(marshaller, eh));
+
+        final Map<String, String> nspref = databinding.getDeclaredNamespaceMappings();
+        final Map<String, String> nsctxt = databinding.getContextualNamespaceMap();
+        // set the prefix mapper if either of the prefix map is configured
+        if (nspref != null || nsctxt != null) {
+            Object mapper = JAXBUtils.setNamespaceMapper(nspref != null ? nspref : nsctxt, marshaller);
+            if (nsctxt != null) {
+                setContextualNamespaceDecls(mapper, nsctxt);
+            }
+        }
+        setProperties(marshaller, databinding.getMarshallerProperties());
+        setProperties(marshaller, marshallerProperties);
         for (XmlAdapter<?, ?> adapter : databinding.getConfiguredXmlAdapters()) {
             marshaller.setAdapter(adapter);
         }
         return marshaller;
     }
 
+    private static void setProperties(Marshaller marshaller, Map<String, Object> props) {
+        if (props != null) {
+            for (Map.Entry<String, Object> propEntry : props.entrySet()) {
+                try {
+                    marshaller.setProperty(propEntry.getKey(), propEntry.getValue());
+                } catch (PropertyException pe) {
+                    LOG.log(Level.INFO, "PropertyException setting Marshaller properties", pe);
+                }
+            }
+        }
+    }
+
+    private boolean isPooled() {
+        return marshallerProperties == null && databinding.getMarshallerPoolSize() > 0;
+    }
+
+    /**
+     * Resets the state set for this message and returns the marshaller to the pool.
+     * Marshallers which failed are not reused.
+     */
+    private void releaseMarshaller(Marshaller marshaller) {
+        if (isPooled()) {
+            try {
+                marshaller.setEventHandler(null);
+                marshaller.setSchema(null);
+                marshaller.setAttachmentMarshaller(null);
+            } catch (JAXBException ex) {
+                return;
+            }
+            databinding.releaseMarshaller(!noEscape, marshaller);
+        }
+    }
+
     //REVISIT should this go into JAXBUtils?
     private static void setContextualNamespaceDecls(Object mapper, Map<String, String> nsctxt) {
         try {
@@ -226,15 +267,19 @@ public class DataWriterImpl<T> extends JAXBDataBase implements DataWriter<T> {
                 && part != null
                 && Boolean.TRUE.equals(part.getProperty(JAXBDataBinding.class.getName()
                                                         + ".CUSTOM_EXCEPTION"))) {
-                JAXBEncoderDecoder.marshallException(createMarshaller(obj, part),
+                Marshaller marshaller = createMarshaller(obj, part);
+                JAXBEncoderDecoder.marshallException(marshaller,
                                                      (Exception)obj,
                                                      part,
                                                      output);
+                releaseMarshaller(marshaller);
                 onCompleteMarshalling();
             } else {
                 Annotation[] anns = getJAXBAnnotation(part);
                 if (!honorJaxbAnnotation || anns.length == 0) {
-                    JAXBEncoderDecoder.marshall(createMarshaller(obj, part), obj, part, output);
+                    Marshaller marshaller = createMarshaller(obj, part);
+                    JAXBEncoderDecoder.marshall(marshaller, obj, part, output);
+                    releaseMarshaller(marshaller);
                     onCompleteMarshalling();
                 } else if (honorJaxbAnnotation && anns.length > 0) {
                     //RpcLit will use the JAXB Bridge to marshall part message when it is
@@ -251,8 +296,9 @@ public class DataWriterImpl<T> extends JAXBDataBase implements DataWriter<T> {
                 }
             }
         } else if (needToRender(part)) {
-            JAXBEncoderDecoder.marshallNullElement(createMarshaller(null, part),
-                                                   output, part);
+            Marshaller marshaller = createMarshaller(null, part);
+            JAXBEncoderDecoder.marshallNullElement(marshaller, output, part);
+            releaseMarshaller(marshaller);
 
             onCompleteMarshalling();
         }
@@ -22,10 +22,12 @@ package org.apache.cxf.jaxb.io;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.ValidationEventHandler;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
@@ -51,6 +53,8 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -125,8 +129,11 @@ public class XMLStreamDataWriterTest {
 
 
     private DataWriterImpl<XMLStreamWriter> newDataWriter(ValidationEventHandler handler) throws Exception {
-        JAXBDataBinding db = getTestWriterFactory();
+        return newDataWriter(getTestWriterFactory(), handler);
+    }
 
+    private DataWriterImpl<XMLStreamWriter> newDataWriter(JAXBDataBinding db,
+                                                          ValidationEventHandler handler) {
         DataWriterImpl<XMLStreamWriter> dw = (DataWriterImpl<XMLStreamWriter>)db.createWriter(XMLStreamWriter.class);
         assertNotNull(dw);
 
@@ -365,6 +372,42 @@ public class XMLStreamDataWriterTest {
         }
     }
 
+    @Test
+    public void testMarshallersArePooled() throws Exception {
+        JAXBDataBinding db = getTestWriterFactory(GreetMe.class);
+        GreetMe val = new GreetMe();
+        val.setRequestType("Hello");
+
+        DataWriterImpl<XMLStreamWriter> dw = newDataWriter(db, new MyCustomHandler());
+        dw.write(val, streamWriter);
+        Marshaller marshaller = db.pollMarshaller(false);
+        assertNotNull(marshaller);
+        // the state set for the message has been reset
+        assertFalse(marshaller.getEventHandler() instanceof MyCustomHandler);
+        assertNull(marshaller.getSchema());
+        assertNull(marshaller.getAttachmentMarshaller());
+        db.releaseMarshaller(false, marshaller);
+
+        dw = newDataWriter(db, null);
+        dw.write(val, streamWriter);
+        assertSame(marshaller, db.pollMarshaller(false));
+        assertNull(db.pollMarshaller(false));
+
+        // per message marshaller properties bypass the pool
+        dw = (DataWriterImpl<XMLStreamWriter>)db.createWriter(XMLStreamWriter.class);
+        org.apache.cxf.message.Message message = new org.apache.cxf.message.MessageImpl();
+        message.put(JAXBDataBinding.MARSHALLER_PROPERTIES,
+                    Collections.singletonMap(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE));
+        dw.setProperty("org.apache.cxf.message.Message", message);
+        dw.write(val, streamWriter);
+        assertNull(db.pollMarshaller(false));
+
+        db.setMarshallerPoolSize(0);
+        dw = newDataWriter(db, null);
+        dw.write(val, streamWriter);
+        assertNull(db.pollMarshaller(false));
+    }
+
     private JAXBDataBinding getTestWriterFactory(Class<?>... clz) throws Exception {
         JAXBContext ctx = JAXBContext.newInstance(clz);
         return new JAXBDataBinding(ctx);
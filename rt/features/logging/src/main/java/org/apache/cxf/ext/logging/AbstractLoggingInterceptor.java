@@ -41,6 +41,7 @@ public abstract class AbstractLoggingInterceptor extends AbstractPhaseIntercepto
     protected boolean logMultipart = true;
 
     protected LogEventSender sender;
+    protected LoggingSampler sampler;
     protected final DefaultLogEventMapper eventMapper = new DefaultLogEventMapper();
 
     public AbstractLoggingInterceptor(String phase, LogEventSender sender) {
@@ -53,6 +54,22 @@ public abstract class AbstractLoggingInterceptor extends AbstractPhaseIntercepto
         return liveLoggingProp != null && PropertyUtils.isFalse(liveLoggingProp);
     }
 
+    /**
+     * Returns false when the exchange has not been selected by the sampler, in which case
+     * the message is neither captured nor logged.
+     */
+    protected boolean isSampled(Message message) {
+        return sampler == null || sampler.isSampled(message);
+    }
+
+    public void setSampler(LoggingSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    public LoggingSampler getSampler() {
+        return sampler;
+    }
+
     public void addBinaryContentMediaTypes(String mediaTypes) {
         eventMapper.addBinaryContentMediaTypes(mediaTypes);
     }
@@ -73,6 +90,14 @@ public abstract class AbstractLoggingInterceptor extends AbstractPhaseIntercepto
         return threshold;
     }
 
+    public void setSender(LogEventSender sender) {
+        this.sender = sender;
+    }
+
+    public LogEventSender getSender() {
+        return sender;
+    }
+
     public void setPrettyLogging(boolean prettyLogging) {
         if (sender instanceof PrettyLoggingFilter) {
             ((PrettyLoggingFilter)this.sender).setPrettyLogging(prettyLogging);
@@ -21,8 +21,14 @@ package org.apache.cxf.ext.logging;
 import org.apache.cxf.Bus;
 import org.apache.cxf.annotations.Provider;
 import org.apache.cxf.annotations.Provider.Type;
+import org.apache.cxf.buslifecycle.BusLifeCycleListener;
+import org.apache.cxf.buslifecycle.BusLifeCycleManager;
 import org.apache.cxf.common.injection.NoJSR250Annotations;
+import org.apache.cxf.ext.logging.event.AsyncLogEventSender;
+import org.apache.cxf.ext.logging.event.EventType;
+import org.apache.cxf.ext.logging.event.LogEvent;
 import org.apache.cxf.ext.logging.event.LogEventSender;
+import org.apache.cxf.ext.logging.event.OnErrorLogEventSender;
 import org.apache.cxf.ext.logging.event.PrettyLoggingFilter;
 import org.apache.cxf.ext.logging.slf4j.Slf4jEventSender;
 import org.apache.cxf.ext.logging.slf4j.Slf4jVerboseEventSender;
@@ -88,6 +94,34 @@ public class LoggingFeature extends DelegatingFeature<LoggingFeature.Portable> {
         delegate.setVerbose(verbose);
     }
 
+    public void setAsync(boolean async) {
+        delegate.setAsync(async);
+    }
+
+    public void setAsyncQueueSize(int asyncQueueSize) {
+        delegate.setAsyncQueueSize(asyncQueueSize);
+    }
+
+    public void setAsyncOverflowPolicy(AsyncLogEventSender.OverflowPolicy policy) {
+        delegate.setAsyncOverflowPolicy(policy);
+    }
+
+    public AsyncLogEventSender getAsyncSender() {
+        return delegate.getAsyncSender();
+    }
+
+    public void setSampleRate(double sampleRate) {
+        delegate.setSampleRate(sampleRate);
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        delegate.setMaxPerSecond(maxPerSecond);
+    }
+
+    public void setLogOnErrorOnly(boolean logOnErrorOnly) {
+        delegate.setLogOnErrorOnly(logOnErrorOnly);
+    }
+
     public void addInBinaryContentMediaTypes(String mediaTypes) {
         delegate.addInBinaryContentMediaTypes(mediaTypes);
     }
@@ -105,6 +139,12 @@ public class LoggingFeature extends DelegatingFeature<LoggingFeature.Portable> {
         private LoggingOutInterceptor out;
         private PrettyLoggingFilter inPrettyFilter;
         private PrettyLoggingFilter outPrettyFilter;
+        private volatile AsyncLogEventSender asyncSender;
+        private volatile OnErrorLogEventSender onErrorSender;
+        private LoggingSampler sampler;
+        private int asyncQueueSize = AsyncLogEventSender.DEFAULT_QUEUE_SIZE;
+        private AsyncLogEventSender.OverflowPolicy asyncOverflowPolicy =
+            AsyncLogEventSender.OverflowPolicy.DROP;
 
         public Portable() {
             LogEventSender sender = new Slf4jVerboseEventSender();
@@ -122,6 +162,29 @@ public class LoggingFeature extends DelegatingFeature<LoggingFeature.Portable> {
 
             provider.getOutInterceptors().add(out);
             provider.getOutFaultInterceptors().add(out);
+
+            // the asynchronous sender may be replaced or enabled later on, the one in use
+            // at shutdown is closed
+            BusLifeCycleManager manager = bus == null ? null : bus.getExtension(BusLifeCycleManager.class);
+            if (manager != null) {
+                manager.registerLifeCycleListener(new BusLifeCycleListener() {
+                    @Override
+                    public void initComplete() {
+                    }
+
+                    @Override
+                    public void preShutdown() {
+                    }
+
+                    @Override
+                    public void postShutdown() {
+                        AsyncLogEventSender async = asyncSender;
+                        if (async != null) {
+                            async.close();
+                        }
+                    }
+                });
+            }
         }
 
         public void setLimit(int limit) {
@@ -172,6 +235,117 @@ public class LoggingFeature extends DelegatingFeature<LoggingFeature.Portable> {
             setSender(verbose ? new Slf4jVerboseEventSender() : new Slf4jEventSender());
         }
 
+        /**
+         * Log asynchronously? The events, including the pretty printing, are then processed
+         * by a dedicated thread instead of the request threads.
+         * @param async defaults to false
+         */
+        public void setAsync(boolean async) {
+            if (async && asyncSender == null) {
+                asyncSender = new AsyncLogEventSender(this::sendToOnError, asyncQueueSize);
+                asyncSender.setOverflowPolicy(asyncOverflowPolicy);
+                updateSenders();
+            } else if (!async && asyncSender != null) {
+                AsyncLogEventSender previous = asyncSender;
+                asyncSender = null;
+                updateSenders();
+                previous.close();
+            }
+        }
+
+        /**
+         * The number of events which can wait to be logged asynchronously.
+         * @param asyncQueueSize defaults to 8192
+         */
+        public void setAsyncQueueSize(int asyncQueueSize) {
+            this.asyncQueueSize = asyncQueueSize;
+            if (asyncSender != null) {
+                setAsync(false);
+                setAsync(true);
+            }
+        }
+
+        /**
+         * What to do when the asynchronous queue is full: drop the event or wait.
+         * @param policy defaults to DROP
+         */
+        public void setAsyncOverflowPolicy(AsyncLogEventSender.OverflowPolicy policy) {
+            this.asyncOverflowPolicy = policy;
+            if (asyncSender != null) {
+                asyncSender.setOverflowPolicy(policy);
+            }
+        }
+
+        public AsyncLogEventSender getAsyncSender() {
+            return asyncSender;
+        }
+
+        /**
+         * The fraction of the exchanges to log, the others are not captured at all.
+         * @param sampleRate between 0 and 1, defaults to 1
+         */
+        public void setSampleRate(double sampleRate) {
+            getSampler().setSampleRate(sampleRate);
+        }
+
+        /**
+         * The maximum number of exchanges logged per second and per endpoint.
+         * @param maxPerSecond defaults to -1, no limit
+         */
+        public void setMaxPerSecond(int maxPerSecond) {
+            getSampler().setMaxPerSecond(maxPerSecond);
+        }
+
+        /**
+         * Only log the exchanges which end with a fault or a 5xx response code? Their
+         * messages are captured and held until the exchange completes.
+         * @param logOnErrorOnly defaults to false
+         */
+        public void setLogOnErrorOnly(boolean logOnErrorOnly) {
+            onErrorSender = logOnErrorOnly ? new OnErrorLogEventSender(this::sendToFilter) : null;
+            updateSenders();
+        }
+
+        private LoggingSampler getSampler() {
+            if (sampler == null) {
+                sampler = new LoggingSampler();
+                in.setSampler(sampler);
+                out.setSampler(sampler);
+            }
+            return sampler;
+        }
+
+        private void updateSenders() {
+            if (asyncSender != null) {
+                in.setSender(asyncSender);
+                out.setSender(asyncSender);
+            } else if (onErrorSender != null) {
+                in.setSender(onErrorSender);
+                out.setSender(onErrorSender);
+            } else {
+                in.setSender(inPrettyFilter);
+                out.setSender(outPrettyFilter);
+            }
+        }
+
+        private void sendToOnError(LogEvent event) {
+            OnErrorLogEventSender onError = onErrorSender;
+            if (onError != null) {
+                onError.send(event);
+            } else {
+                sendToFilter(event);
+            }
+        }
+
+        private void sendToFilter(LogEvent event) {
+            EventType type = event.getType();
+            if (type == EventType.REQ_IN || type == EventType.RESP_IN || type == EventType.FAULT_IN) {
+                inPrettyFilter.send(event);
+            } else {
+                outPrettyFilter.send(event);
+            }
+        }
+
         /**
          * Add additional binary media types to the default values in the LoggingInInterceptor.
          * Content for these types will not be logged.
@@ -57,12 +57,14 @@ public class LoggingInInterceptor extends AbstractLoggingInterceptor {
 
     public Collection<PhaseInterceptor<? extends Message>> getAdditionalInterceptors() {
         Collection<PhaseInterceptor<? extends Message>> ret = new ArrayList<>();
-        ret.add(new WireTapIn(getWireTapLimit(), threshold));
+        WireTapIn wireTap = new WireTapIn(getWireTapLimit(), threshold);
+        wireTap.setSampler(sampler);
+        ret.add(wireTap);
         return ret;
     }
 
     public void handleMessage(Message message) throws Fault {
-        if (isLoggingDisabledNow(message)) {
+        if (isLoggingDisabledNow(message) || !isSampled(message)) {
             return;
         }
         createExchangeId(message);
@@ -59,7 +59,7 @@ public class LoggingOutInterceptor extends AbstractLoggingInterceptor {
     }
 
     public void handleMessage(Message message) throws Fault {
-        if (isLoggingDisabledNow(message)) {
+        if (isLoggingDisabledNow(message) || !isSampled(message)) {
             return;
         }
         createExchangeId(message);
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ext.logging;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+
+/**
+ * Decides which exchanges are logged: a random fraction of them (the sample rate) and at
+ * most a given number per second and per endpoint. The decision is taken once per exchange
+ * so that the request and the response of a sampled exchange are both logged. The logging
+ * interceptors do not wrap the streams of the exchanges which are not sampled.
+ */
+public class LoggingSampler {
+    public static final String SAMPLED = LoggingSampler.class.getName() + ".sampled";
+
+    private static final Object NO_ENDPOINT = new Object();
+
+    private final Map<Object, RateWindow> windows = Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile double sampleRate = 1.0d;
+    private volatile int maxPerSecond = -1;
+
+    public boolean isSampled(Message message) {
+        Exchange exchange = message.getExchange();
+        if (exchange == null) {
+            return decide(null);
+        }
+        Boolean sampled = (Boolean)exchange.get(SAMPLED);
+        if (sampled == null) {
+            sampled = decide(exchange.getEndpoint());
+            exchange.put(SAMPLED, sampled);
+        }
+        return sampled;
+    }
+
+    protected boolean decide(Endpoint endpoint) {
+        double rate = sampleRate;
+        if (rate < 1.0d && (rate <= 0.0d || ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return false;
+        }
+        int max = maxPerSecond;
+        if (max < 0) {
+            return true;
+        }
+        RateWindow window = windows.computeIfAbsent(endpoint == null ? NO_ENDPOINT : endpoint,
+            k -> new RateWindow());
+        return window.tryAcquire(max, nanoTime());
+    }
+
+    /**
+     * The time source of the per second limit.
+     */
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * The fraction of the exchanges which are logged, between 0 and 1.
+     * @param sampleRate defaults to 1, all the exchanges are logged
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * The maximum number of exchanges logged per second for every endpoint.
+     * @param maxPerSecond defaults to -1, no limit
+     */
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    private static final class RateWindow {
+        private long start;
+        private int count;
+
+        synchronized boolean tryAcquire(int max, long now) {
+            if (count == 0 || now - start >= TimeUnit.SECONDS.toNanos(1)) {
+                start = now;
+                count = 0;
+            }
+            if (count < max) {
+                count++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -37,6 +37,7 @@ public class WireTapIn extends AbstractPhaseInterceptor<Message> {
 
     private long threshold = -1;
     private int limit = AbstractLoggingInterceptor.DEFAULT_LIMIT;
+    private LoggingSampler sampler;
 
     /**
      * Instantiates a new WireTapIn
@@ -55,6 +56,10 @@ public class WireTapIn extends AbstractPhaseInterceptor<Message> {
             return;
         }
         message.put(WIRE_TAP_STARTED, Boolean.TRUE);
+        if (sampler != null && !sampler.isSampled(message)) {
+            // the message will not be logged, leave the stream alone
+            return;
+        }
         try {
             InputStream is = message.getContent(InputStream.class);
             if (is != null) {
@@ -110,4 +115,8 @@ public class WireTapIn extends AbstractPhaseInterceptor<Message> {
         this.threshold = threshold;
     }
 
+    public void setSampler(LoggingSampler sampler) {
+        this.sampler = sampler;
+    }
+
 }
@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ext.logging.event;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the events over to a dedicated thread which delivers them to the next sender, so
+ * that formatting (for example by the {@link PrettyLoggingFilter}) and writing the log do
+ * not add to the latency of the requests. The events are queued in a bounded buffer; when
+ * it is full they are either dropped and counted, or the request thread waits for room,
+ * depending on the {@link OverflowPolicy}. The drain thread is started on the first event
+ * and delivers up to the batch size events per wake up.
+ *
+ * Events sent after {@link #close()} are delivered on the calling thread.
+ */
+public class AsyncLogEventSender implements LogEventSender, Closeable {
+    public static final int DEFAULT_QUEUE_SIZE = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncLogEventSender.class);
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final LogEventSender next;
+    private final BlockingQueue<LogEvent> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile boolean closed;
+    private Thread drainThread;
+
+    public AsyncLogEventSender(LogEventSender next) {
+        this(next, DEFAULT_QUEUE_SIZE);
+    }
+
+    public AsyncLogEventSender(LogEventSender next, int queueSize) {
+        this.next = next;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    @Override
+    public void send(LogEvent event) {
+        if (closed) {
+            deliver(event);
+            return;
+        }
+        startIfNeeded();
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                queue.put(event);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+            }
+        } else if (!queue.offer(event)) {
+            dropped.increment();
+        }
+        if (closed) {
+            // closed concurrently, the drain thread may be gone already
+            deliverQueued();
+        }
+    }
+
+    /**
+     * Stops the drain thread once the queued events have been delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread;
+        synchronized (this) {
+            thread = drainThread;
+        }
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        deliverQueued();
+    }
+
+    private void deliverQueued() {
+        for (LogEvent event = queue.poll(); event != null; event = queue.poll()) {
+            deliver(event);
+        }
+    }
+
+    private synchronized void startIfNeeded() {
+        if (drainThread == null) {
+            drainThread = new Thread(this::drain, "cxf-logging-" + THREAD_COUNT.incrementAndGet());
+            drainThread.setDaemon(true);
+            drainThread.start();
+        }
+    }
+
+    private void drain() {
+        final List<LogEvent> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                LogEvent event = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+                queue.drainTo(batch, batchSize - 1);
+                for (LogEvent e : batch) {
+                    deliver(e);
+                }
+            } catch (InterruptedException ex) {
+                // keep draining until closed
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(LogEvent event) {
+        try {
+            next.send(event);
+            delivered.increment();
+        } catch (RuntimeException ex) {
+            LOG.warn("Unable to log the message", ex);
+        }
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the number of events waiting to be delivered.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of events dropped because the queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public LogEventSender getNext() {
+        return next;
+    }
+}
@@ -91,6 +91,7 @@ public class DefaultLogEventMapper {
         event.setPrincipal(getPrincipal(message));
         event.setBinaryContent(isBinaryContent(message));
         event.setMultipartContent(isMultipartContent(message));
+        event.setOneWay(message.getExchange().isOneWay());
         setEpInfo(message, event);
         return event;
     }
@@ -41,6 +41,7 @@ public final class LogEvent {
     private Map<String, String> headers;
     private boolean binaryContent;
     private boolean multipartContent;
+    private boolean oneWay;
     private String payload;
     private boolean truncated;
     private File fullContentFile;
@@ -177,6 +178,14 @@ public final class LogEvent {
         this.multipartContent = multipartContent;
     }
 
+    public boolean isOneWay() {
+        return oneWay;
+    }
+
+    public void setOneWay(boolean oneWay) {
+        this.oneWay = oneWay;
+    }
+
     public String getPayload() {
         return payload;
     }
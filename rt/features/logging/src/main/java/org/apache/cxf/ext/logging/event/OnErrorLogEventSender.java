@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ext.logging.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only logs the exchanges which fail. The events are held, grouped by exchange, until the
+ * exchange completes: they are dropped when it completes normally and passed to the next
+ * sender, followed by the final event, when it ends with a fault or a 5xx response code.
+ * At most the given number of exchanges are held, the oldest ones are forgotten first.
+ */
+public class OnErrorLogEventSender implements LogEventSender {
+    public static final int DEFAULT_MAX_EXCHANGES = 1000;
+
+    private final LogEventSender next;
+    private final Map<String, List<LogEvent>> exchanges;
+
+    public OnErrorLogEventSender(LogEventSender next) {
+        this(next, DEFAULT_MAX_EXCHANGES);
+    }
+
+    public OnErrorLogEventSender(LogEventSender next, final int maxExchanges) {
+        this.next = next;
+        this.exchanges = new LinkedHashMap<String, List<LogEvent>>(16, 0.75f, false) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<LogEvent>> eldest) {
+                return size() > maxExchanges;
+            }
+        };
+    }
+
+    @Override
+    public void send(LogEvent event) {
+        String exchangeId = event.getExchangeId();
+        if (isError(event)) {
+            List<LogEvent> held;
+            synchronized (exchanges) {
+                held = exchangeId == null ? null : exchanges.remove(exchangeId);
+            }
+            if (held != null) {
+                held.forEach(next::send);
+            }
+            next.send(event);
+        } else if (exchangeId != null && !isLast(event)) {
+            synchronized (exchanges) {
+                exchanges.computeIfAbsent(exchangeId, k -> new ArrayList<>(2)).add(event);
+            }
+        } else if (exchangeId != null) {
+            synchronized (exchanges) {
+                exchanges.remove(exchangeId);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of exchanges whose events are held.
+     */
+    public int getHeldExchangeCount() {
+        synchronized (exchanges) {
+            return exchanges.size();
+        }
+    }
+
+    protected boolean isError(LogEvent event) {
+        EventType type = event.getType();
+        if (type == EventType.FAULT_IN || type == EventType.FAULT_OUT) {
+            return true;
+        }
+        String responseCode = event.getResponseCode();
+        return responseCode != null && responseCode.length() == 3 && responseCode.charAt(0) == '5';
+    }
+
+    /**
+     * The response completes the exchange, both for clients and servers, and the request
+     * completes a one-way exchange since no response follows it.
+     */
+    protected boolean isLast(LogEvent event) {
+        EventType type = event.getType();
+        return type == EventType.RESP_IN || type == EventType.RESP_OUT
+            || (event.isOneWay() && (type == EventType.REQ_IN || type == EventType.REQ_OUT));
+    }
+}
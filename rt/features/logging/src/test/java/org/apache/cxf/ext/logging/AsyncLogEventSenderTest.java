@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ext.logging;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.ext.logging.event.AsyncLogEventSender;
+import org.apache.cxf.ext.logging.event.LogEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncLogEventSenderTest {
+
+    @Test
+    public void testEventsAreDeliveredOnDrainThread() throws Exception {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(10);
+        AsyncLogEventSender sender = new AsyncLogEventSender(event -> {
+            threads.add(Thread.currentThread());
+            latch.countDown();
+        });
+        for (int i = 0; i < 10; i++) {
+            sender.send(new LogEvent());
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (Thread thread : threads) {
+            assertNotSame(Thread.currentThread(), thread);
+        }
+        sender.close();
+        assertEquals(10, sender.getDeliveredCount());
+        assertEquals(0, sender.getDroppedCount());
+    }
+
+    @Test
+    public void testDropWhenFull() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        AsyncLogEventSender sender = new AsyncLogEventSender(event -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }, 2);
+        sender.send(new LogEvent());
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        // the drain thread is busy, two events fit in the queue
+        for (int i = 0; i < 5; i++) {
+            sender.send(new LogEvent());
+        }
+        assertEquals(3, sender.getDroppedCount());
+        assertEquals(2, sender.getQueueSize());
+
+        release.countDown();
+        sender.close();
+        assertEquals(3, sender.getDeliveredCount());
+    }
+
+    @Test
+    public void testSendAfterClose() throws Exception {
+        LogEventSenderMock mock = new LogEventSenderMock();
+        AsyncLogEventSender sender = new AsyncLogEventSender(mock);
+        sender.close();
+        LogEvent event = new LogEvent();
+        sender.send(event);
+        assertTrue(event == mock.getLogEvent());
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ext.logging;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.ext.logging.event.EventType;
+import org.apache.cxf.ext.logging.event.LogEvent;
+import org.apache.cxf.ext.logging.event.OnErrorLogEventSender;
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SamplingTest {
+
+    @Test
+    public void testDecisionIsTakenOncePerExchange() {
+        final AtomicLong now = new AtomicLong();
+        LoggingSampler sampler = new LoggingSampler() {
+            @Override
+            protected long nanoTime() {
+                return now.get();
+            }
+        };
+        sampler.setMaxPerSecond(1);
+        Message request = newMessage();
+        assertTrue(sampler.isSampled(request));
+        Message response = new MessageImpl();
+        response.setExchange(request.getExchange());
+        assertTrue(sampler.isSampled(response));
+
+        assertFalse(sampler.isSampled(newMessage()));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(sampler.isSampled(newMessage()));
+    }
+
+    @Test
+    public void testSampleRate() {
+        LoggingSampler sampler = new LoggingSampler();
+        sampler.setSampleRate(0);
+        assertFalse(sampler.isSampled(newMessage()));
+        sampler.setSampleRate(1);
+        assertTrue(sampler.isSampled(newMessage()));
+    }
+
+    @Test
+    public void testUnsampledStreamIsNotWrapped() {
+        LoggingSampler sampler = new LoggingSampler();
+        sampler.setSampleRate(0);
+        WireTapIn wireTap = new WireTapIn(AbstractLoggingInterceptor.DEFAULT_LIMIT, -1);
+        wireTap.setSampler(sampler);
+        Message message = newMessage();
+        InputStream is = new ByteArrayInputStream(new byte[] {1, 2, 3});
+        message.setContent(InputStream.class, is);
+        wireTap.handleMessage(message);
+        assertSame(is, message.getContent(InputStream.class));
+        assertNull(message.getContent(CachedOutputStream.class));
+    }
+
+    @Test
+    public void testLogOnErrorOnly() {
+        List<LogEvent> logged = new ArrayList<>();
+        OnErrorLogEventSender sender = new OnErrorLogEventSender(logged::add, 2);
+
+        sender.send(event("ok", EventType.REQ_IN, null));
+        sender.send(event("ok", EventType.RESP_OUT, "200"));
+        assertTrue(logged.isEmpty());
+        assertEquals(0, sender.getHeldExchangeCount());
+
+        LogEvent request = event("failed", EventType.REQ_IN, null);
+        sender.send(request);
+        LogEvent fault = event("failed", EventType.FAULT_OUT, "500");
+        sender.send(fault);
+        assertEquals(2, logged.size());
+        assertSame(request, logged.get(0));
+        assertSame(fault, logged.get(1));
+
+        // only the most recent exchanges are held
+        sender.send(event("a", EventType.REQ_IN, null));
+        sender.send(event("b", EventType.REQ_IN, null));
+        sender.send(event("c", EventType.REQ_IN, null));
+        assertEquals(2, sender.getHeldExchangeCount());
+    }
+
+    @Test
+    public void testLogOnErrorReleasesOneWayExchanges() {
+        List<LogEvent> logged = new ArrayList<>();
+        OnErrorLogEventSender sender = new OnErrorLogEventSender(logged::add);
+
+        LogEvent request = event("oneway", EventType.REQ_IN, null);
+        request.setOneWay(true);
+        sender.send(request);
+        assertTrue(logged.isEmpty());
+        assertEquals(0, sender.getHeldExchangeCount());
+    }
+
+    private static LogEvent event(String exchangeId, EventType type, String responseCode) {
+        LogEvent event = new LogEvent();
+        event.setExchangeId(exchangeId);
+        event.setType(type);
+        event.setResponseCode(responseCode);
+        return event;
+    }
+
+    private static Message newMessage() {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        message.setExchange(exchange);
+        exchange.setInMessage(message);
+        return message;
+    }
+}
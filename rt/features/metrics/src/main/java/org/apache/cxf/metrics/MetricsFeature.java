@@ -41,6 +41,8 @@ import org.apache.cxf.metrics.interceptors.MetricsMessageInOneWayInterceptor;
 import org.apache.cxf.metrics.interceptors.MetricsMessageInPostInvokeInterceptor;
 import org.apache.cxf.metrics.interceptors.MetricsMessageInPreInvokeInterceptor;
 import org.apache.cxf.metrics.interceptors.MetricsMessageOutInterceptor;
+import org.apache.cxf.metrics.interceptors.PhaseTimingInterceptor;
+import org.apache.cxf.phase.Phase;
 
 /**
  *
@@ -58,8 +60,16 @@ public class MetricsFeature extends DelegatingFeature<MetricsFeature.Portable> {
         super(new Portable(providers));
     }
 
+    /**
+     * Records how long each phase and interceptor takes, see {@link PhaseTimings}.
+     */
+    public void setPhaseTimings(boolean phaseTimings) {
+        delegate.setPhaseTimings(phaseTimings);
+    }
+
     public static class Portable implements AbstractPortableFeature {
         MetricsProvider[] providers;
+        boolean phaseTimings;
 
         public Portable() {
             this.providers = null;
@@ -87,6 +97,7 @@ public class MetricsFeature extends DelegatingFeature<MetricsFeature.Portable> {
             provider.getOutInterceptors().add(out);
             provider.getOutFaultInterceptors().add(countingOut);
             provider.getOutFaultInterceptors().add(out);
+            addPhaseTimingInterceptors(provider);
         }
 
         @Override
@@ -102,6 +113,7 @@ public class MetricsFeature extends DelegatingFeature<MetricsFeature.Portable> {
             client.getOutInterceptors().add(countingOut);
             client.getOutInterceptors().add(out);
             client.getOutInterceptors().add(new MetricsMessageClientOutInterceptor(providers));
+            addPhaseTimingInterceptors(client);
         }
 
 
@@ -124,6 +136,22 @@ public class MetricsFeature extends DelegatingFeature<MetricsFeature.Portable> {
             provider.getOutInterceptors().add(new MetricsMessageClientOutInterceptor(providers));
             provider.getOutFaultInterceptors().add(countingOut);
             provider.getOutFaultInterceptors().add(out);
+            addPhaseTimingInterceptors(provider);
+        }
+
+        public void setPhaseTimings(boolean phaseTimings) {
+            this.phaseTimings = phaseTimings;
+        }
+
+        private void addPhaseTimingInterceptors(InterceptorProvider provider) {
+            if (phaseTimings) {
+                PhaseTimingInterceptor in = new PhaseTimingInterceptor(Phase.RECEIVE);
+                PhaseTimingInterceptor out = new PhaseTimingInterceptor(Phase.SETUP);
+                provider.getInInterceptors().add(in);
+                provider.getInFaultInterceptors().add(in);
+                provider.getOutInterceptors().add(out);
+                provider.getOutFaultInterceptors().add(out);
+            }
         }
         private void createDefaultProvidersIfNeeded(Bus bus) {
             if (providers == null) {
@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.management.InstrumentationManager;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedOperation;
+import org.apache.cxf.management.annotation.ManagedResource;
+import org.apache.cxf.phase.InterceptorTimings;
+import org.apache.cxf.phase.PhaseInterceptor;
+
+/**
+ * Aggregates the {@link InterceptorTimings} of the exchanges of an endpoint into the total
+ * time spent in each phase and interceptor, which is exposed over JMX as a table of where
+ * the time goes.
+ */
+@ManagedResource(componentName = "PhaseTimings",
+                 description = "Time spent in the phases and interceptors of an endpoint")
+public class PhaseTimings implements ManagedComponent, Closeable {
+    private static final Logger LOG = LogUtils.getL7dLogger(PhaseTimings.class);
+    private static final String ROW_FORMAT = "%-24s %-72s %12s %14s %12s %8s";
+
+    private final Bus bus;
+    private final String objectName;
+    private final Map<String, Map<String, Total>> totals = new ConcurrentHashMap<>();
+
+    public PhaseTimings(Bus bus, Endpoint endpoint, boolean asClient) {
+        this.bus = bus;
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+        buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+        buffer.append(ManagementConstants.TYPE_PROP).append("=Metrics")
+            .append(asClient ? ".Client," : ".Server,");
+        buffer.append(ManagementConstants.SERVICE_NAME_PROP).append("=\"")
+            .append(endpoint.getService().getName().toString().replace("?", "\\?")).append("\",");
+        buffer.append(ManagementConstants.PORT_NAME_PROP).append("=\"")
+            .append(endpoint.getEndpointInfo().getName().getLocalPart()).append("\",");
+        buffer.append("Attribute=PhaseTimings");
+        objectName = buffer.toString();
+    }
+
+    /**
+     * Returns the PhaseTimings of the endpoint, creating and registering it if needed.
+     */
+    public static PhaseTimings getPhaseTimings(Bus bus, Endpoint endpoint, boolean asClient) {
+        PhaseTimings timings = (PhaseTimings)endpoint.get(PhaseTimings.class.getName());
+        if (timings == null) {
+            synchronized (endpoint) {
+                timings = (PhaseTimings)endpoint.get(PhaseTimings.class.getName());
+                if (timings == null) {
+                    timings = new PhaseTimings(bus, endpoint, asClient);
+                    timings.register();
+                    endpoint.addCleanupHook(timings);
+                    endpoint.put(PhaseTimings.class.getName(), timings);
+                }
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Creates the InterceptorTimings of an exchange, which are added to this once the chains
+     * have completed.
+     */
+    public InterceptorTimings createTimings() {
+        return new InterceptorTimings() {
+            @Override
+            protected void chainCompleted() {
+                synchronized (this) {
+                    add(this);
+                    clear();
+                }
+            }
+        };
+    }
+
+    public void add(InterceptorTimings timings) {
+        for (int i = 0; i < timings.size(); i++) {
+            PhaseInterceptor<?> interceptor = timings.getInterceptor(i);
+            Map<String, Total> phase = totals.get(interceptor.getPhase());
+            if (phase == null) {
+                phase = totals.computeIfAbsent(interceptor.getPhase(), p -> new ConcurrentHashMap<>());
+            }
+            Total total = phase.get(interceptor.getId());
+            if (total == null) {
+                total = phase.computeIfAbsent(interceptor.getId(), id -> new Total());
+            }
+            total.count.increment();
+            total.nanos.add(timings.getNanos(i));
+        }
+    }
+
+    @ManagedAttribute(description = "Invocations and time spent per interceptor, slowest first")
+    public String[] getInterceptorBreakdown() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Total>> phase : totals.entrySet()) {
+            for (Map.Entry<String, Total> interceptor : phase.getValue().entrySet()) {
+                Total t = interceptor.getValue();
+                rows.add(new Row(phase.getKey(), interceptor.getKey(), t.count.sum(), t.nanos.sum()));
+            }
+        }
+        return format(rows);
+    }
+
+    @ManagedAttribute(description = "Interceptor invocations and time spent per phase, slowest first")
+    public String[] getPhaseBreakdown() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Total>> phase : totals.entrySet()) {
+            long count = 0;
+            long nanos = 0;
+            for (Total t : phase.getValue().values()) {
+                count += t.count.sum();
+                nanos += t.nanos.sum();
+            }
+            rows.add(new Row(phase.getKey(), "", count, nanos));
+        }
+        return format(rows);
+    }
+
+    @ManagedOperation(description = "Resets the timings")
+    public void reset() {
+        totals.clear();
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        return new ObjectName(objectName);
+    }
+
+    protected void register() {
+        InstrumentationManager im = bus.getExtension(InstrumentationManager.class);
+        if (im != null) {
+            try {
+                im.register(this);
+            } catch (JMException e) {
+                LOG.log(Level.WARNING, "Could not register the phase timings " + objectName, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        InstrumentationManager im = bus.getExtension(InstrumentationManager.class);
+        if (im != null) {
+            try {
+                im.unregister(this);
+            } catch (JMException e) {
+                LOG.log(Level.FINE, "Could not unregister the phase timings " + objectName, e);
+            }
+        }
+    }
+
+    private static String[] format(List<Row> rows) {
+        rows.sort((r1, r2) -> Long.compare(r2.nanos, r1.nanos));
+        long sum = 0;
+        for (Row row : rows) {
+            sum += row.nanos;
+        }
+        String[] lines = new String[rows.size() + 1];
+        lines[0] = String.format(Locale.ENGLISH, ROW_FORMAT,
+                                 "Phase", "Interceptor", "Invocations", "Total (ms)", "Mean (us)", "Share");
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            lines[i + 1] = String.format(Locale.ENGLISH, ROW_FORMAT, row.phase, row.interceptor, row.count,
+                String.format(Locale.ENGLISH, "%.3f", row.nanos / 1e6),
+                String.format(Locale.ENGLISH, "%.3f", row.count == 0 ? 0 : row.nanos / 1e3 / row.count),
+                String.format(Locale.ENGLISH, "%.2f%%", sum == 0 ? 0 : row.nanos * 100.0 / sum));
+        }
+        return lines;
+    }
+
+    private static final class Total {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+
+    private static final class Row {
+        final String phase;
+        final String interceptor;
+        final long count;
+        final long nanos;
+
+        Row(String phase, String interceptor, long count, long nanos) {
+            this.phase = phase;
+            this.interceptor = interceptor;
+            this.count = count;
+            this.nanos = nanos;
+        }
+    }
+}
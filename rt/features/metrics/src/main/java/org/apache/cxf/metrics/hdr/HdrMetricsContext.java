@@ -0,0 +1,275 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.FaultMode;
+import org.apache.cxf.metrics.MetricsContext;
+
+/**
+ * Records the response times and the request and response sizes of an endpoint, operation
+ * or resource into {@link StripedHistogram}s. The interval the percentiles are computed over
+ * is rolled by the first invocation completing after its end, or when it is read.
+ *
+ * A stripe of a histogram holds about 1,740 longs (the buckets, the sum and the padding), so
+ * a context with the default 8 stripes uses about 330 KB (3 histograms x 8 stripes). Fewer
+ * stripes can be configured on the provider when many operations are monitored.
+ */
+public class HdrMetricsContext implements MetricsContext, ManagedComponent, HdrMetricsContextMBean,
+    Closeable {
+    static final long HIGHEST_RESPONSE_TIME = TimeUnit.HOURS.toMicros(1);
+    static final long HIGHEST_SIZE = 1L << 32;
+
+    protected final String baseName;
+    protected final Map<String, String> labels;
+    protected final HdrMetricsProvider provider;
+
+    protected final StripedHistogram responseTimes;
+    protected final StripedHistogram requestSizes;
+    protected final StripedHistogram responseSizes;
+    protected final LongAdder inFlight = new LongAdder();
+    protected final LongAdder checkedApplicationFaults = new LongAdder();
+    protected final LongAdder uncheckedApplicationFaults = new LongAdder();
+    protected final LongAdder runtimeFaults = new LongAdder();
+    protected final LongAdder logicalRuntimeFaults = new LongAdder();
+
+    private volatile long intervalEnd;
+    private volatile Interval interval;
+
+    public HdrMetricsContext(String baseName, Map<String, String> labels, HdrMetricsProvider provider) {
+        this.baseName = baseName;
+        this.labels = labels;
+        this.provider = provider;
+        int stripes = provider.getStripes();
+        responseTimes = new StripedHistogram(HIGHEST_RESPONSE_TIME, StripedHistogram.DEFAULT_PRECISION_BITS,
+                                             stripes);
+        requestSizes = new StripedHistogram(HIGHEST_SIZE, StripedHistogram.DEFAULT_PRECISION_BITS, stripes);
+        responseSizes = new StripedHistogram(HIGHEST_SIZE, StripedHistogram.DEFAULT_PRECISION_BITS, stripes);
+        interval = new Interval(responseTimes.intervalSnapshot(), requestSizes.intervalSnapshot(),
+                                responseSizes.intervalSnapshot());
+        intervalEnd = provider.currentTimeMillis() + provider.getInterval();
+    }
+
+    public void start(Exchange ex) {
+        inFlight.increment();
+    }
+
+    public void stop(long timeInNS, long inSize, long outSize, Exchange ex) {
+        long now = provider.currentTimeMillis();
+        if (now >= intervalEnd) {
+            // the values recorded so far belong to the interval which has ended
+            rollInterval(now);
+        }
+        responseTimes.record(TimeUnit.NANOSECONDS.toMicros(timeInNS));
+        if (inSize != -1) {
+            requestSizes.record(inSize);
+        }
+        if (outSize != -1) {
+            responseSizes.record(outSize);
+        }
+        FaultMode fm = ex.get(FaultMode.class);
+        if (fm == null && ex.getOutFaultMessage() != null) {
+            fm = ex.getOutFaultMessage().get(FaultMode.class);
+        }
+        if (fm == null && ex.getInMessage() != null) {
+            fm = ex.getInMessage().get(FaultMode.class);
+        }
+        if (fm != null) {
+            switch (fm) {
+            case CHECKED_APPLICATION_FAULT:
+                checkedApplicationFaults.increment();
+                break;
+            case UNCHECKED_APPLICATION_FAULT:
+                uncheckedApplicationFaults.increment();
+                break;
+            case RUNTIME_FAULT:
+                runtimeFaults.increment();
+                break;
+            case LOGICAL_RUNTIME_FAULT:
+                logicalRuntimeFaults.increment();
+                break;
+            default:
+            }
+        }
+        inFlight.decrement();
+    }
+
+    @Override
+    public void close() {
+        provider.remove(this);
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        return new ObjectName(baseName + "Attribute=Histograms");
+    }
+
+    public String getBaseName() {
+        return baseName;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public StripedHistogram getResponseTimes() {
+        return responseTimes;
+    }
+
+    public StripedHistogram getRequestSizes() {
+        return requestSizes;
+    }
+
+    public StripedHistogram getResponseSizes() {
+        return responseSizes;
+    }
+
+    /**
+     * Returns the snapshots of the last completed interval.
+     */
+    public Interval getInterval() {
+        long now = provider.currentTimeMillis();
+        if (now >= intervalEnd) {
+            rollInterval(now);
+        }
+        return interval;
+    }
+
+    private synchronized void rollInterval(long now) {
+        long end = intervalEnd;
+        if (now < end) {
+            return;
+        }
+        Interval completed = new Interval(responseTimes.intervalSnapshot(), requestSizes.intervalSnapshot(),
+                                          responseSizes.intervalSnapshot());
+        long length = Math.max(1, provider.getInterval());
+        if (now - end >= length) {
+            // the values were recorded before the last interval, in which nothing was recorded
+            completed = new Interval(responseTimes.emptySnapshot(), requestSizes.emptySnapshot(),
+                                     responseSizes.emptySnapshot());
+        }
+        interval = completed;
+        intervalEnd = now - (now - end) % length + length;
+    }
+
+    public long getNumInvocations() {
+        return responseTimes.snapshot().getCount();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public long getNumCheckedApplicationFaults() {
+        return checkedApplicationFaults.sum();
+    }
+
+    public long getNumUnCheckedApplicationFaults() {
+        return uncheckedApplicationFaults.sum();
+    }
+
+    public long getNumRuntimeFaults() {
+        return runtimeFaults.sum();
+    }
+
+    public long getNumLogicalRuntimeFaults() {
+        return logicalRuntimeFaults.sum();
+    }
+
+    public long getIntervalInvocations() {
+        return getInterval().responseTimes.getCount();
+    }
+
+    public double getAvgResponseTime() {
+        return getInterval().responseTimes.getMean();
+    }
+
+    public long getMaxResponseTime() {
+        return getInterval().responseTimes.getMax();
+    }
+
+    public long getResponseTimeP50() {
+        return getInterval().responseTimes.getValueAtPercentile(50);
+    }
+
+    public long getResponseTimeP99() {
+        return getInterval().responseTimes.getValueAtPercentile(99);
+    }
+
+    public long getResponseTimeP999() {
+        return getInterval().responseTimes.getValueAtPercentile(99.9);
+    }
+
+    public long getRequestSizeP50() {
+        return getInterval().requestSizes.getValueAtPercentile(50);
+    }
+
+    public long getRequestSizeP99() {
+        return getInterval().requestSizes.getValueAtPercentile(99);
+    }
+
+    public long getRequestSizeP999() {
+        return getInterval().requestSizes.getValueAtPercentile(99.9);
+    }
+
+    public long getResponseSizeP50() {
+        return getInterval().responseSizes.getValueAtPercentile(50);
+    }
+
+    public long getResponseSizeP99() {
+        return getInterval().responseSizes.getValueAtPercentile(99);
+    }
+
+    public long getResponseSizeP999() {
+        return getInterval().responseSizes.getValueAtPercentile(99.9);
+    }
+
+    public static final class Interval {
+        final HistogramSnapshot responseTimes;
+        final HistogramSnapshot requestSizes;
+        final HistogramSnapshot responseSizes;
+
+        Interval(HistogramSnapshot responseTimes, HistogramSnapshot requestSizes,
+                 HistogramSnapshot responseSizes) {
+            this.responseTimes = responseTimes;
+            this.requestSizes = requestSizes;
+            this.responseSizes = responseSizes;
+        }
+
+        public HistogramSnapshot getResponseTimes() {
+            return responseTimes;
+        }
+
+        public HistogramSnapshot getRequestSizes() {
+            return requestSizes;
+        }
+
+        public HistogramSnapshot getResponseSizes() {
+            return responseSizes;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+/**
+ * The percentiles are computed over the last completed interval, the response times are
+ * in microseconds and the sizes in bytes.
+ */
+public interface HdrMetricsContextMBean {
+    long getNumInvocations();
+    long getInFlight();
+    long getNumCheckedApplicationFaults();
+    long getNumUnCheckedApplicationFaults();
+    long getNumRuntimeFaults();
+    long getNumLogicalRuntimeFaults();
+
+    long getIntervalInvocations();
+    double getAvgResponseTime();
+    long getMaxResponseTime();
+    long getResponseTimeP50();
+    long getResponseTimeP99();
+    long getResponseTimeP999();
+
+    long getRequestSizeP50();
+    long getRequestSizeP99();
+    long getRequestSizeP999();
+    long getResponseSizeP50();
+    long getResponseSizeP99();
+    long getResponseSizeP999();
+}
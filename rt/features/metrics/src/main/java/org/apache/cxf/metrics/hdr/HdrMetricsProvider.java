@@ -0,0 +1,290 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.injection.NoJSR250Annotations;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.management.InstrumentationManager;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.metrics.MetricsContext;
+import org.apache.cxf.metrics.MetricsProvider;
+import org.apache.cxf.metrics.hdr.HdrMetricsContext.Interval;
+import org.apache.cxf.service.model.BindingOperationInfo;
+
+/**
+ * MetricsProvider recording the response times and the payload sizes of every endpoint and
+ * operation into lock free histograms of constant size, see {@link StripedHistogram}. The
+ * percentiles are published over JMX, when an InstrumentationManager is available, and in
+ * the Prometheus text format with {@link #writePrometheus(Writer)}, which
+ * {@link PrometheusMetricsServlet} serves.
+ *
+ * The provider registers itself as a Bus extension so that it can be found by the servlet.
+ */
+@NoJSR250Annotations
+public class HdrMetricsProvider implements MetricsProvider {
+    public static final long DEFAULT_INTERVAL = 60000L;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(HdrMetricsProvider.class);
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    protected final Bus bus;
+    private final Map<String, HdrMetricsContext> contexts = new ConcurrentHashMap<>();
+    private long interval = DEFAULT_INTERVAL;
+    private int stripes = StripedHistogram.defaultStripes();
+
+    public HdrMetricsProvider(Bus b) {
+        this.bus = b;
+        if (b.getExtension(HdrMetricsProvider.class) == null) {
+            b.setExtension(this, HdrMetricsProvider.class);
+        }
+    }
+
+    /**
+     * Sets the length in milliseconds of the intervals the percentiles are computed over.
+     */
+    public void setInterval(long interval) {
+        this.interval = interval;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Sets the number of stripes of the histograms of the contexts created afterwards, more
+     * stripes reduce the contention between the threads recording the same operation. Every
+     * stripe adds about 41 KB to a context.
+     */
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    /**
+     * The time source of the intervals.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public Collection<HdrMetricsContext> getContexts() {
+        return Collections.unmodifiableCollection(contexts.values());
+    }
+
+    /** {@inheritDoc}*/
+    @Override
+    public MetricsContext createEndpointContext(Endpoint endpoint, boolean asClient, String clientId) {
+        return getContext(endpoint, null, asClient, clientId);
+    }
+
+    /** {@inheritDoc}*/
+    @Override
+    public MetricsContext createOperationContext(Endpoint endpoint, BindingOperationInfo boi,
+                                                 boolean asClient, String clientId) {
+        return getContext(endpoint, boi.getName().getLocalPart(), asClient, clientId);
+    }
+
+    /** {@inheritDoc}*/
+    @Override
+    public MetricsContext createResourceContext(Endpoint endpoint, String resourceName,
+                                                boolean asClient, String clientId) {
+        return getContext(endpoint, resourceName, asClient, clientId);
+    }
+
+    protected HdrMetricsContext getContext(Endpoint endpoint, String operation,
+                                           boolean asClient, String clientId) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        StringBuilder buffer = new StringBuilder();
+        if (endpoint.get("org.apache.cxf.management.service.counter.name") != null) {
+            String name = (String)endpoint.get("org.apache.cxf.management.service.counter.name");
+            buffer.append(name);
+            labels.put("name", name);
+        } else {
+            String serviceName = endpoint.getService().getName().toString();
+            String portName = endpoint.getEndpointInfo().getName().getLocalPart();
+            buffer.append(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+            buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+            buffer.append(ManagementConstants.TYPE_PROP).append("=Metrics")
+                .append(asClient ? ".Client," : ".Server,");
+            buffer.append(ManagementConstants.SERVICE_NAME_PROP).append("=\"")
+                .append(serviceName.replace("?", "\\?")).append("\",");
+            buffer.append(ManagementConstants.PORT_NAME_PROP).append("=\"").append(portName).append("\",");
+            if (clientId != null) {
+                buffer.append("Client=").append(clientId).append(',');
+            }
+            labels.put("bus", bus.getId());
+            labels.put("side", asClient ? "client" : "server");
+            labels.put("service", serviceName);
+            labels.put("port", portName);
+            if (clientId != null) {
+                labels.put("client", clientId);
+            }
+        }
+        if (operation != null) {
+            buffer.append("Operation=").append(operation).append(',');
+            labels.put("operation", operation);
+        }
+        return contexts.computeIfAbsent(buffer.toString(), name -> {
+            HdrMetricsContext ctx = new HdrMetricsContext(name, labels, this);
+            register(ctx);
+            return ctx;
+        });
+    }
+
+    protected void register(HdrMetricsContext ctx) {
+        InstrumentationManager im = bus.getExtension(InstrumentationManager.class);
+        if (im != null) {
+            try {
+                im.register(ctx);
+            } catch (JMException e) {
+                LOG.log(Level.WARNING, "Could not register the metrics of " + ctx.getBaseName(), e);
+            }
+        }
+    }
+
+    void remove(HdrMetricsContext ctx) {
+        if (contexts.remove(ctx.getBaseName(), ctx)) {
+            InstrumentationManager im = bus.getExtension(InstrumentationManager.class);
+            if (im != null) {
+                try {
+                    im.unregister(ctx);
+                } catch (JMException e) {
+                    LOG.log(Level.FINE, "Could not unregister the metrics of " + ctx.getBaseName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format. The quantiles are the ones
+     * of the last completed interval, the counts and sums are totals.
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        writeSummary(writer, "cxf_response_time_seconds", "Response time of the invocations", 1e-6,
+            HdrMetricsContext::getResponseTimes, Interval::getResponseTimes);
+        writeSummary(writer, "cxf_request_size_bytes", "Size of the requests", 1,
+            HdrMetricsContext::getRequestSizes, Interval::getRequestSizes);
+        writeSummary(writer, "cxf_response_size_bytes", "Size of the responses", 1,
+            HdrMetricsContext::getResponseSizes, Interval::getResponseSizes);
+        writeGauge(writer, "cxf_in_flight", "Invocations in progress", HdrMetricsContext::getInFlight);
+        writer.write("# HELP cxf_faults_total Faults by fault mode\n# TYPE cxf_faults_total counter\n");
+        for (HdrMetricsContext ctx : contexts.values()) {
+            writeFaults(writer, ctx, "CHECKED_APPLICATION_FAULT", ctx.getNumCheckedApplicationFaults());
+            writeFaults(writer, ctx, "UNCHECKED_APPLICATION_FAULT", ctx.getNumUnCheckedApplicationFaults());
+            writeFaults(writer, ctx, "RUNTIME_FAULT", ctx.getNumRuntimeFaults());
+            writeFaults(writer, ctx, "LOGICAL_RUNTIME_FAULT", ctx.getNumLogicalRuntimeFaults());
+        }
+        writer.flush();
+    }
+
+    private void writeSummary(Writer writer, String name, String help, double scale,
+                              Function<HdrMetricsContext, StripedHistogram> histogram,
+                              Function<Interval, HistogramSnapshot> intervalHistogram)
+        throws IOException {
+        writer.write("# HELP " + name + ' ' + help + "\n# TYPE " + name + " summary\n");
+        for (HdrMetricsContext ctx : contexts.values()) {
+            HistogramSnapshot snapshot = intervalHistogram.apply(ctx.getInterval());
+            for (double q : QUANTILES) {
+                writer.write(name);
+                writeLabels(writer, ctx.getLabels(), "quantile", Double.toString(q));
+                writer.write(' ' + Double.toString(snapshot.getValueAtPercentile(q * 100) * scale) + '\n');
+            }
+            HistogramSnapshot total = histogram.apply(ctx).snapshot();
+            writer.write(name + "_count");
+            writeLabels(writer, ctx.getLabels(), null, null);
+            writer.write(' ' + Long.toString(total.getCount()) + '\n');
+            writer.write(name + "_sum");
+            writeLabels(writer, ctx.getLabels(), null, null);
+            writer.write(' ' + Double.toString(total.getSum() * scale) + '\n');
+        }
+    }
+
+    private void writeGauge(Writer writer, String name, String help, ToLongFunction<HdrMetricsContext> value)
+        throws IOException {
+        writer.write("# HELP " + name + ' ' + help + "\n# TYPE " + name + " gauge\n");
+        for (HdrMetricsContext ctx : contexts.values()) {
+            writer.write(name);
+            writeLabels(writer, ctx.getLabels(), null, null);
+            writer.write(' ' + Long.toString(value.applyAsLong(ctx)) + '\n');
+        }
+    }
+
+    private static void writeFaults(Writer writer, HdrMetricsContext ctx, String mode, long count)
+        throws IOException {
+        writer.write("cxf_faults_total");
+        writeLabels(writer, ctx.getLabels(), "mode", mode);
+        writer.write(' ' + Long.toString(count) + '\n');
+    }
+
+    private static void writeLabels(Writer writer, Map<String, String> labels, String extraName,
+                                    String extraValue) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeLabel(writer, label.getKey(), label.getValue());
+        }
+        if (extraName != null) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeLabel(writer, extraName, extraValue);
+        }
+        writer.write('}');
+    }
+
+    private static void writeLabel(Writer writer, String name, String value) throws IOException {
+        writer.write(name);
+        writer.write("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c == '\n') {
+                writer.write("\\n");
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
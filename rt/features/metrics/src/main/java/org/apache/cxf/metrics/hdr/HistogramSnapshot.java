@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+/**
+ * The counts of a {@link StripedHistogram} at a given time or over an interval.
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long sum;
+    private final long count;
+    private final int precisionBits;
+
+    HistogramSnapshot(long[] counts, long sum, int precisionBits) {
+        this.counts = counts;
+        this.sum = sum;
+        this.precisionBits = precisionBits;
+        long c = 0;
+        for (long n : counts) {
+            c += n;
+        }
+        this.count = c;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double)sum / count;
+    }
+
+    /**
+     * Returns the highest value equivalent to the value at the given percentile (0 to 100),
+     * or 0 if no value has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return StripedHistogram.highestValue(i, precisionBits);
+            }
+        }
+        return StripedHistogram.highestValue(counts.length - 1, precisionBits);
+    }
+
+    public long getMax() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return StripedHistogram.highestValue(i, precisionBits);
+            }
+        }
+        return 0;
+    }
+
+    public long getMin() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return StripedHistogram.lowestValue(i, precisionBits);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+
+/**
+ * Serves the metrics of a {@link HdrMetricsProvider} in the Prometheus text format. Without
+ * a provider the one registered on the default Bus is used.
+ */
+public class PrometheusMetricsServlet extends HttpServlet {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final long serialVersionUID = 1L;
+
+    private transient HdrMetricsProvider provider;
+
+    public PrometheusMetricsServlet() {
+    }
+
+    public PrometheusMetricsServlet(HdrMetricsProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+        throws ServletException, IOException {
+        HdrMetricsProvider p = getProvider();
+        if (p == null) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType(CONTENT_TYPE);
+        try (Writer writer = resp.getWriter()) {
+            p.writePrometheus(writer);
+        }
+    }
+
+    protected HdrMetricsProvider getProvider() {
+        if (provider == null) {
+            Bus bus = BusFactory.getDefaultBus(false);
+            if (bus != null) {
+                provider = bus.getExtension(HdrMetricsProvider.class);
+            }
+        }
+        return provider;
+    }
+}
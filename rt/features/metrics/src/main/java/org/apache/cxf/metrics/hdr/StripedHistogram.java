@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram in the spirit of HdrHistogram: the values up to 2^precisionBits are
+ * counted exactly, larger values fall into buckets whose width is at most 1/2^(precisionBits-1)
+ * of their lower bound, so a percentile is within that relative error of the recorded value.
+ * The number of buckets only depends on the highest trackable value (larger values are
+ * counted in the last bucket), the memory used does not grow with the traffic.
+ *
+ * The counts are kept in a few stripes of an AtomicLongArray, each thread records into the
+ * stripe selected by its id, so recording never locks and concurrent threads rarely
+ * update the same cache lines. Snapshots add the stripes up.
+ */
+public class StripedHistogram {
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    // keeps two stripes on different cache lines
+    private static final int PADDING = 16;
+
+    private final int precisionBits;
+    private final int bucketCount;
+    private final long highestTrackableValue;
+    private final int stripeMask;
+    private final int stride;
+    private final AtomicLongArray cells;
+    private long[] lastCounts;
+    private long lastSum;
+
+    public StripedHistogram(long highestTrackableValue) {
+        this(highestTrackableValue, DEFAULT_PRECISION_BITS, defaultStripes());
+    }
+
+    /**
+     * @param highestTrackableValue the highest value counted in its own bucket
+     * @param precisionBits the number of bits of the values which are kept, from 2 to 16
+     * @param stripes the number of stripes, rounded up to a power of 2
+     */
+    public StripedHistogram(long highestTrackableValue, int precisionBits, int stripes) {
+        if (precisionBits < 2 || precisionBits > 16) {
+            throw new IllegalArgumentException("precisionBits must be between 2 and 16");
+        }
+        if (highestTrackableValue < 1) {
+            throw new IllegalArgumentException("highestTrackableValue must be positive");
+        }
+        this.precisionBits = precisionBits;
+        this.highestTrackableValue = highestTrackableValue;
+        this.bucketCount = bucketIndex(highestTrackableValue, precisionBits) + 1;
+        int s = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripeMask = stripes <= 1 ? 0 : s - 1;
+        // the bucket counts of a stripe are followed by the sum of its values
+        this.stride = bucketCount + 1 + PADDING;
+        this.cells = new AtomicLongArray(stride * (stripeMask + 1));
+        this.lastCounts = new long[bucketCount];
+    }
+
+    static int defaultStripes() {
+        return Math.min(8, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Records a value, negative values are ignored.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        int base = ((int)Thread.currentThread().getId() & stripeMask) * stride;
+        cells.incrementAndGet(base + bucketIndex(Math.min(value, highestTrackableValue), precisionBits));
+        cells.addAndGet(base + bucketCount, value);
+    }
+
+    /**
+     * Returns the values recorded since the histogram has been created.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[bucketCount];
+        long sum = collect(counts);
+        return new HistogramSnapshot(counts, sum, precisionBits);
+    }
+
+    /**
+     * Returns the values recorded since the previous call to this method.
+     */
+    public synchronized HistogramSnapshot intervalSnapshot() {
+        long[] counts = new long[bucketCount];
+        long sum = collect(counts);
+        long[] interval = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            interval[i] = counts[i] - lastCounts[i];
+        }
+        HistogramSnapshot snapshot = new HistogramSnapshot(interval, sum - lastSum, precisionBits);
+        lastCounts = counts;
+        lastSum = sum;
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot without any value.
+     */
+    public HistogramSnapshot emptySnapshot() {
+        return new HistogramSnapshot(new long[bucketCount], 0, precisionBits);
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    private long collect(long[] counts) {
+        long sum = 0;
+        for (int base = 0; base < cells.length(); base += stride) {
+            for (int i = 0; i < bucketCount; i++) {
+                counts[i] += cells.get(base + i);
+            }
+            sum += cells.get(base + bucketCount);
+        }
+        return sum;
+    }
+
+    static int bucketIndex(long value, int precisionBits) {
+        if (value < (1L << precisionBits)) {
+            return (int)value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - precisionBits;
+        return (shift << (precisionBits - 1)) + (int)(value >>> shift);
+    }
+
+    static long lowestValue(int index, int precisionBits) {
+        if (index < (1 << precisionBits)) {
+            return index;
+        }
+        int shift = (index >>> (precisionBits - 1)) - 1;
+        return (long)(index - (shift << (precisionBits - 1))) << shift;
+    }
+
+    static long highestValue(int index, int precisionBits) {
+        if (index < (1 << precisionBits)) {
+            return index;
+        }
+        int shift = (index >>> (precisionBits - 1)) - 1;
+        return lowestValue(index, precisionBits) + (1L << shift) - 1;
+    }
+}
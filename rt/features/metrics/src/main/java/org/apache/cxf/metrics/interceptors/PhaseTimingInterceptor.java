@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.interceptors;
+
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.interceptor.AttachmentInInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.InterceptorChain;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.metrics.PhaseTimings;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.InterceptorTimings;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+
+/**
+ * Times the interceptors which follow it in the chain, the timings of all the chains of an
+ * exchange are recorded into the same {@link InterceptorTimings} and aggregated into the
+ * {@link PhaseTimings} of the endpoint.
+ */
+public class PhaseTimingInterceptor extends AbstractPhaseInterceptor<Message> {
+    public PhaseTimingInterceptor(String phase) {
+        super(phase);
+        if (Phase.RECEIVE.equals(phase)) {
+            addBefore(AttachmentInInterceptor.class.getName());
+            addBefore(MetricsMessageInInterceptor.class.getName());
+        }
+    }
+
+    public void handleMessage(Message message) throws Fault {
+        InterceptorChain chain = message.getInterceptorChain();
+        if (!(chain instanceof PhaseInterceptorChain)
+            || ((PhaseInterceptorChain)chain).getTimings() != null) {
+            return;
+        }
+        Exchange exchange = message.getExchange();
+        InterceptorTimings timings = exchange.get(InterceptorTimings.class);
+        if (timings == null) {
+            Endpoint endpoint = exchange.getEndpoint();
+            if (endpoint == null) {
+                return;
+            }
+            timings = PhaseTimings.getPhaseTimings(exchange.getBus(), endpoint, isRequestor(message))
+                .createTimings();
+            exchange.put(InterceptorTimings.class, timings);
+        }
+        ((PhaseInterceptorChain)chain).setTimings(timings);
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.FaultMode;
+import org.easymock.EasyMock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HdrMetricsProviderTest {
+    private static final String COUNTER_NAME = "org.apache.cxf.management.service.counter.name";
+
+    private final AtomicLong now = new AtomicLong(1000000L);
+    private HdrMetricsProvider provider;
+
+    @Before
+    public void setUp() {
+        Bus bus = EasyMock.createNiceMock(Bus.class);
+        EasyMock.replay(bus);
+        provider = new HdrMetricsProvider(bus) {
+            @Override
+            protected long currentTimeMillis() {
+                return now.get();
+            }
+        };
+        provider.setInterval(1000L);
+        provider.setStripes(2);
+    }
+
+    @Test
+    public void testIntervalIsRolledOnTheClock() {
+        HdrMetricsContext ctx = createContext("test");
+        assertSame(ctx, createContext("test"));
+        ctx.stop(TimeUnit.MILLISECONDS.toNanos(5), 10, 20, new ExchangeImpl());
+        ctx.stop(TimeUnit.MILLISECONDS.toNanos(5), 10, 20, new ExchangeImpl());
+        assertEquals(0, ctx.getIntervalInvocations());
+
+        // the first invocation completing after the end of the interval rolls it
+        now.addAndGet(1000L);
+        ctx.stop(TimeUnit.MILLISECONDS.toNanos(5), 10, 20, new ExchangeImpl());
+        now.addAndGet(500L);
+        assertEquals(2, ctx.getIntervalInvocations());
+        assertEquals(3, ctx.getNumInvocations());
+
+        // read once the next interval has ended
+        now.addAndGet(500L);
+        assertEquals(1, ctx.getIntervalInvocations());
+
+        // nothing has been recorded in the last completed interval
+        ctx.stop(TimeUnit.MILLISECONDS.toNanos(5), 10, 20, new ExchangeImpl());
+        now.addAndGet(2500L);
+        assertEquals(0, ctx.getIntervalInvocations());
+        assertEquals(4, ctx.getNumInvocations());
+    }
+
+    @Test
+    public void testPrometheusFormat() throws Exception {
+        HdrMetricsContext ctx = createContext("a\"b\\c\nd");
+        Exchange ex = new ExchangeImpl();
+        ex.put(FaultMode.class, FaultMode.RUNTIME_FAULT);
+        ctx.start(ex);
+        ctx.stop(TimeUnit.MILLISECONDS.toNanos(2), 100, 120, ex);
+        ctx.start(new ExchangeImpl());
+        now.addAndGet(1000L);
+
+        StringWriter writer = new StringWriter();
+        provider.writePrometheus(writer);
+        List<String> lines = Arrays.asList(writer.toString().split("\n"));
+        String labels = "name=\"a\\\"b\\\\c\\nd\"";
+
+        assertTrue(lines.contains("# HELP cxf_response_time_seconds Response time of the invocations"));
+        assertTrue(lines.contains("# TYPE cxf_response_time_seconds summary"));
+        assertTrue(lines.contains("cxf_response_time_seconds_count{" + labels + "} 1"));
+        assertTrue(lines.contains("# TYPE cxf_request_size_bytes summary"));
+        for (String q : new String[] {"0.5", "0.99", "0.999"}) {
+            String quantileLabels = "{" + labels + ",quantile=\"" + q + "\"}";
+            assertTrue(lines.contains("cxf_request_size_bytes" + quantileLabels + " 100.0"));
+            assertTrue(lines.contains("cxf_response_size_bytes" + quantileLabels + " 120.0"));
+        }
+        assertTrue(lines.contains("cxf_request_size_bytes_sum{" + labels + "} 100.0"));
+        assertTrue(lines.contains("# TYPE cxf_in_flight gauge"));
+        assertTrue(lines.contains("cxf_in_flight{" + labels + "} 1"));
+        assertTrue(lines.contains("# TYPE cxf_faults_total counter"));
+        assertTrue(lines.contains("cxf_faults_total{" + labels + ",mode=\"RUNTIME_FAULT\"} 1"));
+        assertTrue(lines.contains("cxf_faults_total{" + labels + ",mode=\"CHECKED_APPLICATION_FAULT\"} 0"));
+        for (String line : lines) {
+            assertTrue(line, line.startsWith("# ") || line.startsWith("cxf_"));
+        }
+    }
+
+    private HdrMetricsContext createContext(String name) {
+        Endpoint endpoint = EasyMock.createNiceMock(Endpoint.class);
+        EasyMock.expect(endpoint.get(COUNTER_NAME)).andReturn(name).anyTimes();
+        EasyMock.replay(endpoint);
+        return (HdrMetricsContext)provider.createEndpointContext(endpoint, false, null);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.metrics.hdr;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StripedHistogramTest {
+
+    @Test
+    public void testBucketIndexRoundTrip() {
+        int precisionBits = StripedHistogram.DEFAULT_PRECISION_BITS;
+        int buckets = StripedHistogram.bucketIndex(1L << 40, precisionBits) + 1;
+        for (int i = 0; i < buckets; i++) {
+            long lowest = StripedHistogram.lowestValue(i, precisionBits);
+            long highest = StripedHistogram.highestValue(i, precisionBits);
+            assertEquals(i, StripedHistogram.bucketIndex(lowest, precisionBits));
+            assertEquals(i, StripedHistogram.bucketIndex(highest, precisionBits));
+            if (i > 0) {
+                // the buckets are contiguous
+                assertEquals(StripedHistogram.highestValue(i - 1, precisionBits) + 1, lowest);
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            long value = random.nextLong() >>> (24 + random.nextInt(40));
+            int index = StripedHistogram.bucketIndex(value, precisionBits);
+            assertTrue(StripedHistogram.lowestValue(index, precisionBits) <= value);
+            assertTrue(StripedHistogram.highestValue(index, precisionBits) >= value);
+        }
+    }
+
+    @Test
+    public void testPercentileAccuracy() {
+        StripedHistogram histogram =
+            new StripedHistogram(1L << 32, StripedHistogram.DEFAULT_PRECISION_BITS, 4);
+        for (long value = 1; value <= 1000000; value++) {
+            histogram.record(value);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1000000, snapshot.getCount());
+        assertEquals(500000500000L, snapshot.getSum());
+        // the relative error is at most 1/2^(precisionBits-1)
+        double error = 1.0d / (1 << (StripedHistogram.DEFAULT_PRECISION_BITS - 1));
+        for (double percentile : new double[] {1, 50, 90, 99, 99.9, 100}) {
+            long expected = (long)(percentile * 10000);
+            long actual = snapshot.getValueAtPercentile(percentile);
+            assertTrue(percentile + ": " + actual, actual >= expected);
+            assertTrue(percentile + ": " + actual, actual <= expected * (1 + error));
+        }
+        assertEquals(1, snapshot.getMin());
+        assertTrue(snapshot.getMax() >= 1000000);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        StripedHistogram histogram = new StripedHistogram(1000);
+        for (int value = 0; value < 100; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-1);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(49, snapshot.getValueAtPercentile(50));
+        assertEquals(99, snapshot.getMax());
+    }
+
+    @Test
+    public void testIntervalSnapshots() {
+        StripedHistogram histogram = new StripedHistogram(1000);
+        assertEquals(0, histogram.intervalSnapshot().getCount());
+        histogram.record(10);
+        histogram.record(20);
+        HistogramSnapshot interval = histogram.intervalSnapshot();
+        assertEquals(2, interval.getCount());
+        assertEquals(30, interval.getSum());
+
+        histogram.record(30);
+        interval = histogram.intervalSnapshot();
+        assertEquals(1, interval.getCount());
+        assertEquals(30, interval.getSum());
+        assertEquals(30, interval.getValueAtPercentile(50));
+        assertEquals(0, histogram.intervalSnapshot().getCount());
+
+        // the totals are not affected
+        assertEquals(3, histogram.snapshot().getCount());
+        assertEquals(60, histogram.snapshot().getSum());
+    }
+}
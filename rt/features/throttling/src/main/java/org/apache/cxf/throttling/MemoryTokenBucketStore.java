@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the token buckets in a ConcurrentHashMap, each bucket being a single AtomicLong
+ * updated with compare-and-set, so that requests with different keys never contend and
+ * requests with the same key do not block each other.
+ *
+ * A bucket which has been refilled holds no state worth keeping, so such idle buckets are
+ * periodically removed and recreated on demand.
+ */
+public class MemoryTokenBucketStore implements TokenBucketStore {
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction = new AtomicLong(System.nanoTime());
+    private long evictionInterval = TimeUnit.MINUTES.toNanos(1);
+
+    @Override
+    public long consume(String key, long cost, long capacity, long nanosPerToken, long maxDelay) {
+        long now = System.nanoTime();
+        evictIfNeeded(now);
+        long increment = cost * nanosPerToken;
+        long tolerance = capacity * nanosPerToken;
+        while (true) {
+            AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            long tat = bucket.get();
+            if (tat == EVICTED) {
+                buckets.remove(key, bucket);
+                continue;
+            }
+            long newTat = (tat - now < 0 ? now : tat) + increment;
+            long wait = newTat - tolerance - now;
+            if (wait > maxDelay) {
+                return -wait;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return Math.max(wait, 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of buckets currently held.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Sets how often in milliseconds the buckets which have been refilled are removed.
+     */
+    public void setEvictionInterval(long evictionInterval) {
+        this.evictionInterval = TimeUnit.MILLISECONDS.toNanos(evictionInterval);
+    }
+
+    private void evictIfNeeded(long now) {
+        long next = nextEviction.get();
+        if (now - next < 0 || !nextEviction.compareAndSet(next, now + evictionInterval)) {
+            return;
+        }
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            long tat = bucket.get();
+            // a concurrent consume either sees EVICTED and retries, or wins and the bucket stays
+            if (tat != EVICTED && tat - now <= 0 && bucket.compareAndSet(tat, EVICTED)) {
+                buckets.remove(entry.getKey(), bucket);
+            }
+        }
+    }
+}
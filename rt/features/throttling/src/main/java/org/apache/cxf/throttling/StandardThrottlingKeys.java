@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.security.Principal;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.security.SecurityContext;
+import org.apache.cxf.service.model.BindingOperationInfo;
+
+/**
+ * The usual ways of selecting the bucket of a request. The principal and the operation are
+ * only known once the security or the binding interceptors have run, so the decision phase
+ * of the manager must be set accordingly. With the OAuth2 filters, the principal is the
+ * client unless they are set to use the end user subject.
+ */
+public enum StandardThrottlingKeys implements ThrottlingKeyResolver {
+    /**
+     * The remote address of the HTTP request.
+     */
+    CLIENT_ADDRESS {
+        @Override
+        public String getKey(Message m) {
+            Object request = m.get(HTTP_REQUEST);
+            return request instanceof HttpServletRequest
+                ? ((HttpServletRequest)request).getRemoteAddr() : null;
+        }
+    },
+    /**
+     * The name of the authenticated principal.
+     */
+    PRINCIPAL {
+        @Override
+        public String getKey(Message m) {
+            SecurityContext sc = m.get(SecurityContext.class);
+            Principal p = sc == null ? null : sc.getUserPrincipal();
+            return p == null ? null : p.getName();
+        }
+    },
+    /**
+     * The qualified name of the invoked operation.
+     */
+    OPERATION {
+        @Override
+        public String getKey(Message m) {
+            BindingOperationInfo boi = m.getExchange().getBindingOperationInfo();
+            if (boi != null) {
+                return boi.getName().toString();
+            }
+            Object op = m.get(Message.WSDL_OPERATION);
+            return op instanceof QName ? op.toString() : null;
+        }
+    };
+
+    private static final String HTTP_REQUEST = "HTTP.REQUEST";
+}
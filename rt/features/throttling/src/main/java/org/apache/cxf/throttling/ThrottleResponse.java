@@ -75,7 +75,8 @@ public class ThrottleResponse {
     /**
      * Delay processing for specified milliseconds.
      * Should be "small" to prevent the client from timing out unless the client request is
-     * aborted with the HTTP error code.
+     * aborted with the HTTP error code. If the request is rejected with 503 or 429, the delay
+     * is sent to the client as the Retry-After header.
      * @return
      */
     public long getDelay() {
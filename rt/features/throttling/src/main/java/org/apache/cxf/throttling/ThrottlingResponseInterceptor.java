@@ -63,9 +63,9 @@ public class ThrottlingResponseInterceptor extends AbstractPhaseInterceptor<Mess
                 }
                 r.add(e.getValue());
             }
-            if (rsp.getResponseCode() == 503 && rsp.getDelay() > 0
+            if ((rsp.getResponseCode() == 503 || rsp.getResponseCode() == 429) && rsp.getDelay() > 0
                 && !rsp.getResponseHeaders().containsKey("Retry-After")) {
-                String retryAfter = Long.toString(rsp.getDelay() / 1000);
+                String retryAfter = Long.toString((rsp.getDelay() + 999) / 1000);
                 headers.put("Retry-After", Collections.singletonList(retryAfter));
             }
         }
@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+/**
+ * Holds the token buckets of a {@link TokenBucketThrottlingManager}. The default
+ * {@link MemoryTokenBucketStore} keeps them in the memory of the node; an implementation
+ * backed by a shared store makes the limits hold across a cluster.
+ *
+ * A bucket is fully described by a single value, the time at which it will be full again
+ * (the "theoretical arrival time" of the generic cell rate algorithm), so a shared store only
+ * needs an atomic compare-and-set or a small server side script per request:
+ * <pre>
+ * tat = max(stored, now)
+ * newTat = tat + cost * nanosPerToken
+ * wait = newTat - capacity * nanosPerToken - now
+ * if wait &lt;= 0: store newTat, return 0
+ * if wait &lt;= maxDelay: store newTat, return wait
+ * otherwise: return -wait
+ * </pre>
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Takes tokens from the bucket of the key, creating a full bucket if there is none.
+     *
+     * @param key the throttling key
+     * @param cost the number of tokens to take
+     * @param capacity the maximum number of tokens in the bucket
+     * @param nanosPerToken the time needed to refill one token
+     * @param maxDelay how long in nanoseconds the caller accepts to wait for the tokens
+     * @return 0 if the tokens have been taken, a positive number of nanoseconds to wait if the
+     *         tokens have been reserved, or minus the number of nanoseconds after which the
+     *         tokens will be available if nothing has been taken
+     */
+    long consume(String key, long cost, long capacity, long nanosPerToken, long maxDelay);
+}
@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Throttles the requests with a token bucket per key: every request takes a number of tokens
+ * (its cost) from the bucket of its key, which holds at most capacity tokens and is refilled
+ * at refillRate tokens per second.
+ *
+ * When the bucket does not hold enough tokens, the request is delayed until it does if this
+ * takes no more than maxDelay milliseconds, by suspending the continuation where available.
+ * Otherwise it is rejected with responseCode (429 by default) and a Retry-After header.
+ */
+public class TokenBucketThrottlingManager implements ThrottlingManager {
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    private static final String THROTTLED_KEY = TokenBucketThrottlingManager.class.getName() + ".THROTTLED";
+
+    private long capacity = 100;
+    private double refillRate = 10;
+    private long maxDelay;
+    private int responseCode = TOO_MANY_REQUESTS;
+    private String decisionPhase = Phase.PRE_STREAM;
+    private ThrottlingKeyResolver keyResolver = StandardThrottlingKeys.CLIENT_ADDRESS;
+    private TokenBucketStore store = new MemoryTokenBucketStore();
+    private long defaultCost = 1;
+    private Map<String, Long> operationCosts = new HashMap<>();
+
+    @Override
+    public List<String> getDecisionPhases() {
+        return Collections.singletonList(decisionPhase);
+    }
+
+    @Override
+    public ThrottleResponse getThrottleResponse(String phase, Message m) {
+        if (m.containsKey(THROTTLED_KEY)) {
+            // resumed after the delay, the tokens have already been taken
+            return null;
+        }
+        String key = keyResolver.getKey(m);
+        long cost = key == null ? 0 : getCost(m);
+        if (cost <= 0) {
+            return null;
+        }
+        long nanosPerToken = (long)(TimeUnit.SECONDS.toNanos(1) / refillRate);
+        long wait = store.consume(key, cost, capacity, nanosPerToken,
+                                  TimeUnit.MILLISECONDS.toNanos(maxDelay));
+        if (wait == 0) {
+            return null;
+        }
+        if (wait > 0) {
+            m.put(THROTTLED_KEY, Boolean.TRUE);
+            return new ThrottleResponse().setDelay(toMillis(wait));
+        }
+        return new ThrottleResponse(responseCode, toMillis(-wait));
+    }
+
+    /**
+     * Returns the number of tokens the request takes, the cost of its operation if one has
+     * been configured or the default cost otherwise.
+     */
+    protected long getCost(Message m) {
+        if (!operationCosts.isEmpty()) {
+            String operation = StandardThrottlingKeys.OPERATION.getKey(m);
+            Long cost = operation == null ? null : operationCosts.get(operation);
+            if (cost != null) {
+                return cost;
+            }
+        }
+        return defaultCost;
+    }
+
+    private static long toMillis(long nanos) {
+        return (nanos + 999_999) / 1_000_000;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of tokens of a bucket, that is the largest burst of requests.
+     */
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public double getRefillRate() {
+        return refillRate;
+    }
+
+    /**
+     * Sets the number of tokens added to a bucket per second, that is the sustained rate.
+     */
+    public void setRefillRate(double refillRate) {
+        this.refillRate = refillRate;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Sets how long in milliseconds a request may be delayed rather than rejected, 0 by default.
+     */
+    public void setMaxDelay(long maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    public void setResponseCode(int responseCode) {
+        this.responseCode = responseCode;
+    }
+
+    public String getDecisionPhase() {
+        return decisionPhase;
+    }
+
+    /**
+     * Sets the phase where the requests are throttled, Phase.PRE_STREAM by default. Keys
+     * depending on the principal or on the operation require a later phase.
+     */
+    public void setDecisionPhase(String decisionPhase) {
+        this.decisionPhase = decisionPhase;
+    }
+
+    public ThrottlingKeyResolver getKeyResolver() {
+        return keyResolver;
+    }
+
+    public void setKeyResolver(ThrottlingKeyResolver keyResolver) {
+        this.keyResolver = keyResolver;
+    }
+
+    public TokenBucketStore getStore() {
+        return store;
+    }
+
+    public void setStore(TokenBucketStore store) {
+        this.store = store;
+    }
+
+    public long getDefaultCost() {
+        return defaultCost;
+    }
+
+    public void setDefaultCost(long defaultCost) {
+        this.defaultCost = defaultCost;
+    }
+
+    public Map<String, Long> getOperationCosts() {
+        return operationCosts;
+    }
+
+    /**
+     * Sets the number of tokens taken by the operations, keyed by their qualified name
+     * ({namespace}localPart). The operation is only known once the binding interceptors have run.
+     */
+    public void setOperationCosts(Map<String, Long> operationCosts) {
+        this.operationCosts = operationCosts;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryTokenBucketStoreTest {
+    private static final long NANOS_PER_TOKEN = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstThenReject() {
+        MemoryTokenBucketStore store = new MemoryTokenBucketStore();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, store.consume("a", 1, 5, NANOS_PER_TOKEN, 0));
+        }
+        long wait = store.consume("a", 1, 5, NANOS_PER_TOKEN, 0);
+        assertTrue(wait < 0 && -wait <= NANOS_PER_TOKEN);
+        // nothing has been taken by the rejected request
+        assertTrue(store.consume("a", 1, 5, NANOS_PER_TOKEN, 0) < 0);
+        // the other keys have their own bucket
+        assertEquals(0, store.consume("b", 1, 5, NANOS_PER_TOKEN, 0));
+    }
+
+    @Test
+    public void testDelay() {
+        MemoryTokenBucketStore store = new MemoryTokenBucketStore();
+        assertEquals(0, store.consume("a", 2, 2, NANOS_PER_TOKEN, 0));
+        long maxDelay = TimeUnit.SECONDS.toNanos(2);
+        long wait = store.consume("a", 1, 2, NANOS_PER_TOKEN, maxDelay);
+        assertTrue(wait > 0 && wait <= NANOS_PER_TOKEN);
+        // the reserved token is accounted for
+        wait = store.consume("a", 1, 2, NANOS_PER_TOKEN, maxDelay);
+        assertTrue(wait > NANOS_PER_TOKEN && wait <= 2 * NANOS_PER_TOKEN);
+        assertTrue(store.consume("a", 1, 2, NANOS_PER_TOKEN, maxDelay) < 0);
+    }
+
+    @Test
+    public void testCost() {
+        MemoryTokenBucketStore store = new MemoryTokenBucketStore();
+        assertEquals(0, store.consume("a", 3, 4, NANOS_PER_TOKEN, 0));
+        assertTrue(store.consume("a", 2, 4, NANOS_PER_TOKEN, 0) < 0);
+        assertEquals(0, store.consume("a", 1, 4, NANOS_PER_TOKEN, 0));
+    }
+
+    @Test
+    public void testIdleBucketsAreEvicted() throws Exception {
+        MemoryTokenBucketStore store = new MemoryTokenBucketStore();
+        store.setEvictionInterval(0);
+        store.consume("a", 1, 10, TimeUnit.MILLISECONDS.toNanos(1), 0);
+        store.consume("b", 1, 10, TimeUnit.MILLISECONDS.toNanos(1), 0);
+        assertEquals(2, store.size());
+        Thread.sleep(10);
+        store.consume("c", 1, 10, TimeUnit.MILLISECONDS.toNanos(1), 0);
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ThrottlingResponseInterceptorTest {
+
+    private static Message handle(ThrottleResponse rsp) {
+        Message m = new MessageImpl();
+        Exchange ex = new ExchangeImpl();
+        ex.put(ThrottleResponse.class, rsp);
+        m.setExchange(ex);
+        new ThrottlingResponseInterceptor().handleMessage(m);
+        return m;
+    }
+
+    private static Map<String, List<String>> getHeaders(Message m) {
+        return CastUtils.cast((Map<?, ?>)m.get(Message.PROTOCOL_HEADERS));
+    }
+
+    @Test
+    public void testRetryAfterInSeconds() {
+        Message m = handle(new ThrottleResponse(429, 1500));
+        assertEquals(429, m.get(Message.RESPONSE_CODE));
+        assertEquals(Collections.singletonList("2"), getHeaders(m).get("Retry-After"));
+
+        m = handle(new ThrottleResponse(503, 1000));
+        assertEquals(Collections.singletonList("1"), getHeaders(m).get("Retry-After"));
+    }
+
+    @Test
+    public void testRetryAfterNotOverridden() {
+        Message m = handle(new ThrottleResponse(429, 1500).addResponseHeader("Retry-After", "60"));
+        assertEquals(Collections.singletonList("60"), getHeaders(m).get("Retry-After"));
+    }
+
+    @Test
+    public void testNoRetryAfterWithoutDelay() {
+        Message m = handle(new ThrottleResponse(429));
+        assertFalse(getHeaders(m).containsKey("Retry-After"));
+
+        m = handle(new ThrottleResponse().setDelay(500));
+        assertFalse(getHeaders(m).containsKey("Retry-After"));
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.throttling;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.Phase;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketThrottlingManagerTest {
+
+    private static TokenBucketThrottlingManager createManager(long capacity, long maxDelay) {
+        TokenBucketThrottlingManager manager = new TokenBucketThrottlingManager();
+        manager.setCapacity(capacity);
+        manager.setRefillRate(1);
+        manager.setMaxDelay(maxDelay);
+        manager.setKeyResolver(m -> "client");
+        return manager;
+    }
+
+    @Test
+    public void testRejectedWhenEmpty() {
+        TokenBucketThrottlingManager manager = createManager(2, 0);
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl()));
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl()));
+
+        ThrottleResponse rsp = manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl());
+        assertNotNull(rsp);
+        assertEquals(TokenBucketThrottlingManager.TOO_MANY_REQUESTS, rsp.getResponseCode());
+        assertTrue(rsp.getDelay() > 0 && rsp.getDelay() <= 1000);
+    }
+
+    @Test
+    public void testDelayedWithinMaxDelay() {
+        TokenBucketThrottlingManager manager = createManager(1, 1500);
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl()));
+
+        Message m = new MessageImpl();
+        ThrottleResponse rsp = manager.getThrottleResponse(Phase.PRE_STREAM, m);
+        assertNotNull(rsp);
+        assertEquals(0, rsp.getResponseCode());
+        assertTrue(rsp.getDelay() > 0 && rsp.getDelay() <= 1000);
+        // the resumed request has already taken its token
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, m));
+
+        // the next token is reserved, so the following request would wait too long
+        rsp = manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl());
+        assertEquals(TokenBucketThrottlingManager.TOO_MANY_REQUESTS, rsp.getResponseCode());
+    }
+
+    @Test
+    public void testRequestsWithoutKeyAreNotThrottled() {
+        TokenBucketThrottlingManager manager = createManager(1, 0);
+        manager.setKeyResolver(m -> null);
+        for (int i = 0; i < 3; i++) {
+            assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl()));
+        }
+    }
+
+    @Test
+    public void testCustomResponseCode() {
+        TokenBucketThrottlingManager manager = createManager(1, 0);
+        manager.setResponseCode(503);
+        assertNull(manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl()));
+        assertEquals(503, manager.getThrottleResponse(Phase.PRE_STREAM, new MessageImpl()).getResponseCode());
+    }
+}
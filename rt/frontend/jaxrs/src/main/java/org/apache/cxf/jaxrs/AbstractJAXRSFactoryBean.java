@@ -309,6 +309,7 @@ public class AbstractJAXRSFactoryBean extends AbstractEndpointFactory {
                     it.remove();
                 }
             }
+            serviceFactory.classResourceInfosChanged();
         }
         if (list.isEmpty()) {
             org.apache.cxf.common.i18n.Message msg =
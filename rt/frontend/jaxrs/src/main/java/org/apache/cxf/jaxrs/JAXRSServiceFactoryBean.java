@@ -146,6 +146,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
             classResourceInfos.clear();
             boolean isRoot = AnnotationUtils.getClassAnnotation(cls, Path.class) != null;
             createResourceInfo(cls, isRoot);
+            classResourceInfosChanged();
         }
     }
 
@@ -164,6 +165,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
 
             createResourceInfo(resourceClass, true);
         }
+        classResourceInfosChanged();
     }
 
     public void setUserResources(List<UserResource> resources) {
@@ -180,6 +182,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
                 }
             }
         }
+        classResourceInfosChanged();
     }
 
     public void setUserResourcesWithServiceClass(List<UserResource> resources, Class<?> ...sClasses) {
@@ -191,6 +194,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
                 classResourceInfos.add(cri);
             }
         }
+        classResourceInfosChanged();
     }
 
     private Map<String, UserResource> userResourcesAsMap(List<UserResource> resources) {
@@ -206,6 +210,7 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
     protected ClassResourceInfo addClassResourceInfo(ClassResourceInfo cri) {
         if (cri != null) {
             classResourceInfos.add(cri);
+            classResourceInfosChanged();
         }
         return cri;
     }
@@ -238,6 +243,17 @@ public class JAXRSServiceFactoryBean extends AbstractServiceFactoryBean {
                                    new SingletonResourceProvider(bean));
             }
         }
+        classResourceInfosChanged();
+    }
+
+    /**
+     * Makes the service rebuild its index of the root resources once they have been
+     * added, removed or replaced after the service was created.
+     */
+    void classResourceInfosChanged() {
+        if (getService() instanceof JAXRSServiceImpl) {
+            ((JAXRSServiceImpl)getService()).invalidateClassResourceInfoIndex();
+        }
     }
 
     private ClassResourceInfo getCreatedFromModel(Class<?> realClass) {
@@ -40,6 +40,7 @@ import org.apache.cxf.jaxrs.model.ClassResourceInfo;
 import org.apache.cxf.jaxrs.model.OperationResourceInfo;
 import org.apache.cxf.jaxrs.model.Parameter;
 import org.apache.cxf.jaxrs.model.ParameterType;
+import org.apache.cxf.jaxrs.model.URITemplateIndex;
 import org.apache.cxf.jaxrs.utils.InjectionUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 import org.apache.cxf.service.Service;
@@ -58,6 +59,7 @@ import org.apache.cxf.service.model.ServiceInfo;
 public class JAXRSServiceImpl extends AbstractAttributedInterceptorProvider implements Service, Configurable {
     private static final long serialVersionUID = 6765400202555126993L;
     private List<ClassResourceInfo> classResourceInfos;
+    private volatile URITemplateIndex<ClassResourceInfo> classResourceInfoIndex;
     private DataBinding dataBinding;
     private Executor executor;
     private Invoker invoker;
@@ -109,6 +111,28 @@ public class JAXRSServiceImpl extends AbstractAttributedInterceptorProvider impl
         return classResourceInfos;
     }
 
+    /**
+     * Gets the index of the root resources by their path, it is rebuilt if resources
+     * have been added or removed, or after {@link #invalidateClassResourceInfoIndex()}.
+     */
+    public URITemplateIndex<ClassResourceInfo> getClassResourceInfoIndex() {
+        URITemplateIndex<ClassResourceInfo> index = classResourceInfoIndex;
+        if (index == null || index.getValues().size() != classResourceInfos.size()) {
+            index = new URITemplateIndex<>(classResourceInfos, ClassResourceInfo::getURITemplate);
+            classResourceInfoIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Makes the next request rebuild the index of the root resources, to be called
+     * when a resource or its path has been replaced. {@link JAXRSServiceFactoryBean}
+     * calls it whenever it changes the resources.
+     */
+    public void invalidateClassResourceInfoIndex() {
+        classResourceInfoIndex = null;
+    }
+
     public List<ServiceInfo> getServiceInfos() {
         if (!createServiceModel) {
             return Collections.emptyList();
@@ -63,6 +63,7 @@ public class ClassResourceInfo extends BeanResourceInfo {
     private Set<String> nameBindings = Collections.emptySet();
     private ClassResourceInfo parent;
     private Set<String> injectedSubInstances = new HashSet<>();
+    private volatile URITemplateIndex<OperationResourceInfo> operationIndex;
     public ClassResourceInfo(ClassResourceInfo cri) {
         super(cri.getBus());
         if (cri.isCreatedFromModel() && !InjectionUtils.isConcreteClass(cri.getServiceClass())) {
@@ -247,6 +248,22 @@ public class ClassResourceInfo extends BeanResourceInfo {
 
     public void setMethodDispatcher(MethodDispatcher md) {
         methodDispatcher = md;
+        operationIndex = null;
+    }
+
+    /**
+     * Gets the index of the resource methods and subresource locators by their path,
+     * it is rebuilt if operations have been bound since it was last used.
+     */
+    public URITemplateIndex<OperationResourceInfo> getOperationIndex() {
+        URITemplateIndex<OperationResourceInfo> index = operationIndex;
+        MethodDispatcher md = methodDispatcher;
+        if (index == null || index.getVersion() != md.getVersion()) {
+            index = new URITemplateIndex<>(md.getOperationResourceInfos(),
+                                           OperationResourceInfo::getURITemplate, md.getVersion());
+            operationIndex = index;
+        }
+        return index;
     }
 
     public boolean hasSubResources() {
@@ -31,6 +31,7 @@ public class MethodDispatcher {
     private Map<Method, OperationResourceInfo> methodToOri =
         new LinkedHashMap<>();
     private ConcurrentHashMap<Method, Method> proxyMethodMap = new ConcurrentHashMap<>();
+    private volatile int version;
 
     public MethodDispatcher() {
 
@@ -52,6 +53,7 @@ public class MethodDispatcher {
         }
 
         oriToMethod.put(o, primary);
+        version++;
     }
 
     public OperationResourceInfo getOperationResourceInfo(Method method) {
@@ -62,6 +64,13 @@ public class MethodDispatcher {
         return oriToMethod.keySet();
     }
 
+    /**
+     * Gets a counter which is incremented every time an operation is bound.
+     */
+    public int getVersion() {
+        return version;
+    }
+
     public Method getMethod(OperationResourceInfo op) {
         return oriToMethod.get(op);
     }
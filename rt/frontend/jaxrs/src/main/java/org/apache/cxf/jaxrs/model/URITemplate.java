@@ -55,12 +55,14 @@ public final class URITemplate {
     private final List<String> customVariables = new ArrayList<>();
     private final Pattern templateRegexPattern;
     private final String literals;
+    private final String literalPrefix;
     private final List<UriChunk> uriChunks;
 
     public URITemplate(String theTemplate) {
         template = theTemplate;
         StringBuilder literalChars = new StringBuilder();
         StringBuilder patternBuilder = new StringBuilder();
+        StringBuilder prefixChars = new StringBuilder();
         CurlyBraceTokenizer tok = new CurlyBraceTokenizer(template);
         uriChunks = new ArrayList<>();
         while (tok.hasNext()) {
@@ -70,6 +72,9 @@ public final class URITemplate {
             if (chunk instanceof Literal) {
                 String encodedValue = HttpUtils.encodePartiallyEncoded(chunk.getValue(), false);
                 String substr = escapeCharacters(encodedValue);
+                if (variables.isEmpty()) {
+                    prefixChars.append(encodedValue);
+                }
                 literalChars.append(substr);
                 patternBuilder.append(substr);
             } else if (chunk instanceof Variable) {
@@ -100,7 +105,11 @@ public final class URITemplate {
         boolean endsWithSlash = (endPos >= 0) && patternBuilder.charAt(endPos) == '/';
         if (endsWithSlash) {
             patternBuilder.deleteCharAt(endPos);
+            if (variables.isEmpty()) {
+                prefixChars.setLength(prefixChars.length() - 1);
+            }
         }
+        literalPrefix = prefixChars.toString();
         patternBuilder.append(LIMITED_REGEX_SUFFIX);
 
         templateRegexPattern = Pattern.compile(patternBuilder.toString());
@@ -110,6 +119,15 @@ public final class URITemplate {
         return literals;
     }
 
+    /**
+     * Gets the literal characters preceding the first variable, as they have to appear
+     * at the start of a matching path. If the template has no variables this is the
+     * whole template, without a trailing slash.
+     */
+    String getLiteralPrefix() {
+        return literalPrefix;
+    }
+
     public String getValue() {
         return template;
     }
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A segment trie over the literal path prefixes of a list of {@link URITemplate}s,
+ * used to avoid running the regular expression of every template against a path.
+ * Each template is registered under the complete literal segments preceding its first
+ * variable; the candidates for a path are the templates registered along the walk of
+ * its segments. A template which is not returned can not match the path; the returned
+ * ones still have to be matched with {@link URITemplate#match}, in their original order,
+ * so the selection algorithm and its result are unchanged.
+ */
+public final class URITemplateIndex<T> {
+    // literal characters which URITemplate does not escape but have a meaning in a regex,
+    // the prefix is not used past them
+    private static final String REGEX_CHARACTERS = "?[]{}^|\\;";
+
+    private final List<T> items;
+    private final URITemplate[] templates;
+    private final int version;
+    private final Node root = new Node();
+
+    public URITemplateIndex(Collection<T> values, Function<T, URITemplate> function) {
+        this(values, function, 0);
+    }
+
+    public URITemplateIndex(Collection<T> values, Function<T, URITemplate> function, int version) {
+        items = Collections.unmodifiableList(new ArrayList<>(values));
+        this.version = version;
+        templates = new URITemplate[items.size()];
+        for (int i = 0; i < templates.length; i++) {
+            templates[i] = function.apply(items.get(i));
+            register(i, templates[i]);
+        }
+    }
+
+    private void register(int index, URITemplate template) {
+        Node node = root;
+        if (template != null) {
+            String prefix = template.getLiteralPrefix();
+            int end = prefix.length();
+            for (int i = 0; i < prefix.length(); i++) {
+                if (REGEX_CHARACTERS.indexOf(prefix.charAt(i)) != -1) {
+                    end = i;
+                    break;
+                }
+            }
+            // the last segment is only complete if the template has no variables
+            // and is fully literal; otherwise it may continue with a variable
+            boolean complete = end == prefix.length() && template.getVariables().isEmpty();
+            int start = 0;
+            while (true) {
+                int slash = prefix.indexOf('/', start);
+                if (slash == -1 || slash >= end) {
+                    if (complete && start <= end && end > 0) {
+                        node = node.child(prefix.substring(start, end));
+                    }
+                    break;
+                }
+                node = node.child(prefix.substring(start, slash));
+                start = slash + 1;
+            }
+        }
+        node.add(index);
+    }
+
+    /**
+     * Gets the version of the values this index was built for, as given by its owner.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public List<T> getValues() {
+        return items;
+    }
+
+    /**
+     * Gets the values whose templates may match the path, in their original order.
+     * All the values are returned if the path contains matrix parameters, which
+     * URITemplate may remove before matching.
+     */
+    public List<T> getCandidates(String path) {
+        if (path == null || path.indexOf(';') != -1) {
+            return items;
+        }
+        BitSet found = null;
+        Node node = root;
+        int start = 0;
+        while (true) {
+            if (node.indexes != null) {
+                if (found == null) {
+                    found = new BitSet(templates.length);
+                }
+                for (int index : node.indexes) {
+                    found.set(index);
+                }
+            }
+            if (node.children == null || start > path.length()) {
+                break;
+            }
+            int slash = path.indexOf('/', start);
+            int end = slash == -1 ? path.length() : slash;
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (found == null) {
+            return Collections.emptyList();
+        }
+        if (found.cardinality() == templates.length) {
+            return items;
+        }
+        List<T> candidates = new ArrayList<>(found.cardinality());
+        for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+            candidates.add(items.get(i));
+        }
+        return candidates;
+    }
+
+    private static final class Node {
+        Map<String, Node> children;
+        int[] indexes;
+
+        Node child(String segment) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(segment, s -> new Node());
+        }
+
+        void add(int index) {
+            if (indexes == null) {
+                indexes = new int[] {index};
+            } else {
+                int[] newIndexes = new int[indexes.length + 1];
+                System.arraycopy(indexes, 0, newIndexes, 0, indexes.length);
+                newIndexes[indexes.length] = index;
+                indexes = newIndexes;
+            }
+        }
+    }
+}
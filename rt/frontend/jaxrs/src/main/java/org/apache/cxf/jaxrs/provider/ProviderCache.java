@@ -24,7 +24,10 @@ import java.security.PrivilegedAction;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.MessageBodyReader;
@@ -33,6 +36,13 @@ import javax.ws.rs.ext.MessageBodyWriter;
 import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.jaxrs.model.ProviderInfo;
 
+/**
+ * Caches, per entity class and media type, the chain of message body readers and
+ * writers whose media types and generic interfaces match, in the order they are
+ * tried. Only isReadable/isWriteable is asked on a hit, the provider lists are not
+ * filtered again. The cache is bounded and is cleared whenever the providers of the
+ * owning ProviderFactory change.
+ */
 public class ProviderCache {
     private static final int MAX_PROVIDER_CACHE_SIZE =
         AccessController.doPrivileged(new PrivilegedAction<Integer>() {
@@ -41,66 +51,85 @@ public class ProviderCache {
                 return SystemPropertyAction.getInteger("org.apache.cxf.jaxrs.max_provider_cache_size", 100);
             } }).intValue();
 
-    private final Map<String, List<ProviderInfo<MessageBodyReader<?>>>>
+    private final Map<Key, List<ProviderInfo<MessageBodyReader<?>>>>
         readerProviderCache = new ConcurrentHashMap<>();
 
-    private final Map<String, List<ProviderInfo<MessageBodyWriter<?>>>>
+    private final Map<Key, List<ProviderInfo<MessageBodyWriter<?>>>>
         writerProviderCache = new ConcurrentHashMap<>();
 
+    private final AtomicLong readerHits = new AtomicLong();
+    private final AtomicLong readerMisses = new AtomicLong();
+    private final AtomicLong writerHits = new AtomicLong();
+    private final AtomicLong writerMisses = new AtomicLong();
+    private final AtomicInteger generation = new AtomicInteger();
+
     private boolean checkAllCandidates;
     public ProviderCache(boolean checkAllCandidates) {
         this.checkAllCandidates = checkAllCandidates;
     }
 
-    public List<ProviderInfo<MessageBodyReader<?>>> getReaders(Class<?> type, MediaType mt) {
-        if (readerProviderCache.isEmpty()) {
-            return Collections.emptyList();
-        }
-        String key = getKey(type, mt);
-
-        List<ProviderInfo<MessageBodyReader<?>>> list = readerProviderCache.get(key);
-        return list != null ? list : Collections.emptyList();
+    /**
+     * Gets the cached reader candidates or null if they have not been cached yet.
+     */
+    public List<ProviderInfo<MessageBodyReader<?>>> getReaders(Class<?> type, MediaType mt,
+                                                               boolean ignoreTypeVariables) {
+        List<ProviderInfo<MessageBodyReader<?>>> list =
+            readerProviderCache.get(new Key(type, mt, ignoreTypeVariables));
+        (list == null ? readerMisses : readerHits).incrementAndGet();
+        return list;
     }
-    public List<ProviderInfo<MessageBodyWriter<?>>> getWriters(Class<?> type, MediaType mt) {
-        if (writerProviderCache.isEmpty()) {
-            return Collections.emptyList();
-        }
 
-        String key = getKey(type, mt);
-
-        List<ProviderInfo<MessageBodyWriter<?>>> list = writerProviderCache.get(key);
-        return list != null ? list : Collections.emptyList();
+    /**
+     * Gets the cached writer candidates or null if they have not been cached yet.
+     */
+    public List<ProviderInfo<MessageBodyWriter<?>>> getWriters(Class<?> type, MediaType mt,
+                                                               boolean ignoreTypeVariables) {
+        List<ProviderInfo<MessageBodyWriter<?>>> list =
+            writerProviderCache.get(new Key(type, mt, ignoreTypeVariables));
+        (list == null ? writerMisses : writerHits).incrementAndGet();
+        return list;
     }
 
-    public void putReaders(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyReader<?>>> candidates) {
-        if (candidates == null || candidates.isEmpty()) {
-            return;
-        }
-        checkCacheSize(readerProviderCache);
+    /**
+     * Caches the reader candidates computed from the providers available when
+     * {@link #getGeneration()} returned <code>gen</code>.
+     */
+    public void putReaders(Class<?> type, MediaType mt, boolean ignoreTypeVariables,
+                           List<ProviderInfo<MessageBodyReader<?>>> candidates, int gen) {
+        put(readerProviderCache, new Key(type, mt, ignoreTypeVariables), candidates, gen);
+    }
 
-        String key = getKey(type, mt);
-        readerProviderCache.put(key, candidates);
+    /**
+     * Caches the writer candidates computed from the providers available when
+     * {@link #getGeneration()} returned <code>gen</code>.
+     */
+    public void putWriters(Class<?> type, MediaType mt, boolean ignoreTypeVariables,
+                           List<ProviderInfo<MessageBodyWriter<?>>> candidates, int gen) {
+        put(writerProviderCache, new Key(type, mt, ignoreTypeVariables), candidates, gen);
     }
 
-    public void putWriters(Class<?> type, MediaType mt, List<ProviderInfo<MessageBodyWriter<?>>> candidates) {
-        if (candidates == null || candidates.isEmpty()) {
+    private <T> void put(Map<Key, List<T>> map, Key key, List<T> candidates, int gen) {
+        if (gen != generation.get()) {
             return;
         }
-        checkCacheSize(writerProviderCache);
+        checkCacheSize(map);
+        map.put(key, Collections.unmodifiableList(candidates));
+        if (gen != generation.get()) {
+            // the providers changed meanwhile
+            map.remove(key);
+        }
+    }
 
-        String key = getKey(type, mt);
-        writerProviderCache.put(key, candidates);
+    public int getGeneration() {
+        return generation.get();
     }
 
     public void destroy() {
+        generation.incrementAndGet();
         this.readerProviderCache.clear();
         this.writerProviderCache.clear();
     }
 
-    private String getKey(Class<?> type, MediaType mt) {
-        return type.getName() + "-" + mt.toString();
-    }
-
     private static void checkCacheSize(Map<?, ?> map) {
         final int size = map.size();
         if (size >= MAX_PROVIDER_CACHE_SIZE) {
@@ -108,7 +137,57 @@ public class ProviderCache {
         }
     }
 
+    /**
+     * The complete chain of candidates is always cached, this flag is only kept for
+     * compatibility.
+     */
     public boolean isCheckAllCandidates() {
         return checkAllCandidates;
     }
+
+    public long getReaderHits() {
+        return readerHits.get();
+    }
+
+    public long getReaderMisses() {
+        return readerMisses.get();
+    }
+
+    public long getWriterHits() {
+        return writerHits.get();
+    }
+
+    public long getWriterMisses() {
+        return writerMisses.get();
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final MediaType mediaType;
+        private final boolean ignoreTypeVariables;
+        private final int hash;
+
+        Key(Class<?> type, MediaType mediaType, boolean ignoreTypeVariables) {
+            this.type = type;
+            this.mediaType = mediaType;
+            this.ignoreTypeVariables = ignoreTypeVariables;
+            this.hash = 31 * (31 * type.hashCode() + Objects.hashCode(mediaType))
+                + (ignoreTypeVariables ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return type == other.type && ignoreTypeVariables == other.ignoreTypeVariables
+                && Objects.equals(mediaType, other.mediaType);
+        }
+    }
 }
@@ -162,9 +162,9 @@ public abstract class ProviderFactory {
     protected Map<NameKey, ProviderInfo<WriterInterceptor>> writerInterceptors =
         new NameKeyMap<>(true);
 
-    private List<ProviderInfo<MessageBodyReader<?>>> messageReaders =
+    private volatile List<ProviderInfo<MessageBodyReader<?>>> messageReaders =
         new ArrayList<>();
-    private List<ProviderInfo<MessageBodyWriter<?>>> messageWriters =
+    private volatile List<ProviderInfo<MessageBodyWriter<?>>> messageWriters =
         new ArrayList<>();
     private List<ProviderInfo<ContextResolver<?>>> contextResolvers =
         new ArrayList<>();
@@ -501,45 +501,40 @@ public abstract class ProviderFactory {
                                                             Annotation[] annotations,
                                                             MediaType mediaType,
                                                             Message m) {
-        // Step1: check the cache
-
-        if (providerCache != null) {
-            for (ProviderInfo<MessageBodyReader<?>> ep : providerCache.getReaders(type, mediaType)) {
-                if (isReadable(ep, type, genericType, annotations, mediaType, m)) {
+        if (providerCache == null) {
+            for (ProviderInfo<MessageBodyReader<?>> ep : messageReaders) {
+                if (matchesReaderMediaTypes(ep, mediaType)
+                    && handleMapper(ep, type, m, MessageBodyReader.class, false)
+                    && isReadable(ep, type, genericType, annotations, mediaType, m)) {
                     return (MessageBodyReader<T>)ep.getProvider();
                 }
             }
+            return null;
         }
 
-        boolean checkAll = providerCache != null && providerCache.isCheckAllCandidates();
-        List<ProviderInfo<MessageBodyReader<?>>> allCandidates =
-            checkAll ? new LinkedList<ProviderInfo<MessageBodyReader<?>>>() : null;
-
-        MessageBodyReader<T> selectedReader = null;
-        for (ProviderInfo<MessageBodyReader<?>> ep : messageReaders) {
-            if (matchesReaderMediaTypes(ep, mediaType)
-                && handleMapper(ep, type, m, MessageBodyReader.class, false)) {
-                // This writer matches Media Type and Class
-                if (checkAll) {
-                    allCandidates.add(ep);
-                } else if (providerCache != null && providerCache.getReaders(type, mediaType).isEmpty()) {
-                    providerCache.putReaders(type, mediaType, Collections.singletonList(ep));
-                }
-                if (selectedReader == null
-                    && isReadable(ep, type, genericType, annotations, mediaType, m)) {
-                    // This writer is a selected candidate
-                    selectedReader = (MessageBodyReader<T>)ep.getProvider();
-                    if (!checkAll) {
-                        return selectedReader;
-                    }
+        // Step1: get the readers matching Media Type and Class, from the cache if possible
+        boolean ignoreTypeVars = m != null && MessageUtils.getContextualBoolean(m, IGNORE_TYPE_VARIABLES);
+        List<ProviderInfo<MessageBodyReader<?>>> candidates =
+            providerCache.getReaders(type, mediaType, ignoreTypeVars);
+        if (candidates == null) {
+            int generation = providerCache.getGeneration();
+            candidates = new ArrayList<>(2);
+            for (ProviderInfo<MessageBodyReader<?>> ep : messageReaders) {
+                if (matchesReaderMediaTypes(ep, mediaType)
+                    && handleMapper(ep, type, m, MessageBodyReader.class, false)) {
+                    candidates.add(ep);
                 }
-
             }
+            providerCache.putReaders(type, mediaType, ignoreTypeVars, candidates, generation);
         }
-        if (checkAll) {
-            providerCache.putReaders(type, mediaType, allCandidates);
+
+        // Step2: select the first candidate accepting the generic type and annotations
+        for (ProviderInfo<MessageBodyReader<?>> ep : candidates) {
+            if (isReadable(ep, type, genericType, annotations, mediaType, m)) {
+                return (MessageBodyReader<T>)ep.getProvider();
+            }
         }
-        return selectedReader;
+        return null;
     }
 
     @SuppressWarnings("unchecked")
@@ -548,49 +543,48 @@ public abstract class ProviderFactory {
                                                             Annotation[] annotations,
                                                             MediaType mediaType,
                                                             Message m) {
-
-        // Step1: check the cache.
-        if (providerCache != null) {
-            for (ProviderInfo<MessageBodyWriter<?>> ep : providerCache.getWriters(type, mediaType)) {
-                if (isWriteable(ep, type, genericType, annotations, mediaType, m)) {
+        if (providerCache == null) {
+            for (ProviderInfo<MessageBodyWriter<?>> ep : messageWriters) {
+                if (matchesWriterMediaTypes(ep, mediaType)
+                    && handleMapper(ep, type, m, MessageBodyWriter.class, false)
+                    && isWriteable(ep, type, genericType, annotations, mediaType, m)) {
                     return (MessageBodyWriter<T>)ep.getProvider();
                 }
             }
+            return null;
         }
 
-        // Step2: check all the registered writers
-
-        // The cache, if enabled, may have been configured to keep the top candidate only
-        boolean checkAll = providerCache != null && providerCache.isCheckAllCandidates();
-        List<ProviderInfo<MessageBodyWriter<?>>> allCandidates =
-            checkAll ? new LinkedList<ProviderInfo<MessageBodyWriter<?>>>() : null;
-
-        MessageBodyWriter<T> selectedWriter = null;
-        for (ProviderInfo<MessageBodyWriter<?>> ep : messageWriters) {
-            if (matchesWriterMediaTypes(ep, mediaType)
-                && handleMapper(ep, type, m, MessageBodyWriter.class, false)) {
-                // This writer matches Media Type and Class
-                if (checkAll) {
-                    allCandidates.add(ep);
-                } else if (providerCache != null && providerCache.getWriters(type, mediaType).isEmpty()) {
-                    providerCache.putWriters(type, mediaType, Collections.singletonList(ep));
-                }
-                if (selectedWriter == null
-                    && isWriteable(ep, type, genericType, annotations, mediaType, m)) {
-                    // This writer is a selected candidate
-                    selectedWriter = (MessageBodyWriter<T>)ep.getProvider();
-                    if (!checkAll) {
-                        return selectedWriter;
-                    }
+        // Step1: get the writers matching Media Type and Class, from the cache if possible
+        boolean ignoreTypeVars = m != null && MessageUtils.getContextualBoolean(m, IGNORE_TYPE_VARIABLES);
+        List<ProviderInfo<MessageBodyWriter<?>>> candidates =
+            providerCache.getWriters(type, mediaType, ignoreTypeVars);
+        if (candidates == null) {
+            int generation = providerCache.getGeneration();
+            candidates = new ArrayList<>(2);
+            for (ProviderInfo<MessageBodyWriter<?>> ep : messageWriters) {
+                if (matchesWriterMediaTypes(ep, mediaType)
+                    && handleMapper(ep, type, m, MessageBodyWriter.class, false)) {
+                    candidates.add(ep);
                 }
-
             }
+            providerCache.putWriters(type, mediaType, ignoreTypeVars, candidates, generation);
         }
-        if (checkAll) {
-            providerCache.putWriters(type, mediaType, allCandidates);
+
+        // Step2: select the first candidate accepting the generic type and annotations
+        for (ProviderInfo<MessageBodyWriter<?>> ep : candidates) {
+            if (isWriteable(ep, type, genericType, annotations, mediaType, m)) {
+                return (MessageBodyWriter<T>)ep.getProvider();
+            }
         }
-        return selectedWriter;
+        return null;
+    }
 
+    /**
+     * Gets the cache of the message body reader and writer candidates,
+     * null if it has been disabled.
+     */
+    public ProviderCache getProviderCache() {
+        return providerCache;
     }
 
     protected void setBusProviders() {
@@ -729,17 +723,31 @@ public abstract class ProviderFactory {
      * x/y;q=1.0 < x/y;q=0.7.
      */
     private void sortReaders() {
+        List<ProviderInfo<MessageBodyReader<?>>> sorted = new ArrayList<>(messageReaders);
         if (!customComparatorAvailable(MessageBodyReader.class)) {
-            messageReaders.sort(new MessageBodyReaderComparator());
+            sorted.sort(new MessageBodyReaderComparator());
         } else {
-            doCustomSort(messageReaders);
+            doCustomSort(sorted);
         }
+        messageReaders = sorted;
+        // invalidated once the sorted list is published so that the candidates cached by a
+        // concurrent lookup meanwhile are dropped
+        invalidateProviderCache();
     }
     private <T> void sortWriters() {
+        List<ProviderInfo<MessageBodyWriter<?>>> sorted = new ArrayList<>(messageWriters);
         if (!customComparatorAvailable(MessageBodyWriter.class)) {
-            messageWriters.sort(new MessageBodyWriterComparator());
+            sorted.sort(new MessageBodyWriterComparator());
         } else {
-            doCustomSort(messageWriters);
+            doCustomSort(sorted);
+        }
+        messageWriters = sorted;
+        invalidateProviderCache();
+    }
+
+    private void invalidateProviderCache() {
+        if (providerCache != null) {
+            providerCache.destroy();
         }
     }
 
@@ -965,6 +973,7 @@ public abstract class ProviderFactory {
         readerInterceptors.clear();
         writerInterceptors.clear();
         paramConverters.clear();
+        invalidateProviderCache();
     }
 
     public void setBus(Bus bus) {
@@ -26,6 +26,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.GenericDeclaration;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -70,6 +71,7 @@ import javax.ws.rs.ext.Providers;
 import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.BeanAccessors;
 import org.apache.cxf.common.util.ClassHelper;
 import org.apache.cxf.common.util.PrimitiveUtils;
 import org.apache.cxf.common.util.ProxyClassLoaderCache;
@@ -638,9 +640,7 @@ public final class InjectionUtils {
                                                                                          paramType,
                                                                                          paramAnns);
             }
-            bean = paramType.newInstance();
-        } catch (IllegalAccessException ex) {
-            reportServerError("CLASS_ACCESS_FAILURE", paramType.getName());
+            bean = BeanAccessors.constructor(paramType).get();
         } catch (Exception ex) {
             reportServerError("CLASS_INSTANTIATION_FAILURE", paramType.getName());
         }
@@ -708,12 +708,11 @@ public final class InjectionUtils {
                     if (setter instanceof Method) {
                         type = Method.class.cast(setter).getParameterTypes()[0];
                         genericType = Method.class.cast(setter).getGenericParameterTypes()[0];
-                        paramValue = InjectionUtils.extractFromMethod(bean, (Method) getter);
                     } else {
                         type = Field.class.cast(setter).getType();
                         genericType = Field.class.cast(setter).getGenericType();
-                        paramValue = InjectionUtils.extractFieldValue((Field) getter, bean);
                     }
+                    paramValue = getBeanValue(bean, getter);
 
                     List<MultivaluedMap<String, String>> processedValuesList =
                         processValues(type, genericType, entry.getValue(), isbean);
@@ -741,11 +740,7 @@ public final class InjectionUtils {
                         }
 
                         if (paramValue != null) {
-                            if (setter instanceof Method) {
-                                InjectionUtils.injectThroughMethod(bean, (Method) setter, paramValue);
-                            } else {
-                                InjectionUtils.injectFieldValue((Field) setter, bean, paramValue);
-                            }
+                            setBeanValue(bean, setter, paramValue);
                         }
                     }
                 }
@@ -755,6 +750,35 @@ public final class InjectionUtils {
         return bean;
     }
 
+    /**
+     * Reads a bean parameter property with the accessor generated for the getter method
+     * or the field, the accessors are cached per class.
+     */
+    private static Object getBeanValue(Object bean, Object getter) {
+        try {
+            if (getter instanceof Method) {
+                return BeanAccessors.getter((Method)getter).apply(bean);
+            }
+            return BeanAccessors.getter((Field)getter).apply(bean);
+        } catch (Exception ex) {
+            reportServerError("METHOD_INJECTION_FAILURE", ((Member)getter).getName());
+        }
+        return null;
+    }
+
+    private static void setBeanValue(Object bean, Object setter, Object value) {
+        try {
+            if (setter instanceof Method) {
+                BeanAccessors.setter((Method)setter).accept(bean, value);
+            } else {
+                BeanAccessors.setter((Field)setter).accept(bean, value);
+            }
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, ex.getMessage(), ex);
+            reportServerError("METHOD_INJECTION_FAILURE", ((Member)setter).getName());
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private static Object mergeMap(Object first, Object second) {
         if (first == null) {
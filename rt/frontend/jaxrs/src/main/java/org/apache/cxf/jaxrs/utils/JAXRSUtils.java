@@ -31,6 +31,7 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -155,6 +156,7 @@ public final class JAXRSUtils {
     public static final String PARTIAL_HIERARCHICAL_MEDIA_SUBTYPE_CHECK =
         "media.subtype.partial.check";
     public static final String DOC_LOCATION = "wadl.location";
+    public static final String USE_ROUTING_INDEX = "use.routing.index";
     public static final String MEDIA_TYPE_Q_PARAM = "q";
     public static final String MEDIA_TYPE_QS_PARAM = "qs";
     private static final String MEDIA_TYPE_DISTANCE_PARAM = "d";
@@ -313,7 +315,16 @@ public final class JAXRSUtils {
             new TreeMap<ClassResourceInfo, MultivaluedMap<String, String>>(
                 new ClassResourceInfoComparator(message));
 
-        for (ClassResourceInfo cri : resources) {
+        List<ClassResourceInfo> candidates = resources;
+        if (MessageUtils.getContextualBoolean(message, USE_ROUTING_INDEX, true)) {
+            Service service = message == null || message.getExchange() == null
+                ? null : message.getExchange().getService();
+            if (service instanceof JAXRSServiceImpl
+                && ((JAXRSServiceImpl)service).getClassResourceInfos() == resources) {
+                candidates = ((JAXRSServiceImpl)service).getClassResourceInfoIndex().getCandidates(path);
+            }
+        }
+        for (ClassResourceInfo cri : candidates) {
             MultivaluedMap<String, String> map = new MetadataMap<>();
             if (cri.getURITemplate().match(path, map)) {
                 candidateList.put(cri, map);
@@ -390,60 +401,21 @@ public final class JAXRSUtils {
                 new OperationResourceInfoComparator(message, httpMethod,
                                                     getMethod, requestType, acceptContentTypes));
 
-        int pathMatched = 0;
-        int methodMatched = 0;
-        int consumeMatched = 0;
-
-        List<OperationResourceInfo> finalPathSubresources = null;
-        for (Map.Entry<ClassResourceInfo, MultivaluedMap<String, String>> rEntry : matchedResources.entrySet()) {
-            ClassResourceInfo resource = rEntry.getKey();
-            MultivaluedMap<String, String> values = rEntry.getValue();
-
-            String path = getCurrentPath(values);
-            LOG.fine(() -> new org.apache.cxf.common.i18n.Message("START_OPER_MATCH",
-                                                                  BUNDLE,
-                                                                  resource.getServiceClass().getName()).toString());
-
-            for (OperationResourceInfo ori : resource.getMethodDispatcher().getOperationResourceInfos()) {
-                boolean added = false;
-
-                URITemplate uriTemplate = ori.getURITemplate();
-                MultivaluedMap<String, String> map = new MetadataMap<>(values);
-                if (uriTemplate != null && uriTemplate.match(path, map)) {
-                    String finalGroup = map.getFirst(URITemplate.FINAL_MATCH_GROUP);
-                    boolean finalPath = StringUtils.isEmpty(finalGroup) || PATH_SEGMENT_SEP.equals(finalGroup);
-
-                    if (ori.isSubResourceLocator()) {
-                        candidateList.put(ori, map);
-                        if (finalPath) {
-                            if (finalPathSubresources == null) {
-                                finalPathSubresources = new LinkedList<>();
-                            }
-                            finalPathSubresources.add(ori);
-                        }
-                        added = true;
-                    } else if (finalPath) {
-                        pathMatched++;
-                        if (matchHttpMethod(ori.getHttpMethod(), httpMethod)) {
-                            methodMatched++;
-                            //CHECKSTYLE:OFF
-                            if (getMethod || matchConsumeTypes(requestType, ori)) {
-                                consumeMatched++;
-                                for (MediaType acceptType : acceptContentTypes) {
-                                    if (matchProduceTypes(acceptType, ori)) {
-                                        candidateList.put(ori, map);
-                                        added = true;
-                                        break;
-                                    }
-                                }
-                            }
-                            //CHECKSTYLE:ON
-                        }
-                    }
-                }
-                LOG.fine(matchMessageLogSupplier(ori, path, httpMethod, requestType, acceptContentTypes, added));
-            }
-        }
+        boolean prefilter = MessageUtils.getContextualBoolean(message, USE_ROUTING_INDEX, true);
+        OperationMatch match = matchOperations(matchedResources, httpMethod, getMethod, requestType,
+                                               acceptContentTypes, candidateList, prefilter);
+        if (prefilter && (candidateList.isEmpty()
+            || match.finalPathSubresources != null && match.pathMatched == 0)) {
+            // the resource methods skipped because of their HTTP method are never selected
+            // but they decide the error status and whether the subresource locators are kept
+            candidateList.clear();
+            match = matchOperations(matchedResources, httpMethod, getMethod, requestType,
+                                    acceptContentTypes, candidateList, false);
+        }
+        int pathMatched = match.pathMatched;
+        int methodMatched = match.methodMatched;
+        int consumeMatched = match.consumeMatched;
+        List<OperationResourceInfo> finalPathSubresources = match.finalPathSubresources;
         if (finalPathSubresources != null && pathMatched > 0
             && !MessageUtils.getContextualBoolean(message, KEEP_SUBRESOURCE_CANDIDATES, false)) {
             for (OperationResourceInfo key : finalPathSubresources) {
@@ -517,7 +489,73 @@ public final class JAXRSUtils {
 
     }
 
+    private static OperationMatch matchOperations(
+        Map<ClassResourceInfo, MultivaluedMap<String, String>> matchedResources,
+        String httpMethod,
+        boolean getMethod,
+        MediaType requestType,
+        List<MediaType> acceptContentTypes,
+        SortedMap<OperationResourceInfo, MultivaluedMap<String, String>> candidateList,
+        boolean prefilter) {
+        OperationMatch match = new OperationMatch();
+        for (Map.Entry<ClassResourceInfo, MultivaluedMap<String, String>> rEntry : matchedResources.entrySet()) {
+            ClassResourceInfo resource = rEntry.getKey();
+            MultivaluedMap<String, String> values = rEntry.getValue();
+
+            String path = getCurrentPath(values);
+            LOG.fine(() -> new org.apache.cxf.common.i18n.Message("START_OPER_MATCH",
+                                                                  BUNDLE,
+                                                                  resource.getServiceClass().getName()).toString());
+
+            Collection<OperationResourceInfo> oris = prefilter
+                ? resource.getOperationIndex().getCandidates(path)
+                : resource.getMethodDispatcher().getOperationResourceInfos();
+            for (OperationResourceInfo ori : oris) {
+                if (prefilter && !ori.isSubResourceLocator()
+                    && !matchHttpMethod(ori.getHttpMethod(), httpMethod)) {
+                    continue;
+                }
+                boolean added = false;
 
+                URITemplate uriTemplate = ori.getURITemplate();
+                MultivaluedMap<String, String> map = new MetadataMap<>(values);
+                if (uriTemplate != null && uriTemplate.match(path, map)) {
+                    String finalGroup = map.getFirst(URITemplate.FINAL_MATCH_GROUP);
+                    boolean finalPath = StringUtils.isEmpty(finalGroup) || PATH_SEGMENT_SEP.equals(finalGroup);
+
+                    if (ori.isSubResourceLocator()) {
+                        candidateList.put(ori, map);
+                        if (finalPath) {
+                            if (match.finalPathSubresources == null) {
+                                match.finalPathSubresources = new LinkedList<>();
+                            }
+                            match.finalPathSubresources.add(ori);
+                        }
+                        added = true;
+                    } else if (finalPath) {
+                        match.pathMatched++;
+                        if (matchHttpMethod(ori.getHttpMethod(), httpMethod)) {
+                            match.methodMatched++;
+                            //CHECKSTYLE:OFF
+                            if (getMethod || matchConsumeTypes(requestType, ori)) {
+                                match.consumeMatched++;
+                                for (MediaType acceptType : acceptContentTypes) {
+                                    if (matchProduceTypes(acceptType, ori)) {
+                                        candidateList.put(ori, map);
+                                        added = true;
+                                        break;
+                                    }
+                                }
+                            }
+                            //CHECKSTYLE:ON
+                        }
+                    }
+                }
+                LOG.fine(matchMessageLogSupplier(ori, path, httpMethod, requestType, acceptContentTypes, added));
+            }
+        }
+        return match;
+    }
 
     public static Level getExceptionLogLevel(Message message, Class<? extends WebApplicationException> exClass) {
         Level logLevel = null;
@@ -1900,4 +1938,11 @@ public final class JAXRSUtils {
         m.setContent(InputStream.class, baos.createInputStream());
         return baos.createInputStream();
     }
+
+    private static final class OperationMatch {
+        int pathMatched;
+        int methodMatched;
+        int consumeMatched;
+        List<OperationResourceInfo> finalPathSubresources;
+    }
 }
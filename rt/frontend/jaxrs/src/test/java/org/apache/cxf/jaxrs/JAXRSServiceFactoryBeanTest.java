@@ -160,7 +160,25 @@ public class JAXRSServiceFactoryBeanTest {
         assertNotNull(subOri2.getURITemplate());
     }
 
-    private boolean verifyOp(Set<OperationResourceInfo> ops,
+    @Test
+    public void testReplacedResourceUpdatesIndex() throws Exception {
+        JAXRSServiceFactoryBean sf = new JAXRSServiceFactoryBean();
+        sf.setResourceClasses(org.apache.cxf.jaxrs.resources.BookStoreNoSubResource.class);
+        sf.create();
+
+        JAXRSServiceImpl service = (JAXRSServiceImpl)sf.getService();
+        List<ClassResourceInfo> candidates = service.getClassResourceInfoIndex().getCandidates("/bookstore/123");
+        assertEquals(1, candidates.size());
+        assertEquals(org.apache.cxf.jaxrs.resources.BookStoreNoSubResource.class,
+                     candidates.get(0).getResourceClass());
+
+        sf.setResourceClass(org.apache.cxf.jaxrs.resources.BookStore.class);
+        candidates = service.getClassResourceInfoIndex().getCandidates("/bookstore/123");
+        assertEquals(1, candidates.size());
+        assertEquals(org.apache.cxf.jaxrs.resources.BookStore.class, candidates.get(0).getResourceClass());
+    }
+
+        private boolean verifyOp(Set<OperationResourceInfo> ops,
                              String opName,
                              String httpMethod,
                              boolean isSubresource) {
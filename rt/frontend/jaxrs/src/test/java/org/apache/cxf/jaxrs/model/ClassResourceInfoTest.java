@@ -229,6 +229,22 @@ public class ClassResourceInfoTest {
         assertTrue(methods.contains("HEAD") && methods.contains("GET"));
     }
 
+    @Test
+    public void testOperationIndexRebuiltOnBind() throws Exception {
+        ClassResourceInfo c = ResourceUtils.createClassResourceInfo(
+                                  TestClass3.class, TestClass3.class, false, false);
+        URITemplateIndex<OperationResourceInfo> index = c.getOperationIndex();
+        assertEquals(2, index.getValues().size());
+        assertSame(index, c.getOperationIndex());
+
+        OperationResourceInfo ori = new OperationResourceInfo(TestClass3.class.getMethod("getIt"), c);
+        ori.setURITemplate(new URITemplate("/other"));
+        c.getMethodDispatcher().bind(ori, ori.getMethodToInvoke());
+        index = c.getOperationIndex();
+        assertEquals(3, index.getValues().size());
+        assertTrue(index.getCandidates("/other").contains(ori));
+    }
+
     @Test
     public void testSubresourceInheritProduces() {
         ClassResourceInfo c = ResourceUtils.createClassResourceInfo(
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class URITemplateIndexTest {
+    private static final List<String> TEMPLATES = Arrays.asList(
+        "/", "/books", "/books/", "/books/{id}", "/books/{id}/chapters/{c}", "/books/special",
+        "/bookstore", "/book{id}", "/{any: .*}", "/store/books/{id:\\d+}", "/store/{type}/list",
+        "/a b/c", "/a?b/{c}", "{id}/items", "/1.0/items");
+    private static final List<String> PATHS = Arrays.asList(
+        "/", "", "/books", "/books/", "/books/123", "/books/123/chapters/4", "/books/special",
+        "/bookstore", "/bookstore/x", "/book7", "/store/books/12", "/store/cds/list", "/a%20b/c",
+        "/a%20b/c/d", "/other", "/1.0/items", "/1x0/items", "7/items", "/books;m=1/special");
+
+    @Test
+    public void testCandidatesIncludeAllMatches() {
+        List<URITemplate> templates = new ArrayList<>();
+        for (String t : TEMPLATES) {
+            templates.add(new URITemplate(t));
+        }
+        URITemplateIndex<URITemplate> index = new URITemplateIndex<>(templates, Function.identity());
+        for (String path : PATHS) {
+            List<URITemplate> candidates = index.getCandidates(path);
+            int last = -1;
+            for (URITemplate t : templates) {
+                if (t.match(path, new MetadataMap<String, String>())) {
+                    assertTrue(t.getValue() + " must be a candidate for " + path, candidates.contains(t));
+                }
+            }
+            for (URITemplate t : candidates) {
+                int pos = templates.indexOf(t);
+                assertTrue("Candidates must keep the original order", pos > last);
+                last = pos;
+            }
+        }
+    }
+
+    @Test
+    public void testCandidatesAreFiltered() {
+        List<URITemplate> templates = Arrays.asList(new URITemplate("/books/{id}"),
+                                                    new URITemplate("/cds/{id}"),
+                                                    new URITemplate("/cds"),
+                                                    new URITemplate("/{type}/all"));
+        URITemplateIndex<URITemplate> index = new URITemplateIndex<>(templates, Function.identity());
+        assertEquals(Arrays.asList(templates.get(0), templates.get(3)), index.getCandidates("/books/1"));
+        assertEquals(Arrays.asList(templates.get(1), templates.get(2), templates.get(3)),
+                     index.getCandidates("/cds/1"));
+        assertEquals(Arrays.asList(templates.get(3)), index.getCandidates("/dvds"));
+        assertSame(index.getValues(), index.getCandidates("/cds;a=b/1"));
+    }
+}
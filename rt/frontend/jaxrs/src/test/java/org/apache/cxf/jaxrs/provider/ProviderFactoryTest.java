@@ -426,6 +426,27 @@ public class ProviderFactoryTest {
         assertSame(customJaxbWriter, provider);
     }
 
+    @Test
+    public void testProviderCacheInvalidatedOnRegistration() {
+        ProviderFactory pf = ServerProviderFactory.getInstance();
+        ProviderCache cache = pf.getProviderCache();
+        MessageBodyReader<Book> reader =
+            pf.createMessageBodyReader(Book.class, null, null, MediaType.TEXT_XML_TYPE, new MessageImpl());
+        assertSame(reader, pf.createMessageBodyReader(Book.class, null, null,
+                                                      MediaType.TEXT_XML_TYPE, new MessageImpl()));
+        assertEquals(1, cache.getReaderMisses());
+        assertEquals(1, cache.getReaderHits());
+
+        JAXBElementProvider<Book> provider = new JAXBElementProvider<>();
+        pf.registerUserProvider(provider);
+        assertSame(provider, pf.createMessageBodyReader(Book.class, null, null,
+                                                        MediaType.TEXT_XML_TYPE, new MessageImpl()));
+        assertEquals(2, cache.getReaderMisses());
+        assertSame(provider, pf.createMessageBodyWriter(Book.class, null, null,
+                                                        MediaType.TEXT_XML_TYPE, new MessageImpl()));
+        assertEquals(1, cache.getWriterMisses());
+    }
+
     @Test
     public void testDataSourceReader() {
         ProviderFactory pf = ServerProviderFactory.getInstance();
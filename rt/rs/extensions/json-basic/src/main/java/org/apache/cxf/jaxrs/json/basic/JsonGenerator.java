@@ -0,0 +1,317 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.json.basic;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Incremental JSON writer. When writing to an OutputStream the characters are encoded as
+ * UTF-8 straight into an internal buffer which is only passed to the stream when it is full
+ * or on {@link #flush()}.
+ *
+ * Strings are written as they are unless escaping is enabled, which matches the output
+ * {@link JsonMapObjectReaderWriter} has always produced for the values it reads.
+ */
+public class JsonGenerator implements Closeable, Flushable {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream os;
+    private final StringBuilder sb;
+    private final byte[] buf;
+    private int count;
+
+    private boolean escape;
+    private boolean format;
+    private boolean[] first = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    public JsonGenerator(OutputStream os) {
+        this.os = os;
+        this.sb = null;
+        this.buf = new byte[BUFFER_SIZE];
+    }
+
+    public JsonGenerator(StringBuilder sb) {
+        this.os = null;
+        this.sb = sb;
+        this.buf = null;
+    }
+
+    public void setEscape(boolean escape) {
+        this.escape = escape;
+    }
+
+    /**
+     * Starts a new line after every value separator and inside arrays.
+     */
+    public void setFormat(boolean format) {
+        this.format = format;
+    }
+
+    public JsonGenerator writeStartObject() {
+        return writeStart('{');
+    }
+
+    public JsonGenerator writeStartArray() {
+        JsonGenerator gen = writeStart('[');
+        formatIfNeeded();
+        return gen;
+    }
+
+    public JsonGenerator writeEndObject() {
+        depth--;
+        write('}');
+        return this;
+    }
+
+    public JsonGenerator writeEndArray() {
+        depth--;
+        formatIfNeeded();
+        write(']');
+        return this;
+    }
+
+    public JsonGenerator writeName(String name) {
+        separator();
+        writeQuoted(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonGenerator writeString(String value) {
+        separator();
+        writeQuoted(value);
+        return this;
+    }
+
+    public JsonGenerator writeNumber(long value) {
+        separator();
+        write(Long.toString(value));
+        return this;
+    }
+
+    public JsonGenerator writeBoolean(boolean value) {
+        separator();
+        write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonGenerator writeNull() {
+        separator();
+        write("null");
+        return this;
+    }
+
+    /**
+     * Writes the text of the value without quotes, for numbers and {@link JsonObject}s
+     * which render themselves.
+     */
+    public JsonGenerator writeRaw(String value) {
+        separator();
+        write(value);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        if (os != null) {
+            try {
+                flushBuffer();
+                os.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Flushes the buffered content, the underlying stream is not closed.
+     */
+    @Override
+    public void close() {
+        if (os != null) {
+            try {
+                flushBuffer();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private JsonGenerator writeStart(char c) {
+        separator();
+        write(c);
+        if (depth == first.length) {
+            first = Arrays.copyOf(first, depth * 2);
+        }
+        first[depth++] = true;
+        return this;
+    }
+
+    private void separator() {
+        if (afterName) {
+            afterName = false;
+        } else if (depth > 0) {
+            if (first[depth - 1]) {
+                first[depth - 1] = false;
+            } else {
+                write(',');
+                formatIfNeeded();
+            }
+        }
+    }
+
+    private void formatIfNeeded() {
+        if (format) {
+            write("\r\n ");
+        }
+    }
+
+    private void writeQuoted(String value) {
+        write('"');
+        if (escape) {
+            writeEscaped(value);
+        } else {
+            write(value);
+        }
+        write('"');
+    }
+
+    private void writeEscaped(String value) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            write(value, start, i);
+            start = i + 1;
+            write('\\');
+            switch (c) {
+            case '"':
+            case '\\':
+                write(c);
+                break;
+            case '\n':
+                write('n');
+                break;
+            case '\r':
+                write('r');
+                break;
+            case '\t':
+                write('t');
+                break;
+            case '\b':
+                write('b');
+                break;
+            case '\f':
+                write('f');
+                break;
+            default:
+                write("u00");
+                write(HEX[c >> 4]);
+                write(HEX[c & 0xF]);
+            }
+        }
+        write(value, start, value.length());
+    }
+
+    private void write(String str) {
+        write(str, 0, str.length());
+    }
+
+    private void write(String str, int from, int to) {
+        if (sb != null) {
+            sb.append(str, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                if (count == buf.length) {
+                    flushBufferUnchecked();
+                }
+                buf[count++] = (byte)c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < to
+                && Character.isLowSurrogate(str.charAt(i + 1))) {
+                writeCodePoint(Character.toCodePoint(c, str.charAt(++i)));
+            } else {
+                writeCodePoint(c);
+            }
+        }
+    }
+
+    private void write(char c) {
+        if (sb != null) {
+            sb.append(c);
+        } else if (c < 0x80) {
+            if (count == buf.length) {
+                flushBufferUnchecked();
+            }
+            buf[count++] = (byte)c;
+        } else {
+            writeCodePoint(c);
+        }
+    }
+
+    private void writeCodePoint(int cp) {
+        if (count + 4 > buf.length) {
+            flushBufferUnchecked();
+        }
+        if (cp < 0x800) {
+            buf[count++] = (byte)(0xC0 | (cp >> 6));
+        } else if (cp < 0x10000) {
+            if (Character.isSurrogate((char)cp)) {
+                // unpaired surrogate
+                buf[count++] = (byte)'?';
+                return;
+            }
+            buf[count++] = (byte)(0xE0 | (cp >> 12));
+            buf[count++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+        } else {
+            buf[count++] = (byte)(0xF0 | (cp >> 18));
+            buf[count++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+            buf[count++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+        }
+        buf[count++] = (byte)(0x80 | (cp & 0x3F));
+    }
+
+    private void flushBufferUnchecked() {
+        try {
+            flushBuffer();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            os.write(buf, 0, count);
+            count = 0;
+        }
+    }
+}
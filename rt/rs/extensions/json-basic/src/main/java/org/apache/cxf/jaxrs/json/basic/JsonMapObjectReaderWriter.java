@@ -22,29 +22,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.cxf.common.util.StringUtils;
-import org.apache.cxf.helpers.IOUtils;
 
 
 
+/**
+ * Reads and writes JSON documents as maps, lists and {@link JsonMapObject}s on top of
+ * {@link JsonParser} and {@link JsonGenerator}.
+ */
 public class JsonMapObjectReaderWriter {
-    private static final char DQUOTE = '"';
-    private static final char COMMA = ',';
-    private static final char COLON = ':';
-    private static final char OBJECT_START = '{';
-    private static final char OBJECT_END = '}';
-    private static final char ARRAY_START = '[';
-    private static final char ARRAY_END = ']';
-    private static final char ESCAPE = '\\';
-    private static final String NULL_VALUE = "null";
     private boolean format;
 
     public JsonMapObjectReaderWriter() {
@@ -60,13 +53,15 @@ public class JsonMapObjectReaderWriter {
 
     public String toJson(Map<String, Object> map) {
         StringBuilder sb = new StringBuilder();
-        toJsonInternal(new StringBuilderOutput(sb), map);
+        JsonGenerator gen = createGenerator(sb);
+        toJsonInternal(gen, map);
         return sb.toString();
     }
 
     public String toJson(List<Object> list) {
         StringBuilder sb = new StringBuilder();
-        toJsonInternal(new StringBuilderOutput(sb), list);
+        JsonGenerator gen = createGenerator(sb);
+        toJsonInternal(gen, list);
         return sb.toString();
     }
 
@@ -75,75 +70,67 @@ public class JsonMapObjectReaderWriter {
     }
 
     public void toJson(Map<String, Object> map, OutputStream os) {
-        toJsonInternal(new StreamOutput(os), map);
+        JsonGenerator gen = createGenerator(os);
+        toJsonInternal(gen, map);
+        gen.close();
+    }
+
+    protected JsonGenerator createGenerator(StringBuilder sb) {
+        JsonGenerator gen = new JsonGenerator(sb);
+        gen.setFormat(format);
+        return gen;
+    }
+
+    protected JsonGenerator createGenerator(OutputStream os) {
+        JsonGenerator gen = new JsonGenerator(os);
+        gen.setFormat(format);
+        return gen;
     }
 
-    protected void toJsonInternal(Output out, Map<String, Object> map) {
-        out.append(OBJECT_START);
-        for (Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator(); it.hasNext();) {
-            Map.Entry<String, Object> entry = it.next();
-            out.append(DQUOTE).append(entry.getKey()).append(DQUOTE);
-            out.append(COLON);
-            toJsonInternal(out, entry.getValue(), it.hasNext());
+    protected void toJsonInternal(JsonGenerator gen, Map<String, Object> map) {
+        gen.writeStartObject();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            gen.writeName(entry.getKey());
+            toJsonInternal(gen, entry.getValue());
         }
-        out.append(OBJECT_END);
+        gen.writeEndObject();
     }
 
-    protected void toJsonInternal(Output out, Object[] array) {
-        toJsonInternal(out, Arrays.asList(array));
+    protected void toJsonInternal(JsonGenerator gen, Object[] array) {
+        toJsonInternal(gen, Arrays.asList(array));
     }
 
-    protected void toJsonInternal(Output out, Collection<?> coll) {
-        out.append(ARRAY_START);
-        formatIfNeeded(out);
-        for (Iterator<?> iter = coll.iterator(); iter.hasNext();) {
-            toJsonInternal(out, iter.next(), iter.hasNext());
+    protected void toJsonInternal(JsonGenerator gen, Collection<?> coll) {
+        gen.writeStartArray();
+        for (Object value : coll) {
+            toJsonInternal(gen, value);
         }
-        formatIfNeeded(out);
-        out.append(ARRAY_END);
+        gen.writeEndArray();
     }
 
     @SuppressWarnings("unchecked")
-    protected void toJsonInternal(Output out, Object value, boolean hasNext) {
+    protected void toJsonInternal(JsonGenerator gen, Object value) {
         if (value == null) {
-            out.append(null);
-        } else if (JsonMapObject.class.isAssignableFrom(value.getClass())) {
-            out.append(toJson((JsonMapObject)value));
+            gen.writeNull();
+        } else if (value instanceof JsonMapObject) {
+            toJsonInternal(gen, ((JsonMapObject)value).asMap());
         } else if (value.getClass().isArray()) {
-            toJsonInternal(out, (Object[])value);
-        } else if (Collection.class.isAssignableFrom(value.getClass())) {
-            toJsonInternal(out, (Collection<?>)value);
-        } else if (Map.class.isAssignableFrom(value.getClass())) {
-            toJsonInternal(out, (Map<String, Object>)value);
+            toJsonInternal(gen, (Object[])value);
+        } else if (value instanceof Collection) {
+            toJsonInternal(gen, (Collection<?>)value);
+        } else if (value instanceof Map) {
+            toJsonInternal(gen, (Map<String, Object>)value);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof JsonObject) {
+            gen.writeRaw(value.toString());
         } else {
-            boolean quotesNeeded = checkQuotesNeeded(value);
-            if (quotesNeeded) {
-                out.append(DQUOTE);
-            }
-            out.append(value.toString());
-            if (quotesNeeded) {
-                out.append(DQUOTE);
-            }
+            gen.writeString(value.toString());
         }
-        if (hasNext) {
-            out.append(COMMA);
-            formatIfNeeded(out);
-        }
-
     }
 
-    private boolean checkQuotesNeeded(Object value) {
-        Class<?> cls = value.getClass();
-        return !(Number.class.isAssignableFrom(cls) || Boolean.class == cls
-            || JsonObject.class.isAssignableFrom(cls));
-    }
-    protected void formatIfNeeded(Output out) {
-        if (format) {
-            out.append("\r\n ");
-        }
-    }
     public JsonMapObject fromJsonToJsonObject(InputStream is) throws IOException {
-        return fromJsonToJsonObject(IOUtils.toString(is));
+        JsonMapObject obj = new JsonMapObject();
+        fromJson(obj, is);
+        return obj;
     }
     public JsonMapObject fromJsonToJsonObject(String json) {
         JsonMapObject obj = new JsonMapObject();
@@ -151,148 +138,109 @@ public class JsonMapObjectReaderWriter {
         return obj;
     }
     public void fromJson(JsonMapObject obj, String json) {
-        String theJson = json.trim();
-        JsonObjectSettable settable = new JsonObjectSettable(obj);
-        readJsonObjectAsSettable(settable, theJson.substring(1, theJson.length() - 1));
+        fromJson(obj, StringUtils.toBytesUTF8(json));
+    }
+    /**
+     * Binds the properties of the JSON object directly into the given JsonMapObject,
+     * for example JwtClaims or JwsHeaders, without building an intermediate map.
+     * Duplicate properties are recorded in {@link JsonMapObject#getUpdateCount()}.
+     */
+    public void fromJson(JsonMapObject obj, byte[] json) {
+        readObject(createParser(json), new JsonObjectSettable(obj));
+    }
+    public void fromJson(JsonMapObject obj, InputStream is) throws IOException {
+        try {
+            readObject(createParser(is), new JsonObjectSettable(obj));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
     }
     public Map<String, Object> fromJson(InputStream is) throws IOException {
-        return fromJson(IOUtils.toString(is));
+        MapSettable nextMap = new MapSettable();
+        try {
+            readObject(createParser(is), nextMap);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return nextMap.map;
     }
     public Map<String, Object> fromJson(String json) {
-        String theJson = json.trim();
+        return fromJson(StringUtils.toBytesUTF8(json));
+    }
+    public Map<String, Object> fromJson(byte[] json) {
         MapSettable nextMap = new MapSettable();
-        readJsonObjectAsSettable(nextMap, theJson.substring(1, theJson.length() - 1));
+        readObject(createParser(json), nextMap);
         return nextMap.map;
     }
     public List<Object> fromJsonAsList(String json) {
         return fromJsonAsList(null, json);
     }
     public List<Object> fromJsonAsList(String name, String json) {
-        String theJson = json.trim();
-        return internalFromJsonAsList(name, theJson.substring(1, theJson.length() - 1));
-    }
-    protected void readJsonObjectAsSettable(Settable values, String json) {
-        for (int i = 0; i < json.length(); i++) {
-            if (Character.isWhitespace(json.charAt(i))) {
-                continue;
-            }
-
-            int closingQuote = json.indexOf(DQUOTE, i + 1);
-            int from = json.charAt(i) == DQUOTE ? i + 1 : i;
-            String name = json.substring(from, closingQuote);
-            int sepIndex = json.indexOf(COLON, closingQuote + 1);
-
-            int j = 1;
-            while (Character.isWhitespace(json.charAt(sepIndex + j))) {
-                j++;
-            }
-            if (json.charAt(sepIndex + j) == OBJECT_START) {
-                int closingIndex = getClosingIndex(json, OBJECT_START, OBJECT_END, sepIndex + j);
-                String newJson = json.substring(sepIndex + j + 1, closingIndex);
-                MapSettable nextMap = new MapSettable();
-                readJsonObjectAsSettable(nextMap, newJson);
-                values.put(name, nextMap.map);
-                i = closingIndex + 1;
-            } else if (json.charAt(sepIndex + j) == ARRAY_START) {
-                int closingIndex = getClosingIndex(json, ARRAY_START, ARRAY_END, sepIndex + j);
-                String newJson = json.substring(sepIndex + j + 1, closingIndex);
-                values.put(name, internalFromJsonAsList(name, newJson));
-                i = closingIndex + 1;
-            } else {
-                int commaIndex = getCommaIndex(json, sepIndex + j);
-                Object value = readPrimitiveValue(name, json, sepIndex + j, commaIndex);
-                values.put(name, value);
-                i = commaIndex + 1;
-            }
-
+        JsonParser parser = createParser(StringUtils.toBytesUTF8(json));
+        if (parser.next() != JsonParser.Event.START_ARRAY) {
+            throw new IllegalArgumentException("JSON array expected");
         }
+        return readArray(parser);
     }
-    protected List<Object> internalFromJsonAsList(String name, String json) {
-        List<Object> values = new LinkedList<>();
-        for (int i = 0; i < json.length(); i++) {
-            if (Character.isWhitespace(json.charAt(i))) {
-                continue;
-            }
-            if (json.charAt(i) == OBJECT_START) {
-                int closingIndex = getClosingIndex(json, OBJECT_START, OBJECT_END, i);
-                MapSettable nextMap = new MapSettable();
-                readJsonObjectAsSettable(nextMap, json.substring(i + 1, closingIndex));
-                values.add(nextMap.map);
-                i = closingIndex + 1;
-            } else {
-                int commaIndex = getCommaIndex(json, i);
-                Object value = readPrimitiveValue(name, json, i, commaIndex);
-                values.add(value);
-                i = commaIndex;
-            }
-        }
 
-        return values;
+    protected JsonParser createParser(byte[] json) {
+        return new JsonParser(json);
+    }
+
+    protected JsonParser createParser(InputStream is) {
+        return new JsonParser(is);
     }
-    protected Object readPrimitiveValue(String name, String json, int from, int to) {
-        Object value = json.substring(from, to);
-        String valueStr = value.toString().trim();
-        if (valueStr.charAt(0) == DQUOTE) {
-            value = valueStr.substring(1, valueStr.length() - 1);
-        } else if ("true".equals(valueStr) || "false".equals(valueStr)) {
-            value = Boolean.valueOf(valueStr);
-        } else if (NULL_VALUE.equals(valueStr)) {
-            return null;
-        } else {
-            try {
-                value = Long.valueOf(valueStr);
-            } catch (NumberFormatException ex) {
-                value = Double.valueOf(valueStr);
-            }
-        }
 
-        if (value instanceof String) {
-            // Escape an encoded forward slash
-            value = ((String) value).replace("\\/", "/");
+    protected void readObject(JsonParser parser, Settable values) {
+        if (parser.next() != JsonParser.Event.START_OBJECT) {
+            throw new IllegalArgumentException("JSON object expected");
         }
-        return value;
+        readProperties(parser, values);
     }
 
-    protected static int getCommaIndex(String json, int from) {
-        int commaIndex = getNextSepCharIndex(json, COMMA, from);
-        if (commaIndex == -1) {
-            commaIndex = json.length();
+    protected void readProperties(JsonParser parser, Settable values) {
+        for (JsonParser.Event event = parser.next(); event != JsonParser.Event.END_OBJECT;
+            event = parser.next()) {
+            String name = parser.getString();
+            values.put(name, readValue(parser, parser.next()));
         }
-        return commaIndex;
-    }
-    protected static int getClosingIndex(String json, char openChar, char closeChar, int from) {
-        int nextOpenIndex = getNextSepCharIndex(json, openChar, from + 1);
-        int closingIndex = getNextSepCharIndex(json, closeChar, from + 1);
-        while (nextOpenIndex != -1 && nextOpenIndex < closingIndex) {
-            nextOpenIndex = getNextSepCharIndex(json, openChar, nextOpenIndex + 1);
-            closingIndex = getNextSepCharIndex(json, closeChar, closingIndex + 1);
+    }
+
+    protected List<Object> readArray(JsonParser parser) {
+        List<Object> values = new ArrayList<>();
+        for (JsonParser.Event event = parser.next(); event != JsonParser.Event.END_ARRAY;
+            event = parser.next()) {
+            values.add(readValue(parser, event));
         }
-        return closingIndex;
+        return values;
     }
 
-    protected static int getNextSepCharIndex(String json, char curlyBracketChar, int from) {
-        int nextCurlyBracketIndex = -1;
-        boolean inString = false;
-        for (int i = from; i < json.length(); i++) {
-            char currentChar = json.charAt(i);
-            if (currentChar == curlyBracketChar && !inString) {
-                nextCurlyBracketIndex = i;
-                break;
-            } else if (currentChar == DQUOTE) {
-                if (i > from && json.charAt(i - 1) == ESCAPE) {
-                    continue;
-                }
-                inString = !inString;
-            }
+    protected Object readValue(JsonParser parser, JsonParser.Event event) {
+        switch (event) {
+        case START_OBJECT:
+            MapSettable nextMap = new MapSettable();
+            readProperties(parser, nextMap);
+            return nextMap.map;
+        case START_ARRAY:
+            return readArray(parser);
+        case VALUE_STRING:
+            return parser.getString();
+        case VALUE_NUMBER:
+            return parser.getNumber();
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        default:
+            return null;
         }
-        return nextCurlyBracketIndex;
     }
 
     public void setFormat(boolean format) {
         this.format = format;
     }
 
-    private interface Settable {
+    protected interface Settable {
         void put(String key, Object value);
     }
     private static class MapSettable implements Settable {
@@ -311,51 +259,5 @@ public class JsonMapObjectReaderWriter {
             obj.setProperty(key, value);
         }
     }
-    private interface Output {
-        Output append(String str);
-        Output append(char ch);
-    }
-    private class StringBuilderOutput implements Output {
-        private StringBuilder sb;
-        StringBuilderOutput(StringBuilder sb) {
-            this.sb = sb;
-        }
-        @Override
-        public Output append(String str) {
-            sb.append(str);
-            return this;
-        }
-        @Override
-        public Output append(char ch) {
-            sb.append(ch);
-            return this;
-        }
-
-    }
-    private class StreamOutput implements Output {
-        private OutputStream os;
-        StreamOutput(OutputStream os) {
-            this.os = os;
-        }
-        @Override
-        public Output append(String str) {
-            try {
-                os.write(StringUtils.toBytesUTF8(str != null ? str : NULL_VALUE));
-            } catch (IOException ex) {
-                throw new UncheckedIOException(ex);
-            }
-            return this;
-        }
-        @Override
-        public Output append(char ch) {
-            try {
-                os.write(ch);
-            } catch (IOException ex) {
-                throw new UncheckedIOException(ex);
-            }
-            return this;
-        }
-
-    }
 
 }
@@ -0,0 +1,458 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.json.basic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Incremental pull parser reading UTF-8 encoded JSON from a byte array or an InputStream.
+ * Characters are decoded straight from the bytes into a reusable buffer, so the only
+ * objects created while parsing are the names and values actually requested.
+ *
+ * By default only the escaped forward slash is decoded in strings and all the other escape
+ * sequences are returned as they are, which is what {@link JsonMapObjectReaderWriter} has
+ * always done; {@link #setDecodeEscapes(boolean)} enables the full JSON unescaping.
+ */
+public class JsonParser {
+
+    public enum Event {
+        START_OBJECT,
+        END_OBJECT,
+        START_ARRAY,
+        END_ARRAY,
+        KEY_NAME,
+        VALUE_STRING,
+        VALUE_NUMBER,
+        VALUE_TRUE,
+        VALUE_FALSE,
+        VALUE_NULL
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int STATE_VALUE = 0;
+    private static final int STATE_FIRST_KEY = 1;
+    private static final int STATE_KEY = 2;
+    private static final int STATE_FIRST_VALUE = 3;
+    private static final int STATE_AFTER_VALUE = 4;
+    private static final int STATE_DONE = 5;
+
+    private final InputStream is;
+    private byte[] buf;
+    private int pos;
+    private int limit;
+
+    private boolean[] objects = new boolean[16];
+    private int depth;
+    private int state = STATE_VALUE;
+
+    private char[] chars = new char[64];
+    private int length;
+    private boolean integral;
+    private long longValue;
+    private boolean decodeEscapes;
+
+    public JsonParser(byte[] json) {
+        this(json, 0, json.length);
+    }
+
+    public JsonParser(byte[] json, int offset, int len) {
+        this.is = null;
+        this.buf = json;
+        this.pos = offset;
+        this.limit = offset + len;
+    }
+
+    public JsonParser(InputStream is) {
+        this.is = is;
+        this.buf = new byte[BUFFER_SIZE];
+    }
+
+    public void setDecodeEscapes(boolean decodeEscapes) {
+        this.decodeEscapes = decodeEscapes;
+    }
+
+    /**
+     * Returns false once the top level value has been completely read.
+     */
+    public boolean hasNext() {
+        return state != STATE_DONE;
+    }
+
+    public Event next() {
+        int c = skipWhitespace();
+        switch (state) {
+        case STATE_FIRST_KEY:
+            if (c == '}') {
+                pos++;
+                return end(true);
+            }
+            return readName(c);
+        case STATE_KEY:
+            return readName(c);
+        case STATE_FIRST_VALUE:
+            if (c == ']') {
+                pos++;
+                return end(false);
+            }
+            return readValue(c);
+        case STATE_VALUE:
+            return readValue(c);
+        case STATE_AFTER_VALUE:
+            pos++;
+            boolean object = objects[depth - 1];
+            if (c == ',') {
+                if (object) {
+                    return readName(skipWhitespace());
+                }
+                return readValue(skipWhitespace());
+            } else if (c == (object ? '}' : ']')) {
+                return end(object);
+            }
+            throw error("',' or '" + (object ? '}' : ']') + "' expected");
+        default:
+            throw new IllegalStateException("No more JSON events");
+        }
+    }
+
+    /**
+     * Returns the current name, the string value or the text of the number.
+     */
+    public String getString() {
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Returns the current number as a Long, or as a Double if it is not integral or does not
+     * fit into a long.
+     */
+    public Number getNumber() {
+        if (integral) {
+            return Long.valueOf(longValue);
+        }
+        return Double.valueOf(getString());
+    }
+
+    public boolean isIntegralNumber() {
+        return integral;
+    }
+
+    public long getLong() {
+        return integral ? longValue : getNumber().longValue();
+    }
+
+    /**
+     * Skips the rest of the object or array whose START_OBJECT or START_ARRAY event has just
+     * been returned.
+     */
+    public void skipChildren() {
+        int level = 1;
+        while (level > 0) {
+            switch (next()) {
+            case START_OBJECT:
+            case START_ARRAY:
+                level++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                level--;
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    private Event end(boolean object) {
+        depth--;
+        state = depth == 0 ? STATE_DONE : STATE_AFTER_VALUE;
+        return object ? Event.END_OBJECT : Event.END_ARRAY;
+    }
+
+    private Event readName(int c) {
+        if (c != '"') {
+            throw error("'\"' expected");
+        }
+        pos++;
+        readString();
+        if (skipWhitespace() != ':') {
+            throw error("':' expected");
+        }
+        pos++;
+        state = STATE_VALUE;
+        return Event.KEY_NAME;
+    }
+
+    private Event readValue(int c) {
+        switch (c) {
+        case '{':
+            pos++;
+            push(true);
+            state = STATE_FIRST_KEY;
+            return Event.START_OBJECT;
+        case '[':
+            pos++;
+            push(false);
+            state = STATE_FIRST_VALUE;
+            return Event.START_ARRAY;
+        case '"':
+            pos++;
+            readString();
+            return valueRead(Event.VALUE_STRING);
+        case 't':
+            readLiteral("true");
+            return valueRead(Event.VALUE_TRUE);
+        case 'f':
+            readLiteral("false");
+            return valueRead(Event.VALUE_FALSE);
+        case 'n':
+            readLiteral("null");
+            return valueRead(Event.VALUE_NULL);
+        default:
+            if (c == '-' || c >= '0' && c <= '9') {
+                readNumber();
+                return valueRead(Event.VALUE_NUMBER);
+            }
+            throw error(c == -1 ? "Unexpected end of JSON" : "Unexpected character '" + (char)c + "'");
+        }
+    }
+
+    private Event valueRead(Event event) {
+        state = depth == 0 ? STATE_DONE : STATE_AFTER_VALUE;
+        return event;
+    }
+
+    private void push(boolean object) {
+        if (depth == objects.length) {
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+        objects[depth++] = object;
+    }
+
+    private void readLiteral(String literal) {
+        length = 0;
+        for (int i = 0; i < literal.length(); i++) {
+            if (readByte() != literal.charAt(i)) {
+                throw error("'" + literal + "' expected");
+            }
+        }
+    }
+
+    private void readNumber() {
+        length = 0;
+        integral = true;
+        while (pos < limit || fill()) {
+            int c = buf[pos];
+            if (c >= '0' && c <= '9' || c == '-') {
+                append((char)c);
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+') {
+                integral = false;
+                append((char)c);
+            } else {
+                break;
+            }
+            pos++;
+        }
+        if (integral && !parseLong()) {
+            try {
+                longValue = Long.parseLong(getString());
+            } catch (NumberFormatException ex) {
+                integral = false;
+            }
+        }
+        if (!integral) {
+            // validates the number
+            Double.parseDouble(getString());
+        }
+    }
+
+    private boolean parseLong() {
+        int start = length > 0 && chars[0] == '-' ? 1 : 0;
+        if (length == start || length - start > 18) {
+            return false;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        longValue = start == 1 ? -value : value;
+        return true;
+    }
+
+    private void readString() {
+        length = 0;
+        while (true) {
+            // ASCII fast path within the current buffer
+            int p = pos;
+            while (p < limit) {
+                int b = buf[p];
+                if (b < 0x20 || b == '"' || b == '\\') {
+                    break;
+                }
+                if (length == chars.length) {
+                    chars = Arrays.copyOf(chars, length * 2);
+                }
+                chars[length++] = (char)b;
+                p++;
+            }
+            pos = p;
+            int b = readByte();
+            if (b == '"') {
+                return;
+            } else if (b == '\\') {
+                readEscape();
+            } else if (b >= 0x80) {
+                readMultiByte(b);
+            } else if (b >= 0x20) {
+                // the fast path stopped at the end of the buffer
+                append((char)b);
+            } else {
+                throw error("Control character in string");
+            }
+        }
+    }
+
+    private void readEscape() {
+        int c = readByte();
+        if (c == '/') {
+            append('/');
+        } else if (!decodeEscapes) {
+            append('\\');
+            append((char)c);
+        } else {
+            switch (c) {
+            case '"':
+            case '\\':
+                append((char)c);
+                break;
+            case 'b':
+                append('\b');
+                break;
+            case 'f':
+                append('\f');
+                break;
+            case 'n':
+                append('\n');
+                break;
+            case 'r':
+                append('\r');
+                break;
+            case 't':
+                append('\t');
+                break;
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(readByte(), 16);
+                    if (digit == -1) {
+                        throw error("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                append((char)value);
+                break;
+            default:
+                throw error("Invalid escape '\\" + (char)c + "'");
+            }
+        }
+    }
+
+    private void readMultiByte(int b) {
+        int codePoint;
+        int count;
+        if ((b & 0xE0) == 0xC0) {
+            codePoint = b & 0x1F;
+            count = 1;
+        } else if ((b & 0xF0) == 0xE0) {
+            codePoint = b & 0x0F;
+            count = 2;
+        } else if ((b & 0xF8) == 0xF0) {
+            codePoint = b & 0x07;
+            count = 3;
+        } else {
+            throw error("Invalid UTF-8 sequence");
+        }
+        for (int i = 0; i < count; i++) {
+            int next = readByte();
+            if ((next & 0xC0) != 0x80) {
+                throw error("Invalid UTF-8 sequence");
+            }
+            codePoint = (codePoint << 6) | (next & 0x3F);
+        }
+        if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            append(Character.highSurrogate(codePoint));
+            append(Character.lowSurrogate(codePoint));
+        } else {
+            append((char)codePoint);
+        }
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length++] = c;
+    }
+
+    private int skipWhitespace() {
+        while (pos < limit || fill()) {
+            int c = buf[pos];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c & 0xFF;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    private int readByte() {
+        if (pos == limit && !fill()) {
+            throw error("Unexpected end of JSON");
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    private boolean fill() {
+        if (is == null) {
+            return false;
+        }
+        try {
+            int read = is.read(buf, 0, buf.length);
+            if (read <= 0) {
+                return false;
+            }
+            pos = 0;
+            limit = read;
+            return true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.json.basic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.helpers.CastUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonParserTest {
+
+    @Test
+    public void testEvents() throws Exception {
+        String json = "{\"a\" : [1, -2.5e1, true, false, null, {}], \"b\":\"c\"}";
+        JsonParser parser = new JsonParser(bytes(json));
+        assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+        assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+        assertEquals("a", parser.getString());
+        assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+        assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+        assertEquals(1L, parser.getNumber());
+        assertEquals(JsonParser.Event.VALUE_NUMBER, parser.next());
+        assertEquals(-25.0, parser.getNumber());
+        assertEquals(JsonParser.Event.VALUE_TRUE, parser.next());
+        assertEquals(JsonParser.Event.VALUE_FALSE, parser.next());
+        assertEquals(JsonParser.Event.VALUE_NULL, parser.next());
+        assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+        assertEquals(JsonParser.Event.END_OBJECT, parser.next());
+        assertEquals(JsonParser.Event.END_ARRAY, parser.next());
+        assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+        assertEquals(JsonParser.Event.VALUE_STRING, parser.next());
+        assertEquals("c", parser.getString());
+        assertTrue(parser.hasNext());
+        assertEquals(JsonParser.Event.END_OBJECT, parser.next());
+        assertFalse(parser.hasNext());
+    }
+
+    @Test
+    public void testLargeNumbers() throws Exception {
+        Map<String, Object> map = new JsonMapObjectReaderWriter().fromJson(
+            bytes("{\"max\":9223372036854775807,\"min\":-9223372036854775808,\"big\":92233720368547758070}"));
+        assertEquals(Long.MAX_VALUE, map.get("max"));
+        assertEquals(Long.MIN_VALUE, map.get("min"));
+        assertEquals(9.223372036854776E19, map.get("big"));
+    }
+
+    @Test
+    public void testUnicode() throws Exception {
+        String value = "caf\u00e9 \u20ac \ud83d\ude00";
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new JsonMapObjectReaderWriter().toJson(Collections.singletonMap("v", (Object)value), bos);
+        assertEquals("{\"v\":\"" + value + "\"}", new String(bos.toByteArray(), StandardCharsets.UTF_8));
+
+        Map<String, Object> map = new JsonMapObjectReaderWriter().fromJson(bos.toByteArray());
+        assertEquals(value, map.get("v"));
+    }
+
+    @Test
+    public void testEscapes() throws Exception {
+        byte[] json = bytes("\"a\\\"b\\\\c\\/d\\n\\u0041\"");
+        JsonParser parser = new JsonParser(json);
+        parser.next();
+        // only the escaped slash is decoded by default
+        assertEquals("a\\\"b\\\\c/d\\n\\u0041", parser.getString());
+
+        parser = new JsonParser(json);
+        parser.setDecodeEscapes(true);
+        parser.next();
+        assertEquals("a\"b\\c/d\nA", parser.getString());
+
+        StringBuilder sb = new StringBuilder();
+        JsonGenerator gen = new JsonGenerator(sb);
+        gen.setEscape(true);
+        gen.writeString("a\"b\\c/d\nA\u0001");
+        assertEquals("\"a\\\"b\\\\c/d\\nA\\u0001\"", sb.toString());
+    }
+
+    @Test
+    public void testNestedArrays() throws Exception {
+        List<Object> list = new JsonMapObjectReaderWriter().fromJsonAsList("[[1, 2], [], [{\"a\":[\"b\"]}]]");
+        assertEquals(3, list.size());
+        assertEquals(Arrays.asList(1L, 2L), list.get(0));
+        assertEquals(Collections.emptyList(), list.get(1));
+        List<Object> third = CastUtils.cast((List<?>)list.get(2));
+        assertEquals(Collections.singletonMap("a", Collections.singletonList("b")), third.get(0));
+    }
+
+    @Test
+    public void testReadFromStream() throws Exception {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < 2000; i++) {
+            sb.append("\"key").append(i).append("\":\"value \u00e9").append(i).append("\",");
+        }
+        sb.append("\"last\":1}");
+        InputStream is = new ByteArrayInputStream(bytes(sb.toString()));
+        Map<String, Object> map = new JsonMapObjectReaderWriter().fromJson(is);
+        assertEquals(2001, map.size());
+        assertEquals("value \u00e91999", map.get("key1999"));
+        assertEquals(1L, map.get("last"));
+    }
+
+    @Test
+    public void testBindIntoJsonMapObject() throws Exception {
+        JsonMapObject obj = new JsonMapObject();
+        new JsonMapObjectReaderWriter().fromJson(obj, bytes("{\"iss\":\"a\",\"exp\":1,\"iss\":\"b\"}"));
+        assertEquals("b", obj.getStringProperty("iss"));
+        assertEquals(Long.valueOf(1), obj.getLongProperty("exp"));
+        assertNotNull(obj.getUpdateCount());
+        assertEquals(2, obj.getUpdateCount().get("iss"));
+        assertNull(obj.getUpdateCount().get("exp"));
+    }
+
+    @Test
+    public void testSkipChildren() throws Exception {
+        JsonParser parser = new JsonParser(bytes("{\"a\":{\"b\":[1,{\"c\":2}]},\"d\":3}"));
+        parser.next();
+        parser.next();
+        assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+        parser.skipChildren();
+        assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+        assertEquals("d", parser.getString());
+    }
+
+    @Test
+    public void testInvalid() throws Exception {
+        for (String json : Arrays.asList("{\"a\":}", "{\"a\" 1}", "{\"a\":1", "{\"a\":[1 2]}",
+                                         "{\"a\":tru}")) {
+            try {
+                new JsonMapObjectReaderWriter().fromJson(json);
+                fail(json + " is not valid");
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFormat() throws Exception {
+        JsonMapObjectReaderWriter writer = new JsonMapObjectReaderWriter(true);
+        Map<String, Object> map = CastUtils.cast(Collections.singletonMap("a", Arrays.asList("b", "c")));
+        assertEquals("{\"a\":[\r\n \"b\",\r\n \"c\"\r\n ]}", writer.toJson(map));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -25,7 +25,6 @@ import java.util.logging.Logger;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.Base64Exception;
 import org.apache.cxf.common.util.Base64UrlUtility;
-import org.apache.cxf.jaxrs.json.basic.JsonMapObject;
 import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 
@@ -41,18 +40,18 @@ public class JweCompactConsumer {
             throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
         }
         try {
-            String headersJson = new String(Base64UrlUtility.decode(parts[0]));
+            byte[] decodedHeaders = Base64UrlUtility.decode(parts[0]);
             byte[] encryptedCEK = Base64UrlUtility.decode(parts[1]);
             byte[] initVector = Base64UrlUtility.decode(parts[2]);
             byte[] encryptedContent = Base64UrlUtility.decode(parts[3]);
             byte[] authTag = Base64UrlUtility.decode(parts[4]);
             JsonMapObjectReaderWriter reader = new JsonMapObjectReaderWriter();
-            JsonMapObject joseHeaders = reader.fromJsonToJsonObject(headersJson);
-            if (joseHeaders.getUpdateCount() != null) {
+            JweHeaders jweHeaders = new JweHeaders();
+            reader.fromJson(jweHeaders, decodedHeaders);
+            if (jweHeaders.getUpdateCount() != null) {
                 LOG.warning("Duplicate headers have been detected");
                 throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
             }
-            JweHeaders jweHeaders = new JweHeaders(joseHeaders.asMap());
             jweDecryptionInput = new JweDecryptionInput(encryptedCEK,
                                                         initVector,
                                                         encryptedContent,
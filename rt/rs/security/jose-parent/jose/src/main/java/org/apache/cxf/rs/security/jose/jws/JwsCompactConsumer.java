@@ -18,13 +18,13 @@
  */
 package org.apache.cxf.rs.security.jose.jws;
 
+import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
 import java.security.cert.X509Certificate;
 import java.util.logging.Logger;
 
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.StringUtils;
-import org.apache.cxf.jaxrs.json.basic.JsonMapObject;
 import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
@@ -35,7 +35,8 @@ public class JwsCompactConsumer {
     private JsonMapObjectReaderWriter reader = new JsonMapObjectReaderWriter();
     private final String encodedSequence;
     private final String encodedSignature;
-    private final String headersJson;
+    private final byte[] decodedHeaders;
+    private String headersJson;
     private String jwsPayload;
     private String decodedJwsPayload;
     private JwsHeaders jwsHeaders;
@@ -64,7 +65,7 @@ public class JwsCompactConsumer {
             jwsPayload = detachedPayload;
         }
         encodedSequence = parts[0] + "." + jwsPayload;
-        headersJson = JoseUtils.decodeToString(parts[0]);
+        decodedHeaders = JoseUtils.decode(parts[0]);
     }
     public String getUnsignedEncodedSequence() {
         return encodedSequence;
@@ -73,6 +74,9 @@ public class JwsCompactConsumer {
         return encodedSignature;
     }
     public String getDecodedJsonHeaders() {
+        if (headersJson == null) {
+            headersJson = new String(decodedHeaders, StandardCharsets.UTF_8);
+        }
         return headersJson;
     }
     public String getDecodedJwsPayload() {
@@ -87,6 +91,9 @@ public class JwsCompactConsumer {
         return decodedJwsPayload;
     }
     public byte[] getDecodedJwsPayloadBytes() {
+        if (decodedJwsPayload == null && !JwsUtils.isPayloadUnencoded(getJwsHeaders())) {
+            return JoseUtils.decode(jwsPayload);
+        }
         return StringUtils.toBytesUTF8(getDecodedJwsPayload());
     }
     public byte[] getDecodedSignature() {
@@ -94,12 +101,13 @@ public class JwsCompactConsumer {
     }
     public JwsHeaders getJwsHeaders() {
         if (jwsHeaders == null) {
-            JsonMapObject joseHeaders = reader.fromJsonToJsonObject(headersJson);
+            JwsHeaders joseHeaders = new JwsHeaders();
+            reader.fromJson(joseHeaders, decodedHeaders);
             if (joseHeaders.getUpdateCount() != null) {
                 LOG.warning("Duplicate headers have been detected");
                 throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
             }
-            jwsHeaders = new JwsHeaders(joseHeaders.asMap());
+            jwsHeaders = joseHeaders;
         }
         return jwsHeaders;
     }
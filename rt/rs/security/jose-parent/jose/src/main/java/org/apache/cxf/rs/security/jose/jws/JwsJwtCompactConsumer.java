@@ -32,7 +32,8 @@ public class JwsJwtCompactConsumer extends JwsCompactConsumer {
     public JwtToken getJwtToken() {
         if (token == null) {
             JwsHeaders theHeaders = super.getJwsHeaders();
-            JwtClaims theClaims = new JwtClaims(getReader().fromJson(getDecodedJwsPayload()));
+            JwtClaims theClaims = new JwtClaims();
+            getReader().fromJson(theClaims, getDecodedJwsPayloadBytes());
             token = new JwtToken(theHeaders, theClaims);
         }
         return token;
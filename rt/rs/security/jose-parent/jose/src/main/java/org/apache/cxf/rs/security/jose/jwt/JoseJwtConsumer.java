@@ -30,6 +30,7 @@ public class JoseJwtConsumer extends AbstractJoseConsumer {
     
     private int clockOffset;
     private int ttl;
+    private JwtTokenCache tokenCache;
 
     public JwtToken getJwtToken(String wrappedJwtToken) {
         return getJwtToken(wrappedJwtToken, null, null);
@@ -37,8 +38,33 @@ public class JoseJwtConsumer extends AbstractJoseConsumer {
     public JwtToken getJwtToken(String wrappedJwtToken,
                                    JweDecryptionProvider theDecryptor,
                                    JwsSignatureVerifier theSigVerifier) {
+        // the cached tokens can only be reused if they are verified with the configured keys
+        String cacheScope = theDecryptor == null && theSigVerifier == null ? "" : null;
+        return getJwtToken(wrappedJwtToken, theDecryptor, theSigVerifier, cacheScope);
+    }
+
+    /**
+     * @param cacheScope identifies the keys the token is decrypted and verified with
+     *        if the token cache can be used, null otherwise
+     */
+    protected JwtToken getJwtToken(String wrappedJwtToken,
+                                   JweDecryptionProvider theDecryptor,
+                                   JwsSignatureVerifier theSigVerifier,
+                                   String cacheScope) {
         super.checkProcessRequirements();
 
+        JwtTokenCache cache = cacheScope != null && isJwsRequired() ? tokenCache : null;
+        String compactToken = wrappedJwtToken;
+        long cacheGeneration = 0;
+        if (cache != null) {
+            JwtToken cached = cache.get(cacheScope, compactToken);
+            if (cached != null) {
+                validateToken(cached);
+                return cached;
+            }
+            cacheGeneration = cache.getGeneration();
+        }
+
         JweHeaders jweHeaders = new JweHeaders();
         if (isJweRequired()) {
             JweJwtCompactConsumer jwtConsumer = new JweJwtCompactConsumer(wrappedJwtToken);
@@ -78,6 +104,9 @@ public class JoseJwtConsumer extends AbstractJoseConsumer {
         }
 
         validateToken(jwt);
+        if (cache != null) {
+            cache.put(cacheScope, compactToken, jwt, cacheGeneration);
+        }
         return jwt;
     }
 
@@ -103,4 +132,16 @@ public class JoseJwtConsumer extends AbstractJoseConsumer {
     public void setTtl(int ttl) {
         this.ttl = ttl;
     }
+
+    public JwtTokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    /**
+     * Enables the cache of verified tokens, which is disabled by default. The cache must be
+     * cleared when the verification or decryption keys are rotated.
+     */
+    public void setTokenCache(JwtTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
 }
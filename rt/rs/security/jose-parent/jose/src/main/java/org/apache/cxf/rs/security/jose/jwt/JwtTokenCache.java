@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwt;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.cxf.common.util.Base64UrlUtility;
+import org.apache.cxf.common.util.StringUtils;
+
+/**
+ * Keeps the JwtTokens which have already been decrypted and whose signature has already
+ * been verified, so that a token replayed many times during its lifetime is only parsed
+ * and verified once. Entries are keyed by a SHA-256 digest of the compact serialization,
+ * expire with the token ("exp" claim, or after the time to live if the token has none)
+ * and the least recently used entries are evicted once the maximum size is reached.
+ *
+ * The cached JwtTokens are shared by all the requests replaying the same token and must
+ * not be modified. The claims are still validated by the consumer on every request.
+ *
+ * {@link #clear()} must be called when the keys used to verify or decrypt the tokens
+ * are rotated; tokens which were being verified while the cache was cleared are not added.
+ */
+public class JwtTokenCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final int DEFAULT_TIME_TO_LIVE = 300;
+
+    private final Map<String, Entry> entries;
+    private int timeToLive = DEFAULT_TIME_TO_LIVE;
+    private int clockOffset;
+    private long generation;
+
+    public JwtTokenCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public JwtTokenCache(final int maxSize) {
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached token for the compact serialization, or null.
+     * @param scope identifies the keys the token has been verified with, can be null
+     */
+    public JwtToken get(String scope, String compactToken) {
+        String key = getKey(scope, compactToken);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expires <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.token;
+        }
+    }
+
+    /**
+     * Returns the value to pass to {@link #put(String, String, JwtToken, long)} once the
+     * token has been verified.
+     */
+    public long getGeneration() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Adds a verified token unless the cache has been cleared since the given generation
+     * was obtained.
+     */
+    public void put(String scope, String compactToken, JwtToken token, long tokenGeneration) {
+        long now = System.currentTimeMillis();
+        long expires = now + timeToLive * 1000L;
+        Long expiryTime = token.getClaims().getExpiryTime();
+        if (expiryTime != null) {
+            expires = Math.min(expires, (expiryTime + clockOffset) * 1000L);
+        }
+        if (expires <= now) {
+            return;
+        }
+        String key = getKey(scope, compactToken);
+        synchronized (entries) {
+            if (tokenGeneration == generation) {
+                entries.put(key, new Entry(token, expires));
+            }
+        }
+    }
+
+    /**
+     * Removes all the tokens, for example after a key rotation.
+     */
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Sets how long in seconds the tokens without an expiry time are kept, and the
+     * maximum time for all the others.
+     */
+    public void setTimeToLive(int timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setClockOffset(int clockOffset) {
+        this.clockOffset = clockOffset;
+    }
+
+    public int getClockOffset() {
+        return clockOffset;
+    }
+
+    private static String getKey(String scope, String compactToken) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            if (scope != null) {
+                md.update(StringUtils.toBytesUTF8(scope));
+                md.update((byte)0);
+            }
+            return Base64UrlUtility.encode(md.digest(StringUtils.toBytesUTF8(compactToken)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new JwtException(ex);
+        }
+    }
+
+    private static final class Entry {
+        final JwtToken token;
+        final long expires;
+
+        Entry(JwtToken token, long expires) {
+            this.token = token;
+            this.expires = expires;
+        }
+    }
+}
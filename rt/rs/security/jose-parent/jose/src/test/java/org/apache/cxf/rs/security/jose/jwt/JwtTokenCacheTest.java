@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+import org.apache.cxf.rs.security.jose.jws.HmacJwsSignatureProvider;
+import org.apache.cxf.rs.security.jose.jws.HmacJwsSignatureVerifier;
+import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
+import org.apache.cxf.rs.security.jose.jws.JwsJwtCompactProducer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class JwtTokenCacheTest {
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private JoseJwtConsumer consumer;
+
+    @Before
+    public void setUp() {
+        consumer = new JoseJwtConsumer();
+        consumer.setJwsVerifier(new HmacJwsSignatureVerifier(KEY, SignatureAlgorithm.HS256) {
+            @Override
+            public boolean verify(JwsHeaders headers, String unsignedText, byte[] signature) {
+                verifications.incrementAndGet();
+                return super.verify(headers, unsignedText, signature);
+            }
+        });
+        consumer.setTokenCache(new JwtTokenCache());
+    }
+
+    @Test
+    public void testReplayedTokenIsVerifiedOnce() throws Exception {
+        String token = createToken("alice", System.currentTimeMillis() / 1000 + 60);
+        JwtToken jwt = consumer.getJwtToken(token);
+        assertEquals("alice", jwt.getClaims().getSubject());
+        assertSame(jwt, consumer.getJwtToken(token));
+        assertEquals(1, verifications.get());
+
+        consumer.getJwtToken(createToken("bob", System.currentTimeMillis() / 1000 + 60));
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        String token = createToken("alice", System.currentTimeMillis() / 1000 + 60);
+        consumer.getJwtToken(token);
+        long generation = consumer.getTokenCache().getGeneration();
+        consumer.getTokenCache().clear();
+        consumer.getJwtToken(token);
+        assertEquals(2, verifications.get());
+
+        // a token verified before the keys have been rotated is not added
+        JwtTokenCache cache = consumer.getTokenCache();
+        cache.clear();
+        cache.put("", token, new JwtToken(new JwtClaims()), generation);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        JwtTokenCache cache = consumer.getTokenCache();
+        JwtClaims claims = new JwtClaims();
+        claims.setExpiryTime(System.currentTimeMillis() / 1000 - 1);
+        cache.put(null, "expired", new JwtToken(claims), cache.getGeneration());
+        assertNull(cache.get(null, "expired"));
+
+        cache.setTimeToLive(0);
+        cache.put(null, "noexpiry", new JwtToken(new JwtClaims()), cache.getGeneration());
+        assertNull(cache.get(null, "noexpiry"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        JwtTokenCache cache = new JwtTokenCache(2);
+        JwtToken token = new JwtToken(new JwtClaims());
+        cache.put(null, "a", token, 0);
+        cache.put(null, "b", token, 0);
+        cache.get(null, "a");
+        cache.put(null, "c", token, 0);
+        assertEquals(2, cache.size());
+        assertSame(token, cache.get(null, "a"));
+        assertNull(cache.get(null, "b"));
+        assertSame(token, cache.get(null, "c"));
+    }
+
+    @Test
+    public void testScopes() throws Exception {
+        JwtTokenCache cache = new JwtTokenCache();
+        cache.put("client1", "a", new JwtToken(new JwtClaims()), 0);
+        assertNull(cache.get("client2", "a"));
+        assertNull(cache.get(null, "a"));
+    }
+
+    @Test
+    public void testCachedTokenIsStillValidated() throws Exception {
+        consumer = new JoseJwtConsumer() {
+            @Override
+            protected void validateToken(JwtToken jwt) {
+                if ("mallory".equals(jwt.getClaims().getSubject())) {
+                    throw new JwtException("Invalid subject");
+                }
+            }
+        };
+        consumer.setJwsVerifier(new HmacJwsSignatureVerifier(KEY, SignatureAlgorithm.HS256));
+        JwtTokenCache cache = new JwtTokenCache();
+        consumer.setTokenCache(cache);
+        String token = createToken("alice", System.currentTimeMillis() / 1000 + 60);
+        JwtToken jwt = consumer.getJwtToken(token);
+        jwt.getClaims().setSubject("mallory");
+        try {
+            consumer.getJwtToken(token);
+            fail("The cached token must be validated");
+        } catch (JwtException ex) {
+            // expected
+        }
+    }
+
+    private static String createToken(String subject, long expiry) {
+        JwtClaims claims = new JwtClaims();
+        claims.setSubject(subject);
+        claims.setExpiryTime(expiry);
+        JwsHeaders headers = new JwsHeaders(SignatureAlgorithm.HS256);
+        return new JwsJwtCompactProducer(headers, claims)
+            .signWith(new HmacJwsSignatureProvider(KEY, SignatureAlgorithm.HS256));
+    }
+}
@@ -24,11 +24,21 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.ws.rs.core.MediaType;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.PhaseInterceptorChain;
 import org.apache.cxf.rs.security.jose.jaxrs.JsonWebKeysProvider;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
@@ -36,22 +46,53 @@ import org.apache.cxf.rs.security.jose.jwk.PublicKeyUse;
 import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 import org.apache.cxf.rs.security.jose.jws.JwsUtils;
+import org.apache.cxf.workqueue.WorkQueueManager;
 
 /**
  * Validate Access Token signature using JWK Set from
  * {@link org.apache.cxf.rs.security.oauth2.services.AuthorizationMetadata#getJwksURL()} according to
- * {@link JwsHeaders#getKeyId()} 
+ * {@link JwsHeaders#getKeyId()}.
+ *
+ * The keys are cached by key id. The key set is refreshed in the background once it is older
+ * than the refresh interval, and fetched again when a token is signed with an unknown key,
+ * at most once per unknown key refresh interval so that tokens with random key ids can not
+ * make every request fetch the key set. A failed background refresh is retried after the
+ * unknown key refresh interval.
  */
 public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
+    public static final long DEFAULT_REFRESH_INTERVAL = 3600000L;
+    public static final long DEFAULT_UNKNOWN_KEY_REFRESH_INTERVAL = 30000L;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(JwsJwksJwtAccessTokenValidator.class);
 
     final Map<String, JwkHolder> jsonWebKeys = new ConcurrentHashMap<>();
 
     private String jwksURL;
+    private long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+    private long unknownKeyRefreshInterval = DEFAULT_UNKNOWN_KEY_REFRESH_INTERVAL;
+    private Executor refreshExecutor;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // time the keys were last fetched, 0 until they have been fetched once
+    private volatile long lastRefresh;
+    private volatile long lastRefreshFailure;
+    // time the keys were last fetched because of an unknown key id, -1 if they have not
+    // been or if that was the initial fetch
+    private long lastUnknownKeyRefresh = -1;
 
     @Override
     protected JwsSignatureVerifier getInitializedSignatureVerifier(JwsHeaders jwsHeaders) {
         Objects.requireNonNull(jwsHeaders.getKeyId());
-        final JwkHolder jwkHolder = jsonWebKeys.computeIfAbsent(jwsHeaders.getKeyId(), keyId -> updateJwk(keyId));
+        JwkHolder jwkHolder = jsonWebKeys.get(jwsHeaders.getKeyId());
+        if (jwkHolder == null) {
+            jwkHolder = refreshForUnknownKey(jwsHeaders.getKeyId());
+        } else if (refreshInterval > 0) {
+            long now = System.currentTimeMillis();
+            if (now - lastRefresh > refreshInterval
+                && now - lastRefreshFailure >= unknownKeyRefreshInterval) {
+                refreshInBackground();
+            }
+        }
         return jwkHolder != null ? jwkHolder.getJwsSignatureVerifier() : null;
     }
 
@@ -59,31 +100,122 @@ public class JwsJwksJwtAccessTokenValidator extends JwtAccessTokenValidator {
         this.jwksURL = jwksURL;
     }
 
+    /**
+     * Sets how often in milliseconds the keys are fetched again, 0 disables the refresh.
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Sets the minimum time in milliseconds between two fetches of the keys caused by
+     * tokens signed with unknown keys.
+     */
+    public void setUnknownKeyRefreshInterval(long unknownKeyRefreshInterval) {
+        this.unknownKeyRefreshInterval = unknownKeyRefreshInterval;
+    }
+
+    public long getUnknownKeyRefreshInterval() {
+        return unknownKeyRefreshInterval;
+    }
+
+    /**
+     * Sets the executor refreshing the keys in the background. By default the automatic work
+     * queue of the bus is used, or the thread validating the token if there is none.
+     */
+    public void setRefreshExecutor(Executor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+    }
+
     @Override
     public void setJwsVerifier(JwsSignatureVerifier theJwsVerifier) {
         throw new IllegalArgumentException("Actual JwsSignatureVerifier will be populated from the JWK Set URL");
     }
 
-    private JwkHolder updateJwk(String keyId) {
+    private synchronized JwkHolder refreshForUnknownKey(String keyId) {
         Objects.requireNonNull(jwksURL, "JWK Set URL must be specified");
-        JwkHolder jwkHolder = null;
+        // the keys may have been fetched while waiting for the lock
+        JwkHolder jwkHolder = jsonWebKeys.get(keyId);
+        long now = System.currentTimeMillis();
+        if (jwkHolder == null
+            && (lastUnknownKeyRefresh < 0 || now - lastUnknownKeyRefresh >= unknownKeyRefreshInterval)) {
+            boolean initial = lastRefresh == 0;
+            try {
+                updateJwks();
+                if (!initial) {
+                    lastUnknownKeyRefresh = now;
+                }
+            } catch (RuntimeException ex) {
+                lastUnknownKeyRefresh = now;
+                throw ex;
+            }
+            jwkHolder = jsonWebKeys.get(keyId);
+        }
+        return jwkHolder;
+    }
+
+    private void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            Runnable refresh = () -> {
+                try {
+                    synchronized (this) {
+                        updateJwks();
+                    }
+                } catch (RuntimeException ex) {
+                    lastRefreshFailure = System.currentTimeMillis();
+                    LOG.log(Level.FINE, "The JWK Set could not be refreshed", ex);
+                } finally {
+                    refreshing.set(false);
+                }
+            };
+            Executor executor = refreshExecutor != null ? refreshExecutor : getWorkQueue();
+            if (executor != null) {
+                try {
+                    executor.execute(refresh);
+                    return;
+                } catch (RejectedExecutionException ex) {
+                    LOG.log(Level.FINE, "The JWK Set is refreshed by the current thread", ex);
+                }
+            }
+            refresh.run();
+        }
+    }
+
+    private static Executor getWorkQueue() {
+        Message message = PhaseInterceptorChain.getCurrentMessage();
+        Bus bus = message != null && message.getExchange() != null ? message.getExchange().getBus() : null;
+        if (bus == null) {
+            bus = BusFactory.getThreadDefaultBus(false);
+        }
+        WorkQueueManager manager = bus == null ? null : bus.getExtension(WorkQueueManager.class);
+        return manager == null ? null : manager.getAutomaticWorkQueue();
+    }
+
+    private void updateJwks() {
+        final JsonWebKeys keys = getJsonWebKeys();
+        lastRefresh = System.currentTimeMillis();
         final Set<String> kids = new HashSet<>();
-        for (JsonWebKey jwk : getJsonWebKeys().getKeys()) {
+        boolean rotated = false;
+        for (JsonWebKey jwk : keys.getKeys()) {
             if (PublicKeyUse.ENCRYPT != jwk.getPublicKeyUse()) {
                 final String kid = jwk.getKeyId();
                 kids.add(kid);
-                final JwkHolder h = new JwkHolder(jwk);
-                if (keyId.equals(kid)) {
-                    jwkHolder = h;
-                } else {
-                    jsonWebKeys.putIfAbsent(kid, h);
+                final JwkHolder h = jsonWebKeys.get(kid);
+                if (h == null || !h.jsonWebKey.equals(jwk)) {
+                    rotated |= h != null;
+                    jsonWebKeys.put(kid, new JwkHolder(jwk));
                 }
             }
         }
-        jsonWebKeys.keySet().removeIf(not(kids::contains));
-        return jwkHolder;
+        rotated |= jsonWebKeys.keySet().removeIf(not(kids::contains));
+        if (rotated && getTokenCache() != null) {
+            getTokenCache().clear();
+        }
     }
-
     JsonWebKeys getJsonWebKeys() {
         return WebClient.create(jwksURL, Collections.singletonList(new JsonWebKeysProvider()))
             .accept(MediaType.APPLICATION_JSON).get(JsonWebKeys.class);
@@ -32,9 +32,11 @@ public class OAuthServerJoseJwtConsumer extends OAuthJoseJwtConsumer {
     private boolean verifyWithClientCertificates;
 
     public JwtToken getJwtToken(String wrappedJwtToken, Client client) {
+        // the keys depend on the client, so do the cached tokens
         return getJwtToken(wrappedJwtToken,
                            getInitializedDecryptionProvider(client),
-                           getInitializedSignatureVerifier(client));
+                           getInitializedSignatureVerifier(client),
+                           client != null ? client.getClientId() : "");
     }
 
     protected JweDecryptionProvider getInitializedDecryptionProvider(Client c) {
@@ -22,7 +22,6 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MultivaluedMap;
@@ -55,9 +54,7 @@ public abstract class AbstractAccessTokenValidator {
     private List<AccessTokenValidator> tokenHandlers = Collections.emptyList();
     private OAuthDataProvider dataProvider;
 
-    private int maxValidationDataCacheSize;
-    private ConcurrentHashMap<String, AccessTokenValidation> accessTokenValidations =
-        new ConcurrentHashMap<>();
+    private AccessTokenValidationCache validationCache;
     private JoseJwtConsumer jwtTokenConsumer;
     private boolean persistJwtEncoding = true;
 
@@ -105,54 +102,25 @@ public abstract class AbstractAccessTokenValidator {
             throw ExceptionUtils.toInternalServerErrorException(null, null);
         }
 
-        AccessTokenValidation accessTokenV = null;
-        if (maxValidationDataCacheSize > 0) {
-            accessTokenV = accessTokenValidations.get(authSchemeData);
-        }
-        ServerAccessToken localAccessToken = null;
-        if (accessTokenV == null) {
-            // Get the registered handler capable of processing the token
-            AccessTokenValidator handler = findTokenValidator(authScheme);
-            if (handler != null) {
-                try {
-                    // Convert the HTTP Authorization scheme data into a token
-                    accessTokenV = handler.validateAccessToken(getMessageContext(), authScheme, authSchemeData,
-                                                               extraProps);
-                } catch (RuntimeException ex) {
-                    AuthorizationUtils.throwAuthorizationFailure(Collections.singleton(authScheme), realm);
-                }
-            }
-            // Default processing if no registered providers available
-            if (accessTokenV == null && dataProvider != null && authScheme.equals(DEFAULT_AUTH_SCHEME)) {
-                try {
-                    String cacheKey = authSchemeData;
-                    if (!persistJwtEncoding) {
-                        JoseJwtConsumer theConsumer =
-                            jwtTokenConsumer == null ? new JoseJwtConsumer() : jwtTokenConsumer;
-                        JwtToken token = theConsumer.getJwtToken(authSchemeData);
-                        cacheKey = token.getClaims().getTokenId();
-                    }
-
-                    localAccessToken = dataProvider.getAccessToken(cacheKey);
-                } catch (JwtException | OAuthServiceException ex) {
-                    // to be handled next
-                }
-                if (localAccessToken == null) {
-                    AuthorizationUtils.throwAuthorizationFailure(
-                        Collections.singleton(authScheme), realm);
-                }
-                accessTokenV = new AccessTokenValidation(localAccessToken);
-            }
+        // Set if the token has been loaded from the data provider by this request
+        final ServerAccessToken[] localAccessToken = new ServerAccessToken[1];
+        AccessTokenValidation accessTokenV;
+        if (validationCache != null) {
+            accessTokenV = validationCache.getValidation(authSchemeData,
+                () -> validateAccessToken(authScheme, authSchemeData, extraProps, localAccessToken));
+        } else {
+            accessTokenV = validateAccessToken(authScheme, authSchemeData, extraProps, localAccessToken);
         }
         if (accessTokenV == null) {
             AuthorizationUtils.throwAuthorizationFailure(supportedSchemes, realm);
         }
         // Check if token is still valid
         if (OAuthUtils.isExpired(accessTokenV.getTokenIssuedAt(), accessTokenV.getTokenLifetime())) {
-            if (localAccessToken != null) {
-                removeAccessToken(localAccessToken);
-            } else if (maxValidationDataCacheSize > 0) {
-                accessTokenValidations.remove(authSchemeData);
+            if (validationCache != null) {
+                validationCache.remove(authSchemeData);
+            }
+            if (localAccessToken[0] != null) {
+                removeAccessToken(localAccessToken[0]);
             }
             AuthorizationUtils.throwAuthorizationFailure(supportedSchemes, realm);
         }
@@ -162,12 +130,51 @@ public abstract class AbstractAccessTokenValidator {
             && accessTokenV.getTokenNotBefore() > System.currentTimeMillis() / 1000L) {
             AuthorizationUtils.throwAuthorizationFailure(supportedSchemes, realm);
         }
-        if (maxValidationDataCacheSize > 0) {
-            if (accessTokenValidations.size() >= maxValidationDataCacheSize) {
-                // or delete the ones expiring sooner than others, etc
-                accessTokenValidations.clear();
+        return accessTokenV;
+    }
+
+    /**
+     * Validates the token with the registered validators or the data provider, the result
+     * is cached by the validation cache if any.
+     */
+    private AccessTokenValidation validateAccessToken(String authScheme, String authSchemeData,
+                                                      MultivaluedMap<String, String> extraProps,
+                                                      ServerAccessToken[] localAccessToken) {
+        AccessTokenValidation accessTokenV = null;
+        // Get the registered handler capable of processing the token
+        AccessTokenValidator handler = findTokenValidator(authScheme);
+        if (handler != null) {
+            try {
+                // Convert the HTTP Authorization scheme data into a token
+                accessTokenV = handler.validateAccessToken(getMessageContext(), authScheme, authSchemeData,
+                                                           extraProps);
+            } catch (RuntimeException ex) {
+                AuthorizationUtils.throwAuthorizationFailure(Collections.singleton(authScheme), realm);
             }
-            accessTokenValidations.put(authSchemeData, accessTokenV);
+        }
+        // Default processing if no registered providers available
+        if (accessTokenV == null && dataProvider != null && authScheme.equals(DEFAULT_AUTH_SCHEME)) {
+            try {
+                String cacheKey = authSchemeData;
+                if (!persistJwtEncoding) {
+                    JoseJwtConsumer theConsumer =
+                        jwtTokenConsumer == null ? new JoseJwtConsumer() : jwtTokenConsumer;
+                    JwtToken token = theConsumer.getJwtToken(authSchemeData);
+                    cacheKey = token.getClaims().getTokenId();
+                }
+
+                localAccessToken[0] = dataProvider.getAccessToken(cacheKey);
+            } catch (JwtException | OAuthServiceException ex) {
+                // to be handled next
+            }
+            if (localAccessToken[0] == null) {
+                AuthorizationUtils.throwAuthorizationFailure(
+                    Collections.singleton(authScheme), realm);
+            }
+            accessTokenV = new AccessTokenValidation(localAccessToken[0]);
+        }
+        if (accessTokenV == null) {
+            AuthorizationUtils.throwAuthorizationFailure(supportedSchemes, realm);
         }
         return accessTokenV;
     }
@@ -182,8 +189,21 @@ public abstract class AbstractAccessTokenValidator {
         this.realm = realm;
     }
 
+    /**
+     * Enables the caching of the token validations with an {@link AccessTokenValidationCache}
+     * of the given size.
+     */
     public void setMaxValidationDataCacheSize(int maxValidationDataCacheSize) {
-        this.maxValidationDataCacheSize = maxValidationDataCacheSize;
+        this.validationCache = maxValidationDataCacheSize > 0
+            ? new AccessTokenValidationCache(maxValidationDataCacheSize) : null;
+    }
+
+    public AccessTokenValidationCache getValidationCache() {
+        return validationCache;
+    }
+
+    public void setValidationCache(AccessTokenValidationCache validationCache) {
+        this.validationCache = validationCache;
     }
 
     public JoseJwtConsumer getJwtTokenConsumer() {
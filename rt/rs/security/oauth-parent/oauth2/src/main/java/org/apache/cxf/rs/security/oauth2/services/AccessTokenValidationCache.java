@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.services;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+
+/**
+ * Caches the results of the access token validations, in particular of the remote
+ * introspection calls, keyed by the token.
+ *
+ * A validation is kept until the token expires but no longer than the time to live.
+ * Tokens which were reported as not active are cached for the negative time to live so that
+ * a replayed invalid token does not cause a remote call per request. Validations which fail
+ * with an exception are not cached. Concurrent lookups of the same token wait for a single
+ * validation, and validate the token themselves if it fails.
+ */
+public class AccessTokenValidationCache {
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final int DEFAULT_TIME_TO_LIVE = 300;
+    public static final int DEFAULT_NEGATIVE_TIME_TO_LIVE = 5;
+
+    // completes the entry of a failed validation, the waiting lookups validate again
+    private static final AccessTokenValidation FAILED = new AccessTokenValidation();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private int timeToLive = DEFAULT_TIME_TO_LIVE;
+    private int negativeTimeToLive = DEFAULT_NEGATIVE_TIME_TO_LIVE;
+
+    public AccessTokenValidationCache() {
+    }
+
+    public AccessTokenValidationCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached validation of the token, or the one returned by the validator.
+     * An exception thrown by the validator is only thrown to the caller which invoked it.
+     */
+    public AccessTokenValidation getValidation(String token, Supplier<AccessTokenValidation> validator) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry entry = entries.get(token);
+            if (entry == null || entry.expires <= now) {
+                Entry created = new Entry();
+                entry = entries.compute(token, (k, e) -> e != null && e.expires > now ? e : created);
+                if (entry == created) {
+                    return validate(token, created, validator, now);
+                }
+            }
+            AccessTokenValidation validation = entry.future.join();
+            if (validation != FAILED) {
+                return validation;
+            }
+        }
+    }
+
+    private AccessTokenValidation validate(String token, Entry entry,
+                                           Supplier<AccessTokenValidation> validator, long now) {
+        AccessTokenValidation validation;
+        try {
+            validation = validator.get();
+        } catch (RuntimeException | Error ex) {
+            entries.remove(token, entry);
+            entry.future.complete(FAILED);
+            throw ex;
+        }
+        entry.expires = getExpiryTime(validation, now);
+        entry.future.complete(validation);
+        if (entry.expires <= now) {
+            entries.remove(token, entry);
+        } else if (entries.size() > maxSize) {
+            evict(now);
+        }
+        return validation;
+    }
+
+    public void remove(String token) {
+        entries.remove(token);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    protected long getExpiryTime(AccessTokenValidation validation, long now) {
+        if (validation == null || !validation.isInitialValidationSuccessful()) {
+            return now + negativeTimeToLive * 1000L;
+        }
+        long expires = now + timeToLive * 1000L;
+        if (validation.getTokenLifetime() > 0) {
+            expires = Math.min(expires,
+                (validation.getTokenIssuedAt() + validation.getTokenLifetime()) * 1000L);
+        }
+        return expires;
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expires <= now);
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && entries.size() > maxSize;) {
+            if (it.next().future.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Sets the maximum time in seconds a validation is kept, tokens expiring earlier are
+     * removed when they expire.
+     */
+    public void setTimeToLive(int timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public int getNegativeTimeToLive() {
+        return negativeTimeToLive;
+    }
+
+    /**
+     * Sets how long in seconds a token which was reported as not active is remembered.
+     */
+    public void setNegativeTimeToLive(int negativeTimeToLive) {
+        this.negativeTimeToLive = negativeTimeToLive;
+    }
+
+    private static final class Entry {
+        final CompletableFuture<AccessTokenValidation> future = new CompletableFuture<>();
+        // in flight validations do not expire
+        volatile long expires = Long.MAX_VALUE;
+    }
+}
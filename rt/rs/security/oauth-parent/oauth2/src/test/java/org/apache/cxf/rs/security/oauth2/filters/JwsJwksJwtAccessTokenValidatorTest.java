@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.oauth2.filters;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
 import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
@@ -30,6 +31,7 @@ import org.apache.cxf.rs.security.jose.jws.NoneJwsSignatureVerifier;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class JwsJwksJwtAccessTokenValidatorTest {
 
@@ -72,6 +74,74 @@ public class JwsJwksJwtAccessTokenValidatorTest {
             validator.jsonWebKeys.keySet());
     }
 
+    @Test
+    public void testUnknownKeyRefreshIsRateLimited() throws Exception {
+        final JsonWebKey jwk1 = new JsonWebKey();
+        jwk1.setKeyId("kid1");
+        final AtomicInteger invokeCnt = new AtomicInteger();
+        final JwsJwksJwtAccessTokenValidator validator = new JwsJwksJwtAccessTokenValidator() {
+            @Override
+            JsonWebKeys getJsonWebKeys() {
+                invokeCnt.incrementAndGet();
+                return new JsonWebKeys(jwk1);
+            }
+        };
+        validator.setJwksURL("https://any.url");
+        validator.setRefreshExecutor(Runnable::run);
+
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        assertEquals(1, invokeCnt.get());
+        // the first unknown key is looked up, the next ones only after the interval
+        assertNull(validator.getInitializedSignatureVerifier(new JwsHeaders("unknown1")));
+        assertNull(validator.getInitializedSignatureVerifier(new JwsHeaders("unknown2")));
+        assertEquals(2, invokeCnt.get());
+
+        validator.setUnknownKeyRefreshInterval(0);
+        validator.getInitializedSignatureVerifier(new JwsHeaders("unknown3"));
+        assertEquals(3, invokeCnt.get());
+
+        // known keys are refreshed in the background
+        validator.setRefreshInterval(50);
+        Thread.sleep(100);
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        assertEquals(4, invokeCnt.get());
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        assertEquals(4, invokeCnt.get());
+    }
+
+    @Test
+    public void testFailedRefreshIsRetried() throws Exception {
+        final JsonWebKey jwk1 = new JsonWebKey();
+        jwk1.setKeyId("kid1");
+        final AtomicInteger invokeCnt = new AtomicInteger();
+        final JwsJwksJwtAccessTokenValidator validator = new JwsJwksJwtAccessTokenValidator() {
+            @Override
+            JsonWebKeys getJsonWebKeys() {
+                if (invokeCnt.incrementAndGet() == 2) {
+                    throw new IllegalStateException();
+                }
+                return new JsonWebKeys(jwk1);
+            }
+        };
+        validator.setJwksURL("https://any.url");
+        validator.setRefreshExecutor(Runnable::run);
+        validator.setRefreshInterval(50);
+        validator.setUnknownKeyRefreshInterval(50);
+
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        Thread.sleep(100);
+        // the refresh fails and is not retried before the unknown key refresh interval
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        assertEquals(2, invokeCnt.get());
+
+        Thread.sleep(100);
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        assertEquals(3, invokeCnt.get());
+        validator.getInitializedSignatureVerifier(new JwsHeaders("kid1"));
+        assertEquals(3, invokeCnt.get());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testSetJwsVerifier() {
         new JwsJwksJwtAccessTokenValidator().setJwsVerifier(new NoneJwsSignatureVerifier());
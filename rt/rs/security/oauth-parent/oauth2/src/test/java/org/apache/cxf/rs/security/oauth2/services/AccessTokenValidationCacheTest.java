@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.services;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AccessTokenValidationCacheTest {
+
+    private final AtomicInteger validations = new AtomicInteger();
+
+    @Test
+    public void testValidationIsCached() {
+        AccessTokenValidationCache cache = new AccessTokenValidationCache();
+        AccessTokenValidation atv = createValidation(true, 3600);
+        assertSame(atv, cache.getValidation("a", () -> validate(atv)));
+        assertSame(atv, cache.getValidation("a", () -> validate(atv)));
+        assertEquals(1, validations.get());
+
+        cache.remove("a");
+        cache.getValidation("a", () -> validate(atv));
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    public void testExpiredTokenIsNotCached() {
+        AccessTokenValidationCache cache = new AccessTokenValidationCache();
+        AccessTokenValidation atv = createValidation(true, 1);
+        atv.setTokenIssuedAt(System.currentTimeMillis() / 1000 - 10);
+        cache.getValidation("a", () -> validate(atv));
+        cache.getValidation("a", () -> validate(atv));
+        assertEquals(2, validations.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNegativeCaching() {
+        AccessTokenValidationCache cache = new AccessTokenValidationCache();
+        AccessTokenValidation inactive = createValidation(false, 3600);
+        assertSame(inactive, cache.getValidation("a", () -> validate(inactive)));
+        assertSame(inactive, cache.getValidation("a", () -> validate(inactive)));
+        assertEquals(1, validations.get());
+
+        cache.setNegativeTimeToLive(0);
+        cache.getValidation("b", () -> validate(inactive));
+        cache.getValidation("b", () -> validate(inactive));
+        assertEquals(3, validations.get());
+    }
+
+    @Test
+    public void testFailureIsNotCached() {
+        AccessTokenValidationCache cache = new AccessTokenValidationCache();
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.getValidation("a", () -> {
+                    validations.incrementAndGet();
+                    throw new IllegalStateException("unavailable");
+                });
+                fail("Exception expected");
+            } catch (IllegalStateException ex) {
+                // expected
+            }
+        }
+        assertEquals(2, validations.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        AccessTokenValidationCache cache = new AccessTokenValidationCache(2);
+        AccessTokenValidation atv = createValidation(true, 3600);
+        for (String token : new String[] {"a", "b", "c"}) {
+            cache.getValidation(token, () -> validate(atv));
+        }
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testConcurrentLookupsAreValidatedOnce() throws Exception {
+        AccessTokenValidationCache cache = new AccessTokenValidationCache();
+        AccessTokenValidation atv = createValidation(true, 3600);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AccessTokenValidation> first = executor.submit(() -> cache.getValidation("a", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return validate(atv);
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<AccessTokenValidation> second = executor.submit(() -> cache.getValidation("a",
+                () -> validate(atv)));
+            release.countDown();
+            assertSame(atv, first.get(10, TimeUnit.SECONDS));
+            assertSame(atv, second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, validations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentLookupValidatesAfterFailure() throws Exception {
+        AccessTokenValidationCache cache = new AccessTokenValidationCache();
+        AccessTokenValidation atv = createValidation(true, 3600);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AccessTokenValidation> first = executor.submit(() -> cache.getValidation("a", () -> {
+                validations.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("unavailable");
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<AccessTokenValidation> second = executor.submit(() -> cache.getValidation("a",
+                () -> validate(atv)));
+            release.countDown();
+            try {
+                first.get(10, TimeUnit.SECONDS);
+                fail("Exception expected");
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof IllegalStateException);
+            }
+            assertSame(atv, second.get(10, TimeUnit.SECONDS));
+            assertEquals(2, validations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AccessTokenValidation validate(AccessTokenValidation atv) {
+        validations.incrementAndGet();
+        return atv;
+    }
+
+    private static AccessTokenValidation createValidation(boolean active, long lifetime) {
+        AccessTokenValidation atv = new AccessTokenValidation();
+        atv.setInitialValidationSuccessful(active);
+        atv.setTokenIssuedAt(System.currentTimeMillis() / 1000);
+        atv.setTokenLifetime(lifetime);
+        return atv;
+    }
+}
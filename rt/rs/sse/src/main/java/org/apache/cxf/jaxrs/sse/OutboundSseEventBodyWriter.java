@@ -72,6 +72,11 @@ public class OutboundSseEventBodyWriter implements MessageBodyWriter<OutboundSse
             MediaType mt, MultivaluedMap<String, Object> headers, OutputStream os)
                 throws IOException, WebApplicationException {
 
+        if (p instanceof SerializedOutboundSseEvent) {
+            ((SerializedOutboundSseEvent)p).writeTo(os);
+            return;
+        }
+
         if (p.getName() != null) {
             os.write(EVENT);
             os.write(p.getName().getBytes(StandardCharsets.UTF_8));
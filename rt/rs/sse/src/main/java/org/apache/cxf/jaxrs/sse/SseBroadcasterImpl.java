@@ -18,30 +18,72 @@
  */
 package org.apache.cxf.jaxrs.sse;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.servlet.AsyncContext;
 import javax.servlet.AsyncEvent;
 import javax.servlet.AsyncListener;
+import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.sse.OutboundSseEvent;
 import javax.ws.rs.sse.SseBroadcaster;
 import javax.ws.rs.sse.SseEventSink;
 
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * Broadcasts the events to the registered sinks. An event sent to more than one sink is
+ * serialized once and the same bytes are queued to every sink. The subscribers are
+ * partitioned into shards: when an executor is configured the shards are fanned out as
+ * separate tasks, otherwise all the sinks are visited by the broadcasting thread. Either
+ * way a slow client only fills its own buffer, see {@link SseEventSinkImpl.OverflowPolicy}.
+ */
 public final class SseBroadcasterImpl implements SseBroadcaster {
-    private final Set<SseEventSink> subscribers = new CopyOnWriteArraySet<>();
+    public static final String SHARDS_PROPERTY = "org.apache.cxf.sse.broadcaster.shards";
+    public static final String WORK_QUEUE_PROPERTY = "org.apache.cxf.sse.broadcaster.workqueue";
+
+    private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation [] {};
+    private static final Logger LOG = LogUtils.getL7dLogger(SseBroadcasterImpl.class);
+
+    private final Set<SseEventSink>[] shards;
+    private final Executor executor;
     private final Set<Consumer<SseEventSink>> closers = new CopyOnWriteArraySet<>();
     private final Set<BiConsumer<SseEventSink, Throwable>> exceptioners = new CopyOnWriteArraySet<>();
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
+    public SseBroadcasterImpl() {
+        this(null, 1);
+    }
+
+    /**
+     * @param executor the executor the shards are broadcasted on, null to broadcast on
+     *        the calling thread
+     * @param shardCount the number of shards the subscribers are partitioned into
+     */
+    @SuppressWarnings("unchecked")
+    public SseBroadcasterImpl(Executor executor, int shardCount) {
+        this.executor = executor;
+        this.shards = new Set[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
     @Override
     public void register(SseEventSink sink) {
         assertNotClosed();
@@ -52,19 +94,19 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
         ctx.addListener(new AsyncListener() {
             @Override
             public void onComplete(AsyncEvent asyncEvent) throws IOException {
-                subscribers.remove(sink);
+                shardOf(sink).remove(sink);
                 // The SseEventSinkImpl completes the asynchronous operation on close() method call.
                 closers.forEach(closer -> closer.accept(sink));
             }
 
             @Override
             public void onTimeout(AsyncEvent asyncEvent) throws IOException {
-                subscribers.remove(sink);
+                shardOf(sink).remove(sink);
             }
 
             @Override
             public void onError(AsyncEvent asyncEvent) throws IOException {
-                subscribers.remove(sink);
+                shardOf(sink).remove(sink);
                 // Propagate the error from SseEventSinkImpl asynchronous context
                 exceptioners.forEach(exceptioner -> exceptioner.accept(sink, asyncEvent.getThrowable()));
             }
@@ -75,25 +117,105 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
             }
         });
 
-        subscribers.add(sink);
+        shardOf(sink).add(sink);
+    }
+
+    /**
+     * Returns a snapshot of the registered sinks, for example to monitor their
+     * {@link SseEventSinkImpl#getLag() lag}.
+     */
+    public Collection<SseEventSink> getSubscribers() {
+        final Collection<SseEventSink> subscribers = new ArrayList<>();
+        for (Set<SseEventSink> shard : shards) {
+            subscribers.addAll(shard);
+        }
+        return subscribers;
     }
 
     @Override
     public CompletionStage<?> broadcast(OutboundSseEvent event) {
         assertNotClosed();
 
+        final OutboundSseEvent shared = serialize(event);
+        final CompletableFuture<?>[] futures = new CompletableFuture[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            final Set<SseEventSink> shard = shards[i];
+            if (executor == null || shard.isEmpty()) {
+                futures[i] = broadcast(shard, shared);
+            } else {
+                futures[i] = fanOut(shard, shared);
+            }
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    private CompletableFuture<?> fanOut(Set<SseEventSink> shard, OutboundSseEvent event) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> broadcast(shard, event).whenComplete((r, ex) -> {
+                if (ex != null) {
+                    future.completeExceptionally(ex);
+                } else {
+                    future.complete(null);
+                }
+            }));
+        } catch (RejectedExecutionException ex) {
+            LOG.fine("The SSE broadcast executor is saturated, broadcasting on the calling thread");
+            return broadcast(shard, event);
+        }
+        return future;
+    }
+
+    private CompletableFuture<?> broadcast(Set<SseEventSink> shard, OutboundSseEvent event) {
         final Collection<CompletableFuture<?>> futures = new ArrayList<>();
-        for (SseEventSink sink: subscribers) {
+        for (SseEventSink sink: shard) {
             try {
                 futures.add(sink.send(event).toCompletableFuture());
             } catch (final Exception ex) {
                 exceptioners.forEach(exceptioner -> exceptioner.accept(sink, ex));
             }
         }
-        
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    /**
+     * Serializes the event once so that the sinks only have to copy the bytes. The event is
+     * broadcasted as it is when there is a single subscriber or the serialization fails, in
+     * which case every sink reports the failure on its own as before.
+     */
+    private OutboundSseEvent serialize(OutboundSseEvent event) {
+        if (event instanceof SerializedOutboundSseEvent) {
+            return event;
+        }
+        SseEventSinkImpl first = null;
+        int count = 0;
+        for (Set<SseEventSink> shard : shards) {
+            for (SseEventSink sink : shard) {
+                if (first == null && sink instanceof SseEventSinkImpl) {
+                    first = (SseEventSinkImpl)sink;
+                }
+                if (++count > 1 && first != null) {
+                    break;
+                }
+            }
+        }
+        if (count < 2 || first == null || first.getWriter() == null) {
+            return event;
+        }
+
+        final MessageBodyWriter<OutboundSseEvent> writer = first.getWriter();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try {
+            writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
+                event.getMediaType(), null, bos);
+            return new SerializedOutboundSseEvent(event, bos.toByteArray());
+        } catch (final Exception ex) {
+            LOG.log(Level.FINE, "Unable to serialize the SSE event once for all the subscribers", ex);
+            return event;
+        }
+    }
+
     @Override
     public void onClose(Consumer<SseEventSink> subscriber) {
         assertNotClosed();
@@ -109,12 +231,18 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
     @Override
     public void close() {
         if (closed.compareAndSet(false, true)) {
-            subscribers.forEach(subscriber -> {
-                subscriber.close();
-            });
+            for (Set<SseEventSink> shard : shards) {
+                shard.forEach(subscriber -> {
+                    subscriber.close();
+                });
+            }
         }
     }
 
+    private Set<SseEventSink> shardOf(SseEventSink sink) {
+        return shards[(System.identityHashCode(sink) & Integer.MAX_VALUE) % shards.length];
+    }
+
     private void assertNotClosed() {
         if (closed.get()) {
             throw new IllegalStateException("The SSE broadcaster is already closed");
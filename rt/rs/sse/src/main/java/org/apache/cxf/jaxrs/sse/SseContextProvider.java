@@ -18,14 +18,30 @@
  */
 package org.apache.cxf.jaxrs.sse;
 
+import java.util.concurrent.Executor;
+
 import javax.ws.rs.sse.Sse;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.jaxrs.ext.ContextProvider;
 import org.apache.cxf.message.Message;
+import org.apache.cxf.workqueue.WorkQueueManager;
 
 public class SseContextProvider implements ContextProvider<Sse> {
     @Override
     public Sse createContext(Message message) {
-        return new SseImpl();
+        final Integer shards = PropertyUtils.getInteger(message, SseBroadcasterImpl.SHARDS_PROPERTY);
+        return new SseImpl(getExecutor(message), shards == null ? 1 : shards);
+    }
+
+    private static Executor getExecutor(Message message) {
+        final Object queueName = message.getContextualProperty(SseBroadcasterImpl.WORK_QUEUE_PROPERTY);
+        final Bus bus = message.getExchange() == null ? null : message.getExchange().getBus();
+        if (queueName == null || bus == null) {
+            return null;
+        }
+        final WorkQueueManager manager = bus.getExtension(WorkQueueManager.class);
+        return manager == null ? null : manager.getNamedWorkQueue(queueName.toString());
     }
 }
@@ -20,12 +20,16 @@
 
 package org.apache.cxf.jaxrs.sse;
 
+import java.util.Locale;
+import java.util.logging.Logger;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.sse.OutboundSseEvent;
 import javax.ws.rs.sse.SseEventSink;
 
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.jaxrs.ext.ContextProvider;
 import org.apache.cxf.jaxrs.impl.AsyncResponseImpl;
@@ -34,6 +38,11 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.transport.http.AbstractHTTPDestination;
 
 public class SseEventSinkContextProvider implements ContextProvider<SseEventSink> {
+    private static final Logger LOG = LogUtils.getL7dLogger(SseEventSinkContextProvider.class);
+
+    // the policy is rarely changed, so the last value is only parsed once
+    private volatile ParsedOverflowPolicy lastOverflowPolicy;
+
     @Override
     public SseEventSink createContext(Message message) {
         final HttpServletRequest request = (HttpServletRequest)message.get(AbstractHTTPDestination.HTTP_REQUEST);
@@ -48,11 +57,36 @@ public class SseEventSinkContextProvider implements ContextProvider<SseEventSink
         final Integer bufferSize = PropertyUtils.getInteger(message, SseEventSinkImpl.BUFFER_SIZE_PROPERTY);
         
         final SseEventSink sink = createSseEventSink(request, writer, async, bufferSize);
+        if (sink instanceof SseEventSinkImpl) {
+            final Object policy = message.getContextualProperty(SseEventSinkImpl.OVERFLOW_POLICY_PROPERTY);
+            if (policy != null) {
+                ((SseEventSinkImpl)sink).setOverflowPolicy(getOverflowPolicy(policy.toString()));
+            }
+        }
         message.put(SseEventSink.class, sink);
         
         return sink;
     }
 
+    private SseEventSinkImpl.OverflowPolicy getOverflowPolicy(String value) {
+        ParsedOverflowPolicy parsed = lastOverflowPolicy;
+        if (parsed == null || !parsed.value.equals(value)) {
+            parsed = new ParsedOverflowPolicy(value, parseOverflowPolicy(value));
+            lastOverflowPolicy = parsed;
+        }
+        return parsed.policy;
+    }
+
+    private static SseEventSinkImpl.OverflowPolicy parseOverflowPolicy(String value) {
+        try {
+            return SseEventSinkImpl.OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException ex) {
+            LOG.warning("Invalid " + SseEventSinkImpl.OVERFLOW_POLICY_PROPERTY + " value '" + value
+                + "', using " + SseEventSinkImpl.OverflowPolicy.REJECT);
+            return SseEventSinkImpl.OverflowPolicy.REJECT;
+        }
+    }
+
     protected SseEventSink createSseEventSink(final HttpServletRequest request,
             final MessageBodyWriter<OutboundSseEvent> writer,
             final AsyncResponse async, final Integer bufferSize) {
@@ -62,4 +96,14 @@ public class SseEventSinkContextProvider implements ContextProvider<SseEventSink
             return new SseEventSinkImpl(writer, async, request.getAsyncContext());
         }
     }
-}
\ No newline at end of file
+
+    private static final class ParsedOverflowPolicy {
+        final String value;
+        final SseEventSinkImpl.OverflowPolicy policy;
+
+        ParsedOverflowPolicy(String value, SseEventSinkImpl.OverflowPolicy policy) {
+            this.value = value;
+            this.policy = policy;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
 
@@ -43,6 +44,20 @@ import org.apache.cxf.common.logging.LogUtils;
 
 public class SseEventSinkImpl implements SseEventSink {
     public static final String BUFFER_SIZE_PROPERTY = "org.apache.cxf.sse.sink.buffer.size";
+    public static final String OVERFLOW_POLICY_PROPERTY = "org.apache.cxf.sse.sink.overflow.policy";
+
+    /**
+     * What happens to an event sent while the buffer is full, typically because the client
+     * does not consume the events as fast as they are produced.
+     */
+    public enum OverflowPolicy {
+        /** The new event is rejected, its completion stage fails (default). */
+        REJECT,
+        /** The oldest queued event is dropped (and fails) to make room for the new one. */
+        DROP_OLDEST,
+        /** The slow client is disconnected, the queued events fail. */
+        DISCONNECT
+    }
     
     private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation [] {};
     private static final Logger LOG = LogUtils.getL7dLogger(SseEventSinkImpl.class);
@@ -56,6 +71,8 @@ public class SseEventSinkImpl implements SseEventSink {
     private final AtomicReference<Throwable> throwable = new AtomicReference<>();
     private final AtomicBoolean completed = new AtomicBoolean(false);
     private final int bufferSize;
+    private final LongAdder dropped = new LongAdder();
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
 
     /**
      * Create new SseEventSink implementation with the default buffer size of 10000
@@ -124,6 +141,41 @@ public class SseEventSinkImpl implements SseEventSink {
     public AsyncContext getAsyncContext() {
         return ctx;
     }
+
+    MessageBodyWriter<OutboundSseEvent> getWriter() {
+        return writer;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.REJECT : overflowPolicy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the number of events accepted but not written yet.
+     */
+    public int getQueuedEventCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns the number of events dropped or rejected because the buffer was full.
+     */
+    public long getDroppedEventCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns how long (in milliseconds) the oldest event not written yet has been waiting
+     * in the buffer, 0 if the client is keeping up.
+     */
+    public long getLag() {
+        final QueuedEvent oldest = buffer.peek();
+        return oldest == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueued);
+    }
     
     @Override
     public void close() {
@@ -189,14 +241,19 @@ public class SseEventSinkImpl implements SseEventSink {
             final Throwable ex = throwable.get(); 
             if (ex != null) {
                 future.completeExceptionally(ex);
-            } else if (buffer.offer(new QueuedEvent(event, future))) {
+            } else if (enqueue(new QueuedEvent(event, future))) {
                 if (dispatching.compareAndSet(false, true)) {
                     ctx.start(this::dequeue);
                 }
             } else {
-                future.completeExceptionally(new IllegalStateException("The buffer is full (" 
+                dropped.increment();
+                final IllegalStateException overflow = new IllegalStateException("The buffer is full ("
                     + bufferSize + "), unable to queue SSE event for send. Please use '" 
-                        + BUFFER_SIZE_PROPERTY + "' property to increase the limit."));
+                        + BUFFER_SIZE_PROPERTY + "' property to increase the limit.");
+                future.completeExceptionally(overflow);
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    disconnect(overflow);
+                }
             }
         } else {
             future.completeExceptionally(new IllegalStateException(
@@ -206,6 +263,39 @@ public class SseEventSinkImpl implements SseEventSink {
         return future;
     }
 
+    private boolean enqueue(QueuedEvent queuedEvent) {
+        if (buffer.offer(queuedEvent)) {
+            return true;
+        }
+        if (overflowPolicy != OverflowPolicy.DROP_OLDEST) {
+            return false;
+        }
+        do {
+            final QueuedEvent oldest = buffer.poll();
+            if (oldest != null) {
+                dropped.increment();
+                oldest.completion.completeExceptionally(new IllegalStateException("The buffer is full ("
+                    + bufferSize + "), the SSE event has been dropped in favor of a newer one"));
+            }
+        } while (!buffer.offer(queuedEvent));
+        return true;
+    }
+
+    /**
+     * Disconnects a client which does not keep up: the sends fail from now on and the sink
+     * is closed on a container thread, as close() may have to wait for the event being written.
+     */
+    private void disconnect(Throwable ex) {
+        if (throwable.compareAndSet(null, ex)) {
+            LOG.warning("Disconnecting the SSE client as it does not consume the events fast enough");
+            try {
+                ctx.start(this::close);
+            } catch (final IllegalStateException e) {
+                close();
+            }
+        }
+    }
+
     /**
      * Processes the buffered events and sends the off to the output channel. There  is
      * a special handling for the IOException, which forces the sink to switch to closed 
@@ -283,6 +373,7 @@ public class SseEventSinkImpl implements SseEventSink {
     private static class QueuedEvent {
         private final OutboundSseEvent event;
         private final CompletableFuture<?> completion;
+        private final long enqueued = System.nanoTime();
 
         QueuedEvent(OutboundSseEvent event, CompletableFuture<?> completion) {
             this.event = event;
@@ -18,12 +18,23 @@
  */
 package org.apache.cxf.jaxrs.sse;
 
+import java.util.concurrent.Executor;
+
 import javax.ws.rs.sse.OutboundSseEvent.Builder;
 import javax.ws.rs.sse.Sse;
 import javax.ws.rs.sse.SseBroadcaster;
 
 class SseImpl implements Sse {
+    private final Executor executor;
+    private final int shards;
+
     SseImpl() {
+        this(null, 1);
+    }
+
+    SseImpl(Executor executor, int shards) {
+        this.executor = executor;
+        this.shards = shards;
     }
 
     @Override
@@ -33,6 +44,6 @@ class SseImpl implements Sse {
 
     @Override
     public SseBroadcaster newBroadcaster() {
-        return new SseBroadcasterImpl();
+        return new SseBroadcasterImpl(executor, shards);
     }
 }
@@ -20,8 +20,13 @@
 package org.apache.cxf.jaxrs.sse;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 import javax.ws.rs.WebApplicationException;
@@ -39,7 +44,12 @@ import org.junit.Test;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SseBroadcasterImplTest {
@@ -119,4 +129,61 @@ public class SseBroadcasterImplTest {
 
         assertThat(adder.intValue(), equalTo(1));
     }
+
+    @Test
+    public void testEventIsSerializedOnce() throws Exception {
+        doAnswer(invocation -> {
+            final Object event = invocation.getArgument(0);
+            if (event instanceof SerializedOutboundSseEvent) {
+                ((SerializedOutboundSseEvent)event).writeTo(invocation.getArgument(6));
+            } else {
+                invocation.<OutputStream>getArgument(6).write("data: a\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        }).when(writer).writeTo(any(), any(), any(), any(), any(), any(), any());
+
+        final MockHttpServletResponse[] responses = new MockHttpServletResponse[3];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new MockHttpServletResponse();
+            broadcaster.register(new SseEventSinkImpl(writer, null,
+                new MockAsyncContext(new MockHttpServletRequest(), responses[i])));
+        }
+
+        final OutboundSseEvent event = new OutboundSseEventImpl.BuilderImpl().data("a").build();
+        broadcaster.broadcast(event).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        // once to serialize the event, once per subscriber to copy the bytes
+        verify(writer, times(1)).writeTo(eq(event), any(), any(), any(), any(), any(), any());
+        verify(writer, times(3)).writeTo(isA(SerializedOutboundSseEvent.class), any(), any(), any(), any(),
+            any(), any());
+        for (MockHttpServletResponse r : responses) {
+            assertThat(r.getContentAsString(), equalTo("data: a\n\n"));
+        }
+    }
+
+    @Test
+    public void testShardsAreBroadcastedOnExecutor() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final SseBroadcasterImpl sharded = new SseBroadcasterImpl(executor, 4);
+            final LongAdder sent = new LongAdder();
+            for (int i = 0; i < 20; i++) {
+                sharded.register(new SseEventSinkImpl(writer, null,
+                    new MockAsyncContext(new MockHttpServletRequest(), new MockHttpServletResponse())) {
+                    @Override
+                    public CompletionStage<?> send(OutboundSseEvent event) {
+                        sent.increment();
+                        return CompletableFuture.completedFuture(null);
+                    }
+                });
+            }
+            assertThat(sharded.getSubscribers().size(), equalTo(20));
+
+            sharded.broadcast(new OutboundSseEventImpl.BuilderImpl().data("a").build())
+                .toCompletableFuture().get(5, TimeUnit.SECONDS);
+            assertThat(sent.intValue(), equalTo(20));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
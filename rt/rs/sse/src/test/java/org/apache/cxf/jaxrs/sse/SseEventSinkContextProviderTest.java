@@ -124,4 +124,37 @@ public class SseEventSinkContextProviderTest {
 
         overflow.join();
     }
+
+    @Test
+    public void testDropOldestOverflowPolicy() {
+        message.put(SseEventSinkImpl.BUFFER_SIZE_PROPERTY, 2);
+        message.put(SseEventSinkImpl.OVERFLOW_POLICY_PROPERTY, "drop_oldest");
+        final SseEventSinkImpl sink = (SseEventSinkImpl)provider.createContext(message);
+
+        final CompletableFuture<?> oldest = sink.send(EVENT).toCompletableFuture();
+        final CompletableFuture<?> older = sink.send(EVENT).toCompletableFuture();
+        final CompletableFuture<?> newest = sink.send(EVENT).toCompletableFuture();
+
+        assertThat(oldest.isCompletedExceptionally(), equalTo(true));
+        assertThat(older.isDone(), equalTo(false));
+        assertThat(newest.isDone(), equalTo(false));
+        assertThat(sink.getQueuedEventCount(), equalTo(2));
+        assertThat(sink.getDroppedEventCount(), equalTo(1L));
+        assertThat(sink.getLag() >= 0, equalTo(true));
+    }
+
+    @Test
+    public void testDisconnectOverflowPolicy() {
+        message.put(SseEventSinkImpl.BUFFER_SIZE_PROPERTY, 1);
+        message.put(SseEventSinkImpl.OVERFLOW_POLICY_PROPERTY, SseEventSinkImpl.OverflowPolicy.DISCONNECT);
+        final SseEventSinkImpl sink = (SseEventSinkImpl)provider.createContext(message);
+
+        sink.send(EVENT);
+        assertThat(sink.send(EVENT).toCompletableFuture().isCompletedExceptionally(), equalTo(true));
+
+        // The client has been disconnected, nothing is accepted anymore
+        final CompletableFuture<?> next = sink.send(EVENT).toCompletableFuture();
+        assertThat(next.isCompletedExceptionally(), equalTo(true));
+        assertThat(sink.getDroppedEventCount(), equalTo(1L));
+    }
 }
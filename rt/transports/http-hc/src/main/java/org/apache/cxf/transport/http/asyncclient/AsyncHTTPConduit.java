@@ -39,6 +39,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import javax.net.ssl.HostnameVerifier;
@@ -99,6 +100,11 @@ import org.apache.http.nio.util.HeapByteBufferAllocator;
 public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
     public static final String USE_ASYNC = "use.async.http.conduit";
 
+    static final String USE_HTTP2 = "org.apache.cxf.transport.http.async.useHttp2";
+    // HTTP/2 needs the optional netty-codec-http2 and netty-handler dependencies
+    static final boolean HTTP2_AVAILABLE = isHttp2Available();
+    private static final AtomicBoolean HTTP2_UNAVAILABLE_LOGGED = new AtomicBoolean();
+
     final AsyncHTTPConduitFactory factory;
     volatile int lastTlsHash = -1;
     volatile Object sslState;
@@ -224,14 +230,45 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
                 .setSocketTimeout((int) csPolicy.getReceiveTimeout())
                 .setConnectionRequestTimeout((int) csPolicy.getConnectionRequestTimeout());
         Proxy p = proxyFactory.createProxy(csPolicy, uri);
+        boolean proxied = false;
         if (p != null && p.type() != Proxy.Type.DIRECT) {
             InetSocketAddress isa = (InetSocketAddress)p.address();
             HttpHost proxy = new HttpHost(isa.getHostString(), isa.getPort());
             b.setProxy(proxy);
+            proxied = true;
         }
         e.setConfig(b.build());
 
         message.put(CXFHttpRequest.class, e);
+        message.put(USE_HTTP2, !proxied && useHttp2(message, csPolicy));
+    }
+
+    private boolean useHttp2(Message message, HTTPClientPolicy csPolicy) {
+        String version = csPolicy.getVersion();
+        if (!"2".equals(version) && !"2.0".equals(version)) {
+            return false;
+        }
+        if (!HTTP2_AVAILABLE) {
+            Level level = HTTP2_UNAVAILABLE_LOGGED.compareAndSet(false, true) ? Level.WARNING : Level.FINE;
+            if (LOG.isLoggable(level)) {
+                LOG.log(level, "HTTP/2 requires netty-codec-http2 and netty-handler, HTTP/1.1 is used instead");
+            }
+            return false;
+        }
+        // the authentication schemes negotiated by HttpAsyncClient need HTTP/1.1
+        return message.getContextualProperty(Credentials.class.getName()) == null
+            && message.getContextualProperty(AuthSchemeProvider.class.getName()) == null;
+    }
+
+    private static boolean isHttp2Available() {
+        try {
+            ClassLoader loader = AsyncHTTPConduit.class.getClassLoader();
+            Class.forName("io.netty.handler.codec.http2.Http2MultiplexHandler", false, loader);
+            Class.forName("io.netty.handler.ssl.SslHandler", false, loader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
     }
 
     private void propagateJaxwsSpecTimeoutSettings(Message message, HTTPClientPolicy csPolicy) {
@@ -503,6 +540,12 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
                 entity.setEntity(null);
             }
 
+            if (isHttp2()) {
+                connectionFuture = new BasicFuture<>(callback);
+                connectHttp2(responseCallback, callback);
+                return;
+            }
+
             HttpClientContext ctx = HttpClientContext.create();
 
             BasicCredentialsProvider credsProvider = new BasicCredentialsProvider() {
@@ -532,14 +575,7 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
                         = RegistryBuilder.<SchemeIOSessionStrategy>create()
                             .register("http", NoopIOSessionStrategy.INSTANCE);
 
-                    // check tlsClientParameters from message header
-                    TLSClientParameters tlsClientParameters = outMessage.get(TLSClientParameters.class);
-                    if (tlsClientParameters == null) {
-                        tlsClientParameters = getTlsClientParameters();
-                    }
-                    if (tlsClientParameters == null) {
-                        tlsClientParameters = new TLSClientParameters();
-                    }
+                    TLSClientParameters tlsClientParameters = findTLSClientParameters();
                     final SSLContext sslcontext = getSSLContext(tlsClientParameters);
                     final HostnameVerifier verifier = org.apache.cxf.transport.https.SSLUtils
                         .getHostnameVerifier(tlsClientParameters);
@@ -599,6 +635,41 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
                       callback);
         }
 
+        private void connectHttp2(CXFResponseCallback responseCallback,
+                                  FutureCallback<Boolean> callback) throws IOException {
+            SSLContext sslcontext = null;
+            HostnameVerifier verifier = null;
+            if ("https".equals(url.getScheme())) {
+                TLSClientParameters tlsClientParameters = findTLSClientParameters();
+                try {
+                    sslcontext = getSSLContext(tlsClientParameters);
+                } catch (GeneralSecurityException e) {
+                    throw new IOException(e);
+                }
+                verifier = org.apache.cxf.transport.https.SSLUtils.getHostnameVerifier(tlsClientParameters);
+            }
+            Http2Exchange exchange = new Http2Exchange(AsyncHTTPConduit.this, this, entity, inbuf, outbuf,
+                                                       responseCallback, callback, csPolicy,
+                                                       sslcontext, verifier);
+            factory.getHttp2ConnectionPool().execute(exchange);
+        }
+
+        private boolean isHttp2() {
+            return Boolean.TRUE.equals(outMessage.get(USE_HTTP2));
+        }
+
+        private TLSClientParameters findTLSClientParameters() {
+            // check tlsClientParameters from message header
+            TLSClientParameters clientParameters = outMessage.get(TLSClientParameters.class);
+            if (clientParameters == null) {
+                clientParameters = getTlsClientParameters();
+            }
+            if (clientParameters == null) {
+                clientParameters = new TLSClientParameters();
+            }
+            return clientParameters;
+        }
+
         private boolean isSslTargetDifferent(URI lastURL, URI url) {
             return !lastURL.getScheme().equals(url.getScheme())
                     || !lastURL.getHost().equals(url.getHost())
@@ -825,7 +896,7 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
 
         protected boolean authorizationRetransmit() throws IOException {
             boolean b = super.authorizationRetransmit();
-            if (!b) {
+            if (!b && !isHttp2()) {
                 //HTTPClient may be handling the authorization things instead of us, we
                 //just need to make sure we set the cookies and proceed and HC
                 //will do the negotiation and such.
@@ -114,6 +114,7 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
 
     volatile PoolingNHttpClientConnectionManager connectionManager;
     volatile CloseableHttpAsyncClient client;
+    volatile Http2ConnectionPool http2Pool;
 
     boolean isShutdown;
     UseAsyncPolicy policy;
@@ -151,19 +152,26 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
     }
 
     public void update(Map<String, Object> props) {
-        if (setProperties(props) && client != null) {
+        if (setProperties(props) && (client != null || http2Pool != null)) {
             restartReactor();
         }
     }
 
     private void restartReactor() {
         CloseableHttpAsyncClient client2 = client;
+        Http2ConnectionPool http2Pool2 = http2Pool;
         resetVars();
-        shutdown(client2);
+        if (client2 != null) {
+            shutdown(client2);
+        }
+        if (http2Pool2 != null) {
+            http2Pool2.shutdown();
+        }
     }
     private synchronized void resetVars() {
         client = null;
         connectionManager = null;
+        http2Pool = null;
     }
 
 
@@ -271,6 +279,10 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
             connectionManager = null;
             client = null;
         }
+        if (http2Pool != null) {
+            http2Pool.shutdown();
+            http2Pool = null;
+        }
         isShutdown = true;
     }
 
@@ -382,6 +394,17 @@ public class AsyncHTTPConduitFactory implements HTTPConduitFactory {
         return client;
     }
 
+    /**
+     * Gets the pool of the HTTP/2 connections, which shares the I/O thread count,
+     * TCP_NODELAY and CONNECTION_MAX_IDLE settings of the HTTP/1.1 client.
+     */
+    public synchronized Http2ConnectionPool getHttp2ConnectionPool() {
+        if (http2Pool == null) {
+            http2Pool = new Http2ConnectionPool(ioThreadCount, tcpNoDelay, connectionMaxIdle);
+        }
+        return http2Pool;
+    }
+
     public class CloseIdleConnectionThread extends Thread {
 
         private final PoolingNHttpClientConnectionManager connMgr;
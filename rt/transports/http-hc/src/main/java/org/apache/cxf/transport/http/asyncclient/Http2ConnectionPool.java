@@ -0,0 +1,527 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.asyncclient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2GoAwayFrame;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2SettingsFrame;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolConfig.Protocol;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectedListenerFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectorFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+
+/**
+ * The HTTP/2 connections of an {@link AsyncHTTPConduitFactory}. The exchanges to a host
+ * (scheme, host, port and SSLContext) are multiplexed as streams over at most
+ * {@code Http2MaxConnectionsPerHost} connections, each carrying at most
+ * {@code Http2MaxConcurrentStreams} streams, or less if the server says so in its
+ * SETTINGS. Exchanges for which no stream is available wait in a queue for at most the
+ * {@code ConnectionRequestTimeout} of the client policy.
+ *
+ * https connections negotiate h2 with ALPN, http connections use h2c with prior knowledge.
+ * After a connection could not be opened, the next attempt to the same host is delayed,
+ * doubling the delay up to {@link #MAX_CONNECT_BACKOFF} while the attempts keep failing.
+ */
+public class Http2ConnectionPool {
+    static final long MIN_CONNECT_BACKOFF = TimeUnit.MILLISECONDS.toNanos(100);
+    static final long MAX_CONNECT_BACKOFF = TimeUnit.SECONDS.toNanos(10);
+
+    private static final Logger LOG = LogUtils.getL7dLogger(Http2ConnectionPool.class);
+
+    private static final ApplicationProtocolConfig ALPN = new ApplicationProtocolConfig(
+        Protocol.ALPN,
+        SelectorFailureBehavior.NO_ADVERTISE,
+        SelectedListenerFailureBehavior.ACCEPT,
+        ApplicationProtocolNames.HTTP_2);
+
+    private final EventLoopGroup group;
+    private final boolean tcpNoDelay;
+    private final int connectionMaxIdle;
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+    // the https routes of an SSLContext go away with it
+    private final Map<SSLContext, ConcurrentMap<String, Route>> secureRoutes =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile boolean shutdown;
+
+    public Http2ConnectionPool(int ioThreadCount, boolean tcpNoDelay, int connectionMaxIdle) {
+        this.group = new NioEventLoopGroup(ioThreadCount, new DefaultThreadFactory("cxf-http2-client", true));
+        this.tcpNoDelay = tcpNoDelay;
+        this.connectionMaxIdle = connectionMaxIdle;
+    }
+
+    /**
+     * Gets the number of connections which are open or being opened.
+     */
+    public int getConnectionCount() {
+        int count = 0;
+        for (Route route : getRoutes()) {
+            synchronized (route) {
+                count += route.connections.size();
+            }
+        }
+        return count;
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        IOException ex = new IOException("The HTTP/2 connection pool has been shut down");
+        for (Route route : getRoutes()) {
+            List<Http2Exchange> waiting;
+            synchronized (route) {
+                waiting = new ArrayList<>(route.waiting);
+                route.waiting.clear();
+            }
+            for (Http2Exchange exchange : waiting) {
+                exchange.failed(ex);
+            }
+        }
+        routes.clear();
+        secureRoutes.clear();
+        group.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+    }
+
+    private List<Route> getRoutes() {
+        List<Route> all = new ArrayList<>(routes.values());
+        synchronized (secureRoutes) {
+            for (ConcurrentMap<String, Route> sslRoutes : secureRoutes.values()) {
+                all.addAll(sslRoutes.values());
+            }
+        }
+        return all;
+    }
+
+    void execute(Http2Exchange exchange) {
+        if (shutdown) {
+            exchange.failed(new IOException("The HTTP/2 connection pool has been shut down"));
+            return;
+        }
+        URI uri = exchange.uri;
+        boolean secure = "https".equals(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+        String key = uri.getScheme() + "://" + uri.getHost() + ":" + port;
+        ConcurrentMap<String, Route> hostRoutes = secure
+            ? secureRoutes.computeIfAbsent(exchange.sslContext, c -> new ConcurrentHashMap<>())
+            : routes;
+        Route route = hostRoutes.computeIfAbsent(key, k -> new Route(uri.getHost(), port));
+
+        long timeout = exchange.csPolicy.getConnectionRequestTimeout();
+        if (timeout > 0) {
+            exchange.waitTimeout = group.schedule(() -> expire(route, exchange),
+                                                  timeout, TimeUnit.MILLISECONDS);
+        }
+        synchronized (route) {
+            // the limits of the latest policy apply to the whole route
+            route.maxStreams = Math.max(1, exchange.csPolicy.getHttp2MaxConcurrentStreams());
+            route.maxConnections = Math.max(1, exchange.csPolicy.getHttp2MaxConnectionsPerHost());
+            route.waiting.add(exchange);
+        }
+        dispatch(route);
+    }
+
+    /**
+     * Assigns the waiting exchanges to the connections with free streams, and opens a new
+     * connection if the ones being opened will not be able to take all of them, unless the
+     * route is backing off after a failed attempt; it is dispatched again once that is over.
+     */
+    private void dispatch(Route route) {
+        List<Runnable> actions = new ArrayList<>();
+        synchronized (route) {
+            while (!route.waiting.isEmpty()) {
+                Connection connection = route.available();
+                if (connection == null) {
+                    break;
+                }
+                Http2Exchange exchange = route.waiting.poll();
+                if (exchange.isDone()) {
+                    continue;
+                }
+                connection.activeStreams++;
+                actions.add(() -> openStream(connection, exchange));
+            }
+            if (!route.waiting.isEmpty() && !shutdown
+                && route.waiting.size() > route.pendingCapacity()
+                && route.connections.size() < route.maxConnections) {
+                long backoff = route.connectFailures == 0 ? 0 : route.nextConnect - System.nanoTime();
+                if (backoff <= 0) {
+                    Connection connection = new Connection(route);
+                    route.connections.add(connection);
+                    Http2Exchange exchange = route.waiting.peek();
+                    actions.add(() -> connect(connection, exchange));
+                } else if (!route.retryScheduled) {
+                    route.retryScheduled = true;
+                    actions.add(() -> group.schedule(() -> retry(route), backoff, TimeUnit.NANOSECONDS));
+                }
+            }
+        }
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+
+    private void retry(Route route) {
+        synchronized (route) {
+            route.retryScheduled = false;
+        }
+        dispatch(route);
+    }
+
+    private void expire(Route route, Http2Exchange exchange) {
+        boolean removed;
+        synchronized (route) {
+            removed = route.waiting.remove(exchange);
+        }
+        if (removed) {
+            exchange.failed(new IOException("Timeout waiting for an HTTP/2 stream to " + route.host));
+        }
+    }
+
+    private void openStream(Connection connection, Http2Exchange exchange) {
+        if (exchange.waitTimeout != null) {
+            exchange.waitTimeout.cancel(false);
+        }
+        Future<Http2StreamChannel> future = new Http2StreamChannelBootstrap(connection.channel)
+            .handler(exchange.initializer())
+            .open();
+        future.addListener(f -> {
+            if (future.isSuccess()) {
+                Http2StreamChannel stream = future.getNow();
+                stream.closeFuture().addListener(cf -> streamClosed(connection));
+                exchange.start(stream, connection.session);
+            } else {
+                streamClosed(connection);
+                exchange.failed(future.cause());
+            }
+        });
+    }
+
+    private void streamClosed(Connection connection) {
+        Route route = connection.route;
+        synchronized (route) {
+            connection.activeStreams--;
+        }
+        dispatch(route);
+    }
+
+    private void connect(Connection connection, Http2Exchange exchange) {
+        Bootstrap bootstrap = new Bootstrap()
+            .group(group)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, tcpNoDelay)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int)exchange.csPolicy.getConnectionTimeout())
+            .handler(new ChannelInitializer<Channel>() {
+                @Override
+                protected void initChannel(Channel ch) throws Exception {
+                    if (exchange.sslContext != null) {
+                        initTls(ch, connection, exchange);
+                    } else {
+                        initHttp2(ch.pipeline(), connection);
+                    }
+                }
+            });
+        ChannelFuture future = bootstrap.connect(connection.route.host, connection.route.port);
+        synchronized (connection.route) {
+            connection.channel = future.channel();
+        }
+        future.addListener(f -> {
+            if (future.isSuccess()) {
+                future.channel().closeFuture().addListener(cf -> connectionClosed(connection));
+            } else {
+                connection.failure = future.cause();
+                connectionClosed(connection);
+            }
+        });
+    }
+
+    private void initTls(Channel ch, Connection connection, Http2Exchange exchange) {
+        @SuppressWarnings("deprecation")
+        SslContext sslContext = new JdkSslContext(exchange.sslContext, true, null,
+                                                  IdentityCipherSuiteFilter.INSTANCE, ALPN, ClientAuth.NONE);
+        Route route = connection.route;
+        SslHandler sslHandler = sslContext.newHandler(ch.alloc(), route.host, route.port);
+        exchange.conduit.initializeSSLEngine(exchange.sslContext, sslHandler.engine());
+        ch.pipeline().addLast(sslHandler, new AlpnHandler(connection, exchange.hostnameVerifier));
+    }
+
+    private void initHttp2(ChannelPipeline pipeline, Connection connection) {
+        pipeline.addLast(Http2FrameCodecBuilder.forClient()
+                             .initialSettings(Http2Settings.defaultSettings().pushEnabled(false))
+                             .build(),
+                         new Http2MultiplexHandler(RejectPushHandler.INSTANCE));
+        if (connectionMaxIdle > 0) {
+            pipeline.addLast(new IdleStateHandler(0, 0, connectionMaxIdle, TimeUnit.MILLISECONDS));
+        }
+        pipeline.addLast(new ConnectionHandler(connection));
+    }
+
+    private void settingsReceived(Connection connection, Long maxConcurrentStreams) {
+        Route route = connection.route;
+        synchronized (route) {
+            if (maxConcurrentStreams != null) {
+                connection.maxStreams = (int)Math.min(maxConcurrentStreams, Integer.MAX_VALUE);
+            }
+            connection.ready = true;
+            route.connectFailures = 0;
+        }
+        dispatch(route);
+    }
+
+    /**
+     * Stops using a connection for new streams, after a GOAWAY from the server or when it is
+     * closed. The exchanges still waiting fail if the connection could not even be set up and
+     * there is no other one, otherwise they get a new connection.
+     */
+    private void connectionClosed(Connection connection) {
+        Route route = connection.route;
+        List<Http2Exchange> failed = null;
+        synchronized (route) {
+            if (!connection.ready && !connection.closed) {
+                route.connectFailures++;
+                long backoff = MIN_CONNECT_BACKOFF << Math.min(route.connectFailures - 1, 16);
+                route.nextConnect = System.nanoTime() + Math.min(backoff, MAX_CONNECT_BACKOFF);
+            }
+            connection.closed = true;
+            route.connections.remove(connection);
+            if (!connection.ready && route.connections.isEmpty()) {
+                failed = new ArrayList<>(route.waiting);
+                route.waiting.clear();
+            }
+        }
+        if (failed != null) {
+            Throwable cause = connection.failure != null ? connection.failure
+                : new IOException("Could not open an HTTP/2 connection to " + route.host + ":" + route.port);
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.log(Level.FINE, "HTTP/2 connection to " + route.host + " failed", cause);
+            }
+            for (Http2Exchange exchange : failed) {
+                exchange.failed(cause);
+            }
+        } else {
+            dispatch(route);
+        }
+    }
+
+    private void closeIfIdle(Connection connection) {
+        synchronized (connection.route) {
+            if (connection.activeStreams > 0) {
+                return;
+            }
+            connection.closed = true;
+            connection.route.connections.remove(connection);
+        }
+        connection.channel.close();
+    }
+
+    private static final class Route {
+        final String host;
+        final int port;
+        final List<Connection> connections = new ArrayList<>();
+        final Deque<Http2Exchange> waiting = new ArrayDeque<>();
+        int maxStreams;
+        int maxConnections;
+        int connectFailures;
+        long nextConnect;
+        boolean retryScheduled;
+
+        Route(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        Connection available() {
+            for (Connection c : connections) {
+                if (c.ready && !c.closed && c.channel != null
+                    && c.activeStreams < Math.min(c.maxStreams, maxStreams)) {
+                    return c;
+                }
+            }
+            return null;
+        }
+
+        int pendingCapacity() {
+            int capacity = 0;
+            for (Connection c : connections) {
+                if (!c.ready && !c.closed) {
+                    capacity += maxStreams;
+                }
+            }
+            return capacity;
+        }
+    }
+
+    private static final class Connection {
+        final Route route;
+        // the fields below are guarded by the route, except for the ones only used by the event loop
+        Channel channel;
+        int maxStreams = Integer.MAX_VALUE;
+        int activeStreams;
+        boolean ready;
+        boolean closed;
+        volatile SSLSession session;
+        volatile Throwable failure;
+
+        Connection(Route route) {
+            this.route = route;
+        }
+    }
+
+    /**
+     * Sets up HTTP/2 once the server has selected h2 during the TLS handshake.
+     */
+    private final class AlpnHandler extends ApplicationProtocolNegotiationHandler {
+        private final Connection connection;
+        private final HostnameVerifier verifier;
+
+        AlpnHandler(Connection connection, HostnameVerifier verifier) {
+            super(ApplicationProtocolNames.HTTP_1_1);
+            this.connection = connection;
+            this.verifier = verifier;
+        }
+
+        @Override
+        protected void configurePipeline(ChannelHandlerContext ctx, String protocol) throws Exception {
+            String host = connection.route.host;
+            if (!ApplicationProtocolNames.HTTP_2.equals(protocol)) {
+                throw new SSLException("The server " + host + " did not select HTTP/2 (h2) with ALPN");
+            }
+            SSLSession session = ctx.pipeline().get(SslHandler.class).engine().getSession();
+            if (!verifier.verify(host, session)) {
+                throw new SSLException("Could not verify host " + host);
+            }
+            connection.session = session;
+            initHttp2(ctx.pipeline(), connection);
+        }
+
+        @Override
+        protected void handshakeFailure(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            connection.failure = cause;
+            ctx.close();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            connection.failure = cause;
+            ctx.close();
+        }
+    }
+
+    /**
+     * Tracks the connection level frames and events.
+     */
+    private final class ConnectionHandler extends ChannelInboundHandlerAdapter {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            try {
+                if (msg instanceof Http2SettingsFrame) {
+                    Http2Settings settings = ((Http2SettingsFrame)msg).settings();
+                    settingsReceived(connection, settings.maxConcurrentStreams());
+                } else if (msg instanceof Http2GoAwayFrame) {
+                    // the streams already opened complete, the new ones need another connection
+                    connectionClosed(connection);
+                }
+            } finally {
+                ReferenceCountUtil.release(msg);
+            }
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt instanceof IdleStateEvent) {
+                closeIfIdle(connection);
+            } else {
+                super.userEventTriggered(ctx, evt);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            connection.failure = cause;
+            ctx.close();
+        }
+    }
+
+    /**
+     * Server push is disabled in the client settings, so any pushed stream is closed.
+     */
+    @Sharable
+    private static final class RejectPushHandler extends ChannelInboundHandlerAdapter {
+        static final RejectPushHandler INSTANCE = new RejectPushHandler();
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            ctx.close();
+        }
+    }
+}
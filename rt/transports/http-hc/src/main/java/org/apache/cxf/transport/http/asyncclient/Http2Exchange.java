@@ -0,0 +1,462 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.asyncclient;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduit.AsyncWrappedOutputStream;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2HeadersFrame;
+import io.netty.handler.codec.http2.Http2ResetFrame;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * A CXF exchange carried by an HTTP/2 stream of a {@link Http2ConnectionPool} connection.
+ *
+ * The request content is produced from the {@link SharedOutputBuffer} of the conduit output
+ * stream while the stream is writable, so the HTTP/2 flow control window of the stream
+ * throttles the writing thread just like a full socket buffer does for HTTP/1.1. The response
+ * content is consumed into the {@link SharedInputBuffer}; while that buffer is full the stream
+ * stops reading, which also withholds the WINDOW_UPDATE frames so the server stops sending.
+ */
+final class Http2Exchange extends ChannelInboundHandlerAdapter implements IOControl {
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+
+    // the default SETTINGS_MAX_FRAME_SIZE
+    private static final int MAX_FRAME_SIZE = 16384;
+    // delay before offering a response to the work queue again
+    private static final long RETRY_DELAY = 10;
+    private static final Set<String> CONNECTION_HEADERS = new HashSet<>(Arrays.asList(
+        "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade", "host", "te"));
+
+    final URI uri;
+    final HTTPClientPolicy csPolicy;
+    final SSLContext sslContext;
+    final HostnameVerifier hostnameVerifier;
+    final AsyncHTTPConduit conduit;
+    volatile ScheduledFuture<?> waitTimeout;
+
+    private final AsyncWrappedOutputStream outstream;
+    private final CXFHttpRequest request;
+    private final SharedInputBuffer inbuf;
+    private final SharedOutputBuffer outbuf;
+    private final CXFResponseCallback responseCallback;
+    private final FutureCallback<Boolean> callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final AtomicBoolean inputRequested = new AtomicBoolean();
+    private final AtomicBoolean outputRequested = new AtomicBoolean();
+    private final Encoder encoder = new Encoder();
+    private final Decoder decoder = new Decoder();
+
+    // the fields below are only accessed from the event loop of the stream
+    private final Deque<ByteBuf> received = new ArrayDeque<>();
+    private volatile Http2StreamChannel channel;
+    private boolean outputSuspended;
+    private boolean requestCompleted;
+    private HttpResponse response;
+    private boolean responseAccepted;
+    private boolean endOfResponse;
+
+    Http2Exchange(AsyncHTTPConduit conduit,
+                  AsyncWrappedOutputStream outstream,
+                  CXFHttpRequest request,
+                  SharedInputBuffer inbuf,
+                  SharedOutputBuffer outbuf,
+                  CXFResponseCallback responseCallback,
+                  FutureCallback<Boolean> callback,
+                  HTTPClientPolicy csPolicy,
+                  SSLContext sslContext,
+                  HostnameVerifier hostnameVerifier) {
+        this.conduit = conduit;
+        this.outstream = outstream;
+        this.request = request;
+        this.uri = request.getURI();
+        this.inbuf = inbuf;
+        this.outbuf = outbuf;
+        this.responseCallback = responseCallback;
+        this.callback = callback;
+        this.csPolicy = csPolicy;
+        this.sslContext = sslContext;
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    ChannelInitializer<Channel> initializer() {
+        return new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) {
+                long timeout = csPolicy.getReceiveTimeout();
+                if (timeout > 0) {
+                    ch.pipeline().addLast(new IdleStateHandler(0, 0, timeout, TimeUnit.MILLISECONDS));
+                }
+                ch.pipeline().addLast(Http2Exchange.this);
+            }
+        };
+    }
+
+    /**
+     * Sends the request headers on the opened stream and starts producing the request content.
+     */
+    void start(Http2StreamChannel stream, SSLSession session) {
+        channel = stream;
+        if (session != null) {
+            outstream.setSSLSession(session);
+        }
+        HttpEntity body = request.getEntity();
+        stream.write(new DefaultHttp2HeadersFrame(createHeaders(body), body == null))
+            .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        if (body == null) {
+            requestCompleted = true;
+            stream.flush();
+        } else {
+            produce();
+        }
+    }
+
+    boolean isDone() {
+        return done.get();
+    }
+
+    void failed(Throwable cause) {
+        if (done.compareAndSet(false, true)) {
+            callback.failed(cause instanceof Exception ? (Exception)cause : new IOException(cause));
+            Channel ch = channel;
+            if (ch != null) {
+                ch.close();
+            }
+        }
+    }
+
+    private Http2Headers createHeaders(HttpEntity body) {
+        String path = uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            path += "?" + uri.getRawQuery();
+        }
+        Http2Headers headers = new DefaultHttp2Headers()
+            .method(request.getMethod())
+            .scheme(uri.getScheme())
+            .authority(uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort())
+            .path(path);
+        for (Header h : request.getAllHeaders()) {
+            String name = h.getName().toLowerCase(Locale.ENGLISH);
+            if (!CONNECTION_HEADERS.contains(name)) {
+                headers.add(name, h.getValue());
+            }
+        }
+        if (body != null) {
+            if (body.getContentType() != null && !headers.contains("content-type")) {
+                headers.set("content-type", body.getContentType().getValue());
+            }
+            if (!body.isChunked() && body.getContentLength() >= 0) {
+                headers.set("content-length", Long.toString(body.getContentLength()));
+            }
+        }
+        return headers;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof Http2DataFrame) {
+            Http2DataFrame data = (Http2DataFrame)msg;
+            if (done.get()) {
+                data.release();
+                return;
+            }
+            // the content is released once it has been consumed
+            received.add(data.content());
+            endOfResponse = data.isEndStream();
+        } else if (msg instanceof Http2HeadersFrame) {
+            Http2HeadersFrame headers = (Http2HeadersFrame)msg;
+            if (response == null) {
+                int status = Integer.parseInt(headers.headers().status().toString());
+                if (status < 200) {
+                    // 100 (Continue) and other interim responses
+                    return;
+                }
+                response = createResponse(status, headers.headers());
+                responseCallback.responseReceived(response);
+            }
+            // the headers frame ends the stream if there is no content or after the trailers
+            endOfResponse |= headers.isEndStream();
+        } else if (msg instanceof Http2ResetFrame) {
+            failed(new IOException("The HTTP/2 stream has been reset by the server, error code "
+                                   + ((Http2ResetFrame)msg).errorCode()));
+            return;
+        } else {
+            ReferenceCountUtil.release(msg);
+            return;
+        }
+        deliver();
+    }
+
+    private static HttpResponse createResponse(int status, Http2Headers headers) {
+        HttpResponse response = new BasicHttpResponse(HTTP_2, status,
+            EnglishReasonPhraseCatalog.INSTANCE.getReason(status, Locale.ENGLISH));
+        headers.forEach(h -> {
+            if (h.getKey().charAt(0) != ':') {
+                response.addHeader(h.getKey().toString(), h.getValue().toString());
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Hands the received content over to the input buffer as long as it has space left.
+     */
+    private void deliver() {
+        if (response == null || done.get()) {
+            return;
+        }
+        if (!responseAccepted) {
+            // Only consume content when the work was accepted by the work queue
+            if (!outstream.retrySetHttpResponse(response)) {
+                channel.config().setAutoRead(false);
+                channel.eventLoop().schedule(this::deliver, RETRY_DELAY, TimeUnit.MILLISECONDS);
+                return;
+            }
+            responseAccepted = true;
+        }
+        try {
+            while (!received.isEmpty()) {
+                ByteBuf buf = received.peek();
+                decoder.set(buf, endOfResponse && received.size() == 1);
+                inbuf.consumeContent(decoder, this);
+                if (buf.isReadable()) {
+                    // the input buffer is full, its reader requests more input
+                    return;
+                }
+                received.poll().release();
+            }
+            if (endOfResponse) {
+                decoder.set(Unpooled.EMPTY_BUFFER, true);
+                inbuf.consumeContent(decoder, this);
+                if (done.compareAndSet(false, true)) {
+                    callback.completed(Boolean.TRUE);
+                }
+            } else if (!channel.config().isAutoRead()) {
+                channel.config().setAutoRead(true);
+            }
+        } catch (IOException ex) {
+            failed(ex);
+        }
+    }
+
+    /**
+     * Writes the request content while the stream is writable.
+     */
+    private void produce() {
+        outputRequested.set(false);
+        try {
+            while (!requestCompleted && !outputSuspended && channel.isWritable()
+                && outbuf.produceContent(encoder, this) > 0) {
+                // continue until the buffer is drained or the flow control window is exhausted
+            }
+        } catch (IOException ex) {
+            failed(ex);
+        }
+        channel.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable() && !requestCompleted) {
+            produce();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent) {
+            failed(new SocketTimeoutException("Read Timeout"));
+        } else {
+            super.userEventTriggered(ctx, evt);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        for (ByteBuf buf : received) {
+            buf.release();
+        }
+        received.clear();
+        failed(new IOException("The HTTP/2 stream has been closed before the response was received"));
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        failed(cause);
+    }
+
+    private void execute(Runnable task) {
+        if (channel.eventLoop().inEventLoop()) {
+            task.run();
+        } else {
+            channel.eventLoop().execute(task);
+        }
+    }
+
+    // IOControl, called by the shared buffers
+
+    @Override
+    public void requestInput() {
+        if (inputRequested.compareAndSet(false, true)) {
+            execute(() -> {
+                inputRequested.set(false);
+                deliver();
+            });
+        }
+    }
+
+    @Override
+    public void suspendInput() {
+        execute(() -> channel.config().setAutoRead(false));
+    }
+
+    @Override
+    public void requestOutput() {
+        if (outputRequested.compareAndSet(false, true)) {
+            execute(() -> {
+                outputSuspended = false;
+                produce();
+            });
+        }
+    }
+
+    @Override
+    public void suspendOutput() {
+        execute(() -> outputSuspended = true);
+    }
+
+    @Override
+    public void shutdown() {
+        // the buffers have been shut down, so reset the stream
+        Channel ch = channel;
+        if (ch != null) {
+            ch.close();
+        }
+    }
+
+    /**
+     * Writes the produced request content as DATA frames.
+     */
+    private final class Encoder implements ContentEncoder {
+        @Override
+        public int write(ByteBuffer src) {
+            int n = Math.min(src.remaining(), MAX_FRAME_SIZE);
+            if (n == 0) {
+                return 0;
+            }
+            ByteBuf buf = channel.alloc().buffer(n);
+            int limit = src.limit();
+            src.limit(src.position() + n);
+            buf.writeBytes(src);
+            src.limit(limit);
+            channel.write(new DefaultHttp2DataFrame(buf, false))
+                .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            return n;
+        }
+
+        @Override
+        public void complete() {
+            requestCompleted = true;
+            channel.write(new DefaultHttp2DataFrame(true))
+                .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return requestCompleted;
+        }
+    }
+
+    /**
+     * Reads the content of a received DATA frame.
+     */
+    private static final class Decoder implements ContentDecoder {
+        private ByteBuf buf;
+        private boolean last;
+
+        void set(ByteBuf b, boolean l) {
+            this.buf = b;
+            this.last = l;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            int n = Math.min(dst.remaining(), buf.readableBytes());
+            if (n == 0) {
+                return last && !buf.isReadable() ? -1 : 0;
+            }
+            int limit = dst.limit();
+            dst.limit(dst.position() + n);
+            buf.readBytes(dst);
+            dst.limit(limit);
+            return n;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return last && !buf.isReadable();
+        }
+    }
+}
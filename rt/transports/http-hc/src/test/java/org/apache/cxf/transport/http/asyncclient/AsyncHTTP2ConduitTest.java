@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.asyncclient;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.ws.Response;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.testutil.common.AbstractBusClientServerTestBase;
+import org.apache.cxf.testutil.common.TestUtil;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.apache.hello_world_soap_http.Greeter;
+import org.apache.hello_world_soap_http.SOAPService;
+import org.apache.hello_world_soap_http.types.GreetMeResponse;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2HeadersFrame;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.util.ReferenceCountUtil;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the async conduit in HTTP/2 mode against a plain netty h2c server which answers
+ * greetMe with the number of bytes of the request.
+ */
+public class AsyncHTTP2ConduitTest extends AbstractBusClientServerTestBase {
+    public static final String PORT = allocatePort(AsyncHTTP2ConduitTest.class);
+    static final String LARGE = "Large";
+    static final int LARGE_SIZE = 200000;
+    static final AtomicInteger CONNECTIONS = new AtomicInteger();
+
+    static EventLoopGroup group;
+    static Channel server;
+    static Greeter g;
+
+    @BeforeClass
+    public static void start() throws Exception {
+        Bus b = createStaticBus();
+        b.setProperty(AsyncHTTPConduit.USE_ASYNC, AsyncHTTPConduitFactory.UseAsyncPolicy.ALWAYS);
+        BusFactory.setThreadDefaultBus(b);
+
+        group = new NioEventLoopGroup(2);
+        server = new ServerBootstrap()
+            .group(group)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<Channel>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                    CONNECTIONS.incrementAndGet();
+                    ch.pipeline().addLast(Http2FrameCodecBuilder.forServer().build(),
+                                          new Http2MultiplexHandler(new ChannelInitializer<Channel>() {
+                                              @Override
+                                              protected void initChannel(Channel stream) {
+                                                  stream.pipeline().addLast(new GreeterStreamHandler());
+                                              }
+                                          }));
+                }
+            })
+            .bind(Integer.parseInt(PORT)).sync().channel();
+
+        URL wsdl = AsyncHTTP2ConduitTest.class.getResource("/wsdl/hello_world_services.wsdl");
+        assertNotNull("WSDL is null", wsdl);
+        g = new SOAPService().getSoapPort();
+        TestUtil.updateAddressPort(g, PORT);
+
+        HTTPClientPolicy policy = ((AsyncHTTPConduit)ClientProxy.getClient(g).getConduit()).getClient();
+        policy.setVersion("2");
+        policy.setHttp2MaxConnectionsPerHost(1);
+        policy.setReceiveTimeout(30000);
+    }
+
+    @AfterClass
+    public static void stop() throws Exception {
+        ((java.io.Closeable)g).close();
+        server.close().sync();
+        group.shutdownGracefully().sync();
+    }
+
+    @Test
+    public void testGreetMe() throws Exception {
+        assertTrue(g.greetMe("h2").startsWith("Hello h2 "));
+    }
+
+    @Test
+    public void testLargeRequest() throws Exception {
+        // larger than the initial flow control window of the stream
+        String name = String.join("", Collections.nCopies(100000, "a"));
+        String response = g.greetMe(name);
+        assertTrue(Integer.parseInt(response.substring("Hello h2 ".length())) > 100000);
+    }
+
+    @Test
+    public void testLargeResponse() throws Exception {
+        // larger than the input buffer of the conduit
+        assertEquals(LARGE_SIZE, g.greetMe(LARGE).length());
+    }
+
+    @Test
+    public void testMultiplexing() throws Exception {
+        List<Response<GreetMeResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            responses.add(g.greetMeAsync("h2 " + i));
+        }
+        for (Response<GreetMeResponse> response : responses) {
+            assertTrue(response.get().getResponseType().startsWith("Hello h2 "));
+        }
+        // all the exchanges share the single connection allowed
+        assertEquals(1, CONNECTIONS.get());
+        AsyncHTTPConduit conduit = (AsyncHTTPConduit)ClientProxy.getClient(g).getConduit();
+        assertEquals(1, conduit.getAsyncHTTPConduitFactory().getHttp2ConnectionPool().getConnectionCount());
+    }
+
+    static class GreeterStreamHandler extends ChannelInboundHandlerAdapter {
+        private final StringBuilder request = new StringBuilder();
+        private int size;
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            boolean end = false;
+            if (msg instanceof Http2HeadersFrame) {
+                end = ((Http2HeadersFrame)msg).isEndStream();
+            } else if (msg instanceof Http2DataFrame) {
+                Http2DataFrame data = (Http2DataFrame)msg;
+                size += data.content().readableBytes();
+                request.append(data.content().toString(StandardCharsets.UTF_8));
+                end = data.isEndStream();
+            }
+            ReferenceCountUtil.release(msg);
+            if (end) {
+                String text = request.indexOf(LARGE) != -1
+                    ? String.join("", Collections.nCopies(LARGE_SIZE, "x")) : "Hello h2 " + size;
+                String xml = "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                    + "<soap:Body><greetMeResponse xmlns=\"http://apache.org/hello_world_soap_http/types\">"
+                    + "<responseType>" + text + "</responseType></greetMeResponse>"
+                    + "</soap:Body></soap:Envelope>";
+                ByteBuf content = Unpooled.copiedBuffer(xml, StandardCharsets.UTF_8);
+                ctx.write(new DefaultHttp2HeadersFrame(
+                    new DefaultHttp2Headers().status("200").set("content-type", "text/xml; charset=UTF-8")));
+                ctx.writeAndFlush(new DefaultHttp2DataFrame(content, true));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * Selects the native epoll transport when netty-transport-native-epoll is on the
+ * class path and usable on this platform, and the NIO transport otherwise.
+ */
+final class NativeTransport {
+    private static final boolean EPOLL_AVAILABLE = checkEpoll();
+
+    private NativeTransport() {
+    }
+
+    static boolean isEpollAvailable() {
+        return EPOLL_AVAILABLE;
+    }
+
+    static EventLoopGroup newEventLoopGroup(boolean useNative) {
+        if (useNative && EPOLL_AVAILABLE) {
+            return EpollHolder.newEventLoopGroup();
+        }
+        return new NioEventLoopGroup();
+    }
+
+    /**
+     * Gets the server channel type matching the event loop group, which may have been
+     * created by the application.
+     */
+    static Class<? extends ServerChannel> getServerChannelClass(EventLoopGroup group) {
+        if (EPOLL_AVAILABLE && EpollHolder.isEpoll(group)) {
+            return EpollHolder.getServerChannelClass();
+        }
+        return NioServerSocketChannel.class;
+    }
+
+    private static boolean checkEpoll() {
+        try {
+            Class.forName("io.netty.channel.epoll.Epoll", false, NativeTransport.class.getClassLoader());
+            return EpollHolder.isAvailable();
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    // only loaded once the epoll classes are known to be available
+    private static final class EpollHolder {
+        static boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        static EventLoopGroup newEventLoopGroup() {
+            return new EpollEventLoopGroup();
+        }
+
+        static boolean isEpoll(EventLoopGroup group) {
+            return group instanceof EpollEventLoopGroup;
+        }
+
+        static Class<? extends ServerChannel> getServerChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+    }
+}
@@ -39,8 +39,6 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 
@@ -91,6 +89,12 @@ public class NettyHttpServerEngine implements ServerEngine {
 
     private boolean sessionSupport;
 
+    private boolean streaming;
+
+    private boolean nativeTransport = true;
+
+    private int responseChunkSize = 8192;
+
     // TODO need to setup configuration about them
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
@@ -144,10 +148,10 @@ public class NettyHttpServerEngine implements ServerEngine {
 
     protected Channel startServer() {
         if (bossGroup == null) {
-            bossGroup = new NioEventLoopGroup();
+            bossGroup = NativeTransport.newEventLoopGroup(nativeTransport);
         }
         if (workerGroup == null) {
-            workerGroup = new NioEventLoopGroup();
+            workerGroup = NativeTransport.newEventLoopGroup(nativeTransport);
         }
         if (applicationExecutor == null) {
             applicationExecutor = new DefaultEventExecutorGroup(threadingParameters.getThreadPoolSize());
@@ -155,7 +159,7 @@ public class NettyHttpServerEngine implements ServerEngine {
 
         final ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(NativeTransport.getServerChannelClass(bossGroup))
             .option(ChannelOption.SO_REUSEADDR, true);
 
         // Set up the event pipeline factory.
@@ -286,6 +290,42 @@ public class NettyHttpServerEngine implements ServerEngine {
         this.sessionSupport = session;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets whether the requests are served while their content is being received and
+     * the responses are written in chunks as they are produced, instead of aggregating
+     * the complete request and response in memory.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * Sets whether the native epoll transport is used when it is available,
+     * the default is true.
+     */
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    public int getResponseChunkSize() {
+        return responseChunkSize;
+    }
+
+    /**
+     * Sets the size of the chunks a streamed response is written in.
+     */
+    public void setResponseChunkSize(int responseChunkSize) {
+        this.responseChunkSize = responseChunkSize;
+    }
+
     public int getMaxChunkContentSize() {
         return maxChunkContentSize;
     }
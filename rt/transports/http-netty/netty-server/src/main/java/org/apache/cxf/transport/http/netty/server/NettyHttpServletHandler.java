@@ -60,7 +60,7 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
 
     private final ChannelGroup allChannels;
 
-    private final NettyHttpServletPipelineFactory pipelineFactory;
+    protected final NettyHttpServletPipelineFactory pipelineFactory;
 
     private List<NettyInterceptor> interceptors;
 
@@ -187,7 +187,7 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
         ctx.close();
     }
 
-    private void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
+    protected void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
         ByteBuf content = Unpooled.copiedBuffer("Failure: " + status.toString() + "\r\n", CharsetUtil.UTF_8);
         FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
                                                                 status,
@@ -197,7 +197,7 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
         ctx.write(response).addListener(ChannelFutureListener.CLOSE);
     }
 
-    private void interceptOnRequestReceived(ChannelHandlerContext ctx, HttpRequest request) {
+    protected void interceptOnRequestReceived(ChannelHandlerContext ctx, HttpRequest request) {
 
         if (this.interceptors != null) {
             for (NettyInterceptor interceptor : this.interceptors) {
@@ -207,7 +207,7 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
 
     }
 
-    private void interceptOnRequestSuccessed(ChannelHandlerContext ctx,
+    protected void interceptOnRequestSuccessed(ChannelHandlerContext ctx,
                                              HttpResponse response) {
         if (this.interceptors != null) {
             for (NettyInterceptor interceptor : this.interceptors) {
@@ -217,7 +217,7 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
 
     }
 
-    private void interceptOnRequestFailed(ChannelHandlerContext ctx,
+    protected void interceptOnRequestFailed(ChannelHandlerContext ctx,
                                           Throwable e) {
         if (this.interceptors != null) {
             for (NettyInterceptor interceptor : this.interceptors) {
@@ -139,6 +139,17 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
         return handler;
     }
 
+    protected NettyHttpServletHandler getStreamingHandler() {
+
+        NettyHttpServletHandler handler =
+            new NettyHttpStreamingHandler(this, applicationExecutor, nettyHttpServerEngine.getResponseChunkSize());
+        handler.addInterceptor(new ChannelInterceptor());
+        if (supportSession) {
+            handler.addInterceptor(new HttpSessionInterceptor(getHttpSessionStore()));
+        }
+        return handler;
+    }
+
     protected ChannelPipeline getDefaulHttpChannelPipeline(Channel channel) throws Exception {
 
         // Create a default pipeline implementation.
@@ -154,8 +165,10 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
 
         pipeline.addLast("decoder", new HttpRequestDecoder());
         pipeline.addLast("encoder", new HttpResponseEncoder());
-        pipeline.addLast("aggregator", new HttpObjectAggregator(maxChunkContentSize));
-        
+        if (!nettyHttpServerEngine.isStreaming()) {
+            pipeline.addLast("aggregator", new HttpObjectAggregator(maxChunkContentSize));
+        }
+
         // Remove the following line if you don't want automatic content
         // compression.
         pipeline.addLast("deflater", new HttpContentCompressor());
@@ -208,7 +221,12 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
     protected void initChannel(Channel ch) throws Exception {
         ChannelPipeline pipeline = getDefaulHttpChannelPipeline(ch);
 
-        pipeline.addLast(applicationExecutor, "handler", this.getServletHandler());
+        if (nettyHttpServerEngine.isStreaming()) {
+            // runs on the event loop and dispatches the requests to the application executor itself
+            pipeline.addLast("handler", this.getStreamingHandler());
+        } else {
+            pipeline.addLast(applicationExecutor, "handler", this.getServletHandler());
+        }
     }
 
 }
@@ -0,0 +1,230 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.i18n.Message;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyHttpServletRequest;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamingInputStream;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamingServletResponse;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutorGroup;
+
+/**
+ * Serves requests as they are decoded instead of aggregating them first. It runs on the
+ * event loop of its channel and hands each request to the application executor as soon as
+ * its headers are received, with a {@link NettyStreamingInputStream} receiving the content.
+ * Responses are written with a {@link NettyStreamingServletResponse}.
+ *
+ * Pipelined requests of a keep-alive connection are queued and served one after the other,
+ * so the responses are written in the order of the requests. A connection pipelining more
+ * than {@link #MAX_PIPELINED_REQUESTS} requests is closed.
+ */
+public class NettyHttpStreamingHandler extends NettyHttpServletHandler {
+    static final int HIGH_WATER_MARK = 256 * 1024;
+    static final int LOW_WATER_MARK = 64 * 1024;
+    static final int MAX_PIPELINED_REQUESTS = 16;
+
+    private static final Logger LOG =
+            LogUtils.getL7dLogger(NettyHttpStreamingHandler.class);
+
+    private final EventExecutorGroup applicationExecutor;
+    private final int chunkSize;
+
+    // the fields below are only accessed from the event loop
+    private final Deque<PendingRequest> pendingRequests = new ArrayDeque<>();
+    private NettyStreamingInputStream receiving;
+    private PendingRequest processing;
+    private boolean closing;
+
+    public NettyHttpStreamingHandler(NettyHttpServletPipelineFactory pipelineFactory,
+                                     EventExecutorGroup applicationExecutor, int chunkSize) {
+        super(pipelineFactory);
+        this.applicationExecutor = applicationExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest)msg;
+            if (request.decoderResult().isFailure()) {
+                ReferenceCountUtil.release(msg);
+                closing = true;
+                sendError(ctx, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+            if (closing) {
+                ReferenceCountUtil.release(msg);
+                return;
+            }
+            if (pendingRequests.size() >= MAX_PIPELINED_REQUESTS) {
+                ReferenceCountUtil.release(msg);
+                LOG.log(Level.FINE, "TOO_MANY_PIPELINED_REQUESTS_MSG",
+                        new Object[] {ctx.channel().remoteAddress(), MAX_PIPELINED_REQUESTS});
+                closing = true;
+                ctx.close();
+                return;
+            }
+            receiving = new NettyStreamingInputStream(ctx.channel(), HIGH_WATER_MARK, LOW_WATER_MARK);
+            pendingRequests.add(new PendingRequest(request, receiving));
+        }
+        if (msg instanceof HttpContent) {
+            HttpContent content = (HttpContent)msg;
+            if (receiving != null) {
+                // the stream releases the content once it has been read
+                receiving.offer(content.content());
+                if (content instanceof LastHttpContent) {
+                    receiving.end();
+                    receiving = null;
+                }
+            } else {
+                content.release();
+            }
+        }
+        processNext(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        closing = true;
+        IOException ex = new IOException("The connection has been closed");
+        if (processing != null) {
+            processing.in.fail(ex);
+        }
+        for (PendingRequest pending : pendingRequests) {
+            pending.in.close();
+        }
+        pendingRequests.clear();
+        receiving = null;
+        super.channelInactive(ctx);
+    }
+
+    private void processNext(ChannelHandlerContext ctx) {
+        if (processing != null || closing || pendingRequests.isEmpty()) {
+            return;
+        }
+        final PendingRequest pending = pendingRequests.poll();
+        processing = pending;
+        if (HttpUtil.is100ContinueExpected(pending.request) && !pending.in.isEnded()) {
+            ctx.writeAndFlush(new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE));
+        }
+        applicationExecutor.execute(() -> process(ctx, pending));
+    }
+
+    private void process(ChannelHandlerContext ctx, PendingRequest pending) {
+        HttpRequest request = pending.request;
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        HttpResponse response = new DefaultHttpResponse(request.protocolVersion(), HttpResponseStatus.OK);
+        if (keepAlive) {
+            if (request.protocolVersion().equals(HttpVersion.HTTP_1_0)) {
+                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            }
+        } else {
+            response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        }
+        NettyStreamingServletResponse servletResponse =
+            new NettyStreamingServletResponse(ctx, response, chunkSize);
+        ChannelFuture future;
+        try {
+            NettyHttpContextHandler contextHandler = pipelineFactory.getNettyHttpHandler(request.uri());
+            if (contextHandler == null) {
+                throw new IllegalStateException(
+                    new Message("NO_NETTY_SERVLET_HANDLER_FOUND", LOG, request.uri()).toString());
+            }
+            interceptOnRequestReceived(ctx, request);
+            NettyHttpServletRequest servletRequest =
+                new NettyHttpServletRequest(request, contextHandler.getContextPath(), ctx, pending.in);
+            contextHandler.handle(servletRequest.getRequestURI(), servletRequest, servletResponse);
+            interceptOnRequestSuccessed(ctx, response);
+            future = servletResponse.finish();
+        } catch (Throwable t) {
+            LOG.log(Level.WARNING, "UNEXPECTED_EXCEPCTION_IN_NETTY_SERVLET_HANDLER", t);
+            interceptOnRequestFailed(ctx, t);
+            keepAlive = false;
+            boolean committed = servletResponse.isCommitted();
+            servletResponse.release();
+            if (committed) {
+                // part of the response has been sent already
+                future = ctx.close();
+            } else {
+                future = ctx.writeAndFlush(errorResponse(HttpResponseStatus.INTERNAL_SERVER_ERROR));
+            }
+        } finally {
+            try {
+                // discards the content the application did not read
+                pending.in.close();
+            } catch (IOException ex) {
+                // ignore
+            }
+        }
+        if (!keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+        final boolean next = keepAlive;
+        ctx.executor().execute(() -> {
+            processing = null;
+            if (next) {
+                processNext(ctx);
+            } else {
+                closing = true;
+            }
+        });
+    }
+
+    private static FullHttpResponse errorResponse(HttpResponseStatus status) {
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status);
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        return response;
+    }
+
+    private static final class PendingRequest {
+        final HttpRequest request;
+        final NettyStreamingInputStream in;
+
+        PendingRequest(HttpRequest request, NettyStreamingInputStream in) {
+            this.request = request;
+            this.in = in;
+        }
+    }
+}
@@ -120,6 +120,12 @@ public class NettyHttpServerEngineFactoryHolder {
                 if (engine.getMaxChunkContentSize() != null) {
                     eng.setMaxChunkContentSize(engine.getMaxChunkContentSize());
                 }
+                if (engine.isStreaming() != null) {
+                    eng.setStreaming(engine.isStreaming());
+                }
+                if (engine.getResponseChunkSize() != null) {
+                    eng.setResponseChunkSize(engine.getResponseChunkSize());
+                }
                 if (engine.getPort() != null) {
                     eng.setPort(engine.getPort());
                 }
@@ -23,6 +23,7 @@ import java.io.IOException;
 
 import javax.servlet.ServletOutputStream;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
 import io.netty.handler.codec.http.HttpContent;
 
@@ -33,7 +34,22 @@ public class NettyServletOutputStream extends ServletOutputStream {
     private boolean flushed;
 
     public NettyServletOutputStream(HttpContent httpContent) {
-        this.out = new ByteBufOutputStream(httpContent.content());
+        this(httpContent.content());
+    }
+
+    protected NettyServletOutputStream(ByteBuf buffer) {
+        this.out = new ByteBufOutputStream(buffer);
+    }
+
+    protected ByteBuf buffer() {
+        return out.buffer();
+    }
+
+    /**
+     * Replaces the buffer the content is written to, the previous one is not released.
+     */
+    protected void setBuffer(ByteBuf buffer) {
+        this.out = new ByteBufOutputStream(buffer);
     }
 
     @Override
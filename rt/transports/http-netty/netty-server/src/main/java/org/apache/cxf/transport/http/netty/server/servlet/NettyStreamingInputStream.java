@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server.servlet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.servlet.ServletInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * A request body which is read while it is still being received. The event loop hands
+ * the content {@link ByteBuf}s over as they are decoded, without copying or aggregating
+ * them, and the application thread reads them in place. Reading from the connection is
+ * suspended while more than the high water mark is buffered and resumed once the
+ * application has consumed the content down to the low water mark.
+ */
+public class NettyStreamingInputStream extends ServletInputStream {
+
+    private final Channel channel;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+
+    private final Deque<ByteBuf> buffers = new ArrayDeque<>();
+    private long buffered;
+    private boolean suspended;
+    private boolean ended;
+    private boolean closed;
+    private IOException failure;
+
+    public NettyStreamingInputStream(Channel channel, int highWaterMark, int lowWaterMark) {
+        this.channel = channel;
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    /**
+     * Adds received content, the stream takes over the ownership of the buffer.
+     */
+    public synchronized void offer(ByteBuf buf) {
+        if (closed || !buf.isReadable()) {
+            buf.release();
+            return;
+        }
+        buffers.add(buf);
+        buffered += buf.readableBytes();
+        if (buffered >= highWaterMark && !suspended) {
+            suspended = true;
+            channel.config().setAutoRead(false);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Marks the end of the content.
+     */
+    public synchronized void end() {
+        ended = true;
+        notifyAll();
+    }
+
+    /**
+     * Fails the pending and subsequent reads, for instance if the connection has been closed
+     * before the content was completely received.
+     */
+    public synchronized void fail(IOException ex) {
+        if (!ended) {
+            failure = ex;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuf buf = awaitContent();
+        if (buf == null) {
+            return -1;
+        }
+        int total = 0;
+        while (buf != null && total < len) {
+            int n = Math.min(len - total, buf.readableBytes());
+            buf.readBytes(b, off + total, n);
+            total += n;
+            if (!buf.isReadable()) {
+                buffers.poll().release();
+                buf = buffers.peek();
+            }
+        }
+        consumed(total);
+        return total;
+    }
+
+    @Override
+    public synchronized long skip(long n) throws IOException {
+        long skipped = 0;
+        ByteBuf buf = n > 0 ? awaitContent() : null;
+        while (buf != null && skipped < n) {
+            int s = (int)Math.min(n - skipped, buf.readableBytes());
+            buf.skipBytes(s);
+            skipped += s;
+            if (!buf.isReadable()) {
+                buffers.poll().release();
+                buf = buffers.peek();
+            }
+        }
+        consumed(skipped);
+        return skipped;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        return (int)Math.min(buffered, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Releases the buffered content, the content which is still to be received is discarded.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            releaseBuffers();
+            resume();
+        }
+    }
+
+    public synchronized boolean isEnded() {
+        return ended;
+    }
+
+    private ByteBuf awaitContent() throws IOException {
+        while (buffers.isEmpty()) {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (ended) {
+                return null;
+            }
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return buffers.peek();
+    }
+
+    private void consumed(long n) {
+        buffered -= n;
+        if (buffered <= lowWaterMark) {
+            resume();
+        }
+    }
+
+    private void resume() {
+        if (suspended) {
+            suspended = false;
+            channel.config().setAutoRead(true);
+        }
+    }
+
+    private void releaseBuffers() {
+        for (ByteBuf buf : buffers) {
+            buf.release();
+        }
+        buffers.clear();
+        buffered = 0;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server.servlet;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Writes a response to the channel in chunks of a pooled buffer. A response which fits in
+ * one chunk is sent at once with a Content-Length header; a larger one is committed with
+ * chunked transfer encoding when the first chunk is full or the stream is flushed. The writing thread waits for
+ * the previous chunk to be flushed when the channel is not writable, so a slow client
+ * does not make the server buffer the complete response.
+ */
+public class NettyStreamingOutputStream extends NettyServletOutputStream {
+
+    private final ChannelHandlerContext ctx;
+    private final HttpResponse response;
+    private final int chunkSize;
+    private ChannelFuture lastWrite;
+    private boolean committed;
+    private boolean finishing;
+    private boolean finished;
+
+    public NettyStreamingOutputStream(ChannelHandlerContext ctx, HttpResponse response, int chunkSize) {
+        super(ctx.alloc().buffer(chunkSize));
+        this.ctx = ctx;
+        this.response = response;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (buffer().readableBytes() >= chunkSize) {
+            writeChunk();
+        }
+        super.write(b);
+    }
+
+    @Override
+    public void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int offset, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int n = Math.min(len, chunkSize - buffer().readableBytes());
+            if (n <= 0) {
+                writeChunk();
+                continue;
+            }
+            super.write(b, offset, n);
+            offset += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Commits the response and sends the buffered content, so that streamed output such as
+     * server sent events reaches the client. A response which is only written and closed is
+     * still sent at once by {@link #finish()}.
+     */
+    @Override
+    public void flush() throws IOException {
+        super.flush();
+        if (finished || finishing) {
+            return;
+        }
+        if (buffer().isReadable()) {
+            writeChunk();
+        } else if (!committed) {
+            commit();
+            ctx.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (!finished) {
+            super.resetBuffer();
+        }
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Completes the response after moving the content buffered by the writer of the response
+     * to this stream, without committing the response as an explicit flush would.
+     * @return the future of the last write
+     */
+    public ChannelFuture finish(Flushable writer) throws IOException {
+        if (!finished) {
+            finishing = true;
+            writer.flush();
+        }
+        return finish();
+    }
+
+    /**
+     * Completes the response.
+     * @return the future of the last write
+     */
+    public ChannelFuture finish() throws IOException {
+        if (finished) {
+            return lastWrite;
+        }
+        finished = true;
+        ByteBuf buf = buffer();
+        if (!committed) {
+            committed = true;
+            FullHttpResponse full = new DefaultFullHttpResponse(response.protocolVersion(), response.status(),
+                                                                buf, response.headers(),
+                                                                EmptyHttpHeaders.INSTANCE);
+            if (!HttpUtil.isContentLengthSet(full)) {
+                HttpUtil.setContentLength(full, buf.readableBytes());
+            }
+            lastWrite = ctx.writeAndFlush(full);
+        } else {
+            if (buf.isReadable()) {
+                ctx.write(new DefaultHttpContent(buf));
+            } else {
+                buf.release();
+            }
+            lastWrite = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        }
+        return lastWrite;
+    }
+
+    /**
+     * Releases the buffer if the response was not finished, for instance because
+     * the connection has failed.
+     */
+    public void release() {
+        if (!finished) {
+            finished = true;
+            buffer().release();
+        }
+    }
+
+    private void commit() {
+        committed = true;
+        if (!HttpUtil.isContentLengthSet(response)) {
+            HttpUtil.setTransferEncodingChunked(response, true);
+        }
+        ctx.write(response);
+    }
+
+    private void writeChunk() throws IOException {
+        awaitWritable();
+        if (!committed) {
+            commit();
+        }
+        ByteBuf buf = buffer();
+        setBuffer(ctx.alloc().buffer(chunkSize));
+        lastWrite = ctx.writeAndFlush(new DefaultHttpContent(buf));
+    }
+
+    private void awaitWritable() throws IOException {
+        if (lastWrite != null && !ctx.channel().isWritable() && !ctx.executor().inEventLoop()) {
+            lastWrite.awaitUninterruptibly();
+        }
+        if (lastWrite != null && lastWrite.cause() != null) {
+            throw new IOException(lastWrite.cause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("The response has been completed");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server.servlet;
+
+import java.io.IOException;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpResponse;
+
+/**
+ * A response whose content is written to the channel while it is produced,
+ * see {@link NettyStreamingOutputStream}.
+ */
+public class NettyStreamingServletResponse extends NettyServletResponse {
+
+    private final NettyStreamingOutputStream streamingOutputStream;
+
+    public NettyStreamingServletResponse(ChannelHandlerContext ctx, HttpResponse response, int chunkSize) {
+        this(response, new NettyStreamingOutputStream(ctx, response, chunkSize));
+    }
+
+    private NettyStreamingServletResponse(HttpResponse response, NettyStreamingOutputStream outputStream) {
+        super(response, outputStream);
+        this.streamingOutputStream = outputStream;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return streamingOutputStream.isCommitted() || super.isCommitted();
+    }
+
+    @Override
+    public void reset() {
+        if (streamingOutputStream.isCommitted()) {
+            throw new IllegalStateException("Response already commited!");
+        }
+        getOriginalResponse().headers().clear();
+        streamingOutputStream.resetBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (streamingOutputStream.isCommitted()) {
+            throw new IllegalStateException("Response already commited!");
+        }
+        streamingOutputStream.resetBuffer();
+    }
+
+    /**
+     * Writes the remaining content and completes the response.
+     * @return the future of the last write
+     */
+    public ChannelFuture finish() throws IOException {
+        return streamingOutputStream.finish(getWriter());
+    }
+
+    public void release() {
+        streamingOutputStream.release();
+    }
+}
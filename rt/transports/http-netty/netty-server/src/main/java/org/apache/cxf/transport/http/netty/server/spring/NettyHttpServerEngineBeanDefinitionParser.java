@@ -89,6 +89,15 @@ public class NettyHttpServerEngineBeanDefinitionParser extends AbstractBeanDefin
             bean.addPropertyValue("maxChunkContentSize", maxChunkContentSizeStr);
         }
 
+        String streamingStr = element.getAttribute("streaming");
+        if (streamingStr != null && !"".equals(streamingStr.trim())) {
+            bean.addPropertyValue("streaming", streamingStr);
+        }
+
+        String responseChunkSizeStr = element.getAttribute("responseChunkSize");
+        if (responseChunkSizeStr != null && !"".equals(responseChunkSizeStr.trim())) {
+            bean.addPropertyValue("responseChunkSize", responseChunkSizeStr);
+        }
 
         ValueHolder busValue = ctx.getContainingBeanDefinition()
             .getConstructorArgumentValues().getArgumentValue(0, Bus.class);
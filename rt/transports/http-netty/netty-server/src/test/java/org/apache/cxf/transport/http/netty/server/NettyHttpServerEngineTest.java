@@ -20,13 +20,23 @@
 package org.apache.cxf.transport.http.netty.server;
 
 
+import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.configuration.Configurer;
@@ -51,6 +61,10 @@ public class NettyHttpServerEngineTest {
         = Integer.valueOf(TestUtil.getPortNumber(NettyHttpServerEngineTest.class, 2));
     private static final int PORT3
         = Integer.valueOf(TestUtil.getPortNumber(NettyHttpServerEngineTest.class, 3));
+    private static final int PORT4
+        = Integer.valueOf(TestUtil.getPortNumber(NettyHttpServerEngineTest.class, 4));
+    private static final int PORT5
+        = Integer.valueOf(TestUtil.getPortNumber(NettyHttpServerEngineTest.class, 5));
 
 
     private Bus bus;
@@ -150,6 +164,69 @@ public class NettyHttpServerEngineTest {
         NettyHttpServerEngineFactory.destroyForPort(PORT3);
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        String urlStr = "http://localhost:" + PORT4 + "/hello/echo";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT4, "http");
+        engine.setStreaming(true);
+        engine.setResponseChunkSize(16);
+        engine.addServant(new URL(urlStr), new NettyHttpHandler(null, true) {
+            @Override
+            public void handle(String target, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+                IOUtils.copy(request.getInputStream(), response.getOutputStream());
+                response.flushBuffer();
+            }
+        });
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("chunk").append(i);
+        }
+        String body = sb.toString();
+        // the second request reuses the keep-alive connection
+        assertEquals(body, postRequest(urlStr, body));
+        assertEquals("short", postRequest(urlStr, "short"));
+
+        NettyHttpServerEngineFactory.destroyForPort(PORT4);
+    }
+
+    @Test
+    public void testStreamingFlush() throws Exception {
+        String urlStr = "http://localhost:" + PORT5 + "/hello/events";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT5, "http");
+        engine.setStreaming(true);
+        final CountDownLatch received = new CountDownLatch(1);
+        engine.addServant(new URL(urlStr), new NettyHttpHandler(null, true) {
+            @Override
+            public void handle(String target, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+                OutputStream out = response.getOutputStream();
+                out.write("event1\n".getBytes(StandardCharsets.UTF_8));
+                // the first event is sent although it does not fill a chunk
+                out.flush();
+                try {
+                    received.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write("event2\n".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        HttpURLConnection connection = (HttpURLConnection)new URL(urlStr).openConnection();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            assertEquals("event1", reader.readLine());
+            received.countDown();
+            assertEquals("event2", reader.readLine());
+        }
+
+        NettyHttpServerEngineFactory.destroyForPort(PORT5);
+    }
+
     @Test
     public void testHttps() throws Exception {
         Map<String, TLSServerParameters> tlsParamsMap = new HashMap<>();
@@ -161,6 +238,18 @@ public class NettyHttpServerEngineTest {
         NettyHttpServerEngineFactory.destroyForPort(PORT2);
     }
 
+    private String postRequest(String target, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection)new URL(target).openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8.name());
+        }
+    }
+
     private String getResponse(String target) throws Exception {
         URL url = new URL(target);
 
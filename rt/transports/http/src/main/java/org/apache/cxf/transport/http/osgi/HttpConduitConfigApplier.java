@@ -357,6 +357,12 @@ class HttpConduitConfigApplier {
                     p.setProxyServerType(ProxyServerType.fromValue(v));
                 } else if ("NonProxyHosts".equals(k)) {
                     p.setNonProxyHosts(v);
+                } else if ("Version".equals(k)) {
+                    p.setVersion(v.trim());
+                } else if ("Http2MaxConcurrentStreams".equals(k)) {
+                    p.setHttp2MaxConcurrentStreams(Integer.parseInt(v.trim()));
+                } else if ("Http2MaxConnectionsPerHost".equals(k)) {
+                    p.setHttp2MaxConnectionsPerHost(Integer.parseInt(v.trim()));
                 }
             }
         }
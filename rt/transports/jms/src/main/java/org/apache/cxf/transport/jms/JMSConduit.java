@@ -50,6 +50,7 @@ import org.apache.cxf.transport.AbstractConduit;
 import org.apache.cxf.transport.jms.util.AbstractMessageListenerContainer;
 import org.apache.cxf.transport.jms.util.JMSListenerContainer;
 import org.apache.cxf.transport.jms.util.JMSSender;
+import org.apache.cxf.transport.jms.util.JMSSessionPool;
 import org.apache.cxf.transport.jms.util.JMSUtil;
 import org.apache.cxf.transport.jms.util.MessageListenerContainer;
 import org.apache.cxf.transport.jms.util.PollingMessageListenerContainer;
@@ -78,6 +79,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     private Bus bus;
     private volatile Connection connection;
     private volatile Destination staticReplyDestination;
+    private volatile JMSSessionPool sessionPool;
 
     public JMSConduit(EndpointReferenceType target,
                       JMSConfiguration jmsConfig,
@@ -119,6 +121,27 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         return result;
     }
 
+    private JMSSessionPool getSessionPool(Connection c) {
+        JMSSessionPool result = sessionPool;
+        if (result == null) {
+            synchronized (this) {
+                result = sessionPool;
+                if (result == null) {
+                    result = new JMSSessionPool(c, jmsConfig.getSessionPoolSize());
+                    sessionPool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private synchronized void closeSessionPool() {
+        if (sessionPool != null) {
+            sessionPool.close();
+            sessionPool = null;
+        }
+    }
+
     /**
      * Register exception listener to react faster when a connection is reset.  
      * 
@@ -158,6 +181,8 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         jmsConfig.ensureProperlyConfigured();
         assertIsNotTextMessageAndMtom(outMessage);
 
+        JMSSessionPool pool = null;
+        JMSSessionPool.PooledSession pooledSession = null;
         try (ResourceCloser closer = new ResourceCloser()) {
             Connection c;
 
@@ -168,15 +193,25 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                 c = getConnection();
             }
 
-            Session session = closer.register(c.createSession(false, 
-                                                              Session.AUTO_ACKNOWLEDGE));
+            Session session;
+            if (!jmsConfig.isOneSessionPerConnection() && jmsConfig.getSessionPoolSize() > 0) {
+                pool = getSessionPool(c);
+                pooledSession = pool.borrow();
+                session = pooledSession.getSession();
+            } else {
+                session = closer.register(c.createSession(false, Session.AUTO_ACKNOWLEDGE));
+            }
 
             if (exchange.isOneWay()) {
-                sendMessage(request, outMessage, null, null, closer, session);
+                sendMessage(request, outMessage, null, null, closer, session, pooledSession);
             } else {
-                sendAndReceiveMessage(exchange, request, outMessage, closer, session);
+                sendAndReceiveMessage(exchange, request, outMessage, closer, session, pooledSession);
             }
         } catch (JMSException e) {
+            if (pooledSession != null) {
+                pool.invalidate(pooledSession);
+                pooledSession = null;
+            }
             if (this.jmsListener != null) {
                 this.jmsListener.shutdown();
             }
@@ -186,6 +221,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                 if (exchange.get(JMSUtil.JMS_MESSAGE_CONSUMER) != null) {
                     ResourceCloser.close(exchange.get(JMSUtil.JMS_MESSAGE_CONSUMER));
                 }
+                closeSessionPool();
                 ResourceCloser.close(connection);
                 this.connection = null;
                 jmsConfig.resetCachedReplyDestination();
@@ -197,6 +233,10 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
                 // Ignore
             }
             throw JMSUtil.convertJmsException(e);
+        } finally {
+            if (pooledSession != null) {
+                pool.release(pooledSession);
+            }
         }
     }
 
@@ -221,6 +261,13 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
 
                     if (jmsConfig.isOneSessionPerConnection()) {
                         container = new PollingMessageListenerContainer(jmsConfig, true, this);
+                    } else if (jmsConfig.getReplyMaxConcurrentConsumers() > 1) {
+                        // the replies are correlated by the shared listener, its consumers scale
+                        // up with the number of pending replies
+                        container = new PollingMessageListenerContainer(getConnection(),
+                                                                        staticReplyDestination, this,
+                                                                        e -> resetReplyListener());
+                        container.setMaxConcurrentConsumers(jmsConfig.getReplyMaxConcurrentConsumers());
                     } else {
                         container = new MessageListenerContainer(getConnection(), staticReplyDestination, this);
                     }
@@ -241,9 +288,21 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         }
     }
 
+    /**
+     * The shared reply listener stops polling after a failure, it is set up again by the next
+     * request expecting a reply.
+     */
+    private synchronized void resetReplyListener() {
+        if (jmsListener != null) {
+            jmsListener.shutdown();
+            jmsListener = null;
+        }
+        staticReplyDestination = null;
+    }
+
     private void sendAndReceiveMessage(final Exchange exchange, final Object request, final Message outMessage,
-                                ResourceCloser closer,
-                                Session session) throws JMSException {
+                                ResourceCloser closer, Session session,
+                                JMSSessionPool.PooledSession pooledSession) throws JMSException {
 
         setupReplyDestination(session);
 
@@ -260,7 +319,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
             String replyTo = headers.getJMSReplyTo();
             String jmsMessageID = sendMessage(request, outMessage,
                                               jmsConfig.getReplyToDestination(session, replyTo),
-                                              correlationId, closer, session);
+                                              correlationId, closer, session, pooledSession);
             Destination replyDestination = jmsConfig.getReplyDestination(session, replyTo);
             boolean useSyncReceive = ((correlationId == null || userCID != null) && !jmsConfig.isPubSubDomain())
                 || !replyDestination.equals(staticReplyDestination);
@@ -307,7 +366,8 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
 
     private String sendMessage(final Object request, final Message outMessage,
                                Destination replyToDestination, String correlationId,
-                               ResourceCloser closer, Session session) throws JMSException {
+                               ResourceCloser closer, Session session,
+                               JMSSessionPool.PooledSession pooledSession) throws JMSException {
         JMSMessageHeadersType headers = getOrCreateJmsHeaders(outMessage);
         javax.jms.Message message = JMSMessageUtils.asJMSMessage(jmsConfig,
                                                                  outMessage,
@@ -327,7 +387,11 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
         JMSSender sender = JMSFactory.createJmsSender(jmsConfig, headers);
 
         Destination targetDest = jmsConfig.getTargetDestination(session);
-        sender.sendMessage(session, targetDest, message);
+        if (pooledSession != null) {
+            sender.sendMessage(pooledSession.getProducer(targetDest), message);
+        } else {
+            sender.sendMessage(session, targetDest, message);
+        }
         String jmsMessageID = message.getJMSMessageID();
         LOG.log(Level.FINE, "client sending request message "
             + jmsMessageID + " to " + targetDest);
@@ -510,6 +574,7 @@ public class JMSConduit extends AbstractConduit implements JMSExchangeSender, Me
     }
     public synchronized void close() {
         shutdownListeners();
+        closeSessionPool();
         ResourceCloser.close(connection);
         connection = null;
         LOG.log(Level.FINE, "JMSConduit closed ");
@@ -55,9 +55,14 @@ public class JMSConfiguration {
     private int priority = Message.DEFAULT_PRIORITY;
     private long timeToLive = Message.DEFAULT_TIME_TO_LIVE;
     private boolean sessionTransacted;
+    private int transactedBatchSize = 1;
+    private long transactedBatchTimeout = 1000L;
     private boolean createSecurityContext = true;
 
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
+    private int replyMaxConcurrentConsumers = 1;
+    private int sessionPoolSize;
     private int maxSuspendedContinuations = DEFAULT_VALUE;
     private int reconnectPercentOfMax = 70;
 
@@ -310,6 +315,30 @@ public class JMSConfiguration {
         this.sessionTransacted = sessionTransacted;
     }
 
+    public int getTransactedBatchSize() {
+        return transactedBatchSize;
+    }
+
+    /**
+     * Number of messages a listener consumes before committing the transacted session. When
+     * a message fails the whole batch is rolled back and redelivered, so batches larger than
+     * 1 are only suitable for idempotent services.
+     */
+    public void setTransactedBatchSize(int transactedBatchSize) {
+        this.transactedBatchSize = transactedBatchSize;
+    }
+
+    public long getTransactedBatchTimeout() {
+        return transactedBatchTimeout;
+    }
+
+    /**
+     * Maximum time in ms a consumed message waits for its batch to be committed.
+     */
+    public void setTransactedBatchTimeout(long transactedBatchTimeout) {
+        this.transactedBatchTimeout = transactedBatchTimeout;
+    }
+
     public boolean isCreateSecurityContext() {
         return createSecurityContext;
     }
@@ -334,6 +363,43 @@ public class JMSConfiguration {
         this.concurrentConsumers = concurrentConsumers;
     }
 
+    public int getMaxConcurrentConsumers() {
+        return Math.max(concurrentConsumers, maxConcurrentConsumers);
+    }
+
+    /**
+     * Number of consumers the destination may scale up to while all the concurrent consumers
+     * are busy. Defaults to the concurrent consumers.
+     */
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public int getReplyMaxConcurrentConsumers() {
+        return replyMaxConcurrentConsumers;
+    }
+
+    /**
+     * Number of consumers the shared reply listener of a conduit may scale up to. With the
+     * default of 1 the replies are dispatched by a single asynchronous listener.
+     */
+    public void setReplyMaxConcurrentConsumers(int replyMaxConcurrentConsumers) {
+        this.replyMaxConcurrentConsumers = replyMaxConcurrentConsumers;
+    }
+
+    public int getSessionPoolSize() {
+        return sessionPoolSize;
+    }
+
+    /**
+     * Maximum number of idle sessions, with their producers, a conduit keeps for the following
+     * requests. Defaults to 0, a session is created and closed for every request.
+     * Not used when one session per connection is configured.
+     */
+    public void setSessionPoolSize(int sessionPoolSize) {
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
     public int getMaxSuspendedContinuations() {
         return maxSuspendedContinuations;
     }
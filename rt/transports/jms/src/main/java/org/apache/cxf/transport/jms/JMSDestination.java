@@ -155,9 +155,12 @@ public class JMSDestination extends AbstractMultiplexDestination implements Mess
             }
 
             container.setConcurrentConsumers(jmsConfig.getConcurrentConsumers());
+            container.setMaxConcurrentConsumers(jmsConfig.getMaxConcurrentConsumers());
             container.setTransactionManager(jmsConfig.getTransactionManager());
             container.setMessageSelector(jmsConfig.getMessageSelector());
             container.setTransacted(jmsConfig.isSessionTransacted());
+            container.setBatchSize(jmsConfig.getTransactedBatchSize());
+            container.setBatchTimeout(jmsConfig.getTransactedBatchTimeout());
             container.setDurableSubscriptionName(jmsConfig.getDurableSubscriptionName());
             container.setPubSubNoLocal(jmsConfig.isPubSubNoLocal());
 
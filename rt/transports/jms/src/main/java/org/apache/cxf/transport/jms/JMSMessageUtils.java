@@ -45,6 +45,7 @@ import org.apache.cxf.helpers.HttpHeaderHelper;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.transport.jms.uri.JMSEndpoint;
+import org.apache.cxf.transport.jms.util.BytesMessageInputStream;
 import org.apache.cxf.transport.jms.util.JMSMessageConverter;
 import org.apache.cxf.transport.jms.util.JMSUtil;
 
@@ -78,6 +79,13 @@ final class JMSMessageUtils {
     private static void retrieveAndSetPayload(org.apache.cxf.message.Message inMessage, Message message)
         throws UnsupportedEncodingException, JMSException {
         String messageType = null;
+        if (message instanceof BytesMessage) {
+            // stream the body rather than copying it
+            inMessage.setContent(InputStream.class, new BytesMessageInputStream((BytesMessage)message));
+            messageType = JMSConstants.BYTE_MESSAGE_TYPE;
+            addMessageTypeHeader(inMessage, messageType);
+            return;
+        }
         Object converted = new JMSMessageConverter().fromMessage(message);
         if (converted instanceof String) {
             inMessage.setContent(Reader.class, new StringReader((String)converted));
@@ -88,6 +96,10 @@ final class JMSMessageUtils {
         } else {
             messageType = "unknown";
         }
+        addMessageTypeHeader(inMessage, messageType);
+    }
+
+    private static void addMessageTypeHeader(org.apache.cxf.message.Message inMessage, String messageType) {
         Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>)inMessage
             .get(org.apache.cxf.message.Message.PROTOCOL_HEADERS));
         headers.put(JMSConstants.JMS_MESSAGE_TYPE, Collections.singletonList(messageType));
@@ -76,9 +76,13 @@ final class MessageStreamUtil {
             this.exchange = exchange;
         }
 
+        /**
+         * The stream itself is the payload: the JMS message is built while it is closing,
+         * before the cached content is released.
+         */
         @Override
         protected void doClose() throws IOException {
-            this.sender.sendExchange(exchange, getBytes());
+            this.sender.sendExchange(exchange, this);
         }
 
     }
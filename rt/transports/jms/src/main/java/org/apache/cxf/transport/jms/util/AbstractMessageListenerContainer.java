@@ -53,6 +53,7 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
 
     private Executor executor;
     private int concurrentConsumers = 1;
+    private int maxConcurrentConsumers;
     private boolean internalExecutor;
 
     public AbstractMessageListenerContainer() {
@@ -80,7 +81,7 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
 
     protected Executor getExecutor() {
         if (executor == null) {
-            executor = Executors.newFixedThreadPool(concurrentConsumers);
+            executor = Executors.newFixedThreadPool(getMaxConcurrentConsumers());
             internalExecutor = true;
         }
         return executor;
@@ -158,4 +159,17 @@ public abstract class AbstractMessageListenerContainer implements JMSListenerCon
         return concurrentConsumers;
     }
 
+    /**
+     * Sets the number of consumers the container may scale up to while all the consumers
+     * are busy, it scales back down to the concurrent consumers once they are idle.
+     * Defaults to the concurrent consumers, no scaling.
+     */
+    public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+        this.maxConcurrentConsumers = maxConcurrentConsumers;
+    }
+
+    public int getMaxConcurrentConsumers() {
+        return Math.max(concurrentConsumers, maxConcurrentConsumers);
+    }
+
 }
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.MessageEOFException;
+
+/**
+ * Reads the body of a received BytesMessage as a stream instead of copying it into an
+ * array first.
+ */
+public class BytesMessageInputStream extends InputStream {
+    private final BytesMessage message;
+    private byte[] chunk;
+
+    public BytesMessageInputStream(BytesMessage message) {
+        this.message = message;
+    }
+
+    @Override
+    public int read() throws IOException {
+        try {
+            return message.readUnsignedByte();
+        } catch (MessageEOFException ex) {
+            return -1;
+        } catch (JMSException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        try {
+            if (off == 0) {
+                return message.readBytes(b, len);
+            }
+            if (chunk == null) {
+                chunk = new byte[8192];
+            }
+            int n = message.readBytes(chunk, Math.min(len, chunk.length));
+            if (n > 0) {
+                System.arraycopy(chunk, 0, b, off, n);
+            }
+            return n;
+        } catch (JMSException ex) {
+            throw new IOException(ex);
+        }
+    }
+}
@@ -60,4 +60,16 @@ public class JMSSender {
         }
 
     }
+
+    /**
+     * Sends the message with a producer which is kept open by the caller, for example a
+     * producer of a pooled session.
+     */
+    public void sendMessage(MessageProducer producer, javax.jms.Message message) throws JMSException {
+        if (explicitQosEnabled) {
+            producer.send(message, deliveryMode, priority, timeToLive);
+        } else {
+            producer.send(message);
+        }
+    }
 }
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+/**
+ * Keeps the non transacted sessions of a connection, together with their producers keyed
+ * by destination, so that they are reused by the following requests instead of being
+ * created and closed for every message. A session is used by a single request at a time
+ * and returned to the pool once the request is done; a session which failed is discarded.
+ */
+public class JMSSessionPool implements AutoCloseable {
+    private static final int MAX_PRODUCERS_PER_SESSION = 16;
+
+    private final Connection connection;
+    private final int maxIdle;
+    private final ConcurrentLinkedDeque<PooledSession> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * @param connection the connection the sessions are created on
+     * @param maxIdle the maximum number of sessions kept between requests
+     */
+    public JMSSessionPool(Connection connection, int maxIdle) {
+        this.connection = connection;
+        this.maxIdle = maxIdle;
+    }
+
+    public PooledSession borrow() throws JMSException {
+        PooledSession session = idle.pollFirst();
+        if (session != null) {
+            idleCount.decrementAndGet();
+            return session;
+        }
+        return new PooledSession(connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+    }
+
+    public void release(PooledSession session) {
+        if (!closed && idleCount.incrementAndGet() <= maxIdle) {
+            // most recently used first, the others eventually time out on the broker side
+            idle.offerFirst(session);
+            if (closed) {
+                closeIdle();
+            }
+        } else {
+            idleCount.decrementAndGet();
+            session.close();
+        }
+    }
+
+    /**
+     * Discards a session which failed, it is not returned to the pool.
+     */
+    public void invalidate(PooledSession session) {
+        session.close();
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeIdle();
+    }
+
+    private void closeIdle() {
+        for (PooledSession session = idle.pollFirst(); session != null; session = idle.pollFirst()) {
+            idleCount.decrementAndGet();
+            session.close();
+        }
+    }
+
+    public static final class PooledSession {
+        private final Session session;
+        private final Map<Destination, MessageProducer> producers = new HashMap<>();
+
+        PooledSession(Session session) {
+            this.session = session;
+        }
+
+        public Session getSession() {
+            return session;
+        }
+
+        public MessageProducer getProducer(Destination destination) throws JMSException {
+            MessageProducer producer = producers.get(destination);
+            if (producer == null) {
+                if (producers.size() >= MAX_PRODUCERS_PER_SESSION) {
+                    // the destinations vary, do not keep too many producers open
+                    closeProducers();
+                }
+                producer = session.createProducer(destination);
+                producers.put(destination, producer);
+            }
+            return producer;
+        }
+
+        void close() {
+            closeProducers();
+            ResourceCloser.close(session);
+        }
+
+        private void closeProducers() {
+            for (MessageProducer producer : producers.values()) {
+                ResourceCloser.close(producer);
+            }
+            producers.clear();
+        }
+    }
+}
@@ -18,6 +18,10 @@
  */
 package org.apache.cxf.transport.jms.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.Destination;
@@ -29,6 +33,8 @@ import javax.jms.Queue;
 import javax.jms.Session;
 
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
+import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.transport.jms.JMSConstants;
 
@@ -113,14 +119,65 @@ public final class JMSUtil {
             message = session.createTextMessage((String)payload);
         } else if (JMSConstants.BYTE_MESSAGE_TYPE.equals(messageType)) {
             message = session.createBytesMessage();
-            ((BytesMessage)message).writeBytes((byte[])payload);
+            if (payload instanceof CachedOutputStream) {
+                writeBytes((CachedOutputStream)payload, (BytesMessage)message);
+            } else {
+                ((BytesMessage)message).writeBytes((byte[])payload);
+            }
         } else {
             message = session.createObjectMessage();
-            ((ObjectMessage)message).setObject((byte[])payload);
+            ((ObjectMessage)message).setObject(payload instanceof CachedOutputStream
+                ? getBytes((CachedOutputStream)payload) : (byte[])payload);
         }
         return message;
     }
 
+    /**
+     * Writes the cached content into the message without copying it into an intermediate
+     * array: the buffer or the pooled chunks of an in memory cache are written as they are
+     * and a cache backed by a temporary file is streamed in chunks.
+     */
+    private static void writeBytes(CachedOutputStream cos, BytesMessage message) throws JMSException {
+        try {
+            cos.flush();
+            OutputStream out = cos.getOut();
+            if (out instanceof LoadingByteArrayOutputStream) {
+                BytesMessageOutputStream mout = new BytesMessageOutputStream(message);
+                try {
+                    ((LoadingByteArrayOutputStream)out).writeTo(mout);
+                } catch (IOException ex) {
+                    if (mout.failure != null) {
+                        throw mout.failure;
+                    }
+                    throw ex;
+                }
+                return;
+            }
+            try (InputStream in = cos.getInputStream()) {
+                byte[] buffer = new byte[8192];
+                for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                    message.writeBytes(buffer, 0, n);
+                }
+            }
+        } catch (IOException ex) {
+            throw toJMSException(ex);
+        }
+    }
+
+    private static byte[] getBytes(CachedOutputStream cos) throws JMSException {
+        try {
+            return cos.getBytes();
+        } catch (IOException ex) {
+            throw toJMSException(ex);
+        }
+    }
+
+    private static JMSException toJMSException(IOException ex) {
+        JMSException jmsEx = new JMSException("Unable to read the message content: " + ex.getMessage());
+        jmsEx.setLinkedException(ex);
+        return jmsEx;
+    }
+
     public static Queue createQueue(Connection connection, String name) throws JMSException {
         Session session = null;
         try {
@@ -133,4 +190,35 @@ public final class JMSUtil {
         }
     }
 
+    /**
+     * Lets the in memory caches write their content straight into a message.
+     */
+    private static final class BytesMessageOutputStream extends OutputStream {
+        private final BytesMessage message;
+        private JMSException failure;
+
+        BytesMessageOutputStream(BytesMessage message) {
+            this.message = message;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                message.writeByte((byte)b);
+            } catch (JMSException ex) {
+                failure = ex;
+                throw new IOException(ex);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                message.writeBytes(b, off, len);
+            } catch (JMSException ex) {
+                failure = ex;
+                throw new IOException(ex);
+            }
+        }
+    }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.transport.jms.util;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,10 +40,18 @@ import org.apache.cxf.transport.jms.JMSFactory;
 
 public class PollingMessageListenerContainer extends AbstractMessageListenerContainer {
     private static final Logger LOG = LogUtils.getL7dLogger(PollingMessageListenerContainer.class);
+    /** Number of consecutive empty receives after which an additional consumer stops */
+    private static final int IDLE_RECEIVES_BEFORE_SCALE_DOWN = 10;
+    /** Number of consecutive receives finding a message waiting after which a consumer is added */
+    private static final int BACKLOG_RECEIVES_BEFORE_SCALE_UP = 3;
     private ExceptionListener exceptionListener;
 
     private JMSConfiguration jmsConfig;
     private boolean reply;
+    private int batchSize = 1;
+    private long batchTimeout = 1000L;
+    private final AtomicInteger activeConsumers = new AtomicInteger();
+    private final AtomicInteger busyConsumers = new AtomicInteger();
 
     public PollingMessageListenerContainer(JMSConfiguration jmsConfig, boolean isReply,
                                            MessageListener listenerHandler) {
@@ -77,20 +86,52 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
                     session = closer.register(connection.createSession(transacted, acknowledgeMode));
                     MessageConsumer consumer = closer.register(createConsumer(connection, session));
 
+                    // a transacted session is committed once per batch of consumed messages
+                    final boolean transactedSession = session.getTransacted();
+                    int uncommitted = 0;
+                    long batchStart = 0;
+                    int idleReceives = 0;
+                    int backlogReceives = 0;
                     while (running) {
-                        Message message = consumer.receive(1000);
+                        long wait = 1000;
+                        if (uncommitted > 0) {
+                            wait = Math.max(1, batchStart + batchTimeout - System.currentTimeMillis());
+                        }
+                        // a message already waiting once the previous one is processed is a backlog
+                        Message message = consumer.receiveNoWait();
+                        if (message == null) {
+                            backlogReceives = 0;
+                            message = consumer.receive(wait);
+                        } else if (++backlogReceives >= BACKLOG_RECEIVES_BEFORE_SCALE_UP && scaleUpIfBusy()) {
+                            backlogReceives = 0;
+                        }
                         try {
                             if (message != null) {
-                                listenerHandler.onMessage(message);
-
-                                if (session.getTransacted()) {
-                                    session.commit();
+                                idleReceives = 0;
+                                busyConsumers.incrementAndGet();
+                                try {
+                                    listenerHandler.onMessage(message);
+                                } finally {
+                                    busyConsumers.decrementAndGet();
                                 }
+                                if (transactedSession && uncommitted++ == 0) {
+                                    batchStart = System.currentTimeMillis();
+                                }
+                            }
+                            if (uncommitted > 0 && (message == null || uncommitted >= batchSize
+                                || System.currentTimeMillis() - batchStart >= batchTimeout)) {
+                                uncommitted = 0;
+                                session.commit();
                             }
                         } catch (Throwable e) {
                             LOG.log(Level.WARNING, "Exception while processing jms message in cxf. Rolling back", e);
+                            uncommitted = 0;
                             safeRollBack(session);
                         }
+                        if (message == null && uncommitted == 0
+                            && ++idleReceives >= IDLE_RECEIVES_BEFORE_SCALE_DOWN && scaleDown()) {
+                            return;
+                        }
                     }
                 } catch (Throwable e) {
                     handleException(e);
@@ -103,6 +144,36 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
             }
         }
 
+        /**
+         * Starts an additional consumer, up to the max concurrent consumers, when this consumer
+         * keeps finding messages waiting and all the other consumers are processing a message.
+         * The messages prefetched by a consumer count as waiting but cannot be taken over by the
+         * additional consumer, so scaling up is only effective with a prefetch of 0 or 1.
+         * @return true if a consumer was added
+         */
+        private boolean scaleUpIfBusy() {
+            int active = activeConsumers.get();
+            if (busyConsumers.get() >= active - 1 && active < getMaxConcurrentConsumers()
+                && activeConsumers.compareAndSet(active, active + 1)) {
+                try {
+                    getExecutor().execute(new Poller());
+                    return true;
+                } catch (RuntimeException e) {
+                    activeConsumers.decrementAndGet();
+                    LOG.log(Level.FINE, "Could not start an additional consumer", e);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Stops this consumer if the container has been scaled up above the concurrent consumers.
+         */
+        private boolean scaleDown() {
+            int active = activeConsumers.get();
+            return active > getConcurrentConsumers() && activeConsumers.compareAndSet(active, active - 1);
+        }
+
         protected void safeRollBack(Session session) {
             try {
                 if (session != null && session.getTransacted()) {
@@ -216,6 +287,34 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
         }
     }
 
+    /**
+     * Sets the number of messages consumed before a transacted session is committed,
+     * defaults to 1. A batch is also committed when no more messages are available or
+     * after the batch timeout.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    /**
+     * Returns the number of consumers currently polling the destination.
+     */
+    public int getActiveConsumerCount() {
+        return activeConsumers.get();
+    }
+
     private boolean isReply() {
         return reply;
     }
@@ -235,6 +334,7 @@ public class PollingMessageListenerContainer extends AbstractMessageListenerCont
             return;
         }
         running = true;
+        activeConsumers.set(getConcurrentConsumers());
         for (int c = 0; c < getConcurrentConsumers(); c++) {
             Runnable poller = (transactionManager != null) ? new XAPoller() : new Poller();
             getExecutor().execute(poller);
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.jms.util;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class JMSSessionPoolTest {
+    private Connection connection;
+
+    @Before
+    public void setUp() throws JMSException {
+        ActiveMQConnectionFactory cf = new ActiveMQConnectionFactory("vm://brokerSessionPool"
+                                                                     + "?broker.persistent=false");
+        connection = cf.createConnection();
+        connection.start();
+    }
+
+    @After
+    public void tearDown() throws JMSException {
+        connection.close();
+    }
+
+    @Test
+    public void testSessionsAndProducersAreReused() throws JMSException {
+        Queue dest = JMSUtil.createQueue(connection, "test");
+        try (JMSSessionPool pool = new JMSSessionPool(connection, 2)) {
+            JMSSessionPool.PooledSession first = pool.borrow();
+            Session session = first.getSession();
+            assertSame(first.getProducer(dest), first.getProducer(dest));
+            pool.release(first);
+            assertEquals(1, pool.getIdleCount());
+
+            JMSSessionPool.PooledSession second = pool.borrow();
+            assertSame(session, second.getSession());
+            assertEquals(0, pool.getIdleCount());
+
+            JMSSender sender = new JMSSender();
+            sender.sendMessage(second.getProducer(dest), session.createTextMessage("test"));
+            pool.release(second);
+
+            Session receiver = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer = receiver.createConsumer(dest);
+            assertEquals("test", ((TextMessage)consumer.receive(5000)).getText());
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void testMaxIdleAndInvalidate() throws JMSException {
+        JMSSessionPool pool = new JMSSessionPool(connection, 1);
+        JMSSessionPool.PooledSession first = pool.borrow();
+        JMSSessionPool.PooledSession second = pool.borrow();
+        JMSSessionPool.PooledSession third = pool.borrow();
+        assertNotSame(first.getSession(), second.getSession());
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getIdleCount());
+
+        pool.invalidate(third);
+        assertEquals(1, pool.getIdleCount());
+        assertSame(first.getSession(), pool.borrow().getSession());
+
+        pool.close();
+        pool.release(second);
+        assertEquals(0, pool.getIdleCount());
+    }
+}
@@ -20,7 +20,9 @@
 package org.apache.cxf.transport.jms.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -30,12 +32,15 @@ import javax.jms.JMSException;
 import javax.jms.Session;
 
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.transport.jms.JMSConfiguration;
 import org.apache.cxf.transport.jms.JMSConstants;
 import org.apache.cxf.transport.jms.JMSFactory;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -85,4 +90,43 @@ public class JMSUtilTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamCachedPayload() throws IOException, JMSException {
+        JMSConfiguration jmsConfig = new JMSConfiguration();
+        jmsConfig.setConnectionFactory(new ActiveMQConnectionFactory("vm://testStream?broker.persistent=false"));
+
+        byte[] content = new byte[100000];
+        Arrays.fill(content, (byte)'a');
+        try (ResourceCloser closer = new ResourceCloser()) {
+            Connection connection = closer.register(JMSFactory.createConnection(jmsConfig));
+            Session session = closer.register(connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+            for (long threshold : new long[] {1024 * 1024, 1024}) {
+                // in memory and backed by a temporary file
+                try (CachedOutputStream cos = new CachedOutputStream(threshold)) {
+                    cos.write(content);
+                    BytesMessage message = (BytesMessage)JMSUtil.createAndSetPayload(cos, session,
+                        JMSConstants.BYTE_MESSAGE_TYPE);
+                    message.reset();
+                    assertEquals(content.length, message.getBodyLength());
+                    InputStream in = new BytesMessageInputStream(message);
+                    assertArrayEquals(content, IOUtils.readBytesFromStream(in));
+                }
+            }
+
+            // in memory, in chunks from the buffer pool
+            CachedOutputStream.setDefaultPooledBuffers(true);
+            try (CachedOutputStream cos = new CachedOutputStream(1024 * 1024)) {
+                cos.write(content);
+                BytesMessage message = (BytesMessage)JMSUtil.createAndSetPayload(cos, session,
+                    JMSConstants.BYTE_MESSAGE_TYPE);
+                message.reset();
+                assertEquals(content.length, message.getBodyLength());
+                InputStream in = new BytesMessageInputStream(message);
+                assertArrayEquals(content, IOUtils.readBytesFromStream(in));
+            } finally {
+                CachedOutputStream.setDefaultPooledBuffers(false);
+            }
+        }
+    }
+}
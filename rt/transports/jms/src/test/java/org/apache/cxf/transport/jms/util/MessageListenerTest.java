@@ -19,6 +19,7 @@
 package org.apache.cxf.transport.jms.util;
 
 import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
 
 import javax.jms.Connection;
 import javax.jms.Destination;
@@ -155,6 +156,64 @@ public class MessageListenerTest {
         connection.close();
     }
 
+    @Test
+    public void testLocalTransactionBatch() throws JMSException, XAException, InterruptedException {
+        Connection connection = createConnection("brokerLocalTransactionBatch");
+        Queue dest = JMSUtil.createQueue(connection, "test");
+        PollingMessageListenerContainer container = new PollingMessageListenerContainer(connection, dest,
+            new TestMessageListener(), new TestExceptionListener());
+        container.setTransacted(true);
+        container.setAcknowledgeMode(Session.SESSION_TRANSACTED);
+        container.setBatchSize(10);
+        container.setBatchTimeout(500L);
+        container.start();
+
+        for (int i = 0; i < 25; i++) {
+            sendMessage(connection, dest, TestMessage.OK);
+        }
+        assertNumMessagesInQueue("The batches should be committed", connection, dest, 0, 3500L);
+
+        testTransactionalBehaviour(connection, dest);
+        container.stop();
+        connection.close();
+    }
+
+    @Test
+    public void testConsumersScaleWithBacklog() throws JMSException, InterruptedException {
+        ActiveMQConnectionFactory cf = new ActiveMQConnectionFactory("vm://brokerScaling?broker.persistent=false");
+        // the prefetched messages could not be taken over by the additional consumers
+        cf.getPrefetchPolicy().setQueuePrefetch(1);
+        Connection connection = cf.createConnection();
+        connection.start();
+        Queue dest = JMSUtil.createQueue(connection, "test");
+        PollingMessageListenerContainer container = new PollingMessageListenerContainer(connection, dest,
+            message -> {
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+            }, new TestExceptionListener());
+        container.setMaxConcurrentConsumers(3);
+
+        // a single message does not make a backlog
+        container.start();
+        sendMessage(connection, dest, TestMessage.OK);
+        assertNumMessagesInQueue("The message should be consumed", connection, dest, 0, 3500L);
+        Thread.sleep(200L);
+        assertEquals(1, container.getActiveConsumerCount());
+
+        for (int i = 0; i < 40; i++) {
+            sendMessage(connection, dest, TestMessage.OK);
+        }
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> container.getActiveConsumerCount() == 3);
+
+        assertNumMessagesInQueue("All the messages should be consumed", connection, dest, 0, 3500L);
+        Awaitility.await().atMost(20, TimeUnit.SECONDS).until(() -> container.getActiveConsumerCount() == 1);
+        container.stop();
+        connection.close();
+    }
+
     private void testTransactionalBehaviour(Connection connection, Queue dest) throws JMSException,
         InterruptedException {
         Queue dlq = JMSUtil.createQueue(connection, "ActiveMQ.DLQ");
@@ -31,6 +31,7 @@ import org.apache.cxf.management.ManagedComponent;
 import org.apache.cxf.management.annotation.ManagedAttribute;
 import org.apache.cxf.management.annotation.ManagedOperation;
 import org.apache.cxf.management.annotation.ManagedResource;
+import org.apache.cxf.ws.rm.soap.RetransmissionQueueImpl;
 
 /**
  * The ManagedRMManager is a JMX managed bean for RMManager.
@@ -78,6 +79,41 @@ public class ManagedRMManager implements ManagedComponent {
         return manager.getRetransmissionQueue().countUnacknowledged();
     }
 
+    @ManagedAttribute(description = "Number of Resends Waiting for the Executor", currencyTimeLimit = 10)
+    public int getQueuedResendCount() {
+        RetransmissionQueueImpl queue = getRetransmissionQueueImpl();
+        return queue == null ? 0 : queue.getQueuedResendCount();
+    }
+
+    @ManagedAttribute(description = "Number of Resends Scheduled on the Timer", currencyTimeLimit = 10)
+    public int getScheduledResendCount() {
+        RetransmissionQueueImpl queue = getRetransmissionQueueImpl();
+        return queue == null ? 0 : queue.getScheduledResendCount();
+    }
+
+    @ManagedAttribute(description = "Total Number of Resends", currencyTimeLimit = 10)
+    public long getResendCount() {
+        RetransmissionQueueImpl queue = getRetransmissionQueueImpl();
+        return queue == null ? 0 : queue.getResendCount();
+    }
+
+    @ManagedAttribute(description = "Average Resend Latency in Milliseconds", currencyTimeLimit = 10)
+    public long getAverageResendLatency() {
+        RetransmissionQueueImpl queue = getRetransmissionQueueImpl();
+        return queue == null ? 0 : queue.getAverageResendLatency();
+    }
+
+    @ManagedAttribute(description = "Maximum Resend Latency in Milliseconds", currencyTimeLimit = 10)
+    public long getMaxResendLatency() {
+        RetransmissionQueueImpl queue = getRetransmissionQueueImpl();
+        return queue == null ? 0 : queue.getMaxResendLatency();
+    }
+
+    private RetransmissionQueueImpl getRetransmissionQueueImpl() {
+        RetransmissionQueue queue = manager.getRetransmissionQueue();
+        return queue instanceof RetransmissionQueueImpl ? (RetransmissionQueueImpl)queue : null;
+    }
+
 
 //    @ManagedAttribute(description = "Total Number of Inbound Queued Messages", currencyTimeLimit = 10)
 //    public int getQueuedMessagesInboundCount() {
@@ -26,6 +26,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Timer;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -57,6 +59,7 @@ import org.apache.cxf.service.model.BindingInfo;
 import org.apache.cxf.service.model.InterfaceInfo;
 import org.apache.cxf.service.model.ServiceInfo;
 import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.workqueue.WorkQueueManager;
 import org.apache.cxf.ws.addressing.AddressingProperties;
 import org.apache.cxf.ws.addressing.ContextUtils;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
@@ -119,6 +122,9 @@ public class RMManager {
     private RedeliveryQueue redeliveryQueue;
     private Map<Endpoint, RMEndpoint> reliableEndpoints = new ConcurrentHashMap<>();
     private AtomicReference<Timer> timer = new AtomicReference<>();
+    private AtomicReference<HashedWheelTimer> retransmissionTimer = new AtomicReference<>();
+    private long retransmissionTickDuration = HashedWheelTimer.DEFAULT_TICK_DURATION;
+    private String retransmissionWorkQueue;
     private RMConfiguration configuration;
     private SourcePolicyType sourcePolicy;
     private DestinationPolicyType destinationPolicy;
@@ -220,6 +226,66 @@ public class RMManager {
         return getTimer(true);
     }
 
+    /**
+     * Returns the timing wheel shared by the resends of all the unacknowledged messages.
+     */
+    public HashedWheelTimer getRetransmissionTimer() {
+        return getRetransmissionTimer(true);
+    }
+
+    /**
+     * Returns the timing wheel shared by the resends, creating it only if <code>create</code>
+     * is true; null if it has not been created yet.
+     */
+    public HashedWheelTimer getRetransmissionTimer(boolean create) {
+        HashedWheelTimer ret = retransmissionTimer.get();
+        if (ret == null && create) {
+            HashedWheelTimer newt =
+                new HashedWheelTimer("RMManager-Retransmission-" + System.identityHashCode(this),
+                                     retransmissionTickDuration, TimeUnit.MILLISECONDS,
+                                     HashedWheelTimer.DEFAULT_TICKS_PER_WHEEL);
+            if (!retransmissionTimer.compareAndSet(null, newt)) {
+                newt.stop();
+            }
+        }
+        return retransmissionTimer.get();
+    }
+
+    public long getRetransmissionTickDuration() {
+        return retransmissionTickDuration;
+    }
+
+    /**
+     * Sets the resolution in milliseconds of the retransmission timer, the resends are
+     * started up to this long after they are due.
+     */
+    public void setRetransmissionTickDuration(long retransmissionTickDuration) {
+        this.retransmissionTickDuration = retransmissionTickDuration;
+    }
+
+    public String getRetransmissionWorkQueue() {
+        return retransmissionWorkQueue;
+    }
+
+    /**
+     * Sets the name of the work queue the resends are dispatched to. By default they are
+     * run by the executor of the endpoint or service.
+     */
+    public void setRetransmissionWorkQueue(String retransmissionWorkQueue) {
+        this.retransmissionWorkQueue = retransmissionWorkQueue;
+    }
+
+    /**
+     * @return the configured retransmission work queue, or null if none has been set or found
+     */
+    public Executor getRetransmissionExecutor() {
+        if (null == retransmissionWorkQueue || null == bus) {
+            return null;
+        }
+        WorkQueueManager workQueueManager = bus.getExtension(WorkQueueManager.class);
+        return null == workQueueManager ? null : workQueueManager.getNamedWorkQueue(retransmissionWorkQueue);
+    }
+
     public BindingFaultFactory getBindingFaultFactory(Binding binding) {
         return new SoapFaultFactory(binding);
     }
@@ -528,6 +594,10 @@ public class RMManager {
             t.purge();
             t.cancel();
         }
+        HashedWheelTimer rt = getRetransmissionTimer(false);
+        if (rt != null) {
+            rt.stop();
+        }
 
         // unregistring of this managed bean from the server is done by the bus itself
     }
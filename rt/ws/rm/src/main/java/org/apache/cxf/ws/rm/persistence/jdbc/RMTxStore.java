@@ -39,6 +39,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -69,6 +73,8 @@ import org.apache.cxf.ws.rm.v200702.SequenceAcknowledgement;
 public class RMTxStore implements RMStore {
 
     public static final String DEFAULT_DATABASE_NAME = "rmdb";
+    public static final long DEFAULT_GROUP_COMMIT_MAX_DELAY = 2L;
+    public static final int DEFAULT_GROUP_COMMIT_MAX_SIZE = 100;
     private static final String[][] DEST_SEQUENCES_TABLE_COLS
         = {{"SEQ_ID", "VARCHAR(256) NOT NULL"},
            {"ACKS_TO", "VARCHAR(1024) NOT NULL"},
@@ -194,10 +200,21 @@ public class RMTxStore implements RMStore {
     private String tableExistsState = DERBY_TABLE_EXISTS_STATE;
     private int tableExistsCode = ORACLE_TABLE_EXISTS_CODE;
 
+    private boolean groupCommit;
+    private long groupCommitMaxDelay = DEFAULT_GROUP_COMMIT_MAX_DELAY;
+    private int groupCommitMaxSize = DEFAULT_GROUP_COMMIT_MAX_SIZE;
+    private final BlockingQueue<PendingWrite> pendingWrites = new LinkedBlockingQueue<>();
+    private Thread groupCommitThread;
+
     public RMTxStore() {
     }
 
     public void destroy() {
+        stopGroupCommit();
+        closeConnection();
+    }
+
+    private void closeConnection() {
         if (connection != null && createdConnection) {
             try {
                 connection.close();
@@ -303,6 +320,42 @@ public class RMTxStore implements RMStore {
         this.maxReconnectAttempts = maxReconnectAttempts;
     }
 
+    public boolean isGroupCommit() {
+        return groupCommit;
+    }
+
+    /**
+     * Enables the group commit of the messages and sequence updates persisted by concurrent
+     * exchanges. The writes are queued and committed by a single thread in one transaction
+     * once {@link #setGroupCommitMaxSize(int)} writes are pending or
+     * {@link #setGroupCommitMaxDelay(long)} has elapsed since the first of them was queued.
+     * The callers are only released once the transaction their write belongs to has been
+     * committed, so a successful return still means the write is durable.
+     */
+    public void setGroupCommit(boolean groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    public long getGroupCommitMaxDelay() {
+        return groupCommitMaxDelay;
+    }
+
+    /**
+     * Sets how long in milliseconds the first queued write may wait for others to join
+     * its transaction.
+     */
+    public void setGroupCommitMaxDelay(long groupCommitMaxDelay) {
+        this.groupCommitMaxDelay = groupCommitMaxDelay;
+    }
+
+    public int getGroupCommitMaxSize() {
+        return groupCommitMaxSize;
+    }
+
+    public void setGroupCommitMaxSize(int groupCommitMaxSize) {
+        this.groupCommitMaxSize = groupCommitMaxSize;
+    }
+
     public void setConnection(Connection c) {
         connection = c;
         createdConnection = false;
@@ -629,6 +682,22 @@ public class RMTxStore implements RMStore {
     }
 
     public void persistIncoming(DestinationSequence seq, RMMessage msg) {
+        if (groupCommit) {
+            // take a snapshot of the sequence state as the writes are executed by another thread
+            final Identifier sid = seq.getIdentifier();
+            final long lastMessageNr = seq.getLastMessageNumber();
+            final boolean terminated = seq.isTerminated();
+            final InputStream ack =
+                PersistenceUtils.getInstance().serialiseAcknowledgment(seq.getAcknowledgment());
+            submitWrite(con -> {
+                ack.reset();
+                updateDestinationSequence(con, sid.getValue(), lastMessageNr, terminated, ack);
+                if (msg != null && msg.getContent() != null) {
+                    insertMessage(con, sid, msg, false);
+                }
+            }, msg);
+            return;
+        }
         Connection con = verifyConnection();
         SQLException conex = null;
         try {
@@ -654,6 +723,18 @@ public class RMTxStore implements RMStore {
         }
     }
     public void persistOutgoing(SourceSequence seq, RMMessage msg) {
+        if (groupCommit) {
+            final Identifier sid = seq.getIdentifier();
+            final long currentMessageNr = seq.getCurrentMessageNr();
+            final boolean lastMessage = seq.isLastMessage();
+            submitWrite(con -> {
+                updateSourceSequence(con, sid.getValue(), currentMessageNr, lastMessage);
+                if (msg != null && msg.getContent() != null) {
+                    insertMessage(con, sid, msg, true);
+                }
+            }, msg);
+            return;
+        }
         Connection con = verifyConnection();
         SQLException conex = null;
         try {
@@ -680,6 +761,11 @@ public class RMTxStore implements RMStore {
     }
 
     public void removeMessages(Identifier sid, Collection<Long> messageNrs, boolean outbound) {
+        if (groupCommit) {
+            final List<Long> nrs = new ArrayList<>(messageNrs);
+            submitWrite(con -> deleteMessages(con, sid, nrs, outbound), null);
+            return;
+        }
         Connection con = verifyConnection();
         PreparedStatement stmt = null;
         SQLException conex = null;
@@ -736,9 +822,162 @@ public class RMTxStore implements RMStore {
         abort(connection);
     }
 
+    // group commit
+    //
+
+    /**
+     * Queues the write for the group commit thread and waits until the transaction it has
+     * been added to is committed or rolled back.
+     */
+    private void submitWrite(StoreOperation operation, RMMessage msg) {
+        PendingWrite write = new PendingWrite(operation, msg == null ? null : msg.getContent());
+        synchronized (pendingWrites) {
+            if (groupCommitThread == null) {
+                groupCommitThread = new Thread(this::runGroupCommit, "RMTxStore group commit");
+                groupCommitThread.setDaemon(true);
+                groupCommitThread.start();
+            }
+            pendingWrites.add(write);
+        }
+        write.await();
+    }
+
+    private void stopGroupCommit() {
+        Thread thread;
+        synchronized (pendingWrites) {
+            thread = groupCommitThread;
+            if (thread == null || thread == Thread.currentThread()) {
+                // not started or destroyed from within the group commit thread
+                return;
+            }
+            groupCommitThread = null;
+        }
+        try {
+            // let the thread commit the writes which are still queued
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runGroupCommit() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (true) {
+            PendingWrite write = null;
+            try {
+                write = pendingWrites.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                // check whether the store is being destroyed
+            }
+            if (write == null) {
+                synchronized (pendingWrites) {
+                    if (groupCommitThread != Thread.currentThread() && pendingWrites.isEmpty()) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            batch.add(write);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommitMaxDelay);
+            try {
+                while (batch.size() < groupCommitMaxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    write = remaining > 0
+                        ? pendingWrites.poll(remaining, TimeUnit.NANOSECONDS) : pendingWrites.poll();
+                    if (write == null) {
+                        break;
+                    }
+                    batch.add(write);
+                }
+            } catch (InterruptedException ex) {
+                // commit what has been collected so far
+            }
+            commitBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void commitBatch(List<PendingWrite> batch) {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Committing " + batch.size() + " grouped writes");
+        }
+        Connection con = null;
+        SQLException conex = null;
+        try {
+            con = verifyConnection();
+            try {
+                beginTransaction();
+                for (PendingWrite write : batch) {
+                    write.operation.execute(con);
+                }
+                commit(con);
+                for (PendingWrite write : batch) {
+                    write.complete(null);
+                }
+            } catch (SQLException | IOException | RuntimeException ex) {
+                abort(con);
+                if (batch.size() == 1) {
+                    conex = ex instanceof SQLException ? (SQLException)ex : null;
+                    batch.get(0).complete(toStoreException(ex));
+                } else {
+                    // repeat the writes one by one so that only the failing ones are reported,
+                    // as they would have been without group commit
+                    for (PendingWrite write : batch) {
+                        SQLException writeex = commitSingle(con, write);
+                        if (conex == null) {
+                            conex = writeex;
+                        }
+                    }
+                }
+            } finally {
+                updateConnectionState(con, conex);
+            }
+        } catch (RuntimeException ex) {
+            LogUtils.log(LOG, Level.SEVERE, "GROUP_COMMIT_FAILED_MSG", ex);
+            for (PendingWrite write : batch) {
+                write.complete(toStoreException(ex));
+            }
+        } finally {
+            for (PendingWrite write : batch) {
+                write.closeContent();
+            }
+        }
+    }
+
+    private SQLException commitSingle(Connection con, PendingWrite write) {
+        try {
+            beginTransaction();
+            write.operation.execute(con);
+            commit(con);
+            write.complete(null);
+        } catch (SQLException | IOException | RuntimeException ex) {
+            abort(con);
+            write.complete(toStoreException(ex));
+            if (ex instanceof SQLException) {
+                return (SQLException)ex;
+            }
+        }
+        return null;
+    }
+
+    private static RuntimeException toStoreException(Exception ex) {
+        return ex instanceof RuntimeException ? (RuntimeException)ex : new RMStoreException(ex);
+    }
+
     // helpers
 
     protected void storeMessage(Connection con, Identifier sid, RMMessage msg, boolean outbound)
+        throws IOException, SQLException {
+        try (CachedOutputStream cos = msg.getContent()) {
+            insertMessage(con, sid, msg, outbound);
+        }
+    }
+
+    /**
+     * Inserts the message, the content is streamed from the cached output stream which
+     * is left open so that the insert can be repeated.
+     */
+    private void insertMessage(Connection con, Identifier sid, RMMessage msg, boolean outbound)
         throws IOException, SQLException {
         String id = sid.getValue();
         long nr = msg.getMessageNumber();
@@ -748,25 +987,48 @@ public class RMTxStore implements RMStore {
             LOG.log(Level.FINE, "Storing {0} message number {1} for sequence {2}, to = {3}",
                     new Object[] {outbound ? "outbound" : "inbound", nr, id, to});
         }
+        CachedOutputStream cos = msg.getContent();
         PreparedStatement stmt = null;
-        try (CachedOutputStream cos = msg.getContent()) {
-            try (InputStream msgin = cos.getInputStream()) {
-                stmt = getStatement(con, outbound ? CREATE_OUTBOUND_MESSAGE_STMT_STR : CREATE_INBOUND_MESSAGE_STMT_STR);
-
-                stmt.setString(1, id);
-                stmt.setLong(2, nr);
-                stmt.setString(3, to);
-                stmt.setLong(4, msg.getCreatedTime());
+        try (InputStream msgin = cos.getInputStream()) {
+            stmt = getStatement(con,
+                outbound ? CREATE_OUTBOUND_MESSAGE_STMT_STR : CREATE_INBOUND_MESSAGE_STMT_STR);
+
+            stmt.setString(1, id);
+            stmt.setLong(2, nr);
+            stmt.setString(3, to);
+            stmt.setLong(4, msg.getCreatedTime());
+            // pass the length when it is known so that the driver does not buffer the stream
+            long length = cos.size();
+            if (length > 0) {
+                stmt.setBinaryStream(5, msgin, length);
+            } else {
                 stmt.setBinaryStream(5, msgin);
-                stmt.setString(6, contentType);
-                stmt.execute();
-                if (LOG.isLoggable(Level.FINE)) {
-                    LOG.log(Level.FINE, "Successfully stored {0} message number {1} for sequence {2}",
-                            new Object[] {outbound ? "outbound" : "inbound", nr, id});
-                }
-            } finally  {
-                releaseResources(stmt, null);
             }
+            stmt.setString(6, contentType);
+            stmt.execute();
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.log(Level.FINE, "Successfully stored {0} message number {1} for sequence {2}",
+                        new Object[] {outbound ? "outbound" : "inbound", nr, id});
+            }
+        } finally  {
+            releaseResources(stmt, null);
+        }
+    }
+
+    private void deleteMessages(Connection con, Identifier sid, Collection<Long> messageNrs, boolean outbound)
+        throws SQLException {
+        PreparedStatement stmt = null;
+        try {
+            stmt = getStatement(con,
+                outbound ? DELETE_OUTBOUND_MESSAGE_STMT_STR : DELETE_INBOUND_MESSAGE_STMT_STR);
+            stmt.setString(1, sid.getValue());
+            for (Long messageNr : messageNrs) {
+                stmt.setLong(2, messageNr);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } finally {
+            releaseResources(stmt, null);
         }
     }
 
@@ -779,14 +1041,20 @@ public class RMTxStore implements RMStore {
     }
 
     protected void updateSourceSequence(Connection con, SourceSequence seq)
+        throws SQLException {
+        updateSourceSequence(con, seq.getIdentifier().getValue(), seq.getCurrentMessageNr(),
+                             seq.isLastMessage());
+    }
+
+    private void updateSourceSequence(Connection con, String id, long currentMessageNr, boolean lastMessage)
         throws SQLException {
         PreparedStatement stmt = null;
         try {
             stmt = getStatement(con, UPDATE_SRC_SEQUENCE_STMT_STR);
 
-            stmt.setLong(1, seq.getCurrentMessageNr());
-            stmt.setString(2, seq.isLastMessage() ? "1" : "0");
-            stmt.setString(3, seq.getIdentifier().getValue());
+            stmt.setLong(1, currentMessageNr);
+            stmt.setString(2, lastMessage ? "1" : "0");
+            stmt.setString(3, id);
             stmt.execute();
         } finally {
             releaseResources(stmt, null);
@@ -802,16 +1070,21 @@ public class RMTxStore implements RMStore {
 
     protected void updateDestinationSequence(Connection con, DestinationSequence seq)
         throws SQLException, IOException {
+        InputStream is = PersistenceUtils.getInstance().serialiseAcknowledgment(seq.getAcknowledgment());
+        updateDestinationSequence(con, seq.getIdentifier().getValue(), seq.getLastMessageNumber(),
+                                  seq.isTerminated(), is);
+    }
+
+    private void updateDestinationSequence(Connection con, String id, long lastMessageNr, boolean terminated,
+                                           InputStream ack) throws SQLException, IOException {
         PreparedStatement stmt = null;
         try {
             stmt = getStatement(con, UPDATE_DEST_SEQUENCE_STMT_STR);
 
-            long lastMessageNr = seq.getLastMessageNumber();
             stmt.setLong(1, lastMessageNr);
-            stmt.setString(2, seq.isTerminated() ? "1" : "0");
-            InputStream is = PersistenceUtils.getInstance().serialiseAcknowledgment(seq.getAcknowledgment());
-            stmt.setBinaryStream(3, is, is.available());
-            stmt.setString(4, seq.getIdentifier().getValue());
+            stmt.setString(2, terminated ? "1" : "0");
+            stmt.setBinaryStream(3, ack, ack.available());
+            stmt.setString(4, id);
             stmt.execute();
         } finally {
             releaseResources(stmt, null);
@@ -1103,8 +1376,8 @@ public class RMTxStore implements RMStore {
                 if (createdConnection && nextReconnectAttempt > 0
                     && (maxReconnectAttempts < 0 || maxReconnectAttempts > reconnectAttempts)) {
                     if (System.currentTimeMillis() > nextReconnectAttempt) {
-                        // destroy the broken connection
-                        destroy();
+                        // close the broken connection, the group commit thread keeps running
+                        closeConnection();
                         // try to reconnect
                         reconnectAttempts++;
                         init();
@@ -1243,4 +1516,57 @@ public class RMTxStore implements RMStore {
         // check for a transient or non-transient connection exception
         return ex.getSQLState() != null && ex.getSQLState().startsWith("08");
     }
+
+    private interface StoreOperation {
+        void execute(Connection con) throws SQLException, IOException;
+    }
+
+    private static final class PendingWrite {
+        private final StoreOperation operation;
+        private final CachedOutputStream content;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private RuntimeException error;
+
+        PendingWrite(StoreOperation operation, CachedOutputStream content) {
+            this.operation = operation;
+            this.content = content;
+        }
+
+        void complete(RuntimeException ex) {
+            // only called by the group commit thread, the first outcome wins
+            if (done.getCount() > 0) {
+                error = ex;
+                done.countDown();
+            }
+        }
+
+        void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    // the write can not be withdrawn anymore, wait for its outcome
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        void closeContent() {
+            if (content != null) {
+                try {
+                    content.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+        }
+    }
 }
@@ -26,15 +26,19 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -77,12 +81,14 @@ import org.apache.cxf.staxutils.W3CDOMStreamWriter;
 import org.apache.cxf.transport.Conduit;
 import org.apache.cxf.transport.MessageObserver;
 import org.apache.cxf.workqueue.SynchronousExecutor;
+import org.apache.cxf.workqueue.WorkQueueManager;
 import org.apache.cxf.ws.addressing.AddressingProperties;
 import org.apache.cxf.ws.addressing.AttributedURIType;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
 import org.apache.cxf.ws.addressing.soap.MAPCodec;
 import org.apache.cxf.ws.policy.AssertionInfo;
 import org.apache.cxf.ws.policy.builder.jaxb.JaxbAssertion;
+import org.apache.cxf.ws.rm.HashedWheelTimer;
 import org.apache.cxf.ws.rm.ProtocolVariation;
 import org.apache.cxf.ws.rm.RMCaptureOutInterceptor;
 import org.apache.cxf.ws.rm.RMConfiguration;
@@ -118,6 +124,12 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
 
     private int unacknowledgedCount;
 
+    private final ConcurrentMap<String, ResendBatch> resendBatches = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedResends = new AtomicInteger();
+    private final AtomicLong resendCount = new AtomicLong();
+    private final AtomicLong totalResendLatency = new AtomicLong();
+    private final AtomicLong maxResendLatency = new AtomicLong();
+
     public RetransmissionQueueImpl(RMManager m) {
         manager = m;
     }
@@ -147,6 +159,43 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         return unacknowledgedCount;
     }
 
+    /**
+     * @return the number of resends which are due and wait for the executor
+     */
+    public int getQueuedResendCount() {
+        return queuedResends.get();
+    }
+
+    /**
+     * @return the number of resends scheduled on the retransmission timer
+     */
+    public int getScheduledResendCount() {
+        HashedWheelTimer timer = null == manager ? null : manager.getRetransmissionTimer(false);
+        return null == timer ? 0 : timer.getPendingCount();
+    }
+
+    /**
+     * @return the number of resends which have been started
+     */
+    public long getResendCount() {
+        return resendCount.get();
+    }
+
+    /**
+     * @return the average time in milliseconds between a resend being due and being started
+     */
+    public long getAverageResendLatency() {
+        long count = resendCount.get();
+        return count == 0 ? 0 : totalResendLatency.get() / count;
+    }
+
+    /**
+     * @return the maximum time in milliseconds between a resend being due and being started
+     */
+    public long getMaxResendLatency() {
+        return maxResendLatency.get();
+    }
+
     /**
      * @return true if there are no unacknowledged messages in the queue
      */
@@ -410,7 +459,9 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         private Message message;
         private long number;
         private Date next;
-        private TimerTask nextTask;
+        private HashedWheelTimer.Timeout nextTask;
+        private String batchKey;
+        private long due;
         private int retries;
         private int maxRetries;
         private long nextInterval;
@@ -446,10 +497,15 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
                 return;
             }
             RMProperties rmprops = RMContextUtils.retrieveRMProperties(message, true);
+            String sid = null;
             if (null != rmprops) {
-                number = rmprops.getSequence().getMessageNumber();
+                SequenceType st = rmprops.getSequence();
+                number = st.getMessageNumber();
+                sid = null == st.getIdentifier() ? null : st.getIdentifier().getValue();
             }
-            if (null != manager.getTimer() && maxRetries != 0) {
+            // the resends of the same sequence to the same destination are run together
+            batchKey = sid + ' ' + (null == to ? null : to.getValue());
+            if (null != manager.getRetransmissionTimer() && maxRetries != 0) {
                 schedule();
             }
         }
@@ -463,24 +519,55 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         protected void initiate(boolean requestAcknowledge) {
             includeAckRequested = requestAcknowledge;
             pending = true;
+            try {
+                getExecutor().execute(this);
+            } catch (RejectedExecutionException ex) {
+                LOG.log(Level.SEVERE, "RESEND_INITIATION_FAILED_MSG", ex);
+            }
+        }
+
+        /**
+         * @return the configured retransmission work queue, the endpoint or service executor, or
+         *         the automatic work queue so that the resends are not run by the timer thread
+         */
+        protected Executor getExecutor() {
+            Executor executor = manager.getRetransmissionExecutor();
+            if (null != executor) {
+                return executor;
+            }
             Endpoint ep = message.getExchange().getEndpoint();
-            Executor executor = ep.getExecutor();
+            executor = ep.getExecutor();
             if (null == executor) {
                 executor = ep.getService().getExecutor();
-                if (executor == null) {
-                    executor = SynchronousExecutor.getInstance();
+                if (executor == null || SynchronousExecutor.isA(executor)) {
+                    Bus bus = message.getExchange().getBus();
+                    WorkQueueManager workQueueManager =
+                        null == bus ? null : bus.getExtension(WorkQueueManager.class);
+                    executor = null == workQueueManager ? null : workQueueManager.getAutomaticWorkQueue();
+                    if (executor == null) {
+                        executor = SynchronousExecutor.getInstance();
+                    }
                 } else {
                     LOG.log(Level.FINE, "Using service executor {0}", executor.getClass().getName());
                 }
             } else {
                 LOG.log(Level.FINE, "Using endpoint executor {0}", executor.getClass().getName());
             }
+            return executor;
+        }
 
-            try {
-                executor.execute(this);
-            } catch (RejectedExecutionException ex) {
-                LOG.log(Level.SEVERE, "RESEND_INITIATION_FAILED_MSG", ex);
+        /**
+         * Called by the retransmission timer when the resend is due.
+         */
+        protected void expired() {
+            synchronized (this) {
+                if (pending || null == next) {
+                    return;
+                }
+                pending = true;
+                due = next.getTime();
             }
+            dispatch(this);
         }
 
         public void run() {
@@ -630,29 +717,124 @@ public class RetransmissionQueueImpl implements RetransmissionQueue {
         }
 
         protected final synchronized void schedule() {
-            if (null == manager.getTimer()) {
+            HashedWheelTimer timer = manager.getRetransmissionTimer();
+            if (null == timer) {
                 return;
             }
-            class ResendTask extends TimerTask {
-                ResendCandidate candidate;
+            try {
+                nextTask = timer.schedule(this::expired, next);
+            } catch (IllegalStateException ex) {
+                LOG.log(Level.WARNING, "SCHEDULE_RESEND_FAILED_MSG", ex);
+            }
+        }
+    }
 
-                ResendTask(ResendCandidate c) {
-                    candidate = c;
+    /**
+     * Queues the due candidate in the batch of its sequence and destination, the batch is
+     * submitted to the executor unless it is already waiting for or being run by it.
+     */
+    private void dispatch(ResendCandidate candidate) {
+        queuedResends.incrementAndGet();
+        while (true) {
+            ResendBatch batch = resendBatches.computeIfAbsent(candidate.batchKey, ResendBatch::new);
+            synchronized (batch) {
+                if (batch.closed) {
+                    // removed from the map after running, retry with a new one
+                    continue;
                 }
+                batch.queued.add(candidate);
+                if (batch.submitted) {
+                    return;
+                }
+                batch.submitted = true;
+            }
+            try {
+                candidate.getExecutor().execute(batch);
+            } catch (RejectedExecutionException ex) {
+                LOG.log(Level.SEVERE, "RESEND_INITIATION_FAILED_MSG", ex);
+                batch.abandon();
+            }
+            return;
+        }
+    }
+
+    private void recordResendLatency(long latency) {
+        resendCount.incrementAndGet();
+        totalResendLatency.addAndGet(latency);
+        long max = maxResendLatency.get();
+        while (latency > max && !maxResendLatency.compareAndSet(max, latency)) {
+            max = maxResendLatency.get();
+        }
+    }
+
+    /**
+     * The due resends of one sequence to one destination, run in message number order
+     * by a single executor task.
+     */
+    private final class ResendBatch implements Runnable {
+        private final String key;
+        private List<ResendCandidate> queued = new ArrayList<>();
+        private boolean submitted;
+        private boolean closed;
+
+        ResendBatch(String key) {
+            this.key = key;
+        }
 
-                @Override
-                public void run() {
-                    if (!candidate.isPending()) {
-                        candidate.initiate(includeAckRequested);
+        public void run() {
+            List<ResendCandidate> current = null;
+            int next = 0;
+            try {
+                while ((current = takeQueued()) != null) {
+                    current.sort(Comparator.comparingLong(ResendCandidate::getNumber));
+                    for (next = 0; next < current.size();) {
+                        ResendCandidate candidate = current.get(next++);
+                        queuedResends.decrementAndGet();
+                        recordResendLatency(Math.max(0, System.currentTimeMillis() - candidate.due));
+                        try {
+                            candidate.run();
+                        } catch (RuntimeException ex) {
+                            LOG.log(Level.WARNING, "RESEND_FAILED_MSG", ex);
+                        }
+                    }
+                }
+            } finally {
+                if (current != null) {
+                    // left by an error, the remaining candidates are scheduled for the next
+                    // attempt and the batch is closed so that new resends get a new one
+                    for (int x = next; x < current.size(); x++) {
+                        queuedResends.decrementAndGet();
+                        current.get(x).attempted();
                     }
+                    abandon();
                 }
             }
-            nextTask = new ResendTask(this);
-            try {
-                manager.getTimer().schedule(nextTask, next);
-            } catch (IllegalStateException ex) {
-                LOG.log(Level.WARNING, "SCHEDULE_RESEND_FAILED_MSG", ex);
+        }
+
+        void abandon() {
+            List<ResendCandidate> current;
+            synchronized (this) {
+                current = queued;
+                queued = new ArrayList<>();
+                closed = true;
+                resendBatches.remove(key, this);
+            }
+            for (ResendCandidate candidate : current) {
+                queuedResends.decrementAndGet();
+                // schedule the next attempt
+                candidate.attempted();
+            }
+        }
+
+        private synchronized List<ResendCandidate> takeQueued() {
+            if (queued.isEmpty()) {
+                closed = true;
+                resendBatches.remove(key, this);
+                return null;
             }
+            List<ResendCandidate> current = queued;
+            queued = new ArrayList<>();
+            return current;
         }
     }
 
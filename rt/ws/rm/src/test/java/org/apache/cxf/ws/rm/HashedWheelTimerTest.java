@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.rm;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HashedWheelTimerTest {
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        // a small wheel so that the longer delays take several rounds
+        timer = new HashedWheelTimer("test", 10, TimeUnit.MILLISECONDS, 4);
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testTasksRunInDeadlineOrder() throws Exception {
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(3);
+        long start = System.nanoTime();
+        for (final int delay : new int[] {150, 0, 60}) {
+            timer.schedule(new Runnable() {
+                public void run() {
+                    order.add(delay);
+                    latch.countDown();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(0, order.get(0).intValue());
+        assertEquals(60, order.get(1).intValue());
+        assertEquals(150, order.get(2).intValue());
+        assertEquals(0, timer.getPendingCount());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final CountDownLatch other = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.schedule(new Runnable() {
+            public void run() {
+                cancelled.countDown();
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        timer.schedule(new Runnable() {
+            public void run() {
+                other.countDown();
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+        assertEquals(2, timer.getPendingCount());
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        assertEquals(1, cancelled.getCount());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, timer.getPendingCount());
+    }
+
+    @Test
+    public void testScheduleAfterStop() {
+        timer.stop();
+        try {
+            timer.schedule(new Runnable() {
+                public void run() {
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            fail("The timer has been stopped");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.rm.persistence.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.ws.rm.ProtocolVariation;
+import org.apache.cxf.ws.rm.SourceSequence;
+import org.apache.cxf.ws.rm.persistence.RMMessage;
+import org.apache.cxf.ws.rm.persistence.RMStoreException;
+import org.apache.cxf.ws.rm.v200702.Identifier;
+
+import org.easymock.EasyMock;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the store tests with the group commit enabled.
+ */
+public class RMTxStoreGroupCommitTest extends RMTxStoreTestBase {
+    private static final int WRITERS = 8;
+
+    @BeforeClass
+    public static void setUpOnce() {
+        RMTxStoreTestBase.setUpOnce();
+
+        RMTxStore.deleteDatabaseFiles("rmdbgc", true);
+
+        store = new RMTxStore();
+        store.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+        store.setUrl("jdbc:derby:rmdbgc;create=true");
+        store.setGroupCommit(true);
+        store.init();
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        store.destroy();
+        RMTxStore.deleteDatabaseFiles("rmdbgc", false);
+    }
+
+    @Test
+    public void testConcurrentWritesAreGrouped() throws Exception {
+        long maxDelay = store.getGroupCommitMaxDelay();
+        int maxSize = store.getGroupCommitMaxSize();
+        // make sure all the writes below end up in the same transaction
+        store.setGroupCommitMaxDelay(1000);
+        store.setGroupCommitMaxSize(WRITERS);
+
+        Identifier sid = new Identifier();
+        sid.setValue("groupedSequence");
+        createSourceSequence(sid);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            store.persistOutgoing(createSequence(sid, 1), createMessage(1));
+
+            List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                // the first write duplicates the message stored above
+                final long nr = i == 0 ? 1 : i + 1;
+                results.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        store.persistOutgoing(createSequence(sid, nr), createMessage(nr));
+                        return null;
+                    }
+                }));
+            }
+
+            try {
+                results.get(0).get();
+                fail("Expected RMStoreException was not thrown.");
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof RMStoreException);
+            }
+            for (int i = 1; i < WRITERS; i++) {
+                results.get(i).get();
+            }
+
+            Collection<RMMessage> msgs = store.getMessages(sid, true);
+            assertEquals(WRITERS, msgs.size());
+            for (RMMessage msg : msgs) {
+                assertEquals("Message " + msg.getMessageNumber(),
+                             IOUtils.readStringFromStream(msg.getContent().getInputStream()));
+            }
+
+            List<Long> nrs = new ArrayList<>();
+            for (long i = 1; i <= WRITERS; i++) {
+                nrs.add(i);
+            }
+            store.removeMessages(sid, nrs, true);
+            assertEquals(Collections.emptyList(), new ArrayList<>(store.getMessages(sid, true)));
+        } finally {
+            executor.shutdownNow();
+            store.removeSourceSequence(sid);
+            store.setGroupCommitMaxDelay(maxDelay);
+            store.setGroupCommitMaxSize(maxSize);
+        }
+    }
+
+    private void createSourceSequence(Identifier sid) {
+        SourceSequence seq = control.createMock(SourceSequence.class);
+        EasyMock.expect(seq.getIdentifier()).andReturn(sid);
+        EasyMock.expect(seq.getEndpointIdentifier()).andReturn(CLIENT_ENDPOINT_ID);
+        EasyMock.expect(seq.getProtocol()).andReturn(ProtocolVariation.RM10WSA200408);
+        control.replay();
+        store.createSourceSequence(seq);
+        control.reset();
+    }
+
+    private static SourceSequence createSequence(Identifier sid, long currentMessageNr) {
+        return new SourceSequence(sid, null, null, currentMessageNr, false, ProtocolVariation.RM10WSA200408);
+    }
+
+    private static RMMessage createMessage(long nr) throws Exception {
+        RMMessage msg = new RMMessage();
+        msg.setMessageNumber(nr);
+        msg.setContentType("text/xml");
+        msg.setCreatedTime(System.currentTimeMillis());
+        CachedOutputStream cos = new CachedOutputStream();
+        IOUtils.copy(new ByteArrayInputStream(("Message " + nr).getBytes()), cos);
+        cos.flush();
+        msg.setContent(cos);
+        return msg;
+    }
+
+    @Override
+    protected Connection getConnection() {
+        return store.verifyConnection();
+    }
+
+    @Override
+    protected void releaseConnection(Connection con) {
+        // the connection is held in the store, so not close it until the store is disposed.
+    }
+}
@@ -21,6 +21,7 @@
 package org.apache.cxf.ws.rm.soap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.Executor;
@@ -53,6 +54,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Test resend logic.
@@ -357,6 +359,86 @@ public class RetransmissionQueueImplTest {
                      queue.countUnacknowledged(sequence));
     }
 
+    @Test
+    public void testDueResendsAreBatchedPerSequence() {
+        List<Runnable> tasks = new ArrayList<>();
+        EasyMock.expect(manager.getRetransmissionExecutor()).andReturn(tasks::add).anyTimes();
+        List<Message> resent = new ArrayList<>();
+        queue.replaceResender((m, requestAcknowledge) -> resent.add(m));
+        for (Long nr : new Long[] {3L, ONE, TWO}) {
+            setupMessagePolicies(setUpMessage("sequence1", nr));
+        }
+        setupMessagePolicies(setUpMessage("sequence2", ONE));
+        ready(false);
+
+        List<RetransmissionQueueImpl.ResendCandidate> candidates = new ArrayList<>();
+        for (Message message : messages) {
+            candidates.add(queue.createResendCandidate(message));
+        }
+        for (RetransmissionQueueImpl.ResendCandidate candidate : candidates) {
+            candidate.expired();
+        }
+        assertEquals("one task per sequence", 2, tasks.size());
+        assertEquals(4, queue.getQueuedResendCount());
+
+        tasks.get(0).run();
+        assertEquals(Arrays.asList(messages.get(1), messages.get(2), messages.get(0)), resent);
+        tasks.get(1).run();
+        assertEquals(4, resent.size());
+        assertSame(messages.get(3), resent.get(3));
+        assertEquals(0, queue.getQueuedResendCount());
+
+        // the batch has been closed, a new due resend gets a new task
+        candidates.get(0).expired();
+        assertEquals(3, tasks.size());
+    }
+
+    @Test
+    public void testFailedResendDoesNotStallTheBatch() {
+        List<Runnable> tasks = new ArrayList<>();
+        EasyMock.expect(manager.getRetransmissionExecutor()).andReturn(tasks::add).anyTimes();
+        List<Message> resent = new ArrayList<>();
+        queue.replaceResender((m, requestAcknowledge) -> {
+            if (m == messages.get(0)) {
+                throw new IllegalStateException("resend failed");
+            } else if (m == messages.get(1)) {
+                throw new AssertionError("resend failed");
+            }
+            resent.add(m);
+        });
+        for (Long nr : new Long[] {ONE, TWO, 3L}) {
+            setupMessagePolicies(setUpMessage("sequence1", nr));
+        }
+        ready(false);
+
+        List<RetransmissionQueueImpl.ResendCandidate> candidates = new ArrayList<>();
+        for (Message message : messages) {
+            candidates.add(queue.createResendCandidate(message));
+        }
+        for (RetransmissionQueueImpl.ResendCandidate candidate : candidates) {
+            candidate.expired();
+        }
+        assertEquals(1, tasks.size());
+        try {
+            tasks.get(0).run();
+            fail("Error expected");
+        } catch (AssertionError ex) {
+            // expected
+        }
+        assertTrue(resent.isEmpty());
+        assertEquals(0, queue.getQueuedResendCount());
+        for (RetransmissionQueueImpl.ResendCandidate candidate : candidates) {
+            assertEquals(1, candidate.getRetries());
+        }
+
+        // the batch has been abandoned, the next due resends get a new task
+        candidates.get(0).expired();
+        candidates.get(2).expired();
+        assertEquals(2, tasks.size());
+        tasks.get(1).run();
+        assertEquals(Arrays.asList(messages.get(2)), resent);
+    }
+
     @Test
     public void testStartStop() {
         control.replay();